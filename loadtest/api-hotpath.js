@@ -0,0 +1,68 @@
+// loadtest/api-hotpath.js
+//
+// k6 load test comparing platform-thread and virtual-thread request execution.
+// See docs/virtual_threads.md. Example:
+//
+//   k6 run -e MODE=platform -e EMAIL=tech@sakergeolab.com -e PASSWORD=... loadtest/api-hotpath.js
+//   k6 run -e MODE=vthreads -e EMAIL=tech@sakergeolab.com -e PASSWORD=... loadtest/api-hotpath.js
+//
+// Environment:
+//   BASE_URL      default http://localhost:8080
+//   TARGET_PATH   authenticated GET to hammer, default /projects?limit=50 (one keyset page
+//                 read from MySQL, so the Hikari pool is exercised)
+//   VUS           concurrent clients (tablets), default 500
+//   DURATION      steady-state duration, default 2m
+//   THINK_MS      pause between requests per client, default 200 (slow field connections)
+
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const TARGET_PATH = __ENV.TARGET_PATH || '/projects?limit=50';
+const MODE = __ENV.MODE || 'unknown';
+const THINK_MS = parseInt(__ENV.THINK_MS || '200', 10);
+
+export const options = {
+    scenarios: {
+        tablets: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: parseInt(__ENV.VUS || '500', 10) },
+                { duration: __ENV.DURATION || '2m', target: parseInt(__ENV.VUS || '500', 10) },
+                { duration: '15s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+export function setup() {
+    const res = http.post(`${BASE_URL}/user/login`,
+        JSON.stringify({ email: __ENV.EMAIL, password: __ENV.PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    check(res, { 'login ok': (r) => r.status === 200 });
+    return { token: res.json('accessToken') };
+}
+
+export default function (data) {
+    const res = http.get(`${BASE_URL}${TARGET_PATH}`, {
+        headers: { Authorization: `Bearer ${data.token}` },
+        tags: { mode: MODE },
+    });
+    check(res, { 'status 200': (r) => r.status === 200 });
+    sleep(THINK_MS / 1000);
+}
+
+export function handleSummary(data) {
+    const d = data.metrics.http_req_duration.values;
+    const line = `${MODE}: ${data.metrics.http_reqs.values.rate.toFixed(1)} req/s, `
+        + `p50 ${d['p(50)'].toFixed(1)} ms, p99 ${d['p(99)'].toFixed(1)} ms\n`;
+    return {
+        stdout: line,
+        [`loadtest/results/${MODE}.json`]: JSON.stringify(data, null, 2),
+    };
+}
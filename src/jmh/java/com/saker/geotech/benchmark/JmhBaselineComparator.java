@@ -0,0 +1,126 @@
+package com.saker.geotech.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result file against the committed baseline.
+ *
+ * Usage: {@code JmhBaselineComparator <baseline.json> <current.json> <tolerancePercent> <update>}
+ *
+ * - score: a throughput drop (thrpt) or time increase (avgt, sample, ss) above the tolerance is a regression
+ * - gc.alloc.rate.norm: any increase above the tolerance and above 16 B/op is a regression
+ * - {@code update = true} replaces the baseline with the current results instead of comparing
+ *
+ * Exits with status 1 on regression so the {@code jmh} Maven profile fails the build.
+ */
+public final class JmhBaselineComparator {
+
+    private static final String ALLOC_NORM = "gc.alloc.rate.norm";
+    private static final double ALLOC_SLACK_BYTES = 16.0;
+
+    private JmhBaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Usage: JmhBaselineComparator <baseline.json> <current.json> <tolerancePercent> <update>");
+            System.exit(2);
+        }
+        Path baselinePath = Path.of(args[0]);
+        Path currentPath = Path.of(args[1]);
+        double tolerance = Double.parseDouble(args[2]) / 100.0;
+        boolean update = Boolean.parseBoolean(args[3]);
+
+        if (!Files.exists(currentPath)) {
+            System.out.println("[jmh-baseline] No results at " + currentPath + ", nothing to compare");
+            return;
+        }
+        if (update || !Files.exists(baselinePath)) {
+            Files.createDirectories(baselinePath.toAbsolutePath().getParent());
+            Files.copy(currentPath, baselinePath, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("[jmh-baseline] Baseline written to " + baselinePath);
+            return;
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = index(mapper.readTree(baselinePath.toFile()));
+        Map<String, JsonNode> current = index(mapper.readTree(currentPath.toFile()));
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.println("[jmh-baseline] NEW      " + entry.getKey());
+                continue;
+            }
+            regressions += compareScore(entry.getKey(), before, entry.getValue(), tolerance);
+            regressions += compareAllocation(entry.getKey(), before, entry.getValue(), tolerance);
+        }
+
+        if (regressions > 0) {
+            System.err.println("[jmh-baseline] " + regressions + " regression(s) against " + baselinePath);
+            System.exit(1);
+        }
+        System.out.println("[jmh-baseline] No regressions against " + baselinePath);
+    }
+
+    private static int compareScore(String key, JsonNode before, JsonNode after, double tolerance) {
+        double old = before.path("primaryMetric").path("score").asDouble();
+        double now = after.path("primaryMetric").path("score").asDouble();
+        String unit = after.path("primaryMetric").path("scoreUnit").asText();
+        boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+
+        double change = old == 0 ? 0 : (now - old) / old;
+        boolean regressed = higherIsBetter ? change < -tolerance : change > tolerance;
+        System.out.printf("[jmh-baseline] %s %s: %.3f -> %.3f %s (%+.1f%%)%n",
+                regressed ? "REGRESSED" : "ok       ", key, old, now, unit, change * 100);
+        return regressed ? 1 : 0;
+    }
+
+    private static int compareAllocation(String key, JsonNode before, JsonNode after, double tolerance) {
+        JsonNode oldAlloc = secondary(before, ALLOC_NORM);
+        JsonNode newAlloc = secondary(after, ALLOC_NORM);
+        if (oldAlloc == null || newAlloc == null) return 0;
+
+        double old = oldAlloc.path("score").asDouble();
+        double now = newAlloc.path("score").asDouble();
+        boolean regressed = now - old > ALLOC_SLACK_BYTES && now > old * (1 + tolerance);
+        if (regressed) {
+            System.out.printf("[jmh-baseline] REGRESSED %s allocation: %.1f -> %.1f B/op%n", key, old, now);
+        }
+        return regressed ? 1 : 0;
+    }
+
+    private static JsonNode secondary(JsonNode result, String metric) {
+        Iterator<Map.Entry<String, JsonNode>> fields = result.path("secondaryMetrics").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            // Older JMH versions prefix profiler metrics with a middle dot
+            if (field.getKey().replace("·", "").equals(metric)) return field.getValue();
+        }
+        return null;
+    }
+
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new HashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            byKey.put(key.toString(), result);
+        }
+        return byKey;
+    }
+}
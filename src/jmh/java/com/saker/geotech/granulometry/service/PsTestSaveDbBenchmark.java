@@ -0,0 +1,171 @@
+package com.saker.geotech.granulometry.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving one granulometry test: 20 ps_sieve_readings + 20 ps_curve_points rows against a real MySQL.
+ *
+ * - IDENTITY_ROW_BY_ROW: what Hibernate does for IDENTITY entities, one INSERT + generated key per row (40 statements)
+ * - JDBC_BATCH: one JDBC batch per table, sent statement by statement by the driver
+ * - JDBC_BATCH_REWRITTEN: same batches with rewriteBatchedStatements=true, one multi-row INSERT per table
+ *
+ * Each invocation runs in a transaction that is rolled back, so the tables do not grow.
+ * Excluded from the default JMH run (needs a database). Run with, e.g.:
+ * <pre>
+ *   mvn -Pjmh verify -DskipTests -Djmh.args="PsTestSaveDbBenchmark -f 1 -rf json -rff target/jmh-db.json
+ *       -jvmArgsAppend -Djmh.db.url=jdbc:mysql://localhost:3306/geotech -Djmh.db.user=root -Djmh.db.password=
+ *       -Djmh.db.ps-test-id=1"
+ * </pre>
+ * {@code jmh.db.ps-test-id} must be an existing ps_tests row (foreign key of both tables).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PsTestSaveDbBenchmark {
+
+    public enum Strategy {
+        IDENTITY_ROW_BY_ROW,
+        JDBC_BATCH,
+        JDBC_BATCH_REWRITTEN
+    }
+
+    private static final int ROWS = 20;
+
+    private static final String INSERT_READING = """
+            INSERT INTO ps_sieve_readings (ps_test_id, row_order, sieve_mm, sieve_name, is_pan, retained_mass_cum_g)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_CURVE_POINT = """
+            INSERT INTO ps_curve_points (ps_test_id, row_order, sieve_mm, percent_passing_cum)
+            VALUES (?, ?, ?, ?)
+            """;
+
+    @Param
+    public Strategy strategy;
+
+    private Connection connection;
+    private long psTestId;
+    private final double[] sieveMm = new double[ROWS];
+    private final double[] retained = new double[ROWS];
+    private final double[] passing = new double[ROWS];
+
+    @Setup
+    public void setUp() throws SQLException {
+        String url = required("jmh.db.url");
+        String separator = url.contains("?") ? "&" : "?";
+        url += separator + "rewriteBatchedStatements=" + (strategy == Strategy.JDBC_BATCH_REWRITTEN)
+                + "&cachePrepStmts=true&useServerPrepStmts=true";
+        connection = DriverManager.getConnection(url, System.getProperty("jmh.db.user", "root"),
+                System.getProperty("jmh.db.password", ""));
+        connection.setAutoCommit(false);
+        psTestId = Long.parseLong(required("jmh.db.ps-test-id"));
+
+        for (int i = 0; i < ROWS; i++) {
+            sieveMm[i] = 80.0 / Math.pow(1.5, i);
+            retained[i] = 50.0 * i;
+            passing[i] = 100.0 - 100.0 * retained[i] / 1000.0;
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.rollback();
+        connection.close();
+    }
+
+    @Benchmark
+    public int saveTest() throws SQLException {
+        try {
+            return strategy == Strategy.IDENTITY_ROW_BY_ROW ? rowByRow() : batched();
+        } finally {
+            connection.rollback();
+        }
+    }
+
+    private int rowByRow() throws SQLException {
+        int rows = 0;
+        try (PreparedStatement readings = connection.prepareStatement(INSERT_READING, Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement points = connection.prepareStatement(INSERT_CURVE_POINT, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS; i++) {
+                bindReading(readings, i);
+                rows += readings.executeUpdate();
+                drainKeys(readings);
+            }
+            for (int i = 0; i < ROWS; i++) {
+                bindPoint(points, i);
+                rows += points.executeUpdate();
+                drainKeys(points);
+            }
+        }
+        return rows;
+    }
+
+    private int batched() throws SQLException {
+        int rows = 0;
+        try (PreparedStatement readings = connection.prepareStatement(INSERT_READING);
+             PreparedStatement points = connection.prepareStatement(INSERT_CURVE_POINT)) {
+            for (int i = 0; i < ROWS; i++) {
+                bindReading(readings, i);
+                readings.addBatch();
+                bindPoint(points, i);
+                points.addBatch();
+            }
+            rows += readings.executeBatch().length;
+            rows += points.executeBatch().length;
+        }
+        return rows;
+    }
+
+    private void bindReading(PreparedStatement ps, int i) throws SQLException {
+        ps.setLong(1, psTestId);
+        ps.setInt(2, i + 1);
+        ps.setDouble(3, sieveMm[i]);
+        ps.setString(4, null);
+        ps.setBoolean(5, false);
+        ps.setDouble(6, retained[i]);
+    }
+
+    private void bindPoint(PreparedStatement ps, int i) throws SQLException {
+        ps.setLong(1, psTestId);
+        ps.setInt(2, i + 1);
+        ps.setDouble(3, sieveMm[i]);
+        ps.setDouble(4, passing[i]);
+    }
+
+    private static void drainKeys(PreparedStatement ps) throws SQLException {
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            while (keys.next()) keys.getLong(1);
+        }
+    }
+
+    private static String required(String property) {
+        String value = System.getProperty(property);
+        if (value == null) {
+            throw new IllegalStateException("Set -D" + property + " (see PsTestSaveDbBenchmark javadoc)");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,57 @@
+package com.saker.geotech.security.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Public-path lookup done by JwtAuthenticationFilter on every request.
+ *
+ * Run with {@code -prof gc}: {@code gc.alloc.rate.norm} for {@code trieMatch} must stay at 0 B/op.
+ * {@code streamScan} reproduces the former PUBLIC_PREFIXES stream for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublicEndpointRegistryBenchmark {
+
+    private static final List<String> LEGACY_PREFIXES = List.of(
+            "/health", "/user/signup", "/user/login", "/user/refresh", "/user/logout",
+            "/v3/api-docs", "/swagger-ui", "/swagger-resources", "/webjars"
+    );
+
+    @Param({"/projects/42/samples", "/user/login", "/swagger-ui/index.html"})
+    public String path;
+
+    private PublicEndpointRegistry registry;
+
+    @Setup
+    public void setUp() {
+        registry = new PublicEndpointRegistry();
+    }
+
+    @Benchmark
+    public boolean trieMatch() {
+        return registry.isPublicPath(path);
+    }
+
+    @Benchmark
+    public boolean streamScan() {
+        String p = path;
+        return LEGACY_PREFIXES.stream().anyMatch(p::startsWith);
+    }
+}
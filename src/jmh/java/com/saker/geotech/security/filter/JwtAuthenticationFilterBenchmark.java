@@ -0,0 +1,142 @@
+package com.saker.geotech.security.filter;
+
+import com.saker.geotech.audit.AuditLog;
+import com.saker.geotech.audit.AuditWriter;
+import com.saker.geotech.entity.UserRole;
+import com.saker.geotech.security.config.PublicEndpointRegistry;
+import com.saker.geotech.security.revocation.AccessTokenDenylist;
+import com.saker.geotech.security.revocation.UserSecurityVersionTable;
+import com.saker.geotech.security.service.CustomUserDetailsService;
+import com.saker.geotech.security.service.PrincipalCache;
+import com.saker.geotech.security.service.SecurityUser;
+import com.saker.geotech.security.token.AccessTokenService;
+import com.saker.geotech.security.token.RefreshTokenService;
+import com.saker.geotech.security.token.TokenValidator;
+import com.saker.geotech.security.token.VerifiedAccessTokenCache;
+import com.saker.geotech.security.util.AccessKeyRing;
+import com.saker.geotech.security.util.JwtClaimsExtractor;
+import com.saker.geotech.security.util.JwtParserFactory;
+import com.saker.geotech.security.util.JwtSignatureKeys;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full JwtAuthenticationFilter pass against mock servlet requests.
+ *
+ * {@code cacheSize = 0} disables the verified-token cache so every request pays for signature
+ * verification; the default size shows the steady state of a browser session re-using its token.
+ * The principal is served from a warm PrincipalCache backed by an in-memory user.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String ACCESS_SECRET = "benchmark-access-secret-0123456789-0123456789";
+    private static final String REFRESH_SECRET = "benchmark-refresh-secret-0123456789-0123456789";
+    private static final String EMAIL = "technician@sakergeolab.com";
+
+    @Param({"10000", "0"})
+    public long cacheSize;
+
+    private JwtAuthenticationFilter filter;
+    private final FilterChain chain = (req, res) -> { };
+
+    private MockHttpServletRequest validRequest;
+    private MockHttpServletRequest expiredRequest;
+    private MockHttpServletRequest malformedRequest;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        JwtSignatureKeys keys = new JwtSignatureKeys(ACCESS_SECRET, REFRESH_SECRET);
+        AccessKeyRing keyRing = new AccessKeyRing("HS256", "keys/access", event -> { });
+        JwtClaimsExtractor extractor = new JwtClaimsExtractor(new JwtParserFactory(keys, keyRing));
+        AccessTokenService accessTokenService =
+                new AccessTokenService(keys, keyRing, extractor, new VerifiedAccessTokenCache(cacheSize), new SimpleMeterRegistry(), 900_000L);
+        RefreshTokenService refreshTokenService = new RefreshTokenService(keys, extractor, new SimpleMeterRegistry(), 1_209_600_000L);
+        TokenValidator validator = new TokenValidator(
+                accessTokenService, refreshTokenService, new UserSecurityVersionTable(null, false, 30_000),
+                new AccessTokenDenylist(null, new SimpleMeterRegistry(), 0.001, 30_000));
+
+        SecurityUser user = new SecurityUser(1L, EMAIL, null, UserRole.TECHNICIAN, true, 0L);
+        CustomUserDetailsService users = new CustomUserDetailsService(null, new SimpleMeterRegistry()) {
+            @Override
+            public SecurityUser loadUserByUsername(String email) {
+                return user;
+            }
+        };
+        PrincipalCache principalCache = new PrincipalCache(users, new SimpleMeterRegistry(), 60_000L, 10_000L);
+
+        // Writer thread not started: rejected-token audit events only cost the ring buffer offer
+        AuditLog auditLog = new AuditLog(new AuditWriter(new JdbcTemplate()), new SimpleMeterRegistry(),
+                16384, 0.75, 500, 200L, 5);
+        filter = new JwtAuthenticationFilter(accessTokenService, validator, principalCache,
+                new PublicEndpointRegistry(), auditLog, new SimpleMeterRegistry(), false);
+
+        String expired = Jwts.builder()
+                .setSubject(EMAIL)
+                .setIssuedAt(new Date(System.currentTimeMillis() - 3_600_000L))
+                .setExpiration(new Date(System.currentTimeMillis() - 1_800_000L))
+                .signWith(keys.accessKey(), SignatureAlgorithm.HS256)
+                .compact();
+
+        validRequest = request(accessTokenService.generate(EMAIL));
+        expiredRequest = request(expired);
+        malformedRequest = request("not.a.jwt");
+        response = new MockHttpServletResponse();
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/projects/42/samples");
+        request.setServletPath("/projects/42/samples");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    @Benchmark
+    public Object validToken() throws Exception {
+        return run(validRequest);
+    }
+
+    @Benchmark
+    public Object expiredToken() throws Exception {
+        return run(expiredRequest);
+    }
+
+    @Benchmark
+    public Object malformedToken() throws Exception {
+        return run(malformedRequest);
+    }
+
+    private Object run(MockHttpServletRequest request) throws Exception {
+        response.reset();
+        filter.doFilter(request, response, chain);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
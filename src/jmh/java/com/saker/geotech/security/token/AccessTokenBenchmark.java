@@ -0,0 +1,59 @@
+package com.saker.geotech.security.token;
+
+import com.saker.geotech.security.util.AccessKeyRing;
+import com.saker.geotech.security.util.JwtClaimsExtractor;
+import com.saker.geotech.security.util.JwtParserFactory;
+import com.saker.geotech.security.util.JwtSignatureKeys;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minting and raw verification of access tokens (no verified-token cache involved).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccessTokenBenchmark {
+
+    static final String ACCESS_SECRET = "benchmark-access-secret-0123456789-0123456789";
+    static final String REFRESH_SECRET = "benchmark-refresh-secret-0123456789-0123456789";
+
+    private AccessTokenService accessTokenService;
+    private JwtClaimsExtractor extractor;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtSignatureKeys keys = new JwtSignatureKeys(ACCESS_SECRET, REFRESH_SECRET);
+        AccessKeyRing keyRing = new AccessKeyRing("HS256", "keys/access", event -> { });
+        extractor = new JwtClaimsExtractor(new JwtParserFactory(keys, keyRing));
+        accessTokenService = new AccessTokenService(
+                keys, keyRing, extractor, new VerifiedAccessTokenCache(0), new SimpleMeterRegistry(), 900_000L);
+        token = accessTokenService.generate("technician@sakergeolab.com");
+    }
+
+    @Benchmark
+    public String generate() {
+        return accessTokenService.generate("technician@sakergeolab.com");
+    }
+
+    @Benchmark
+    public Claims accessClaims() {
+        return extractor.accessClaims(token);
+    }
+}
@@ -0,0 +1,9 @@
+package com.saker.geotech.audit;
+
+/**
+ * Values of {@code audit_events.category}.
+ */
+public enum AuditCategory {
+    SECURITY,
+    ENTITY
+}
@@ -0,0 +1,27 @@
+package com.saker.geotech.audit;
+
+/**
+ * One audit trail entry, as captured on the request path.
+ *
+ * @param userId   acting user, null if unknown (e.g. a failed login)
+ * @param entityId id in {@link AuditEventType#entityType()}; for security events the user concerned
+ * @param detail   short free text (action, outcome, attempted login), truncated to 255 chars when written
+ */
+public record AuditEvent(
+        long occurredAtMs,
+        AuditEventType type,
+        Long userId,
+        Long projectId,
+        Long entityId,
+        String remoteAddress,
+        String detail
+) {
+
+    public static AuditEvent security(AuditEventType type, Long userId, String remoteAddress, String detail) {
+        return new AuditEvent(System.currentTimeMillis(), type, userId, null, userId, remoteAddress, detail);
+    }
+
+    public static AuditEvent entity(AuditEventType type, Long userId, Long projectId, long entityId, String detail) {
+        return new AuditEvent(System.currentTimeMillis(), type, userId, projectId, entityId, null, detail);
+    }
+}
@@ -0,0 +1,50 @@
+package com.saker.geotech.audit;
+
+/**
+ * Values of {@code audit_events.event_type}.
+ *
+ * Sheddable types can be produced in bulk by unauthenticated callers (password guessing, forged
+ * tokens): when the audit buffer runs high they are dropped first, keeping room for the events
+ * of authenticated users and data changes.
+ */
+public enum AuditEventType {
+    LOGIN_SUCCEEDED(AuditCategory.SECURITY, "user", false),
+    LOGIN_FAILED(AuditCategory.SECURITY, "user", true),
+    LOGIN_THROTTLED(AuditCategory.SECURITY, "user", true),
+    TOKEN_REFRESHED(AuditCategory.SECURITY, "user", false),
+    REFRESH_TOKEN_REUSED(AuditCategory.SECURITY, "user", false),
+    REFRESH_FAILED(AuditCategory.SECURITY, "user", true),
+    LOGOUT(AuditCategory.SECURITY, "user", false),
+    ACCESS_TOKEN_REJECTED(AuditCategory.SECURITY, "user", true),
+
+    TEST_RUN_STATUS_CHANGED(AuditCategory.ENTITY, "test_run", false),
+    TEST_RUN_IMPORTED(AuditCategory.ENTITY, "test_run", false),
+    SIEVE_READINGS_SAVED(AuditCategory.ENTITY, "ps_test", false),
+    PS_TEST_RECOMPUTED(AuditCategory.ENTITY, "ps_test", false),
+    TEST_RESULTS_RECOMPUTED(AuditCategory.ENTITY, "project", false);
+
+    private final AuditCategory category;
+    private final String entityType;
+    private final boolean sheddable;
+
+    AuditEventType(AuditCategory category, String entityType, boolean sheddable) {
+        this.category = category;
+        this.entityType = entityType;
+        this.sheddable = sheddable;
+    }
+
+    public AuditCategory category() {
+        return category;
+    }
+
+    /**
+     * Table the event's entity id refers to.
+     */
+    public String entityType() {
+        return entityType;
+    }
+
+    public boolean isSheddable() {
+        return sheddable;
+    }
+}
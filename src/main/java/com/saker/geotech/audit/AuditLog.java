@@ -0,0 +1,229 @@
+package com.saker.geotech.audit;
+
+import com.saker.geotech.security.service.SecurityUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit trail entry point: callers hand events over in a few nanoseconds and never wait on I/O.
+ *
+ * Events go into an {@link AuditRingBuffer}; one background thread ({@code audit-writer}) drains
+ * it every {@code audit.flush.ms}, or as soon as half a batch is waiting, and appends them in
+ * batches of {@code audit.batch-size} through the {@link AuditWriter}.
+ *
+ * Backpressure, when the writer falls behind (slow or unavailable database):
+ * - past {@code audit.buffer.shed-ratio} of the ring, sheddable events (failed logins, rejected
+ *   tokens: see {@link AuditEventType#isSheddable()}) are dropped
+ * - when the ring is full, every new event is dropped
+ * - a batch that cannot be written is retried with backoff, {@code audit.writer.max-attempts}
+ *   times, then dropped
+ * Drops are counted on {@code audit.events.dropped{reason=shed|full|write_failed}}; together with
+ * the {@code audit.buffer.size} gauge they show a writer falling behind.
+ */
+@Component
+public class AuditLog {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+
+    private static final long MAX_BACKOFF_MS = 5_000;
+
+    private final AuditRingBuffer buffer;
+    private final AuditWriter writer;
+    private final int batchSize;
+    private final int shedThreshold;
+    private final long flushNanos;
+    private final int maxAttempts;
+
+    private final Counter accepted;
+    private final Counter shed;
+    private final Counter full;
+    private final Counter writeFailed;
+    private final Counter written;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    public AuditLog(
+            AuditWriter writer,
+            MeterRegistry meterRegistry,
+            @Value("${audit.buffer.capacity:16384}") int capacity,
+            @Value("${audit.buffer.shed-ratio:0.75}") double shedRatio,
+            @Value("${audit.batch-size:500}") int batchSize,
+            @Value("${audit.flush.ms:200}") long flushMs,
+            @Value("${audit.writer.max-attempts:5}") int maxAttempts
+    ) {
+        this.buffer = new AuditRingBuffer(capacity);
+        this.writer = writer;
+        this.batchSize = batchSize;
+        this.shedThreshold = (int) (capacity * shedRatio);
+        this.flushNanos = TimeUnit.MILLISECONDS.toNanos(flushMs);
+        this.maxAttempts = maxAttempts;
+
+        this.accepted = Counter.builder("audit.events.accepted").register(meterRegistry);
+        this.shed = dropped(meterRegistry, "shed");
+        this.full = dropped(meterRegistry, "full");
+        this.writeFailed = dropped(meterRegistry, "write_failed");
+        this.written = Counter.builder("audit.events.written").register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.flush").publishPercentileHistogram().register(meterRegistry);
+        Gauge.builder("audit.buffer.size", buffer, AuditRingBuffer::size)
+                .description("Audit events waiting for the writer")
+                .register(meterRegistry);
+        Gauge.builder("audit.buffer.capacity", buffer, AuditRingBuffer::capacity).register(meterRegistry);
+    }
+
+    private static Counter dropped(MeterRegistry registry, String reason) {
+        return Counter.builder("audit.events.dropped").tag("reason", reason).register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::run, "audit-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+    }
+
+    /**
+     * Records the event now. Never blocks; the event is dropped (and counted) under backpressure.
+     */
+    public void record(AuditEvent event) {
+        int size = buffer.size();
+        if (event.type().isSheddable() && size >= shedThreshold) {
+            shed.increment();
+            return;
+        }
+        if (!buffer.offer(event)) {
+            full.increment();
+            return;
+        }
+        accepted.increment();
+        if (size == batchSize / 2) {
+            // Enough for a useful batch: wake the writer instead of waiting for the next tick
+            Thread thread = writerThread;
+            if (thread != null) LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Records the events once the current transaction commits, and never if it rolls back.
+     * Outside a transaction they are recorded at once.
+     */
+    public void recordAfterCommit(List<AuditEvent> events) {
+        if (events.isEmpty()) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            events.forEach(this::record);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                events.forEach(AuditLog.this::record);
+            }
+        });
+    }
+
+    public void recordAfterCommit(AuditEvent event) {
+        recordAfterCommit(List.of(event));
+    }
+
+    /**
+     * @return id of the authenticated user of the current thread, or null
+     */
+    public static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof SecurityUser user ? user.getId() : null;
+    }
+
+    /**
+     * @return client address of the request served by the current thread, or null off request threads
+     */
+    public static String currentRemoteAddress() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servlet ? servlet.getRequest().getRemoteAddr() : null;
+    }
+
+    private void run() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            buffer.drainTo(batch, batchSize);
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(this, flushNanos);
+                continue;
+            }
+            flush(batch);
+            batch.clear();
+        }
+        // Shutdown: whatever is still buffered, without retry delays
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            flushOnce(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<AuditEvent> batch) {
+        long backoffMs = 100;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                write(batch);
+                return;
+            } catch (RuntimeException ex) {
+                if (attempt >= maxAttempts || !running) {
+                    writeFailed.increment(batch.size());
+                    log.warn("Audit batch of {} events dropped after {} attempts: {}", batch.size(), attempt, ex.getMessage());
+                    return;
+                }
+                log.debug("Audit batch write failed (attempt {}), retrying: {}", attempt, ex.getMessage());
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(backoffMs));
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void flushOnce(List<AuditEvent> batch) {
+        try {
+            write(batch);
+        } catch (RuntimeException ex) {
+            writeFailed.increment(batch.size());
+            log.warn("Audit batch of {} events dropped at shutdown: {}", batch.size(), ex.getMessage());
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        long start = System.nanoTime();
+        writer.write(batch);
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        written.increment(batch.size());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.saker.geotech.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of {@code audit_events} ahead of time (UTC months, like the
+ * JDBC session): splits {@code pmax} so that the current month and the next
+ * {@code audit.partitions.months-ahead} have their own partition, and drops months older than
+ * {@code audit.retention.months} (0, the default, keeps everything).
+ *
+ * Runs shortly after startup, then daily. Concurrent runs on several instances are harmless:
+ * the loser's ALTER fails and is logged.
+ */
+@Component
+public class AuditPartitionMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditPartitionMaintainer.class);
+
+    private static final String SELECT_PARTITIONS = """
+            SELECT PARTITION_NAME
+            FROM information_schema.PARTITIONS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'audit_events' AND PARTITION_NAME IS NOT NULL
+            """;
+
+    private static final Pattern MONTHLY = Pattern.compile("p(\\d{6})");
+    private static final DateTimeFormatter NAME = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public AuditPartitionMaintainer(
+            JdbcTemplate jdbcTemplate,
+            @Value("${audit.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${audit.retention.months:0}") int retentionMonths
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @Scheduled(
+            initialDelayString = "${audit.partitions.initial-delay.ms:30000}",
+            fixedDelayString = "${audit.partitions.check.ms:86400000}"
+    )
+    public void maintain() {
+        try {
+            TreeSet<YearMonth> existing = monthlyPartitions();
+            YearMonth current = YearMonth.now(ZoneOffset.UTC);
+            addMonths(existing, current.plusMonths(monthsAhead));
+            if (retentionMonths > 0) dropBefore(existing, current.minusMonths(retentionMonths));
+        } catch (RuntimeException ex) {
+            log.warn("Audit partition maintenance failed: {}", ex.getMessage());
+        }
+    }
+
+    private TreeSet<YearMonth> monthlyPartitions() {
+        TreeSet<YearMonth> months = new TreeSet<>();
+        for (String name : jdbcTemplate.queryForList(SELECT_PARTITIONS, String.class)) {
+            Matcher matcher = MONTHLY.matcher(name);
+            if (matcher.matches()) months.add(YearMonth.parse(matcher.group(1), NAME));
+        }
+        return months;
+    }
+
+    /**
+     * Partitions can only be appended after the last one: the missing months are split out of pmax.
+     */
+    private void addMonths(TreeSet<YearMonth> existing, YearMonth until) {
+        YearMonth next = existing.isEmpty() ? YearMonth.now(ZoneOffset.UTC) : existing.last().plusMonths(1);
+        List<String> partitions = new ArrayList<>();
+        for (YearMonth month = next; !month.isAfter(until); month = month.plusMonths(1)) {
+            partitions.add("PARTITION " + name(month) + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "')");
+        }
+        if (partitions.isEmpty()) return;
+
+        partitions.add("PARTITION pmax VALUES LESS THAN (MAXVALUE)");
+        jdbcTemplate.execute("ALTER TABLE audit_events REORGANIZE PARTITION pmax INTO ("
+                + String.join(", ", partitions) + ")");
+        log.info("Audit partitions added from {} to {}", next, until);
+    }
+
+    private void dropBefore(TreeSet<YearMonth> existing, YearMonth oldestKept) {
+        List<String> expired = existing.headSet(oldestKept).stream().map(AuditPartitionMaintainer::name).toList();
+        // Never drop the last monthly partition: pmax must keep a lower bound
+        if (expired.isEmpty() || expired.size() == existing.size()) return;
+
+        jdbcTemplate.execute("ALTER TABLE audit_events DROP PARTITION " + String.join(", ", expired));
+        log.info("Audit partitions dropped (retention {} months): {}", retentionMonths, expired);
+    }
+
+    private static String name(YearMonth month) {
+        return "p" + month.format(NAME);
+    }
+}
@@ -0,0 +1,91 @@
+package com.saker.geotech.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free multi-producer / single-consumer ring of audit events.
+ *
+ * Each slot has a sequence number (Vyukov's bounded queue): a producer claims position p with a
+ * CAS on {@code tail} when its slot's sequence equals p, stores the event, then publishes it by
+ * setting the sequence to p + 1; the consumer takes the slot when it reads p + 1 and hands it back
+ * for the next lap by setting p + capacity. Producers never block: when the ring is full,
+ * {@link #offer} returns false at once.
+ */
+final class AuditRingBuffer {
+
+    private final AuditEvent[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Written by the consumer only; atomic for the size() readers
+    private final AtomicLong head = new AtomicLong();
+
+    AuditRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two >= 2");
+        }
+        this.slots = new AuditEvent[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) sequences.set(i, i);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * @return false if the ring is full
+     */
+    boolean offer(AuditEvent event) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long lag = sequences.get(index) - position;
+            if (lag == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = event;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (lag < 0) {
+                // Slot still holds the event of the previous lap
+                return false;
+            } else {
+                // Another producer claimed this position
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code max} published events to {@code out}, oldest first. Single consumer only.
+     *
+     * @return number of events moved
+     */
+    int drainTo(List<AuditEvent> out, int max) {
+        long position = head.get();
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) break;
+            out.add(slots[index]);
+            slots[index] = null;
+            sequences.set(index, position + slots.length);
+            position++;
+            drained++;
+        }
+        head.lazySet(position);
+        return drained;
+    }
+
+    /**
+     * Claimed positions not drained yet (including events still being stored).
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,56 @@
+package com.saker.geotech.audit;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Appends audit events to {@code audit_events} as one JDBC batch (rewritten into multi-row
+ * INSERTs by the driver). INSERT only: the table is append-only.
+ */
+@Component
+public class AuditWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO audit_events
+                (occurred_at, category, event_type, user_id, project_id, entity_type, entity_id, remote_addr, detail)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final int MAX_ADDRESS = 45;
+    private static final int MAX_DETAIL = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void write(List<AuditEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setTimestamp(1, new Timestamp(event.occurredAtMs()));
+            ps.setString(2, event.type().category().name());
+            ps.setString(3, event.type().name());
+            setLong(ps, 4, event.userId());
+            setLong(ps, 5, event.projectId());
+            ps.setString(6, event.type().entityType());
+            setLong(ps, 7, event.entityId());
+            ps.setString(8, truncate(event.remoteAddress(), MAX_ADDRESS));
+            ps.setString(9, truncate(event.detail(), MAX_DETAIL));
+        });
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) ps.setNull(index, Types.BIGINT);
+        else ps.setLong(index, value);
+    }
+
+    private static String truncate(String value, int max) {
+        return value == null || value.length() <= max ? value : value.substring(0, max);
+    }
+}
@@ -0,0 +1,16 @@
+// src/main/java/com/saker/geotech/config/SchedulingConfig.java
+package com.saker.geotech.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * ███████ SCHEDULING ███████
+ *
+ * Enables @Scheduled background tasks (security version table refresh, periodic maintenance jobs).
+ * Pool size is controlled by spring.task.scheduling.pool.size.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,66 @@
+// src/main/java/com/saker/geotech/config/ThreadingConfig.java
+package com.saker.geotech.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * ███████ THREADING (PLATFORM / VIRTUAL) ███████
+ *
+ * Request handling and @Async/@Scheduled run on platform threads by default.
+ * Activating the "vthreads" profile (spring.threads.virtual.enabled=true, JDK 21+ at runtime) switches
+ * Tomcat, the @Async applicationTaskExecutor and the scheduler to virtual threads — Spring Boot does this
+ * automatically. See docs/virtual_threads.md.
+ *
+ * The batch executor below is ours (Spring Boot does not configure one) and follows the same switch,
+ * through the same condition (flag set and JDK 21+), so a JDK 17 runtime falls back to platform threads.
+ * With virtual threads the database pool becomes the real concurrency limit, so the executor
+ * is capped at app.batch.concurrency to avoid queueing hundreds of threads on Hikari.
+ *
+ * CPU-bound work (test recomputes, CCTP conformance checks) shares the single {@code computePool}:
+ * one fork-join pool sized to the cores, so concurrent jobs split the CPU instead of each
+ * starting a pool of its own. It never runs on virtual threads.
+ */
+@Configuration
+@EnableAsync
+public class ThreadingConfig {
+
+    /**
+     * Virtual-thread mode: only when the flag is set AND the runtime is JDK 21+. On JDK 17 the
+     * platform executor below is used instead, like the rest of Spring Boot's threading setup.
+     */
+    @Bean("batchTaskExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public TaskExecutor virtualBatchTaskExecutor(@Value("${app.batch.concurrency:4}") int concurrency) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("batch-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrency);
+        return executor;
+    }
+
+    @Bean("batchTaskExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public TaskExecutor platformBatchTaskExecutor(@Value("${app.batch.concurrency:4}") int concurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("batch-");
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(concurrency * 10);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "computePool", destroyMethod = "shutdown")
+    public ForkJoinPool computePool(@Value("${compute.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,92 @@
+package com.saker.geotech.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * Maps the {@code refresh_tokens} table (see V3__refresh_token_store.sql).
+ *
+ * Only the SHA-256 digest of the refresh JWT is stored. A token is usable while it is
+ * not revoked, not rotated and not expired.
+ */
+@Entity
+@Table(name = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "token_hash", nullable = false, unique = true, columnDefinition = "BINARY(32)")
+    private byte[] tokenHash;
+
+    @Column(name = "family_id", nullable = false, length = 36, columnDefinition = "CHAR(36)")
+    private String familyId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false)
+    private boolean revoked;
+
+    @Column(name = "rotated_at")
+    private Instant rotatedAt;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private Instant createdAt;
+
+    protected RefreshToken() {
+    }
+
+    public RefreshToken(Long userId, byte[] tokenHash, String familyId, Instant expiresAt) {
+        this.userId = userId;
+        this.tokenHash = tokenHash;
+        this.familyId = familyId;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isRotated() {
+        return rotatedAt != null;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public byte[] getTokenHash() {
+        return tokenHash;
+    }
+
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isRevoked() {
+        return revoked;
+    }
+
+    public Instant getRotatedAt() {
+        return rotatedAt;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
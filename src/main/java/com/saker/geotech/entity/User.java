@@ -0,0 +1,205 @@
+package com.saker.geotech.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Maps the {@code users} table (see V1__create_geotech_schema.sql).
+ *
+ * The email is the login name. created_at / updated_at are maintained by MySQL.
+ */
+@Entity
+@Table(name = "users")
+@EntityListeners(UserSecurityListener.class)
+public class User {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String email;
+
+    @Column(name = "password_hash", nullable = false)
+    private String passwordHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, columnDefinition = "ENUM('ADMIN','MANAGER','TECHNICIAN')")
+    private UserRole role;
+
+    @Column(nullable = false)
+    private boolean enabled = true;
+
+    /**
+     * Embedded in access tokens; bumped whenever the security state changes so older tokens are refused.
+     */
+    @Column(name = "security_version", nullable = false)
+    private long securityVersion;
+
+    @Column(name = "first_name", length = 100)
+    private String firstName;
+
+    @Column(name = "last_name", length = 100)
+    private String lastName;
+
+    @Column(length = 50)
+    private String phone;
+
+    @Column(name = "last_login_at")
+    private Instant lastLoginAt;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private Instant updatedAt;
+
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
+    /**
+     * Email and security-relevant state as loaded from the database.
+     * Used to tell a profile edit (or last_login_at bump) apart from a change that must
+     * invalidate cached principals.
+     */
+    @Transient
+    private String loadedEmail;
+
+    @Transient
+    private int loadedSecurityHash;
+
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void snapshotSecurityState() {
+        this.loadedEmail = email;
+        this.loadedSecurityHash = securityHash();
+    }
+
+    @PreUpdate
+    void bumpSecurityVersion() {
+        if (securityStateChanged()) securityVersion++;
+    }
+
+    /**
+     * @return true if role, enabled, deleted_at or the password hash differ from the loaded snapshot
+     */
+    public boolean securityStateChanged() {
+        return loadedSecurityHash != securityHash() || !Objects.equals(loadedEmail, email);
+    }
+
+    public String getLoadedEmail() {
+        return loadedEmail;
+    }
+
+    private int securityHash() {
+        return Objects.hash(role, enabled, deletedAt, passwordHash);
+    }
+
+    public boolean isDeleted() {
+        return deletedAt != null;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPasswordHash() {
+        return passwordHash;
+    }
+
+    public void setPasswordHash(String passwordHash) {
+        this.passwordHash = passwordHash;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    public void setRole(UserRole role) {
+        this.role = role;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getSecurityVersion() {
+        return securityVersion;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+
+    public Instant getLastLoginAt() {
+        return lastLoginAt;
+    }
+
+    public void setLastLoginAt(Instant lastLoginAt) {
+        this.lastLoginAt = lastLoginAt;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(Instant deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
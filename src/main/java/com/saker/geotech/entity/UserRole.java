@@ -0,0 +1,10 @@
+package com.saker.geotech.entity;
+
+/**
+ * Roles stored in {@code users.role}. Spring Security authorities are {@code ROLE_<name>}.
+ */
+public enum UserRole {
+    ADMIN,
+    MANAGER,
+    TECHNICIAN
+}
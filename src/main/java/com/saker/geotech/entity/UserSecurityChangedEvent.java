@@ -0,0 +1,14 @@
+package com.saker.geotech.entity;
+
+import java.util.Set;
+
+/**
+ * Published when a user's role, enabled flag, deleted_at or password changes (or the row is removed).
+ *
+ * @param userId    id of the changed user
+ * @param emails           login names that may be cached for this user (old and new email if it changed)
+ * @param securityVersion  the user's security_version after the change
+ * @param active           false if the user is now disabled, deleted or removed
+ */
+public record UserSecurityChangedEvent(Long userId, Set<String> emails, long securityVersion, boolean active) {
+}
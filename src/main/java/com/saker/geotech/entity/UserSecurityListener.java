@@ -0,0 +1,42 @@
+package com.saker.geotech.entity;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * JPA listener on {@link User} that turns security-relevant row changes into a
+ * {@link UserSecurityChangedEvent}.
+ *
+ * Instantiated by Hibernate through Spring's bean container, so constructor injection works.
+ */
+public class UserSecurityListener {
+
+    private final ApplicationEventPublisher events;
+
+    public UserSecurityListener(ApplicationEventPublisher events) {
+        this.events = events;
+    }
+
+    @PostUpdate
+    void afterUpdate(User user) {
+        if (!user.securityStateChanged()) return;
+        publish(user, user.isEnabled() && !user.isDeleted());
+    }
+
+    @PostRemove
+    void afterRemove(User user) {
+        publish(user, false);
+    }
+
+    private void publish(User user, boolean active) {
+        Set<String> emails = new HashSet<>();
+        if (user.getEmail() != null) emails.add(user.getEmail());
+        if (user.getLoadedEmail() != null) emails.add(user.getLoadedEmail());
+        events.publishEvent(new UserSecurityChangedEvent(
+                user.getId(), Set.copyOf(emails), user.getSecurityVersion(), active));
+    }
+}
@@ -0,0 +1,97 @@
+package com.saker.geotech.granulometry.batch;
+
+import com.saker.geotech.audit.AuditLog;
+import com.saker.geotech.granulometry.excel.GntSheet;
+import com.saker.geotech.granulometry.excel.GntWorkbookReader;
+import com.saker.geotech.granulometry.service.GranulometryService;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+
+/**
+ * Spring Batch job importing legacy "ESSAI GNT IC" workbooks into a project.
+ *
+ * Job parameters: {@code directory} (absolute, validated by GntImportService), {@code projectId},
+ * {@code createdBy} (non-identifying).
+ *
+ * 1. gntImportStep: chunk step, {@code granulometry.import.chunk-size} sheets per transaction,
+ *    SAX reader -> JDBC batch writer. Restartable: launching the same directory/project again after
+ *    a failure resumes at the last committed sheet. A COMPLETED import cannot be run twice.
+ * 2. gntRecomputeStep: computes percentages, ps_results and ps_curve_points for the whole project.
+ */
+@Configuration
+public class GntImportJobConfig {
+
+    public static final String JOB_NAME = "gntImportJob";
+    public static final String IMPORT_STEP = "gntImportStep";
+
+    @Bean
+    public Job gntImportJob(JobRepository jobRepository, Step gntImportStep, Step gntRecomputeStep) {
+        return new JobBuilder(JOB_NAME, jobRepository)
+                .start(gntImportStep)
+                .next(gntRecomputeStep)
+                .build();
+    }
+
+    @Bean
+    public Step gntImportStep(
+            JobRepository jobRepository,
+            PlatformTransactionManager transactionManager,
+            GntWorkbookReader gntWorkbookReader,
+            GntImportWriter gntImportWriter,
+            @Value("${granulometry.import.chunk-size:50}") int chunkSize,
+            @Value("${granulometry.import.progress-every:20}") int progressEvery
+    ) {
+        return new StepBuilder(IMPORT_STEP, jobRepository)
+                .<GntSheet, GntSheet>chunk(chunkSize, transactionManager)
+                .reader(gntWorkbookReader)
+                .writer(gntImportWriter)
+                .listener(new GntImportProgressListener(progressEvery))
+                .build();
+    }
+
+    @Bean
+    public Step gntRecomputeStep(
+            JobRepository jobRepository,
+            PlatformTransactionManager transactionManager,
+            GranulometryService granulometryService
+    ) {
+        return new StepBuilder("gntRecomputeStep", jobRepository)
+                .tasklet((contribution, chunkContext) -> {
+                    Long projectId = (Long) chunkContext.getStepContext().getJobParameters().get("projectId");
+                    var summary = granulometryService.recomputeProject(projectId);
+                    contribution.incrementWriteCount(summary.tests());
+                    return RepeatStatus.FINISHED;
+                }, transactionManager)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public GntWorkbookReader gntWorkbookReader(@Value("#{jobParameters['directory']}") String directory) {
+        return new GntWorkbookReader(Path.of(directory));
+    }
+
+    @Bean
+    @StepScope
+    public GntImportWriter gntImportWriter(
+            JdbcTemplate jdbcTemplate,
+            @Value("#{jobParameters['projectId']}") Long projectId,
+            @Value("#{jobParameters['createdBy']}") Long createdBy,
+            @Value("${granulometry.import.jdbc-batch-size:1000}") int jdbcBatchSize,
+            AuditLog auditLog
+    ) {
+        return new GntImportWriter(jdbcTemplate, projectId, createdBy, jdbcBatchSize, auditLog);
+    }
+}
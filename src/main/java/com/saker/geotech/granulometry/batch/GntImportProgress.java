@@ -0,0 +1,39 @@
+package com.saker.geotech.granulometry.batch;
+
+import com.saker.geotech.granulometry.excel.GntWorkbookReader;
+import org.springframework.batch.core.StepExecution;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Counters of one {@link GntImportJobConfig#IMPORT_STEP} execution.
+ * Totals include earlier (failed) executions of a restarted import, rates only the current one.
+ */
+public record GntImportProgress(
+        long sheets,
+        long readings,
+        long skipped,
+        double sheetsPerSecond,
+        double readingsPerSecond
+) {
+
+    public static final GntImportProgress NONE = new GntImportProgress(0, 0, 0, 0, 0);
+
+    public static GntImportProgress of(StepExecution step) {
+        LocalDateTime start = step.getStartTime();
+        LocalDateTime end = step.getEndTime() == null ? LocalDateTime.now() : step.getEndTime();
+        double seconds = start == null ? 0 : Duration.between(start, end).toMillis() / 1000.0;
+
+        var context = step.getExecutionContext();
+        long readings = context.getLong(GntImportWriter.READINGS_WRITTEN, 0L);
+        long readingsThisRun = readings - context.getLong(GntImportWriter.READINGS_AT_START, 0L);
+        return new GntImportProgress(
+                context.getLong(GntImportWriter.SHEETS_WRITTEN, 0L),
+                readings,
+                context.getLong(GntWorkbookReader.SKIPPED_SHEETS, 0L),
+                seconds > 0 ? step.getWriteCount() / seconds : 0,
+                seconds > 0 ? readingsThisRun / seconds : 0
+        );
+    }
+}
@@ -0,0 +1,34 @@
+package com.saker.geotech.granulometry.batch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+
+/**
+ * Logs import progress every {@code granulometry.import.progress-every} chunks: sheets and
+ * readings written, and their rates since the step (re)started.
+ */
+class GntImportProgressListener implements ChunkListener {
+
+    private static final Logger log = LoggerFactory.getLogger(GntImportProgressListener.class);
+
+    private final int every;
+    private int chunks;
+
+    GntImportProgressListener(int every) {
+        this.every = Math.max(1, every);
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        if (++chunks % every != 0) return;
+        StepExecution step = context.getStepContext().getStepExecution();
+        GntImportProgress progress = GntImportProgress.of(step);
+        log.info("GNT import progress: {} sheets ({}/s), {} readings ({}/s), {} skipped",
+                progress.sheets(), Math.round(progress.sheetsPerSecond()),
+                progress.readings(), Math.round(progress.readingsPerSecond()),
+                progress.skipped());
+    }
+}
@@ -0,0 +1,267 @@
+package com.saker.geotech.granulometry.batch;
+
+import com.saker.geotech.audit.AuditEvent;
+import com.saker.geotech.audit.AuditEventType;
+import com.saker.geotech.audit.AuditLog;
+import com.saker.geotech.granulometry.excel.GntSheet;
+import com.saker.geotech.granulometry.service.GntTestTypeModule;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a chunk of parsed sheets with JDBC batches, inside the chunk transaction:
+ *
+ * - sample_sources / samples: looked up by name / code, created when missing
+ * - test_runs, ps_tests: one multi-row INSERT each (rewriteBatchedStatements), generated ids via KeyHolder
+ * - ps_sieve_readings: batched INSERTs of {@code jdbc-batch-size} rows
+ *
+ * Percentages and results are not written here; the import job recomputes them afterwards.
+ * One TEST_RUN_IMPORTED audit event per sheet is recorded when the chunk commits.
+ * Sheet and reading totals are kept in the step's ExecutionContext, so they survive a restart.
+ */
+public class GntImportWriter implements ItemWriter<GntSheet>, StepExecutionListener {
+
+    static final String SHEETS_WRITTEN = "gnt.sheets.written";
+    static final String READINGS_WRITTEN = "gnt.readings.written";
+    static final String READINGS_AT_START = "gnt.readings.at-start";
+
+    static final String TEST_TYPE = GntTestTypeModule.TEST_TYPE;
+
+    private static final String FIND_SOURCE = """
+            SELECT id FROM sample_sources
+            WHERE project_id = ? AND name = ? AND deleted_at IS NULL
+            ORDER BY id LIMIT 1
+            """;
+
+    private static final String INSERT_SOURCE = """
+            INSERT INTO sample_sources (project_id, source_type, name, notes)
+            VALUES (:projectId, 'UNKNOWN', :name, 'Imported from Excel')
+            """;
+
+    private static final String FIND_SAMPLE = """
+            SELECT id FROM samples
+            WHERE sample_source_id = ? AND sample_code = ? AND deleted_at IS NULL
+            """;
+
+    private static final String INSERT_SAMPLE = """
+            INSERT INTO samples (sample_source_id, sample_code, depth_from_m, depth_to_m, collection_date)
+            VALUES (:sourceId, :code, :depthFrom, :depthTo, :collectionDate)
+            """;
+
+    private static final String INSERT_TEST_RUN = """
+            INSERT INTO test_runs (sample_id, test_type, performed_at, created_by)
+            VALUES (:sampleId, :testType, :performedAt, :createdBy)
+            """;
+
+    private static final String INSERT_PS_TEST = """
+            INSERT INTO ps_tests (test_run_id, method, sampling_date,
+                                  initial_wet_mass_before_wash_g, natural_moisture_percent,
+                                  dry_mass_before_wash_g, dry_mass_after_wash_g, washing_loss_percent, notes)
+            VALUES (:testRunId, :method, :samplingDate, :wetMass, :moisture,
+                    :dryBefore, :dryAfter, :washingLoss, :notes)
+            """;
+
+    private static final String INSERT_READING = """
+            INSERT INTO ps_sieve_readings (ps_test_id, row_order, sieve_mm, sieve_name, is_pan, retained_mass_cum_g)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final long projectId;
+    private final long createdBy;
+    private final int jdbcBatchSize;
+    private final AuditLog auditLog;
+
+    private StepExecution stepExecution;
+
+    GntImportWriter(JdbcTemplate jdbcTemplate, long projectId, long createdBy, int jdbcBatchSize, AuditLog auditLog) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.projectId = projectId;
+        this.createdBy = createdBy;
+        this.jdbcBatchSize = jdbcBatchSize;
+        this.auditLog = auditLog;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        this.stepExecution = stepExecution;
+        var context = stepExecution.getExecutionContext();
+        context.putLong(READINGS_AT_START, context.getLong(READINGS_WRITTEN, 0L));
+    }
+
+    @Override
+    public void write(Chunk<? extends GntSheet> chunk) {
+        List<? extends GntSheet> sheets = chunk.getItems();
+        int size = sheets.size();
+
+        // Ids are looked up per chunk only: a cache across chunks would keep ids of rolled back rows
+        Map<String, Long> sourceIds = new HashMap<>();
+        Map<String, Long> sampleIds = new HashMap<>();
+        long[] sampleIdOf = new long[size];
+        for (int i = 0; i < size; i++) {
+            GntSheet sheet = sheets.get(i);
+            long sourceId = sourceIds.computeIfAbsent(sourceName(sheet), this::findOrCreateSource);
+            sampleIdOf[i] = sampleIds.computeIfAbsent(sourceId + "\u0000" + sheet.sampleCode(),
+                    key -> findOrCreateSample(sourceId, sheet));
+        }
+
+        SqlParameterSource[] runs = new SqlParameterSource[size];
+        for (int i = 0; i < size; i++) {
+            GntSheet sheet = sheets.get(i);
+            runs[i] = new MapSqlParameterSource()
+                    .addValue("sampleId", sampleIdOf[i])
+                    .addValue("testType", TEST_TYPE)
+                    .addValue("performedAt", sheet.samplingDate() == null ? null : Date.valueOf(sheet.samplingDate()))
+                    .addValue("createdBy", createdBy);
+        }
+        long[] testRunIds = insertReturningIds(INSERT_TEST_RUN, runs);
+
+        SqlParameterSource[] psTests = new SqlParameterSource[size];
+        for (int i = 0; i < size; i++) {
+            GntSheet sheet = sheets.get(i);
+            psTests[i] = new MapSqlParameterSource()
+                    .addValue("testRunId", testRunIds[i])
+                    .addValue("method", sheet.method() == null ? "GNT" : sheet.method())
+                    .addValue("samplingDate", sheet.samplingDate() == null ? null : Date.valueOf(sheet.samplingDate()))
+                    .addValue("wetMass", decimal(sheet.wetMassG()), Types.DECIMAL)
+                    .addValue("moisture", decimal(sheet.moisturePercent()), Types.DECIMAL)
+                    .addValue("dryBefore", decimal(sheet.dryMassBeforeWashG()), Types.DECIMAL)
+                    .addValue("dryAfter", decimal(sheet.dryMassAfterWashG()), Types.DECIMAL)
+                    .addValue("washingLoss", decimal(sheet.washingLossPercent()), Types.DECIMAL)
+                    .addValue("notes", "Imported from " + sheet.origin());
+        }
+        long[] psTestIds = insertReturningIds(INSERT_PS_TEST, psTests);
+
+        int readings = insertReadings(sheets, psTestIds);
+
+        List<AuditEvent> audit = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            GntSheet sheet = sheets.get(i);
+            audit.add(AuditEvent.entity(AuditEventType.TEST_RUN_IMPORTED, createdBy, projectId, testRunIds[i],
+                    sheet.readingCount() + " readings from " + sheet.origin()));
+        }
+        auditLog.recordAfterCommit(audit);
+        if (stepExecution != null) {
+            var context = stepExecution.getExecutionContext();
+            context.putLong(SHEETS_WRITTEN, context.getLong(SHEETS_WRITTEN, 0L) + size);
+            context.putLong(READINGS_WRITTEN, context.getLong(READINGS_WRITTEN, 0L) + readings);
+        }
+    }
+
+    private int insertReadings(List<? extends GntSheet> sheets, long[] psTestIds) {
+        // Flatten (sheet, row) pairs so a JDBC batch can span several sheets
+        int total = 0;
+        for (GntSheet sheet : sheets) total += sheet.readingCount();
+        int[] sheetOf = new int[total];
+        int[] rowOf = new int[total];
+        for (int s = 0, k = 0; s < sheets.size(); s++) {
+            for (int r = 0; r < sheets.get(s).readingCount(); r++, k++) {
+                sheetOf[k] = s;
+                rowOf[k] = r;
+            }
+        }
+
+        for (int from = 0; from < total; from += jdbcBatchSize) {
+            int offset = from;
+            int count = Math.min(jdbcBatchSize, total - from);
+            jdbcTemplate.batchUpdate(INSERT_READING, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    int s = sheetOf[offset + i];
+                    int r = rowOf[offset + i];
+                    GntSheet sheet = sheets.get(s);
+                    ps.setLong(1, psTestIds[s]);
+                    ps.setInt(2, r + 1);
+                    setDouble(ps, 3, sheet.sieveMm()[r]);
+                    ps.setString(4, truncate(sheet.sieveNames()[r], 50));
+                    ps.setBoolean(5, sheet.pan()[r]);
+                    setDouble(ps, 6, sheet.retainedCumG()[r]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return count;
+                }
+            });
+        }
+        return total;
+    }
+
+    private long[] insertReturningIds(String sql, SqlParameterSource[] rows) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        namedJdbcTemplate.batchUpdate(sql, rows, keys, new String[]{"id"});
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        if (keyList.size() != rows.length) {
+            throw new IllegalStateException("Expected " + rows.length + " generated ids, got " + keyList.size());
+        }
+        long[] ids = new long[rows.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = ((Number) keyList.get(i).values().iterator().next()).longValue();
+        }
+        return ids;
+    }
+
+    private long findOrCreateSource(String name) {
+        List<Long> found = jdbcTemplate.queryForList(FIND_SOURCE, Long.class, projectId, name);
+        if (!found.isEmpty()) return found.get(0);
+        return insertReturningIds(INSERT_SOURCE, new SqlParameterSource[]{
+                new MapSqlParameterSource().addValue("projectId", projectId).addValue("name", name)
+        })[0];
+    }
+
+    private long findOrCreateSample(long sourceId, GntSheet sheet) {
+        List<Long> found = jdbcTemplate.queryForList(FIND_SAMPLE, Long.class, sourceId, truncate(sheet.sampleCode(), 100));
+        if (!found.isEmpty()) return found.get(0);
+        return insertReturningIds(INSERT_SAMPLE, new SqlParameterSource[]{
+                new MapSqlParameterSource()
+                        .addValue("sourceId", sourceId)
+                        .addValue("code", truncate(sheet.sampleCode(), 100))
+                        .addValue("depthFrom", decimal(sheet.depthFromM()), Types.DECIMAL)
+                        .addValue("depthTo", decimal(sheet.depthToM()), Types.DECIMAL)
+                        .addValue("collectionDate", sheet.samplingDate() == null ? null : Date.valueOf(sheet.samplingDate()))
+        })[0];
+    }
+
+    /**
+     * Sheets without a source label are grouped by workbook (one workbook per borehole or stockpile).
+     */
+    private static String sourceName(GntSheet sheet) {
+        if (sheet.sourceName() != null && !sheet.sourceName().isBlank()) return truncate(sheet.sourceName(), 100);
+        String workbook = sheet.workbook();
+        int dot = workbook.lastIndexOf('.');
+        return truncate(dot > 0 ? workbook.substring(0, dot) : workbook, 100);
+    }
+
+    private static String truncate(String value, int length) {
+        return value == null || value.length() <= length ? value : value.substring(0, length);
+    }
+
+    private static Double decimal(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static void setDouble(PreparedStatement ps, int index, double value) throws SQLException {
+        if (Double.isNaN(value)) ps.setNull(index, Types.DECIMAL);
+        else ps.setDouble(index, value);
+    }
+}
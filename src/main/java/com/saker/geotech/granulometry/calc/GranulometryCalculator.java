@@ -0,0 +1,116 @@
+package com.saker.geotech.granulometry.calc;
+
+/**
+ * Particle size distribution calculations (NF P94-056) on primitive sieve arrays.
+ *
+ * - total mass: dry mass before washing; falls back to the largest cumulative retained mass
+ *   (the pan row) when it was not measured
+ * - cumulative % retained / passing per sieve, clamped to [0, 100]
+ * - fines %: passing at 0.08 mm
+ * - D10 / D30 / D60: aperture at 10 / 30 / 60 % passing, interpolated linearly in log(mm)
+ * - Cu = D60 / D10, Cc = D30² / (D10 × D60)
+ *
+ * Only the two output arrays are allocated per test; no boxing or BigDecimal in the loops.
+ * Stateless and thread-safe.
+ */
+public final class GranulometryCalculator {
+
+    public static final double FINES_SIEVE_MM = 0.08;
+
+    private GranulometryCalculator() {
+    }
+
+    public static GranulometryResult compute(GranulometryInput input) {
+        int n = input.size();
+        double[] sieve = input.sieveMm();
+        double[] retained = input.retainedCumG();
+        boolean[] pan = input.pan();
+
+        double total = totalMass(input);
+        double[] percentRetained = new double[n];
+        double[] percentPassing = new double[n];
+
+        // Indices of usable curve points, sorted by ascending aperture (insertion sort: n is ~20)
+        int[] order = new int[n];
+        int points = 0;
+        for (int i = 0; i < n; i++) {
+            if (pan[i] || !(sieve[i] > 0) || Double.isNaN(retained[i]) || !(total > 0)) {
+                percentRetained[i] = Double.NaN;
+                percentPassing[i] = Double.NaN;
+                continue;
+            }
+            double r = clamp(100.0 * retained[i] / total);
+            percentRetained[i] = r;
+            percentPassing[i] = 100.0 - r;
+
+            int j = points++;
+            while (j > 0 && sieve[order[j - 1]] > sieve[i]) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = i;
+        }
+
+        double fines = passingAt(FINES_SIEVE_MM, sieve, percentPassing, order, points);
+        double d10 = apertureAt(10.0, sieve, percentPassing, order, points);
+        double d30 = apertureAt(30.0, sieve, percentPassing, order, points);
+        double d60 = apertureAt(60.0, sieve, percentPassing, order, points);
+
+        // NaN propagates: Cu/Cc stay undefined whenever one of the diameters is
+        double cu = d10 > 0 ? d60 / d10 : Double.NaN;
+        double cc = d10 > 0 && d60 > 0 ? (d30 * d30) / (d10 * d60) : Double.NaN;
+
+        return new GranulometryResult(input.psTestId(), total, percentRetained, percentPassing,
+                fines, d10, d30, d60, cu, cc);
+    }
+
+    static double totalMass(GranulometryInput input) {
+        if (input.dryMassG() > 0) return input.dryMassG();
+        double max = Double.NaN;
+        for (double mass : input.retainedCumG()) {
+            if (!Double.isNaN(mass) && (Double.isNaN(max) || mass > max)) max = mass;
+        }
+        return max;
+    }
+
+    /**
+     * % passing at an aperture, log-linear between the two bracketing sieves; NaN outside the sieve range.
+     */
+    static double passingAt(double mm, double[] sieve, double[] passing, int[] order, int points) {
+        for (int k = 0; k < points; k++) {
+            int i = order[k];
+            if (sieve[i] == mm) return passing[i];
+            if (sieve[i] > mm) {
+                if (k == 0) return Double.NaN;
+                int lo = order[k - 1];
+                double t = (Math.log(mm) - Math.log(sieve[lo])) / (Math.log(sieve[i]) - Math.log(sieve[lo]));
+                return passing[lo] + t * (passing[i] - passing[lo]);
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Aperture at which the curve reaches the given % passing: first ascending segment that brackets it.
+     * NaN if the curve never reaches the value within the sieve range.
+     */
+    static double apertureAt(double percent, double[] sieve, double[] passing, int[] order, int points) {
+        for (int k = 0; k < points; k++) {
+            int i = order[k];
+            if (passing[i] == percent) return sieve[i];
+            if (k == 0) continue;
+            int lo = order[k - 1];
+            double pLo = passing[lo];
+            double pHi = passing[i];
+            if (pLo < percent && percent < pHi) {
+                double t = (percent - pLo) / (pHi - pLo);
+                return Math.exp(Math.log(sieve[lo]) + t * (Math.log(sieve[i]) - Math.log(sieve[lo])));
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static double clamp(double percent) {
+        return percent < 0 ? 0 : Math.min(percent, 100.0);
+    }
+}
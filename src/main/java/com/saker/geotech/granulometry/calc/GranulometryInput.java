@@ -0,0 +1,30 @@
+package com.saker.geotech.granulometry.calc;
+
+/**
+ * Sieve readings of one {@code ps_tests} row as parallel primitive arrays, in {@code row_order}.
+ *
+ * - sieveMm: aperture in mm, NaN for the pan or a missing value
+ * - retainedCumG: cumulative retained mass in g, NaN if missing
+ * - pan: true for the pan row (its cumulative mass is what passed the smallest sieve)
+ * - dryMassG: {@code dry_mass_before_wash_g}, NaN if not measured
+ *
+ * The arrays are not copied; callers must not modify them after construction.
+ */
+public record GranulometryInput(
+        long psTestId,
+        double[] sieveMm,
+        double[] retainedCumG,
+        boolean[] pan,
+        double dryMassG
+) {
+
+    public GranulometryInput {
+        if (sieveMm.length != retainedCumG.length || sieveMm.length != pan.length) {
+            throw new IllegalArgumentException("Sieve arrays of ps_test " + psTestId + " differ in length");
+        }
+    }
+
+    public int size() {
+        return sieveMm.length;
+    }
+}
@@ -0,0 +1,21 @@
+package com.saker.geotech.granulometry.calc;
+
+/**
+ * Computed values of one {@code ps_tests} row. Undefined values are NaN (stored as NULL), e.g. D10
+ * when the finest sieve still passes more than 10 %.
+ *
+ * percentRetained / percentPassing are aligned with the input rows; the pan row holds NaN.
+ */
+public record GranulometryResult(
+        long psTestId,
+        double totalMassG,
+        double[] percentRetained,
+        double[] percentPassing,
+        double finesPercent,
+        double d10,
+        double d30,
+        double d60,
+        double cu,
+        double cc
+) {
+}
@@ -0,0 +1,146 @@
+package com.saker.geotech.granulometry.conformance;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Checks grading curves against their CCTP bands.
+ *
+ * Each curve is interpolated log-linearly in aperture (as {@code GranulometryCalculator} does
+ * for D10 / D30 / D60) at every band aperture, in a single merge walk over the two sorted ranges.
+ * A value equal to a bound within {@link #TOLERANCE} passes: bounds and readings are stored with
+ * three decimals.
+ *
+ * Sets above {@code granulometry.conformance.parallel-threshold} tests are split across the shared
+ * {@code computePool}; the kernel only reads and writes primitive arrays, so 5,000 curves check in a
+ * few milliseconds.
+ */
+@Component
+public class ConformanceChecker {
+
+    static final double TOLERANCE = 1e-6;
+
+    private static final byte PASS = (byte) SieveVerdict.PASS.ordinal();
+    private static final byte BELOW_MIN = (byte) SieveVerdict.BELOW_MIN.ordinal();
+    private static final byte ABOVE_MAX = (byte) SieveVerdict.ABOVE_MAX.ordinal();
+    private static final byte NOT_COVERED = (byte) SieveVerdict.NOT_COVERED.ordinal();
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public ConformanceChecker(
+            @Qualifier("computePool") ForkJoinPool pool,
+            @Value("${granulometry.conformance.parallel-threshold:256}") int threshold
+    ) {
+        this.pool = pool;
+        this.threshold = Math.max(1, threshold);
+    }
+
+    public ConformanceReport check(SpecBandSet set) {
+        ConformanceReport report = new ConformanceReport(set);
+        CheckTask task = new CheckTask(set, report, 0, set.size(), threshold);
+        if (set.size() <= threshold) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+        return report;
+    }
+
+    static void checkRange(SpecBandSet set, ConformanceReport report, int from, int to) {
+        double[] curveLogMm = set.curveLogMm;
+        double[] curvePassing = set.curvePassing;
+        double[] bandLogMm = set.bandLogMm;
+        double[] bandMin = set.bandMin;
+        double[] bandMax = set.bandMax;
+        byte[] verdicts = report.sieveVerdicts;
+        double[] passingAt = report.passingAtBand;
+
+        for (int t = from; t < to; t++) {
+            int cFrom = set.curveStart[t];
+            int cTo = set.curveStart[t + 1];
+            int bFrom = set.bandStart[t];
+            int bTo = set.bandStart[t + 1];
+
+            if (bFrom == bTo) {
+                report.testVerdicts[t] = (byte) TestVerdict.NO_BAND.ordinal();
+                continue;
+            }
+            if (cFrom == cTo) {
+                for (int b = bFrom; b < bTo; b++) {
+                    verdicts[b] = NOT_COVERED;
+                    passingAt[b] = Double.NaN;
+                }
+                report.testVerdicts[t] = (byte) TestVerdict.NO_CURVE.ordinal();
+                continue;
+            }
+
+            boolean failed = false;
+            boolean uncovered = false;
+            int c = cFrom;
+            for (int b = bFrom; b < bTo; b++) {
+                double x = bandLogMm[b];
+                // First curve point at or above the band aperture
+                while (c < cTo && curveLogMm[c] < x) c++;
+
+                double value;
+                if (c < cTo && curveLogMm[c] == x) {
+                    value = curvePassing[c];
+                } else if (c == cFrom || c == cTo) {
+                    value = Double.NaN;
+                } else {
+                    double x0 = curveLogMm[c - 1];
+                    double t0 = (x - x0) / (curveLogMm[c] - x0);
+                    value = curvePassing[c - 1] + t0 * (curvePassing[c] - curvePassing[c - 1]);
+                }
+                passingAt[b] = value;
+
+                byte verdict;
+                if (Double.isNaN(value)) verdict = NOT_COVERED;
+                else if (value < bandMin[b] - TOLERANCE) verdict = BELOW_MIN;
+                else if (value > bandMax[b] + TOLERANCE) verdict = ABOVE_MAX;
+                else verdict = PASS;
+                verdicts[b] = verdict;
+
+                failed |= verdict == BELOW_MIN || verdict == ABOVE_MAX;
+                uncovered |= verdict == NOT_COVERED;
+            }
+            TestVerdict overall = failed ? TestVerdict.FAIL : uncovered ? TestVerdict.INCOMPLETE : TestVerdict.PASS;
+            report.testVerdicts[t] = (byte) overall.ordinal();
+        }
+    }
+
+    private static final class CheckTask extends RecursiveAction {
+
+        private final SpecBandSet set;
+        private final ConformanceReport report;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        CheckTask(SpecBandSet set, ConformanceReport report, int from, int to, int threshold) {
+            this.set = set;
+            this.report = report;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                checkRange(set, report, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(
+                    new CheckTask(set, report, from, mid, threshold),
+                    new CheckTask(set, report, mid, to, threshold)
+            );
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.saker.geotech.granulometry.conformance;
+
+/**
+ * Result of {@link ConformanceChecker#check(SpecBandSet)}, aligned with the {@link SpecBandSet}:
+ * one verdict per test, and per band point the interpolated % passing (NaN if not covered)
+ * and its verdict. Verdicts are stored as enum ordinals.
+ */
+public final class ConformanceReport {
+
+    private final SpecBandSet set;
+    final byte[] testVerdicts;
+    final byte[] sieveVerdicts;
+    final double[] passingAtBand;
+
+    ConformanceReport(SpecBandSet set) {
+        this.set = set;
+        this.testVerdicts = new byte[set.size()];
+        this.sieveVerdicts = new byte[set.bandPoints()];
+        this.passingAtBand = new double[set.bandPoints()];
+    }
+
+    public int size() {
+        return set.size();
+    }
+
+    public long psTestId(int test) {
+        return set.psTestIds[test];
+    }
+
+    public TestVerdict verdict(int test) {
+        return TestVerdict.VALUES[testVerdicts[test]];
+    }
+
+    /**
+     * @return index of the test's first band point; its points are {@code [bandFrom(t), bandFrom(t + 1))}
+     */
+    public int bandFrom(int test) {
+        return set.bandStart[test];
+    }
+
+    public double bandMm(int point) {
+        return set.bandMm[point];
+    }
+
+    public double bandMin(int point) {
+        return set.bandMin[point];
+    }
+
+    public double bandMax(int point) {
+        return set.bandMax[point];
+    }
+
+    public double passingAt(int point) {
+        return passingAtBand[point];
+    }
+
+    public SieveVerdict sieveVerdict(int point) {
+        return SieveVerdict.VALUES[sieveVerdicts[point]];
+    }
+
+    public int count(TestVerdict verdict) {
+        int count = 0;
+        for (byte v : testVerdicts) {
+            if (v == verdict.ordinal()) count++;
+        }
+        return count;
+    }
+}
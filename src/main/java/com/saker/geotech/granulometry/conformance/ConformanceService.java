@@ -0,0 +1,104 @@
+package com.saker.geotech.granulometry.conformance;
+
+import com.saker.geotech.granulometry.curve.PsCurve;
+import com.saker.geotech.granulometry.curve.PsCurveCache;
+import com.saker.geotech.granulometry.dto.ConformanceSummaryDto;
+import com.saker.geotech.granulometry.dto.SieveConformanceDto;
+import com.saker.geotech.granulometry.dto.TestConformanceDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * CCTP conformance of whole projects or ad-hoc selections of tests.
+ *
+ * Curves and bands come from {@link PsCurveCache} (one bulk load on a cold cache, no query on a
+ * warm one), are packed into a {@link SpecBandSet} and checked by {@link ConformanceChecker};
+ * no entity graph is loaded.
+ */
+@Service
+public class ConformanceService {
+
+    private final PsCurveCache curveCache;
+    private final ConformanceChecker checker;
+    private final int maxTests;
+
+    public ConformanceService(
+            PsCurveCache curveCache,
+            ConformanceChecker checker,
+            @Value("${granulometry.conformance.max-tests:10000}") int maxTests
+    ) {
+        this.curveCache = curveCache;
+        this.checker = checker;
+        this.maxTests = maxTests;
+    }
+
+    public ConformanceSummaryDto checkProject(long projectId, boolean failuresOnly, boolean details) {
+        return check(curveCache.project(projectId), failuresOnly, details);
+    }
+
+    /**
+     * Tests without results nor curve are not reported.
+     *
+     * @throws IllegalArgumentException on an empty, oversized or duplicated id list
+     */
+    public ConformanceSummaryDto checkTests(List<Long> psTestIds, boolean failuresOnly, boolean details) {
+        if (psTestIds == null || psTestIds.isEmpty()) {
+            throw new IllegalArgumentException("No tests given");
+        }
+        if (psTestIds.size() > maxTests) {
+            throw new IllegalArgumentException("At most " + maxTests + " tests per request");
+        }
+        if (psTestIds.contains(null) || new HashSet<>(psTestIds).size() != psTestIds.size()) {
+            throw new IllegalArgumentException("Test ids must be distinct and not null");
+        }
+        return check(curveCache.getAll(psTestIds), failuresOnly, details);
+    }
+
+    private ConformanceSummaryDto check(List<PsCurve> curves, boolean failuresOnly, boolean details) {
+        long start = System.nanoTime();
+        ConformanceReport report = checker.check(SpecBandSet.of(curves));
+
+        List<TestConformanceDto> tests = new ArrayList<>();
+        for (int t = 0; t < report.size(); t++) {
+            TestVerdict verdict = report.verdict(t);
+            if (failuresOnly && verdict == TestVerdict.PASS) continue;
+            tests.add(toDto(report, t, details));
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        return new ConformanceSummaryDto(
+                report.size(),
+                report.count(TestVerdict.PASS),
+                report.count(TestVerdict.FAIL),
+                report.count(TestVerdict.INCOMPLETE),
+                report.count(TestVerdict.NO_BAND),
+                report.count(TestVerdict.NO_CURVE),
+                elapsedMs,
+                tests
+        );
+    }
+
+    private static TestConformanceDto toDto(ConformanceReport report, int t, boolean details) {
+        int from = report.bandFrom(t);
+        int to = report.bandFrom(t + 1);
+        int failed = 0;
+        List<SieveConformanceDto> sieves = details ? new ArrayList<>(to - from) : null;
+        for (int p = from; p < to; p++) {
+            SieveVerdict verdict = report.sieveVerdict(p);
+            if (verdict == SieveVerdict.BELOW_MIN || verdict == SieveVerdict.ABOVE_MAX) failed++;
+            if (sieves != null) {
+                sieves.add(new SieveConformanceDto(report.bandMm(p), boxed(report.bandMin(p)),
+                        boxed(report.bandMax(p)), boxed(report.passingAt(p)), verdict.name()));
+            }
+        }
+        return new TestConformanceDto(report.psTestId(t), report.verdict(t).name(), failed, sieves);
+    }
+
+    private static Double boxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
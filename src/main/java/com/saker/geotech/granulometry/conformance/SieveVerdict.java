@@ -0,0 +1,16 @@
+package com.saker.geotech.granulometry.conformance;
+
+/**
+ * Outcome of one CCTP band point: the curve interpolated at the band's aperture against min / max.
+ */
+public enum SieveVerdict {
+    PASS,
+    BELOW_MIN,
+    ABOVE_MAX,
+    /**
+     * The band aperture lies outside the sieve range of the curve.
+     */
+    NOT_COVERED;
+
+    static final SieveVerdict[] VALUES = values();
+}
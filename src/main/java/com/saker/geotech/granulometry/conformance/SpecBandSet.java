@@ -0,0 +1,127 @@
+package com.saker.geotech.granulometry.conformance;
+
+import com.saker.geotech.granulometry.curve.PsCurve;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Many grading curves and their CCTP bands packed into parallel primitive arrays, the input of
+ * {@link ConformanceChecker}.
+ *
+ * Test {@code t} owns curve points {@code [curveStart[t], curveStart[t + 1])} and band points
+ * {@code [bandStart[t], bandStart[t + 1])}; both ranges are sorted by ascending aperture and
+ * apertures are stored as {@code log(mm)}, so the checker walks them in one merge pass without
+ * sorting, boxing or calling {@link Math#log} again. Non-positive apertures (pan) are dropped.
+ * A band bound is NaN when open.
+ */
+public final class SpecBandSet {
+
+    final long[] psTestIds;
+    final int[] curveStart;
+    final double[] curveLogMm;
+    final double[] curvePassing;
+    final int[] bandStart;
+    final double[] bandMm;
+    final double[] bandLogMm;
+    final double[] bandMin;
+    final double[] bandMax;
+
+    private SpecBandSet(long[] psTestIds, int[] curveStart, double[] curveLogMm, double[] curvePassing,
+                        int[] bandStart, double[] bandMm, double[] bandLogMm, double[] bandMin, double[] bandMax) {
+        this.psTestIds = psTestIds;
+        this.curveStart = curveStart;
+        this.curveLogMm = curveLogMm;
+        this.curvePassing = curvePassing;
+        this.bandStart = bandStart;
+        this.bandMm = bandMm;
+        this.bandLogMm = bandLogMm;
+        this.bandMin = bandMin;
+        this.bandMax = bandMax;
+    }
+
+    public static SpecBandSet of(List<PsCurve> curves) {
+        int n = curves.size();
+        int curvePoints = 0;
+        int bandPoints = 0;
+        for (PsCurve curve : curves) {
+            curvePoints += curve.sieveMm().length;
+            bandPoints += curve.limitSieveMm().length;
+        }
+
+        long[] ids = new long[n];
+        int[] curveStart = new int[n + 1];
+        double[] curveLogMm = new double[curvePoints];
+        double[] curvePassing = new double[curvePoints];
+        int[] bandStart = new int[n + 1];
+        double[] bandMm = new double[bandPoints];
+        double[] bandLogMm = new double[bandPoints];
+        double[] bandMin = new double[bandPoints];
+        double[] bandMax = new double[bandPoints];
+
+        int c = 0;
+        int b = 0;
+        for (int t = 0; t < n; t++) {
+            PsCurve curve = curves.get(t);
+            ids[t] = curve.psTestId();
+
+            curveStart[t] = c;
+            for (int i : ascending(curve.sieveMm())) {
+                if (!(curve.sieveMm()[i] > 0) || Double.isNaN(curve.percentPassing()[i])) continue;
+                curveLogMm[c] = Math.log(curve.sieveMm()[i]);
+                curvePassing[c] = curve.percentPassing()[i];
+                c++;
+            }
+
+            bandStart[t] = b;
+            for (int i : ascending(curve.limitSieveMm())) {
+                double mm = curve.limitSieveMm()[i];
+                if (!(mm > 0)) continue;
+                bandMm[b] = mm;
+                bandLogMm[b] = Math.log(mm);
+                bandMin[b] = curve.limitMinPercent()[i];
+                bandMax[b] = curve.limitMaxPercent()[i];
+                b++;
+            }
+        }
+        curveStart[n] = c;
+        bandStart[n] = b;
+
+        return new SpecBandSet(ids, curveStart, curveLogMm, curvePassing,
+                bandStart, bandMm, bandLogMm, bandMin, bandMax);
+    }
+
+    public int size() {
+        return psTestIds.length;
+    }
+
+    public int bandPoints() {
+        return bandStart[psTestIds.length];
+    }
+
+    /**
+     * Index order of ascending apertures; curves are usually stored coarse to fine.
+     */
+    private static int[] ascending(double[] mm) {
+        int[] order = new int[mm.length];
+        boolean sorted = true;
+        for (int i = 0; i < mm.length; i++) {
+            order[i] = i;
+            if (i > 0 && mm[i] < mm[i - 1]) sorted = false;
+        }
+        if (sorted) return order;
+
+        boolean descending = true;
+        for (int i = 1; i < mm.length && descending; i++) {
+            if (mm[i] > mm[i - 1]) descending = false;
+        }
+        if (descending) {
+            for (int i = 0; i < mm.length; i++) order[i] = mm.length - 1 - i;
+            return order;
+        }
+        return Arrays.stream(order).boxed()
+                .sorted((x, y) -> Double.compare(mm[x], mm[y]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+}
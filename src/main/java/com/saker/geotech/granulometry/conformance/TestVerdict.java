@@ -0,0 +1,23 @@
+package com.saker.geotech.granulometry.conformance;
+
+/**
+ * Overall conformance of one test to its CCTP band.
+ */
+public enum TestVerdict {
+    /**
+     * Every band point checked and within its bounds.
+     */
+    PASS,
+    /**
+     * At least one band point below its minimum or above its maximum.
+     */
+    FAIL,
+    /**
+     * No point out of bounds, but some band apertures lie outside the curve's sieve range.
+     */
+    INCOMPLETE,
+    NO_BAND,
+    NO_CURVE;
+
+    static final TestVerdict[] VALUES = values();
+}
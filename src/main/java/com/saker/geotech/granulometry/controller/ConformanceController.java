@@ -0,0 +1,49 @@
+package com.saker.geotech.granulometry.controller;
+
+import com.saker.geotech.granulometry.conformance.ConformanceService;
+import com.saker.geotech.granulometry.dto.ConformanceRequestDto;
+import com.saker.geotech.granulometry.dto.ConformanceSummaryDto;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * CCTP spec-band conformance of grading curves.
+ */
+@RestController
+public class ConformanceController {
+
+    private final ConformanceService conformanceService;
+
+    public ConformanceController(ConformanceService conformanceService) {
+        this.conformanceService = conformanceService;
+    }
+
+    /**
+     * Every curve of the project against its band; {@code failuresOnly=true} lists only the
+     * tests that do not pass.
+     */
+    @GetMapping("/projects/{projectId}/conformance")
+    public ConformanceSummaryDto projectConformance(
+            @PathVariable long projectId,
+            @RequestParam(defaultValue = "false") boolean failuresOnly,
+            @RequestParam(defaultValue = "false") boolean details
+    ) {
+        return conformanceService.checkProject(projectId, failuresOnly, details);
+    }
+
+    @PostMapping("/ps-tests/conformance")
+    public ConformanceSummaryDto testsConformance(@RequestBody ConformanceRequestDto request) {
+        return conformanceService.checkTests(request.psTestIds(), request.failuresOnly(), request.details());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> invalidRequest(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+}
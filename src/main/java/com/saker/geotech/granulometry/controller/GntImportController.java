@@ -0,0 +1,59 @@
+package com.saker.geotech.granulometry.controller;
+
+import com.saker.geotech.granulometry.dto.GntImportRequestDto;
+import com.saker.geotech.granulometry.dto.GntImportStatusDto;
+import com.saker.geotech.granulometry.service.GntImportService;
+import com.saker.geotech.security.service.SecurityUser;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/imports/gnt")
+@PreAuthorize("hasRole('ADMIN')")
+public class GntImportController {
+
+    private final GntImportService importService;
+
+    public GntImportController(GntImportService importService) {
+        this.importService = importService;
+    }
+
+    /**
+     * Starts (or restarts after a failure) the import of a folder of workbooks.
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Long>> start(
+            @RequestBody GntImportRequestDto request,
+            @AuthenticationPrincipal SecurityUser user
+    ) {
+        long executionId = importService.start(request.directory(), request.projectId(), user.getId());
+        return ResponseEntity.accepted().body(Map.of("executionId", executionId));
+    }
+
+    @GetMapping("/{executionId}")
+    public ResponseEntity<GntImportStatusDto> status(@PathVariable long executionId) {
+        GntImportStatusDto status = importService.status(executionId);
+        return status == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(status);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> conflict(IllegalStateException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+}
@@ -0,0 +1,64 @@
+package com.saker.geotech.granulometry.controller;
+
+import com.saker.geotech.granulometry.dto.PsResultDto;
+import com.saker.geotech.granulometry.dto.RecomputeSummaryDto;
+import com.saker.geotech.granulometry.dto.SieveReadingDto;
+import com.saker.geotech.granulometry.service.GranulometryService;
+import com.saker.geotech.testrun.TestRunLockedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+public class GranulometryController {
+
+    private final GranulometryService granulometryService;
+
+    public GranulometryController(GranulometryService granulometryService) {
+        this.granulometryService = granulometryService;
+    }
+
+    /**
+     * Project-wide recompute, rewrites approved results too: managers and admins only.
+     */
+    @PostMapping("/projects/{projectId}/granulometry/recompute")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public RecomputeSummaryDto recomputeProject(@PathVariable long projectId) {
+        return granulometryService.recomputeProject(projectId);
+    }
+
+    /**
+     * Replaces the sieve table of a test and returns the recomputed results; 409 once the run is approved.
+     */
+    @PutMapping("/ps-tests/{psTestId}/readings")
+    public ResponseEntity<PsResultDto> saveReadings(
+            @PathVariable long psTestId,
+            @RequestBody List<SieveReadingDto> readings
+    ) {
+        PsResultDto result = granulometryService.saveReadings(psTestId, readings);
+        return result == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(result);
+    }
+
+    /**
+     * Same as the project recompute for one test (approved results included): managers and admins only.
+     */
+    @PostMapping("/ps-tests/{psTestId}/recompute")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<RecomputeSummaryDto> recomputeTest(@PathVariable long psTestId) {
+        RecomputeSummaryDto summary = granulometryService.recomputeTest(psTestId);
+        return summary == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(summary);
+    }
+
+    @ExceptionHandler(TestRunLockedException.class)
+    public ResponseEntity<String> conflict(TestRunLockedException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+}
@@ -0,0 +1,38 @@
+package com.saker.geotech.granulometry.controller;
+
+import com.saker.geotech.granulometry.curve.PsCurve;
+import com.saker.geotech.granulometry.curve.PsCurveCache;
+import com.saker.geotech.granulometry.dto.PsCurveDto;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Grading curves for charts, served from {@link PsCurveCache}.
+ */
+@RestController
+public class PsCurveController {
+
+    private final PsCurveCache curveCache;
+
+    public PsCurveController(PsCurveCache curveCache) {
+        this.curveCache = curveCache;
+    }
+
+    @GetMapping("/ps-tests/{psTestId}/curve")
+    public ResponseEntity<PsCurveDto> curve(@PathVariable long psTestId) {
+        PsCurve curve = curveCache.get(psTestId);
+        return curve == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(PsCurveDto.of(curve));
+    }
+
+    /**
+     * Every computed curve of the project (project overview chart).
+     */
+    @GetMapping("/projects/{projectId}/curves")
+    public List<PsCurveDto> projectCurves(@PathVariable long projectId) {
+        return curveCache.project(projectId).stream().map(PsCurveDto::of).toList();
+    }
+}
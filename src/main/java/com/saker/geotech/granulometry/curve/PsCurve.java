@@ -0,0 +1,37 @@
+package com.saker.geotech.granulometry.curve;
+
+/**
+ * Cached read model of one granulometry test: its results and grading curve as primitive arrays
+ * (about 1 KB for a 20-sieve test, against tens of KB for the equivalent entity lists).
+ *
+ * Scalars are NaN where undefined or not computed yet. Curve arrays are aligned by index, limit
+ * arrays too; {@code limitMinPercent} / {@code limitMaxPercent} hold NaN for an open bound.
+ * The arrays are shared by every reader; they must not be modified.
+ */
+public record PsCurve(
+        long psTestId,
+        double totalMassG,
+        double finesPercent,
+        double d10,
+        double d30,
+        double d60,
+        double cu,
+        double cc,
+        double[] sieveMm,
+        double[] percentPassing,
+        double[] limitSieveMm,
+        double[] limitMinPercent,
+        double[] limitMaxPercent
+) {
+
+    private static final int HEADER_BYTES = 160;
+
+    /**
+     * Approximate retained size, used as the cache weight.
+     */
+    int weightBytes() {
+        int values = sieveMm.length + percentPassing.length
+                + limitSieveMm.length + limitMinPercent.length + limitMaxPercent.length;
+        return HEADER_BYTES + values * Double.BYTES;
+    }
+}
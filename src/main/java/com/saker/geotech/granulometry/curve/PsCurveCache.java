@@ -0,0 +1,106 @@
+package com.saker.geotech.granulometry.curve;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.saker.geotech.granulometry.service.PsResultsChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-through cache of {@link PsCurve} per ps_test_id.
+ *
+ * - bounded by weight ({@code granulometry.curve-cache.max-bytes}), not entry count: a 60-sieve
+ *   test weighs three times a 20-sieve one
+ * - misses of a project page are loaded together ({@link PsCurveLoader#loadAll}), so an overview
+ *   with 40 curves is three IN queries on a cold cache and none on a warm one
+ * - invalidated after commit by {@link PsResultsChangedEvent}, which every writer of readings,
+ *   results, curve points and CCTP limits publishes
+ * - entries expire {@code granulometry.curve-cache.ttl.ms} after loading: a load that read the
+ *   rows before a commit and lands after its invalidation is only served until then
+ *
+ * Metrics: the standard {@code cache.*} meters (gets hit/miss, evictions, ...) plus
+ * {@code cache.hit.ratio}, all tagged {@code cache=psCurves}, under /actuator/metrics.
+ */
+@Component
+public class PsCurveCache {
+
+    static final String CACHE_NAME = "psCurves";
+
+    private final PsCurveLoader loader;
+    private final LoadingCache<Long, PsCurve> cache;
+
+    public PsCurveCache(
+            PsCurveLoader loader,
+            MeterRegistry meterRegistry,
+            @Value("${granulometry.curve-cache.max-bytes:33554432}") long maxBytes,
+            @Value("${granulometry.curve-cache.ttl.ms:600000}") long ttlMs
+    ) {
+        this.loader = loader;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long id, PsCurve curve) -> curve.weightBytes())
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public PsCurve load(Long psTestId) {
+                        return loader.loadAll(List.of(psTestId)).get(psTestId);
+                    }
+
+                    @Override
+                    public Map<Long, PsCurve> loadAll(Set<? extends Long> psTestIds) {
+                        return loader.loadAll(new ArrayList<>(psTestIds));
+                    }
+                });
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", CACHE_NAME)
+                .description("Hit ratio since startup")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return null if the test has no results nor curve yet
+     */
+    public PsCurve get(long psTestId) {
+        return cache.get(psTestId);
+    }
+
+    /**
+     * Curves of every test of the project that has one, in ps_test_id order.
+     */
+    public List<PsCurve> project(long projectId) {
+        return getAll(loader.projectTestIds(projectId));
+    }
+
+    /**
+     * Curves of the given tests that have one, in the order of {@code psTestIds}; misses are loaded together.
+     */
+    public List<PsCurve> getAll(List<Long> psTestIds) {
+        Map<Long, PsCurve> found = cache.getAll(psTestIds);
+        List<PsCurve> curves = new ArrayList<>(found.size());
+        for (Long id : psTestIds) {
+            PsCurve curve = found.get(id);
+            if (curve != null) curves.add(curve);
+        }
+        return curves;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPsResultsChanged(PsResultsChangedEvent event) {
+        cache.invalidateAll(Arrays.stream(event.psTestIds()).boxed().toList());
+    }
+}
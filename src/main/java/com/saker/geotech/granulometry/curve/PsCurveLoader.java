@@ -0,0 +1,147 @@
+package com.saker.geotech.granulometry.curve;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads {@link PsCurve}s for many tests at once: three single-table IN queries
+ * (ps_results, ps_curve_points, ps_cctp_limits) per chunk of tests, whatever the number of tests.
+ */
+@Component
+class PsCurveLoader {
+
+    private static final String SELECT_RESULTS = """
+            SELECT ps_test_id, total_mass_g, fines_percent, d10, d30, d60, cu, cc
+            FROM ps_results
+            WHERE ps_test_id IN (%s)
+            """;
+
+    private static final String SELECT_POINTS = """
+            SELECT ps_test_id, sieve_mm, percent_passing_cum
+            FROM ps_curve_points
+            WHERE ps_test_id IN (%s)
+            ORDER BY ps_test_id, row_order
+            """;
+
+    private static final String SELECT_LIMITS = """
+            SELECT ps_test_id, sieve_mm, min_cctp_percent, max_cctp_percent
+            FROM ps_cctp_limits
+            WHERE ps_test_id IN (%s)
+            ORDER BY ps_test_id, row_order
+            """;
+
+    private static final String SELECT_PROJECT_TESTS = """
+            SELECT pt.id
+            FROM ps_tests pt
+            JOIN test_runs tr ON tr.id = pt.test_run_id
+            JOIN samples s ON s.id = tr.sample_id
+            JOIN sample_sources ss ON ss.id = s.sample_source_id
+            WHERE ss.project_id = ? AND pt.deleted_at IS NULL AND tr.deleted_at IS NULL
+            ORDER BY pt.id
+            """;
+
+    private static final int CHUNK = 500;
+    private static final double[] EMPTY = new double[0];
+
+    private final JdbcTemplate jdbcTemplate;
+
+    PsCurveLoader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    List<Long> projectTestIds(long projectId) {
+        return jdbcTemplate.queryForList(SELECT_PROJECT_TESTS, Long.class, projectId);
+    }
+
+    /**
+     * @return curves of the tests that have results or curve points; other ids are absent
+     */
+    Map<Long, PsCurve> loadAll(List<Long> psTestIds) {
+        Map<Long, PsCurve> curves = new HashMap<>(psTestIds.size() * 2);
+        for (int from = 0; from < psTestIds.size(); from += CHUNK) {
+            loadChunk(psTestIds.subList(from, Math.min(from + CHUNK, psTestIds.size())), curves);
+        }
+        return curves;
+    }
+
+    private void loadChunk(List<Long> ids, Map<Long, PsCurve> curves) {
+        Object[] args = ids.toArray();
+        String in = String.join(", ", Collections.nCopies(args.length, "?"));
+
+        Map<Long, double[]> results = new HashMap<>();
+        jdbcTemplate.query(SELECT_RESULTS.formatted(in), rs -> {
+            double[] values = new double[7];
+            for (int c = 0; c < values.length; c++) values[c] = nullable(rs, c + 2);
+            results.put(rs.getLong(1), values);
+        }, args);
+
+        Map<Long, Series> points = new HashMap<>();
+        jdbcTemplate.query(SELECT_POINTS.formatted(in), rs -> {
+            points.computeIfAbsent(rs.getLong(1), id -> new Series(2))
+                    .add(rs.getDouble(2), rs.getDouble(3));
+        }, args);
+
+        Map<Long, Series> limits = new HashMap<>();
+        jdbcTemplate.query(SELECT_LIMITS.formatted(in), rs -> {
+            limits.computeIfAbsent(rs.getLong(1), id -> new Series(3))
+                    .add(rs.getDouble(2), nullable(rs, 3), nullable(rs, 4));
+        }, args);
+
+        for (Long id : ids) {
+            double[] r = results.get(id);
+            Series curve = points.get(id);
+            if (r == null && curve == null) continue;
+            if (r == null) {
+                r = new double[7];
+                Arrays.fill(r, Double.NaN);
+            }
+            Series limit = limits.get(id);
+            curves.put(id, new PsCurve(id, r[0], r[1], r[2], r[3], r[4], r[5], r[6],
+                    column(curve, 0), column(curve, 1),
+                    column(limit, 0), column(limit, 1), column(limit, 2)));
+        }
+    }
+
+    private static double nullable(ResultSet rs, int column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? Double.NaN : value;
+    }
+
+    private static double[] column(Series series, int column) {
+        return series == null ? EMPTY : series.column(column);
+    }
+
+    /**
+     * Growable column store for the rows of one test.
+     */
+    private static final class Series {
+
+        private final List<double[]> columns = new ArrayList<>();
+        private int size;
+
+        Series(int width) {
+            for (int c = 0; c < width; c++) columns.add(new double[16]);
+        }
+
+        void add(double... row) {
+            if (size == columns.get(0).length) {
+                columns.replaceAll(values -> Arrays.copyOf(values, size * 2));
+            }
+            for (int c = 0; c < row.length; c++) columns.get(c)[size] = row[c];
+            size++;
+        }
+
+        double[] column(int c) {
+            return Arrays.copyOf(columns.get(c), size);
+        }
+    }
+}
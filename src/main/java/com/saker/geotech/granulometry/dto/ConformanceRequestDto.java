@@ -0,0 +1,12 @@
+package com.saker.geotech.granulometry.dto;
+
+import java.util.List;
+
+/**
+ * Ad-hoc conformance check of a selection of tests.
+ *
+ * @param failuresOnly list only tests that are not {@code PASS} (counts still cover every test)
+ * @param details      include the per-sieve breakdown of each listed test
+ */
+public record ConformanceRequestDto(List<Long> psTestIds, boolean failuresOnly, boolean details) {
+}
@@ -0,0 +1,18 @@
+package com.saker.geotech.granulometry.dto;
+
+import java.util.List;
+
+/**
+ * Counts per verdict over every checked test, plus the listed tests (all, or failures only).
+ */
+public record ConformanceSummaryDto(
+        int checked,
+        int passed,
+        int failed,
+        int incomplete,
+        int noBand,
+        int noCurve,
+        long elapsedMs,
+        List<TestConformanceDto> tests
+) {
+}
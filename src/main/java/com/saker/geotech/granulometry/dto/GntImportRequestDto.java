@@ -0,0 +1,10 @@
+package com.saker.geotech.granulometry.dto;
+
+/**
+ * @param directory folder of .xlsx workbooks, relative to {@code granulometry.import.root}
+ */
+public record GntImportRequestDto(
+        String directory,
+        long projectId
+) {
+}
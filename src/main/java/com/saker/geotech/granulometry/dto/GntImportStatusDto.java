@@ -0,0 +1,12 @@
+package com.saker.geotech.granulometry.dto;
+
+public record GntImportStatusDto(
+        long executionId,
+        String status,
+        long sheets,
+        long readings,
+        long skipped,
+        double sheetsPerSecond,
+        double readingsPerSecond
+) {
+}
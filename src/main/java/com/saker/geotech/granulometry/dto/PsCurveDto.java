@@ -0,0 +1,35 @@
+package com.saker.geotech.granulometry.dto;
+
+import com.saker.geotech.granulometry.curve.PsCurve;
+
+/**
+ * Results and grading curve of one test, for charts. Curve and limit arrays are aligned by index;
+ * scalars and limit bounds are null where undefined.
+ */
+public record PsCurveDto(
+        PsResultDto results,
+        double[] sieveMm,
+        double[] percentPassing,
+        double[] limitSieveMm,
+        Double[] limitMinPercent,
+        Double[] limitMaxPercent
+) {
+
+    public static PsCurveDto of(PsCurve curve) {
+        PsResultDto results = new PsResultDto(curve.psTestId(), boxed(curve.totalMassG()),
+                boxed(curve.finesPercent()), boxed(curve.d10()), boxed(curve.d30()), boxed(curve.d60()),
+                boxed(curve.cu()), boxed(curve.cc()));
+        return new PsCurveDto(results, curve.sieveMm(), curve.percentPassing(), curve.limitSieveMm(),
+                boxed(curve.limitMinPercent()), boxed(curve.limitMaxPercent()));
+    }
+
+    private static Double boxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static Double[] boxed(double[] values) {
+        Double[] boxed = new Double[values.length];
+        for (int i = 0; i < values.length; i++) boxed[i] = boxed(values[i]);
+        return boxed;
+    }
+}
@@ -0,0 +1,16 @@
+package com.saker.geotech.granulometry.dto;
+
+/**
+ * Computed results of one test; null where undefined (e.g. D10 not reached).
+ */
+public record PsResultDto(
+        long psTestId,
+        Double totalMassG,
+        Double finesPercent,
+        Double d10,
+        Double d30,
+        Double d60,
+        Double cu,
+        Double cc
+) {
+}
@@ -0,0 +1,9 @@
+package com.saker.geotech.granulometry.dto;
+
+public record RecomputeSummaryDto(
+        long projectId,
+        int tests,
+        int readings,
+        long elapsedMs
+) {
+}
@@ -0,0 +1,14 @@
+package com.saker.geotech.granulometry.dto;
+
+/**
+ * One CCTP band point: bounds (null if open), the curve's interpolated % passing there
+ * (null if the aperture is outside the curve) and the verdict.
+ */
+public record SieveConformanceDto(
+        double sieveMm,
+        Double minPercent,
+        Double maxPercent,
+        Double percentPassing,
+        String verdict
+) {
+}
@@ -0,0 +1,12 @@
+package com.saker.geotech.granulometry.dto;
+
+/**
+ * One row of the sieve table as entered by the technician. sieveMm is null for the pan.
+ */
+public record SieveReadingDto(
+        String sieveName,
+        Double sieveMm,
+        boolean pan,
+        Double retainedMassCumG
+) {
+}
@@ -0,0 +1,14 @@
+package com.saker.geotech.granulometry.dto;
+
+import java.util.List;
+
+/**
+ * @param sieves per-sieve breakdown, null unless details were requested
+ */
+public record TestConformanceDto(
+        long psTestId,
+        String verdict,
+        int failedSieves,
+        List<SieveConformanceDto> sieves
+) {
+}
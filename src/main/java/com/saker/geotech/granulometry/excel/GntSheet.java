@@ -0,0 +1,45 @@
+package com.saker.geotech.granulometry.excel;
+
+import java.time.LocalDate;
+
+/**
+ * One "ESSAI GNT IC" worksheet: header fields plus the sieve table as parallel primitive arrays
+ * (same layout as {@code ps_sieve_readings}, in row order).
+ *
+ * Absent numeric header values are NaN, absent text/date values null.
+ */
+public record GntSheet(
+        String workbook,
+        String sheetName,
+        String sourceName,
+        String sampleCode,
+        String method,
+        LocalDate samplingDate,
+        double depthFromM,
+        double depthToM,
+        double wetMassG,
+        double moisturePercent,
+        double dryMassBeforeWashG,
+        double dryMassAfterWashG,
+        String[] sieveNames,
+        double[] sieveMm,
+        double[] retainedCumG,
+        boolean[] pan
+) {
+
+    public int readingCount() {
+        return sieveMm.length;
+    }
+
+    /**
+     * (before - after) / before × 100, NaN unless both masses are known.
+     */
+    public double washingLossPercent() {
+        if (!(dryMassBeforeWashG > 0) || Double.isNaN(dryMassAfterWashG)) return Double.NaN;
+        return (dryMassBeforeWashG - dryMassAfterWashG) / dryMassBeforeWashG * 100.0;
+    }
+
+    public String origin() {
+        return workbook + " / " + sheetName;
+    }
+}
@@ -0,0 +1,272 @@
+package com.saker.geotech.granulometry.excel;
+
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.Styles;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * SAX parser for one "ESSAI GNT IC" worksheet. Rows are streamed from the sheet XML and only the
+ * current row is kept, so memory does not depend on the sheet size.
+ *
+ * Layout (label driven, so the template versions of past years all parse):
+ * <pre>
+ *   A: label                          B..: value
+ *   Provenance / Source / Sondage     source name
+ *   Échantillon                       sample code
+ *   Profondeur de / Profondeur à      depth (m)
+ *   Date (de prélèvement)             sampling date
+ *   Méthode                           GNT, S-A-R, ...
+ *   Poids humide                      wet mass (g)
+ *   Teneur en eau / Humidité          natural moisture (%)
+ *   Poids sec avant lavage            dry mass before washing (g)
+ *   Poids sec après lavage            dry mass after washing (g)
+ *
+ *   Tamis (mm) | ... | Refus cumulés (g)      table header, columns found by label
+ *   31.5       | ... | 0
+ *   ...
+ *   Fond       | ... | 1234.5                 pan row ("fond", "pan", "passant" or 0 mm)
+ * </pre>
+ * The table ends at the first blank row after it started.
+ */
+public final class GntSheetParser {
+
+    private static final int MAX_COLUMNS = 16;
+
+    private GntSheetParser() {
+    }
+
+    /**
+     * @return the parsed sheet, or null if it has no sieve table (charts, summaries, blank templates)
+     */
+    public static GntSheet parse(String workbook, String sheetName, InputStream sheetXml,
+                                 SharedStrings strings, Styles styles) throws IOException, SAXException {
+        Handler handler = new Handler();
+        try {
+            XMLReader reader = XMLHelper.newXMLReader();
+            reader.setContentHandler(new XSSFSheetXMLHandler(styles, strings, handler, new RawValueFormatter(), false));
+            reader.parse(new InputSource(sheetXml));
+        } catch (ParserConfigurationException ex) {
+            throw new SAXException(ex);
+        }
+        return handler.toSheet(workbook, sheetName);
+    }
+
+    static String normalize(String label) {
+        String stripped = Normalizer.normalize(label, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9%]+", " ").trim();
+    }
+
+    static double number(String value) {
+        if (value == null || value.isBlank()) return Double.NaN;
+        try {
+            return Double.parseDouble(value.trim().replace(',', '.').replace(" ", ""));
+        } catch (NumberFormatException ex) {
+            return Double.NaN;
+        }
+    }
+
+    private enum Field {
+        SOURCE, SAMPLE, DEPTH_FROM, DEPTH_TO, DATE, METHOD, WET_MASS, MOISTURE, DRY_BEFORE, DRY_AFTER
+    }
+
+    private static Field field(String label) {
+        // Most specific prefixes first
+        if (label.startsWith("poids sec avant")) return Field.DRY_BEFORE;
+        if (label.startsWith("poids sec apres")) return Field.DRY_AFTER;
+        if (label.startsWith("poids humide")) return Field.WET_MASS;
+        if (label.startsWith("teneur en eau") || label.startsWith("humidite")) return Field.MOISTURE;
+        if (label.startsWith("profondeur de") || label.startsWith("prof de")) return Field.DEPTH_FROM;
+        if (label.startsWith("profondeur a") || label.startsWith("prof a")) return Field.DEPTH_TO;
+        if (label.startsWith("provenance") || label.startsWith("source") || label.startsWith("sondage")) return Field.SOURCE;
+        if (label.startsWith("echantillon") || label.startsWith("ref echantillon")) return Field.SAMPLE;
+        if (label.startsWith("methode")) return Field.METHOD;
+        if (label.startsWith("date")) return Field.DATE;
+        return null;
+    }
+
+    private static final class Handler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final String[] row = new String[MAX_COLUMNS];
+
+        // Header fields
+        private String source;
+        private String sample;
+        private String method;
+        private LocalDate date;
+        private double depthFrom = Double.NaN;
+        private double depthTo = Double.NaN;
+        private double wetMass = Double.NaN;
+        private double moisture = Double.NaN;
+        private double dryBefore = Double.NaN;
+        private double dryAfter = Double.NaN;
+
+        // Sieve table
+        private int sieveColumn = -1;
+        private int massColumn = -1;
+        private boolean tableDone;
+        private int n;
+        private String[] names = new String[24];
+        private double[] sieves = new double[24];
+        private double[] masses = new double[24];
+        private boolean[] pans = new boolean[24];
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(row, null);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            if (cellReference == null || formattedValue == null) return;
+            int column = new CellReference(cellReference).getCol();
+            if (column < MAX_COLUMNS) row[column] = formattedValue;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (tableDone) return;
+            if (sieveColumn >= 0) {
+                tableRow();
+                return;
+            }
+            if (tableHeader()) return;
+            headerRow();
+        }
+
+        private boolean tableHeader() {
+            int sieve = -1;
+            int mass = -1;
+            for (int c = 0; c < MAX_COLUMNS; c++) {
+                if (row[c] == null) continue;
+                String label = normalize(row[c]);
+                if (sieve < 0 && label.startsWith("tamis")) sieve = c;
+                else if (mass < 0 && label.contains("cumul") && !label.contains("%")) mass = c;
+            }
+            if (sieve < 0 || mass < 0) return false;
+            sieveColumn = sieve;
+            massColumn = mass;
+            return true;
+        }
+
+        private void tableRow() {
+            String sieveCell = row[sieveColumn];
+            String massCell = row[massColumn];
+            if (isBlank(sieveCell) && isBlank(massCell)) {
+                if (n > 0) tableDone = true;
+                return;
+            }
+            double mm = number(sieveCell);
+            String label = sieveCell == null ? "" : normalize(sieveCell);
+            boolean pan = mm == 0 || label.startsWith("fond") || label.startsWith("pan") || label.startsWith("passant");
+            if (Double.isNaN(mm) && !pan) return; // sub-header or note line inside the table
+
+            if (n == sieves.length) grow();
+            names[n] = sieveCell == null ? null : sieveCell.trim();
+            sieves[n] = pan ? Double.NaN : mm;
+            masses[n] = number(massCell);
+            pans[n] = pan;
+            n++;
+            if (pan) tableDone = true;
+        }
+
+        private void headerRow() {
+            for (int c = 0; c < MAX_COLUMNS - 1; c++) {
+                if (row[c] == null) continue;
+                Field field = field(normalize(row[c]));
+                if (field == null) continue;
+                String value = firstValueAfter(c);
+                if (value != null) assign(field, value.trim());
+                return;
+            }
+        }
+
+        private String firstValueAfter(int column) {
+            for (int c = column + 1; c < MAX_COLUMNS; c++) {
+                if (!isBlank(row[c])) return row[c];
+            }
+            return null;
+        }
+
+        private void assign(Field field, String value) {
+            switch (field) {
+                case SOURCE -> source = value;
+                case SAMPLE -> sample = value;
+                case METHOD -> method = value;
+                case DATE -> date = date(value);
+                case DEPTH_FROM -> depthFrom = number(value);
+                case DEPTH_TO -> depthTo = number(value);
+                case WET_MASS -> wetMass = number(value);
+                case MOISTURE -> moisture = number(value);
+                case DRY_BEFORE -> dryBefore = number(value);
+                case DRY_AFTER -> dryAfter = number(value);
+            }
+        }
+
+        private void grow() {
+            int size = sieves.length * 2;
+            names = Arrays.copyOf(names, size);
+            sieves = Arrays.copyOf(sieves, size);
+            masses = Arrays.copyOf(masses, size);
+            pans = Arrays.copyOf(pans, size);
+        }
+
+        GntSheet toSheet(String workbook, String sheetName) {
+            if (n == 0) return null;
+            return new GntSheet(workbook, sheetName, source, sample == null ? sheetName : sample, method, date,
+                    depthFrom, depthTo, wetMass, moisture, dryBefore, dryAfter,
+                    Arrays.copyOf(names, n), Arrays.copyOf(sieves, n), Arrays.copyOf(masses, n), Arrays.copyOf(pans, n));
+        }
+
+        private static LocalDate date(String value) {
+            try {
+                return LocalDate.parse(value);
+            } catch (DateTimeParseException ignored) {
+            }
+            try {
+                return LocalDate.parse(value, DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+
+        private static boolean isBlank(String value) {
+            return value == null || value.isBlank();
+        }
+    }
+
+    /**
+     * Returns numbers unformatted ("0.08", not a rounded "0.1" from the cell style) and dates as ISO.
+     */
+    private static final class RawValueFormatter extends DataFormatter {
+
+        RawValueFormatter() {
+            super(Locale.ROOT);
+        }
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value, use1904Windowing).toLocalDate().toString();
+            }
+            return Double.toString(value);
+        }
+    }
+}
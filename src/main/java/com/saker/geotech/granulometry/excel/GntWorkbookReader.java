@@ -0,0 +1,153 @@
+package com.saker.geotech.granulometry.excel;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Restartable reader over every {@code *.xlsx} workbook of a directory, one {@link GntSheet} per worksheet.
+ *
+ * Only one workbook is open at a time (shared strings + styles) and sheets are SAX-parsed one by one,
+ * so memory stays flat whatever the number of files. The position (file index, sheet index) is saved
+ * in the step's ExecutionContext at every chunk commit; a restart reopens that workbook and skips
+ * the already imported sheets without parsing them.
+ *
+ * Unreadable workbooks and sheets without a sieve table are logged and skipped ({@link #SKIPPED_SHEETS}).
+ */
+public class GntWorkbookReader implements ItemStreamReader<GntSheet> {
+
+    private static final Logger log = LoggerFactory.getLogger(GntWorkbookReader.class);
+
+    public static final String SKIPPED_SHEETS = "gnt.reader.skipped";
+
+    static final String FILE_INDEX = "gnt.reader.file";
+    static final String SHEET_INDEX = "gnt.reader.sheet";
+
+    private final Path directory;
+
+    private List<Path> files;
+    private int fileIndex;
+    private int sheetIndex;
+    private long skipped;
+
+    private OPCPackage pkg;
+    private XSSFReader.SheetIterator sheets;
+    private ReadOnlySharedStringsTable strings;
+    private StylesTable styles;
+
+    public GntWorkbookReader(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public void open(ExecutionContext context) {
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(path -> path.getFileName().toString().toLowerCase().endsWith(".xlsx"))
+                    .filter(path -> !path.getFileName().toString().startsWith("~$")) // Excel lock files
+                    .sorted()
+                    .toList();
+        } catch (IOException ex) {
+            throw new ItemStreamException("Cannot list import directory " + directory, ex);
+        }
+        fileIndex = context.getInt(FILE_INDEX, 0);
+        sheetIndex = context.getInt(SHEET_INDEX, 0);
+        skipped = context.getLong(SKIPPED_SHEETS, 0L);
+        log.info("GNT import: {} workbooks in {}, starting at workbook {} sheet {}",
+                files.size(), directory, fileIndex, sheetIndex);
+    }
+
+    @Override
+    public GntSheet read() {
+        while (fileIndex < files.size()) {
+            if (sheets == null && !openWorkbook(files.get(fileIndex))) {
+                nextWorkbook();
+                continue;
+            }
+            while (sheets.hasNext()) {
+                GntSheet sheet = parseNextSheet();
+                if (sheet != null) return sheet;
+            }
+            nextWorkbook();
+        }
+        return null;
+    }
+
+    @Override
+    public void update(ExecutionContext context) {
+        context.putInt(FILE_INDEX, fileIndex);
+        context.putInt(SHEET_INDEX, sheetIndex);
+        context.putLong(SKIPPED_SHEETS, skipped);
+    }
+
+    @Override
+    public void close() {
+        closeWorkbook();
+    }
+
+    private GntSheet parseNextSheet() {
+        String workbook = files.get(fileIndex).getFileName().toString();
+        try (InputStream xml = sheets.next()) {
+            String sheetName = sheets.getSheetName();
+            sheetIndex++;
+            GntSheet sheet = GntSheetParser.parse(workbook, sheetName, xml, strings, styles);
+            if (sheet == null) skipped++;
+            return sheet;
+        } catch (Exception ex) {
+            skipped++;
+            log.warn("GNT import: skipping sheet {} of {}: {}", sheetIndex, workbook, ex.getMessage());
+            return null;
+        }
+    }
+
+    private boolean openWorkbook(Path file) {
+        try {
+            pkg = OPCPackage.open(file.toFile(), PackageAccess.READ);
+            XSSFReader reader = new XSSFReader(pkg);
+            strings = new ReadOnlySharedStringsTable(pkg, false);
+            styles = reader.getStylesTable();
+            sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+
+            // Restart: skip the sheets already committed without parsing them
+            for (int i = 0; i < sheetIndex && sheets.hasNext(); i++) {
+                sheets.next().close();
+            }
+            return true;
+        } catch (Exception ex) {
+            skipped++;
+            log.warn("GNT import: skipping unreadable workbook {}: {}", file.getFileName(), ex.getMessage());
+            closeWorkbook();
+            return false;
+        }
+    }
+
+    private void nextWorkbook() {
+        closeWorkbook();
+        fileIndex++;
+        sheetIndex = 0;
+    }
+
+    private void closeWorkbook() {
+        sheets = null;
+        strings = null;
+        styles = null;
+        if (pkg != null) {
+            pkg.revert(); // read-only: never write back to the source file
+            pkg = null;
+        }
+    }
+}
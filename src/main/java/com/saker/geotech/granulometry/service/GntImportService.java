@@ -0,0 +1,116 @@
+package com.saker.geotech.granulometry.service;
+
+import com.saker.geotech.granulometry.batch.GntImportJobConfig;
+import com.saker.geotech.granulometry.batch.GntImportProgress;
+import com.saker.geotech.granulometry.dto.GntImportStatusDto;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Starts and monitors the Excel import job ({@link GntImportJobConfig}).
+ *
+ * Imports run on {@code batchTaskExecutor}, so the request returns the execution id immediately.
+ * Directories are resolved under {@code granulometry.import.root} and may not escape it.
+ */
+@Service
+public class GntImportService {
+
+    private final Job gntImportJob;
+    private final JobExplorer jobExplorer;
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskExecutorJobLauncher launcher;
+    private final Path root;
+
+    public GntImportService(
+            @Qualifier("gntImportJob") Job gntImportJob,
+            JobRepository jobRepository,
+            JobExplorer jobExplorer,
+            JdbcTemplate jdbcTemplate,
+            @Qualifier("batchTaskExecutor") TaskExecutor batchTaskExecutor,
+            @Value("${granulometry.import.root:imports}") String root
+    ) throws Exception {
+        this.gntImportJob = gntImportJob;
+        this.jobExplorer = jobExplorer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.root = Path.of(root).toAbsolutePath().normalize();
+
+        // Not a bean: Spring Boot's synchronous jobLauncher stays the only JobLauncher in the context
+        this.launcher = new TaskExecutorJobLauncher();
+        this.launcher.setJobRepository(jobRepository);
+        this.launcher.setTaskExecutor(batchTaskExecutor);
+        this.launcher.afterPropertiesSet();
+    }
+
+    /**
+     * Starts an import, or restarts the failed import of the same directory and project.
+     *
+     * @throws IllegalArgumentException unknown project or directory
+     * @throws IllegalStateException    the import is already running or completed
+     */
+    public long start(String directory, long projectId, long createdBy) {
+        Path dir = resolve(directory);
+        Integer projects = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM projects WHERE id = ? AND deleted_at IS NULL", Integer.class, projectId);
+        if (projects == null || projects == 0) {
+            throw new IllegalArgumentException("Unknown project " + projectId);
+        }
+
+        try {
+            JobExecution execution = launcher.run(gntImportJob, new JobParametersBuilder()
+                    .addString("directory", dir.toString())
+                    .addLong("projectId", projectId)
+                    .addLong("createdBy", createdBy, false)
+                    .toJobParameters());
+            return execution.getId();
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * @return null if there is no such import execution
+     */
+    public GntImportStatusDto status(long executionId) {
+        JobExecution execution = jobExplorer.getJobExecution(executionId);
+        if (execution == null || !GntImportJobConfig.JOB_NAME.equals(execution.getJobInstance().getJobName())) {
+            return null;
+        }
+        GntImportProgress progress = execution.getStepExecutions().stream()
+                .filter(step -> GntImportJobConfig.IMPORT_STEP.equals(step.getStepName()))
+                .findFirst()
+                .map(GntImportProgress::of)
+                .orElse(GntImportProgress.NONE);
+        return new GntImportStatusDto(
+                executionId,
+                execution.getStatus().name(),
+                progress.sheets(),
+                progress.readings(),
+                progress.skipped(),
+                progress.sheetsPerSecond(),
+                progress.readingsPerSecond()
+        );
+    }
+
+    private Path resolve(String directory) {
+        if (directory == null || directory.isBlank()) {
+            throw new IllegalArgumentException("directory is required");
+        }
+        Path dir = root.resolve(directory).normalize();
+        if (!dir.startsWith(root) || !Files.isDirectory(dir)) {
+            throw new IllegalArgumentException("Not an import directory: " + directory);
+        }
+        return dir;
+    }
+}
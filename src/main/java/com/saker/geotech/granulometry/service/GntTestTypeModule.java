@@ -0,0 +1,109 @@
+package com.saker.geotech.granulometry.service;
+
+import com.saker.geotech.granulometry.calc.GranulometryCalculator;
+import com.saker.geotech.granulometry.calc.GranulometryInput;
+import com.saker.geotech.granulometry.calc.GranulometryResult;
+import com.saker.geotech.testtype.TestCalculator;
+import com.saker.geotech.testtype.TestPersistenceMapper;
+import com.saker.geotech.testtype.TestType;
+import com.saker.geotech.testtype.TestTypeContext;
+import com.saker.geotech.testtype.TestTypeModule;
+import com.saker.geotech.testtype.TestValidator;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Granulometry by dry sieving after washing (NF P94-056), stored in ps_tests / ps_sieve_readings.
+ *
+ * Reuses the granulometry beans: {@link SieveReadingLoader} to load, {@link GranulometryCalculator}
+ * to compute and {@link PsResultsWriter} to write. It is the only project recompute path for
+ * granulometry: {@link GranulometryService#recomputeProject} delegates here.
+ */
+@TestType(value = GntTestTypeModule.TEST_TYPE, displayName = "Analyse granulométrique (NF P94-056)")
+public class GntTestTypeModule implements TestTypeModule<GntTestTypeModule.GntReadings, GranulometryResult> {
+
+    public static final String TEST_TYPE = "PARTICLE_SIZE_GNT";
+
+    private SieveReadingLoader loader;
+    private PsResultsWriter writer;
+    private ApplicationEventPublisher events;
+
+    /**
+     * One test's readings and the ids of their rows (the per-reading percentages are written back).
+     */
+    public record GntReadings(GranulometryInput input, long[] readingIds) {
+    }
+
+    @Override
+    public void initialize(TestTypeContext context) {
+        this.loader = context.bean(SieveReadingLoader.class);
+        this.writer = context.bean(PsResultsWriter.class);
+        this.events = context.events();
+    }
+
+    @Override
+    public TestCalculator<GntReadings, GranulometryResult> calculator() {
+        return readings -> GranulometryCalculator.compute(readings.input());
+    }
+
+    @Override
+    public TestValidator<GntReadings> validator() {
+        return readings -> problem(readings.input());
+    }
+
+    /**
+     * Validation rule of every recompute path ({@link GranulometryService#recomputeTest} included).
+     *
+     * @return why the test cannot be computed, or null
+     */
+    static String problem(GranulometryInput input) {
+        if (input.size() == 0) return "ps_test " + input.psTestId() + ": no sieve readings";
+        for (double retained : input.retainedCumG()) {
+            if (!Double.isNaN(retained)) return null;
+        }
+        return "ps_test " + input.psTestId() + ": no retained mass entered";
+    }
+
+    @Override
+    public TestPersistenceMapper<GntReadings, GranulometryResult> persistence() {
+        return new TestPersistenceMapper<>() {
+            @Override
+            public TestBatch<GntReadings> loadProject(long projectId) {
+                SieveReadingLoader.LoadedReadings loaded = loader.loadProject(projectId);
+                GntReadings[] inputs = new GntReadings[loaded.inputs().length];
+                for (int i = 0; i < inputs.length; i++) {
+                    inputs[i] = new GntReadings(loaded.inputs()[i], loaded.readingIds()[i]);
+                }
+                return new TestBatch<>(projectId, inputs, loaded.readingCount());
+            }
+
+            @Override
+            public void write(TestBatch<GntReadings> batch, GranulometryResult[] results) {
+                int computed = 0;
+                for (GranulometryResult result : results) {
+                    if (result != null) computed++;
+                }
+                if (computed == 0) return;
+
+                GranulometryInput[] inputs = new GranulometryInput[computed];
+                GranulometryResult[] written = new GranulometryResult[computed];
+                long[][] readingIds = new long[computed][];
+                long[] psTestIds = new long[computed];
+                for (int i = 0, k = 0; i < results.length; i++) {
+                    if (results[i] == null) continue;
+                    inputs[k] = batch.inputs()[i].input();
+                    readingIds[k] = batch.inputs()[i].readingIds();
+                    written[k] = results[i];
+                    psTestIds[k] = inputs[k].psTestId();
+                    k++;
+                }
+                writer.write(inputs, written, readingIds);
+                events.publishEvent(new PsResultsChangedEvent(batch.projectId(), psTestIds));
+            }
+        };
+    }
+
+    @Override
+    public GranulometryResult[] newResultArray(int size) {
+        return new GranulometryResult[size];
+    }
+}
@@ -0,0 +1,152 @@
+package com.saker.geotech.granulometry.service;
+
+import com.saker.geotech.audit.AuditEvent;
+import com.saker.geotech.audit.AuditEventType;
+import com.saker.geotech.audit.AuditLog;
+import com.saker.geotech.granulometry.calc.GranulometryCalculator;
+import com.saker.geotech.granulometry.calc.GranulometryInput;
+import com.saker.geotech.granulometry.calc.GranulometryResult;
+import com.saker.geotech.granulometry.dto.PsResultDto;
+import com.saker.geotech.granulometry.dto.RecomputeSummaryDto;
+import com.saker.geotech.granulometry.dto.SieveReadingDto;
+import com.saker.geotech.testrun.TestRunLockedException;
+import com.saker.geotech.testrun.TestRunStatus;
+import com.saker.geotech.testtype.dto.TypeRecomputeDto;
+import com.saker.geotech.testtype.service.TestTypeRecomputeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Saves sieve tables and recomputes granulometry results from the stored readings.
+ *
+ * Project recomputes go through the shared test type path ({@link TestTypeRecomputeService},
+ * {@link GntTestTypeModule}): load (one streaming query) -> validate + compute on the shared pool ->
+ * write (JDBC batches), all in one transaction, so a project is either fully recomputed or left
+ * untouched. Single tests are computed on the calling thread with the same validation rule.
+ * A {@link PsResultsChangedEvent} is published for the rewritten tests. Saved sieve tables and
+ * project recomputes are recorded in the {@link AuditLog} with the acting user.
+ */
+@Service
+public class GranulometryService {
+
+    private static final Logger log = LoggerFactory.getLogger(GranulometryService.class);
+
+    private final SieveReadingLoader loader;
+    private final TestTypeRecomputeService recomputeService;
+    private final PsResultsWriter writer;
+    private final SieveReadingWriter readingWriter;
+    private final ApplicationEventPublisher events;
+    private final AuditLog auditLog;
+
+    public GranulometryService(
+            SieveReadingLoader loader,
+            TestTypeRecomputeService recomputeService,
+            PsResultsWriter writer,
+            SieveReadingWriter readingWriter,
+            ApplicationEventPublisher events,
+            AuditLog auditLog
+    ) {
+        this.loader = loader;
+        this.recomputeService = recomputeService;
+        this.writer = writer;
+        this.readingWriter = readingWriter;
+        this.events = events;
+        this.auditLog = auditLog;
+    }
+
+    /**
+     * Saves the sieve table of a test and its results: the readings are computed first, then written
+     * as one batched INSERT (percentages included), followed by the results upsert and curve points.
+     *
+     * @return null if the test does not exist
+     * @throws TestRunLockedException if the test run is approved: it must be sent back first
+     */
+    @Transactional
+    public PsResultDto saveReadings(long psTestId, List<SieveReadingDto> readings) {
+        SieveReadingLoader.TestHeader header = loader.loadHeaderForWrite(psTestId);
+        if (header == null) return null;
+        if (header.runStatus() == TestRunStatus.APPROVED) {
+            throw new TestRunLockedException("Test run of test " + psTestId + " is approved; its readings cannot be changed");
+        }
+
+        int n = readings.size();
+        String[] names = new String[n];
+        double[] sieveMm = new double[n];
+        double[] retained = new double[n];
+        boolean[] pan = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            SieveReadingDto reading = readings.get(i);
+            names[i] = reading.sieveName();
+            sieveMm[i] = reading.pan() || reading.sieveMm() == null ? Double.NaN : reading.sieveMm();
+            retained[i] = reading.retainedMassCumG() == null ? Double.NaN : reading.retainedMassCumG();
+            pan[i] = reading.pan();
+        }
+
+        GranulometryInput input = new GranulometryInput(psTestId, sieveMm, retained, pan, header.dryMassG());
+        GranulometryResult result = GranulometryCalculator.compute(input);
+        readingWriter.replace(input, names, result);
+        writer.writeResults(new GranulometryInput[]{input}, new GranulometryResult[]{result});
+
+        events.publishEvent(new PsResultsChangedEvent(header.projectId(), new long[]{psTestId}));
+        auditLog.recordAfterCommit(AuditEvent.entity(AuditEventType.SIEVE_READINGS_SAVED, AuditLog.currentUserId(),
+                header.projectId(), psTestId, n + " readings"));
+        return toDto(result);
+    }
+
+    /**
+     * Recomputes every granulometry test of the project (e.g. after a calibration fix).
+     * The audit event is recorded by the shared {@link TestTypeRecomputeService} path.
+     */
+    @Transactional
+    public RecomputeSummaryDto recomputeProject(long projectId) {
+        long start = System.nanoTime();
+        TypeRecomputeDto type = recomputeService.recomputeType(projectId, GntTestTypeModule.TEST_TYPE);
+        RecomputeSummaryDto summary = new RecomputeSummaryDto(projectId, type.computed(), type.readings(),
+                (System.nanoTime() - start) / 1_000_000);
+        log.info("Granulometry recomputed for project {}: {} tests ({} skipped: {}), {} readings in {} ms",
+                projectId, summary.tests(), type.skipped(), type.problems(), summary.readings(), summary.elapsedMs());
+        return summary;
+    }
+
+    /**
+     * Recomputes one test, typically right after its readings were saved.
+     *
+     * @return null if the test does not exist
+     */
+    @Transactional
+    public RecomputeSummaryDto recomputeTest(long psTestId) {
+        long start = System.nanoTime();
+        SieveReadingLoader.TestHeader header = loader.loadHeader(psTestId);
+        if (header == null) return null;
+        SieveReadingLoader.LoadedReadings loaded = loader.loadTest(psTestId);
+
+        String problem = loaded.inputs().length == 1 ? GntTestTypeModule.problem(loaded.inputs()[0]) :
+                "ps_test " + psTestId + ": no sieve readings";
+        int computed = 0;
+        if (problem == null) {
+            GranulometryInput input = loaded.inputs()[0];
+            writer.write(new GranulometryInput[]{input}, new GranulometryResult[]{GranulometryCalculator.compute(input)},
+                    loaded.readingIds());
+            events.publishEvent(new PsResultsChangedEvent(header.projectId(), new long[]{psTestId}));
+            computed = 1;
+        }
+        auditLog.recordAfterCommit(AuditEvent.entity(AuditEventType.PS_TEST_RECOMPUTED, AuditLog.currentUserId(),
+                header.projectId(), psTestId, problem == null ? loaded.readingCount() + " readings" : "skipped: " + problem));
+        return new RecomputeSummaryDto(header.projectId(), computed, loaded.readingCount(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static PsResultDto toDto(GranulometryResult r) {
+        return new PsResultDto(r.psTestId(), boxed(r.totalMassG()), boxed(r.finesPercent()),
+                boxed(r.d10()), boxed(r.d30()), boxed(r.d60()), boxed(r.cu()), boxed(r.cc()));
+    }
+
+    private static Double boxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
@@ -0,0 +1,8 @@
+package com.saker.geotech.granulometry.service;
+
+/**
+ * Published after {@code ps_results} / {@code ps_curve_points} of the listed tests were rewritten.
+ * The array is owned by the event; listeners must not modify it.
+ */
+public record PsResultsChangedEvent(long projectId, long[] psTestIds) {
+}
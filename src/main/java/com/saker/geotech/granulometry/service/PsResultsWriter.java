@@ -0,0 +1,195 @@
+package com.saker.geotech.granulometry.service;
+
+import com.saker.geotech.granulometry.calc.GranulometryInput;
+import com.saker.geotech.granulometry.calc.GranulometryResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Writes computed results with JDBC batches (no entity per row):
+ *
+ * - ps_sieve_readings: cumulative % retained / passing per reading
+ * - ps_results: one upsert per test
+ * - ps_curve_points: replaced per test by the non-pan points of the curve
+ *
+ * Values outside the DECIMAL range of their column (e.g. a huge Cu) are stored as NULL.
+ */
+@Component
+class PsResultsWriter {
+
+    private static final String UPDATE_READING = """
+            UPDATE ps_sieve_readings
+            SET percent_retained_cum = ?, percent_passing_cum = ?
+            WHERE id = ?
+            """;
+
+    private static final String UPSERT_RESULT = """
+            INSERT INTO ps_results (ps_test_id, total_mass_g, fines_percent, d10, d30, d60, cu, cc)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                total_mass_g = VALUES(total_mass_g),
+                fines_percent = VALUES(fines_percent),
+                d10 = VALUES(d10), d30 = VALUES(d30), d60 = VALUES(d60),
+                cu = VALUES(cu), cc = VALUES(cc)
+            """;
+
+    private static final String DELETE_CURVE = "DELETE FROM ps_curve_points WHERE ps_test_id = ?";
+
+    private static final String INSERT_CURVE_POINT = """
+            INSERT INTO ps_curve_points (ps_test_id, row_order, sieve_mm, percent_passing_cum)
+            VALUES (?, ?, ?, ?)
+            """;
+
+    // Column limits: DECIMAL(10,3), DECIMAL(6,3), DECIMAL(6,2)
+    private static final double MAX_MASS = 9_999_999.999;
+    private static final double MAX_6_3 = 999.999;
+    private static final double MAX_6_2 = 9_999.99;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    PsResultsWriter(
+            JdbcTemplate jdbcTemplate,
+            @Value("${granulometry.recompute.batch-size:500}") int batchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param inputs     inputs of {@code results}, same order
+     * @param readingIds reading ids aligned with each input's arrays
+     */
+    void write(GranulometryInput[] inputs, GranulometryResult[] results, long[][] readingIds) {
+        updateReadings(results, readingIds);
+        writeResults(inputs, results);
+    }
+
+    /**
+     * ps_results and ps_curve_points only (readings already carry their percentages).
+     */
+    void writeResults(GranulometryInput[] inputs, GranulometryResult[] results) {
+        upsertResults(results);
+        replaceCurvePoints(inputs, results);
+    }
+
+    private void updateReadings(GranulometryResult[] results, long[][] readingIds) {
+        FlatIndex rows = FlatIndex.all(readingIds);
+        batch(UPDATE_READING, rows.size(), (ps, k) -> {
+            GranulometryResult result = results[rows.test(k)];
+            int i = rows.row(k);
+            setDecimal(ps, 1, result.percentRetained()[i], MAX_6_3);
+            setDecimal(ps, 2, result.percentPassing()[i], MAX_6_3);
+            ps.setLong(3, readingIds[rows.test(k)][i]);
+        });
+    }
+
+    private void upsertResults(GranulometryResult[] results) {
+        batch(UPSERT_RESULT, results.length, (ps, k) -> {
+            GranulometryResult result = results[k];
+            ps.setLong(1, result.psTestId());
+            setDecimal(ps, 2, result.totalMassG(), MAX_MASS);
+            setDecimal(ps, 3, result.finesPercent(), MAX_6_3);
+            setDecimal(ps, 4, result.d10(), MAX_6_3);
+            setDecimal(ps, 5, result.d30(), MAX_6_3);
+            setDecimal(ps, 6, result.d60(), MAX_6_3);
+            setDecimal(ps, 7, result.cu(), MAX_6_2);
+            setDecimal(ps, 8, result.cc(), MAX_6_2);
+        });
+    }
+
+    private void replaceCurvePoints(GranulometryInput[] inputs, GranulometryResult[] results) {
+        batch(DELETE_CURVE, results.length, (ps, k) -> ps.setLong(1, results[k].psTestId()));
+
+        // Points with a defined % passing (the pan and incomplete rows are left out)
+        long[][] points = new long[results.length][];
+        for (int t = 0; t < results.length; t++) {
+            double[] passing = results[t].percentPassing();
+            int count = 0;
+            for (double p : passing) if (!Double.isNaN(p)) count++;
+            long[] rowsOfTest = new long[count];
+            for (int i = 0, j = 0; i < passing.length; i++) if (!Double.isNaN(passing[i])) rowsOfTest[j++] = i;
+            points[t] = rowsOfTest;
+        }
+        FlatIndex rows = FlatIndex.all(points);
+        batch(INSERT_CURVE_POINT, rows.size(), (ps, k) -> {
+            int t = rows.test(k);
+            int order = rows.row(k);
+            int i = (int) points[t][order];
+            ps.setLong(1, results[t].psTestId());
+            ps.setInt(2, order + 1);
+            ps.setDouble(3, inputs[t].sieveMm()[i]);
+            ps.setDouble(4, results[t].percentPassing()[i]);
+        });
+    }
+
+    private void batch(String sql, int size, RowSetter setter) {
+        for (int from = 0; from < size; from += batchSize) {
+            int offset = from;
+            int count = Math.min(batchSize, size - from);
+            jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    setter.set(ps, offset + i);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return count;
+                }
+            });
+        }
+    }
+
+    private static void setDecimal(PreparedStatement ps, int index, double value, double max) throws SQLException {
+        if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) > max) {
+            ps.setNull(index, Types.DECIMAL);
+        } else {
+            ps.setDouble(index, value);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowSetter {
+        void set(PreparedStatement ps, int k) throws SQLException;
+    }
+
+    /**
+     * Maps a flat batch index to (test, row) over jagged per-test arrays without boxing.
+     */
+    private record FlatIndex(int[] tests, int[] rows) {
+
+        static FlatIndex all(long[][] perTest) {
+            int total = 0;
+            for (long[] rowsOfTest : perTest) total += rowsOfTest.length;
+            int[] tests = new int[total];
+            int[] rows = new int[total];
+            int k = 0;
+            for (int t = 0; t < perTest.length; t++) {
+                for (int i = 0; i < perTest[t].length; i++, k++) {
+                    tests[k] = t;
+                    rows[k] = i;
+                }
+            }
+            return new FlatIndex(tests, rows);
+        }
+
+        int size() {
+            return tests.length;
+        }
+
+        int test(int k) {
+            return tests[k];
+        }
+
+        int row(int k) {
+            return rows[k];
+        }
+    }
+}
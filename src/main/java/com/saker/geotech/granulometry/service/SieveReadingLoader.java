@@ -0,0 +1,170 @@
+package com.saker.geotech.granulometry.service;
+
+import com.saker.geotech.granulometry.calc.GranulometryInput;
+import com.saker.geotech.testrun.TestRunStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streams {@code ps_sieve_readings} straight into primitive arrays, one {@link GranulometryInput}
+ * per test. Values are read with {@code getDouble} (no BigDecimal per cell) and a single query
+ * covers a whole project.
+ */
+@Component
+class SieveReadingLoader {
+
+    private static final String SELECT_READINGS = """
+            SELECT r.id, r.ps_test_id, r.sieve_mm, r.is_pan, r.retained_mass_cum_g,
+                   pt.dry_mass_before_wash_g, ss.project_id
+            FROM ps_sieve_readings r
+            JOIN ps_tests pt ON pt.id = r.ps_test_id
+            JOIN test_runs tr ON tr.id = pt.test_run_id
+            JOIN samples s ON s.id = tr.sample_id
+            JOIN sample_sources ss ON ss.id = s.sample_source_id
+            WHERE %s
+              AND pt.deleted_at IS NULL AND tr.deleted_at IS NULL
+            ORDER BY r.ps_test_id, r.row_order
+            """;
+
+    private static final String SELECT_TEST = """
+            SELECT pt.dry_mass_before_wash_g, ss.project_id, tr.status
+            FROM ps_tests pt
+            JOIN test_runs tr ON tr.id = pt.test_run_id
+            JOIN samples s ON s.id = tr.sample_id
+            JOIN sample_sources ss ON ss.id = s.sample_source_id
+            WHERE pt.id = ? AND pt.deleted_at IS NULL AND tr.deleted_at IS NULL
+            """;
+
+    /**
+     * Shared lock on the run: an approval waits until the readings being saved are committed.
+     */
+    private static final String SELECT_TEST_FOR_WRITE = SELECT_TEST.strip() + " FOR SHARE OF tr";
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    SieveReadingLoader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    LoadedReadings loadProject(long projectId) {
+        return load("ss.project_id = ?", projectId);
+    }
+
+    LoadedReadings loadTest(long psTestId) {
+        return load("r.ps_test_id = ?", psTestId);
+    }
+
+    /**
+     * @return null if the test does not exist or was deleted
+     */
+    TestHeader loadHeader(long psTestId) {
+        return header(SELECT_TEST, psTestId);
+    }
+
+    /**
+     * Same as {@link #loadHeader}, and keeps the run's status from changing until the transaction ends.
+     */
+    TestHeader loadHeaderForWrite(long psTestId) {
+        return header(SELECT_TEST_FOR_WRITE, psTestId);
+    }
+
+    private TestHeader header(String sql, long psTestId) {
+        List<TestHeader> found = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            double dryMass = rs.getDouble(1);
+            if (rs.wasNull()) dryMass = Double.NaN;
+            return new TestHeader(psTestId, rs.getLong(2), dryMass, TestRunStatus.valueOf(rs.getString(3)));
+        }, psTestId);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    private LoadedReadings load(String where, long id) {
+        Collector collector = new Collector();
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(SELECT_READINGS.formatted(where));
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setLong(1, id);
+            return ps;
+        }, collector);
+        return collector.finish();
+    }
+
+    record TestHeader(long psTestId, long projectId, double dryMassG, TestRunStatus runStatus) {
+    }
+
+    /**
+     * All readings of the loaded tests. {@code readingIds[t]} is aligned with the arrays of {@code inputs[t]}.
+     */
+    record LoadedReadings(long projectId, GranulometryInput[] inputs, long[][] readingIds, int readingCount) {
+    }
+
+    private static final class Collector implements RowCallbackHandler {
+
+        private final List<GranulometryInput> inputs = new ArrayList<>();
+        private final List<long[]> readingIds = new ArrayList<>();
+        private long projectId = -1;
+        private int readingCount;
+
+        // Rows of the test currently being read
+        private long currentTest = -1;
+        private double currentDryMass;
+        private int n;
+        private long[] ids = new long[32];
+        private double[] sieve = new double[32];
+        private double[] retained = new double[32];
+        private boolean[] pan = new boolean[32];
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long testId = rs.getLong(2);
+            if (testId != currentTest) {
+                flush();
+                currentTest = testId;
+                currentDryMass = nullableDouble(rs, 6);
+                projectId = rs.getLong(7);
+            }
+            if (n == ids.length) grow();
+            ids[n] = rs.getLong(1);
+            sieve[n] = nullableDouble(rs, 3);
+            pan[n] = rs.getBoolean(4);
+            retained[n] = nullableDouble(rs, 5);
+            n++;
+            readingCount++;
+        }
+
+        LoadedReadings finish() {
+            flush();
+            return new LoadedReadings(projectId, inputs.toArray(GranulometryInput[]::new),
+                    readingIds.toArray(long[][]::new), readingCount);
+        }
+
+        private void flush() {
+            if (n == 0) return;
+            inputs.add(new GranulometryInput(currentTest,
+                    Arrays.copyOf(sieve, n), Arrays.copyOf(retained, n), Arrays.copyOf(pan, n), currentDryMass));
+            readingIds.add(Arrays.copyOf(ids, n));
+            n = 0;
+        }
+
+        private void grow() {
+            int size = ids.length * 2;
+            ids = Arrays.copyOf(ids, size);
+            sieve = Arrays.copyOf(sieve, size);
+            retained = Arrays.copyOf(retained, size);
+            pan = Arrays.copyOf(pan, size);
+        }
+
+        private static double nullableDouble(ResultSet rs, int column) throws SQLException {
+            double value = rs.getDouble(column);
+            return rs.wasNull() ? Double.NaN : value;
+        }
+    }
+}
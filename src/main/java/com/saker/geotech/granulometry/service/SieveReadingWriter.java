@@ -0,0 +1,69 @@
+package com.saker.geotech.granulometry.service;
+
+import com.saker.geotech.granulometry.calc.GranulometryInput;
+import com.saker.geotech.granulometry.calc.GranulometryResult;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Replaces the sieve readings of one test with a single JDBC batch.
+ *
+ * ps_sieve_readings uses IDENTITY ids, which stops Hibernate from batching inserts (it needs each
+ * generated id back immediately): saving 20 readings through JPA is 20 INSERT round trips.
+ * Here the batch is sent once and, with {@code rewriteBatchedStatements=true}, the driver turns it
+ * into one multi-row INSERT. Percentages are computed beforehand and written in the same statement.
+ */
+@Component
+class SieveReadingWriter {
+
+    private static final String DELETE_READINGS = "DELETE FROM ps_sieve_readings WHERE ps_test_id = ?";
+
+    // Readings have no timestamps of their own: the sync change feed sees them through their test
+    private static final String TOUCH_TEST = "UPDATE ps_tests SET updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+
+    private static final String INSERT_READING = """
+            INSERT INTO ps_sieve_readings (ps_test_id, row_order, sieve_mm, sieve_name, is_pan,
+                                           retained_mass_cum_g, percent_retained_cum, percent_passing_cum)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    SieveReadingWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    void replace(GranulometryInput input, String[] sieveNames, GranulometryResult result) {
+        long psTestId = input.psTestId();
+        jdbcTemplate.update(DELETE_READINGS, psTestId);
+        jdbcTemplate.batchUpdate(INSERT_READING, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, psTestId);
+                ps.setInt(2, i + 1);
+                setDecimal(ps, 3, input.sieveMm()[i]);
+                ps.setString(4, sieveNames[i]);
+                ps.setBoolean(5, input.pan()[i]);
+                setDecimal(ps, 6, input.retainedCumG()[i]);
+                setDecimal(ps, 7, result.percentRetained()[i]);
+                setDecimal(ps, 8, result.percentPassing()[i]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return input.size();
+            }
+        });
+        jdbcTemplate.update(TOUCH_TEST, psTestId);
+    }
+
+    private static void setDecimal(PreparedStatement ps, int index, double value) throws SQLException {
+        if (Double.isNaN(value)) ps.setNull(index, Types.DECIMAL);
+        else ps.setDouble(index, value);
+    }
+}
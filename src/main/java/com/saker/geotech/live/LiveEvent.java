@@ -0,0 +1,16 @@
+package com.saker.geotech.live;
+
+/**
+ * One server-sent event for a project stream.
+ *
+ * Events with the same {@code name} and {@code entityId} supersede each other: a subscriber that
+ * has not received the first one yet only gets the latest.
+ *
+ * @param data serialized as JSON
+ */
+public record LiveEvent(String name, long entityId, Object data) {
+
+    String coalescingKey() {
+        return name + ':' + entityId;
+    }
+}
@@ -0,0 +1,41 @@
+package com.saker.geotech.live;
+
+import com.saker.geotech.granulometry.service.PsResultsChangedEvent;
+import com.saker.geotech.live.dto.PsResultsEventDto;
+import com.saker.geotech.live.dto.TestRunStatusEventDto;
+import com.saker.geotech.testrun.service.TestRunStatusChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Forwards committed domain events to the project streams. Nothing is pushed for a rolled back
+ * transaction; events published outside a transaction are forwarded immediately.
+ */
+@Component
+public class LiveEventListener {
+
+    public static final String TEST_RUN_STATUS = "test-run-status";
+    public static final String PS_RESULTS = "ps-results";
+
+    private final ProjectEventHub hub;
+
+    public LiveEventListener(ProjectEventHub hub) {
+        this.hub = hub;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTestRunStatusChanged(TestRunStatusChangedEvent event) {
+        String status = event.status().name();
+        for (long testRunId : event.testRunIds()) {
+            hub.publish(event.projectId(),
+                    new LiveEvent(TEST_RUN_STATUS, testRunId, new TestRunStatusEventDto(testRunId, status)));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPsResultsChanged(PsResultsChangedEvent event) {
+        for (long psTestId : event.psTestIds()) {
+            hub.publish(event.projectId(), new LiveEvent(PS_RESULTS, psTestId, new PsResultsEventDto(psTestId)));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.saker.geotech.live;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-project fan-out of server-sent events.
+ *
+ * publish only enqueues into each subscriber's bounded buffer ({@link Subscriber}) and never
+ * touches a socket: it is safe to call from request, transaction and batch threads. Writes happen
+ * on a small dedicated pool, at most one drain per subscriber at a time. A subscriber whose send
+ * has been blocked for {@code live.send-timeout.ms} (client not reading, socket buffer full) is
+ * dropped and its sender thread interrupted; the client reconnects and resyncs.
+ *
+ * A heartbeat comment every {@code live.heartbeat.ms} keeps proxies from closing idle streams and
+ * detects clients that went away.
+ */
+@Component
+public class ProjectEventHub {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectEventHub.class);
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService sender;
+    private final int bufferCapacity;
+    private final int maxSubscribers;
+    private final long timeoutMs;
+    private final long sendTimeoutNanos;
+
+    public ProjectEventHub(
+            @Value("${live.sender-threads:4}") int senderThreads,
+            @Value("${live.buffer.capacity:256}") int bufferCapacity,
+            @Value("${live.max-subscribers:2000}") int maxSubscribers,
+            @Value("${live.emitter.timeout.ms:1800000}") long timeoutMs,
+            @Value("${live.send-timeout.ms:10000}") long sendTimeoutMs
+    ) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread thread = new Thread(r, "live-events-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.bufferCapacity = bufferCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+    }
+
+    /**
+     * Opens a stream on the project. The client reconnects by itself (EventSource) after the timeout.
+     *
+     * @throws IllegalStateException if {@code live.max-subscribers} streams are already open
+     */
+    public SseEmitter subscribe(long projectId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new IllegalStateException("Too many open event streams, retry later");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(projectId, emitter, bufferCapacity);
+        // compute / computeIfPresent keep add and remove-if-empty atomic per project
+        subscribers.compute(projectId, (id, set) -> {
+            Set<Subscriber> targets = set == null ? ConcurrentHashMap.newKeySet() : set;
+            targets.add(subscriber);
+            return targets;
+        });
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(ex -> remove(subscriber));
+        try {
+            // Flushes the response headers so the client sees the stream open immediately
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException ex) {
+            remove(subscriber);
+            emitter.completeWithError(ex);
+        }
+        return emitter;
+    }
+
+    public void publish(long projectId, LiveEvent event) {
+        Set<Subscriber> targets = subscribers.get(projectId);
+        if (targets == null) return;
+        for (Subscriber subscriber : targets) {
+            if (subscriber.offer(event)) schedule(subscriber);
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @Scheduled(
+            initialDelayString = "${live.heartbeat.ms:25000}",
+            fixedDelayString = "${live.heartbeat.ms:25000}"
+    )
+    public void heartbeat() {
+        for (Set<Subscriber> targets : subscribers.values()) {
+            for (Subscriber subscriber : targets) {
+                if (subscriber.offerHeartbeat()) schedule(subscriber);
+            }
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${live.send-timeout.check.ms:1000}",
+            fixedDelayString = "${live.send-timeout.check.ms:1000}"
+    )
+    public void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Set<Subscriber> targets : subscribers.values()) {
+            for (Subscriber subscriber : targets) {
+                if (!subscriber.stalled(now, sendTimeoutNanos)) continue;
+                log.debug("Dropping stalled event stream of project {}", subscriber.projectId());
+                remove(subscriber);
+                subscriber.abort();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.values().forEach(targets -> targets.forEach(subscriber -> subscriber.emitter().complete()));
+    }
+
+    private void schedule(Subscriber subscriber) {
+        try {
+            sender.execute(() -> {
+                if (!subscriber.drain()) {
+                    remove(subscriber);
+                    subscriber.emitter().complete();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            log.debug("Event sender stopped, dropping stream of project {}", subscriber.projectId());
+            subscriber.close();
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.close();
+        subscribers.computeIfPresent(subscriber.projectId(), (id, set) -> {
+            if (set.remove(subscriber)) subscriberCount.decrementAndGet();
+            return set.isEmpty() ? null : set;
+        });
+    }
+}
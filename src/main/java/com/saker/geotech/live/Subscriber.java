@@ -0,0 +1,151 @@
+package com.saker.geotech.live;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * One open stream and its bounded pending-event buffer.
+ *
+ * - offer never blocks: same-key events are coalesced, and past {@code capacity} distinct keys the
+ *   oldest pending event is dropped and the client receives a {@code resync} event instead
+ * - at most one drain runs per subscriber, so a slow client only delays its own events
+ * - a send blocked on a stalled socket can be detected ({@link #stalled}) and interrupted
+ *   ({@link #abort()}), so a few stuck clients cannot hold every sender thread
+ */
+final class Subscriber {
+
+    static final String RESYNC = "resync";
+
+    private final long projectId;
+    private final SseEmitter emitter;
+    private final int capacity;
+
+    // Guarded by this
+    private final LinkedHashMap<String, LiveEvent> pending = new LinkedHashMap<>();
+    private boolean overflowed;
+    private boolean heartbeatDue;
+    private boolean draining;
+    private boolean closed;
+    private Thread sendingThread;
+    private long sendingSinceNanos;
+
+    Subscriber(long projectId, SseEmitter emitter, int capacity) {
+        this.projectId = projectId;
+        this.emitter = emitter;
+        this.capacity = capacity;
+    }
+
+    long projectId() {
+        return projectId;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    /**
+     * @return true if the caller must schedule {@link #drain()}
+     */
+    synchronized boolean offer(LiveEvent event) {
+        if (closed) return false;
+        if (pending.put(event.coalescingKey(), event) == null && pending.size() > capacity) {
+            Iterator<LiveEvent> oldest = pending.values().iterator();
+            oldest.next();
+            oldest.remove();
+            overflowed = true;
+        }
+        return schedule();
+    }
+
+    /**
+     * @return true if the caller must schedule {@link #drain()}
+     */
+    synchronized boolean offerHeartbeat() {
+        if (closed) return false;
+        heartbeatDue = true;
+        return schedule();
+    }
+
+    private boolean schedule() {
+        if (draining) return false;
+        draining = true;
+        return true;
+    }
+
+    /**
+     * Sends everything pending, including events offered while sending.
+     *
+     * @return false if the stream is broken and the subscriber must be removed
+     */
+    boolean drain() {
+        while (true) {
+            List<LiveEvent> batch;
+            boolean resync;
+            boolean heartbeat;
+            synchronized (this) {
+                if (closed || (pending.isEmpty() && !overflowed && !heartbeatDue)) {
+                    draining = false;
+                    return !closed;
+                }
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+                resync = overflowed;
+                heartbeat = heartbeatDue;
+                overflowed = false;
+                heartbeatDue = false;
+                sendingThread = Thread.currentThread();
+                sendingSinceNanos = System.nanoTime();
+            }
+            try {
+                if (resync) {
+                    emitter.send(SseEmitter.event().name(RESYNC).data("{}", MediaType.APPLICATION_JSON));
+                }
+                for (LiveEvent event : batch) {
+                    emitter.send(SseEmitter.event()
+                            .name(event.name())
+                            .data(event.data(), MediaType.APPLICATION_JSON));
+                }
+                if (heartbeat) {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                }
+            } catch (IOException | IllegalStateException ex) {
+                close();
+                return false;
+            } finally {
+                synchronized (this) {
+                    sendingThread = null;
+                }
+                // An abort that raced with the end of the send must not leak into the next task
+                Thread.interrupted();
+            }
+        }
+    }
+
+    /**
+     * @return true if a send has been in progress for longer than the timeout
+     */
+    synchronized boolean stalled(long nowNanos, long timeoutNanos) {
+        return sendingThread != null && nowNanos - sendingSinceNanos > timeoutNanos;
+    }
+
+    /**
+     * Closes the subscriber and interrupts a send in progress, which fails and frees its thread.
+     * Does not touch the emitter: completing it would wait for the blocked send.
+     */
+    synchronized void abort() {
+        close();
+        if (sendingThread != null) sendingThread.interrupt();
+    }
+
+    synchronized void close() {
+        closed = true;
+        pending.clear();
+        draining = false;
+    }
+}
@@ -0,0 +1,38 @@
+package com.saker.geotech.live.controller;
+
+import com.saker.geotech.live.ProjectEventHub;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-sent events of a project: {@code test-run-status}, {@code ps-results} and {@code resync}
+ * (events were dropped, re-read the lists).
+ *
+ * Browsers' EventSource cannot set headers, so this path also accepts the access token as an
+ * {@code access_token} query parameter (see JwtAuthenticationFilter).
+ */
+@RestController
+public class ProjectEventController {
+
+    private final ProjectEventHub hub;
+
+    public ProjectEventController(ProjectEventHub hub) {
+        this.hub = hub;
+    }
+
+    @GetMapping(path = "/projects/{projectId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@PathVariable long projectId) {
+        return hub.subscribe(projectId);
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> tooManyStreams(IllegalStateException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+    }
+}
@@ -0,0 +1,7 @@
+package com.saker.geotech.live.dto;
+
+/**
+ * Data of the {@code ps-results} event: results of the test changed, re-read them.
+ */
+public record PsResultsEventDto(long psTestId) {
+}
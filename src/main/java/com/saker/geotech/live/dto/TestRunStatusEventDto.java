@@ -0,0 +1,7 @@
+package com.saker.geotech.live.dto;
+
+/**
+ * Data of the {@code test-run-status} event.
+ */
+public record TestRunStatusEventDto(long testRunId, String status) {
+}
@@ -0,0 +1,67 @@
+package com.saker.geotech.project.controller;
+
+import com.saker.geotech.project.dto.KeysetPage;
+import com.saker.geotech.project.dto.ProjectSummaryDto;
+import com.saker.geotech.project.dto.SampleSourceSummaryDto;
+import com.saker.geotech.project.dto.SampleSummaryDto;
+import com.saker.geotech.project.dto.TestRunSummaryDto;
+import com.saker.geotech.project.service.ProjectBrowseService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Browse lists. Pass the {@code next} value of a page as {@code after} to get the following one.
+ */
+@RestController
+public class ProjectBrowseController {
+
+    private final ProjectBrowseService browseService;
+
+    public ProjectBrowseController(ProjectBrowseService browseService) {
+        this.browseService = browseService;
+    }
+
+    @GetMapping("/projects")
+    public KeysetPage<ProjectSummaryDto> projects(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return browseService.projects(after, limit);
+    }
+
+    @GetMapping("/projects/{projectId}/sources")
+    public KeysetPage<SampleSourceSummaryDto> sources(
+            @PathVariable long projectId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return browseService.sources(projectId, after, limit);
+    }
+
+    @GetMapping("/sources/{sourceId}/samples")
+    public KeysetPage<SampleSummaryDto> samples(
+            @PathVariable long sourceId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return browseService.samples(sourceId, after, limit);
+    }
+
+    @GetMapping("/samples/{sampleId}/test-runs")
+    public KeysetPage<TestRunSummaryDto> testRuns(
+            @PathVariable long sampleId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return browseService.testRuns(sampleId, after, limit);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> invalidCursor(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+}
@@ -0,0 +1,57 @@
+package com.saker.geotech.project.controller;
+
+import com.saker.geotech.project.dto.ProjectStatsDto;
+import com.saker.geotech.project.stats.ProjectStatsStore;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Dashboard figures, served from {@link ProjectStatsStore} with an ETag: a client that sends
+ * {@code If-None-Match} with the last ETag gets 304 until the figures are recomputed.
+ */
+@RestController
+public class ProjectStatsController {
+
+    private final ProjectStatsStore statsStore;
+
+    public ProjectStatsController(ProjectStatsStore statsStore) {
+        this.statsStore = statsStore;
+    }
+
+    @GetMapping("/projects/stats")
+    public ResponseEntity<List<ProjectStatsDto>> allProjects(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        ProjectStatsStore.Overview overview = statsStore.overview();
+        return conditional(overview.etag(), ifNoneMatch, overview.projects());
+    }
+
+    @GetMapping("/projects/{projectId}/stats")
+    public ResponseEntity<ProjectStatsDto> project(
+            @PathVariable long projectId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        ProjectStatsDto stats = statsStore.get(projectId);
+        return conditional(ProjectStatsStore.etag(stats), ifNoneMatch, stats);
+    }
+
+    private static <T> ResponseEntity<T> conditional(String etag, String ifNoneMatch, T body) {
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .header(HttpHeaders.ETAG, etag)
+                    .header(HttpHeaders.CACHE_CONTROL, "private, no-cache")
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.ETAG, etag)
+                .header(HttpHeaders.CACHE_CONTROL, "private, no-cache")
+                .body(body);
+    }
+}
@@ -0,0 +1,14 @@
+package com.saker.geotech.project.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list.
+ *
+ * @param next opaque cursor of the following page, null on the last page
+ */
+public record KeysetPage<T>(
+        List<T> items,
+        String next
+) {
+}
@@ -0,0 +1,30 @@
+package com.saker.geotech.project.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Dashboard figures of one project. Averages are over the non-deleted ps_results of the project
+ * and null when it has none. {@code version} changes on every recompute (the ETag).
+ */
+public record ProjectStatsDto(
+        long projectId,
+        long version,
+        long samples,
+        Map<String, Long> samplesBySourceType,
+        long testRuns,
+        Map<String, Long> testRunsByStatus,
+        long psResults,
+        Double finesPercentAvg,
+        Double cuAvg,
+        Double ccAvg,
+        Instant refreshedAt
+) {
+
+    /**
+     * A project without any recorded activity.
+     */
+    public static ProjectStatsDto empty(long projectId) {
+        return new ProjectStatsDto(projectId, 0L, 0L, Map.of(), 0L, Map.of(), 0L, null, null, null, null);
+    }
+}
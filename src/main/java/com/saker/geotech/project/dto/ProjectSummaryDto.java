@@ -0,0 +1,16 @@
+package com.saker.geotech.project.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+public record ProjectSummaryDto(
+        long id,
+        String code,
+        String name,
+        String status,
+        Long clientId,
+        LocalDate startDate,
+        LocalDate dueDate,
+        Instant createdAt
+) {
+}
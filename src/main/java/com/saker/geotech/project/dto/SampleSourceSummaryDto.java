@@ -0,0 +1,13 @@
+package com.saker.geotech.project.dto;
+
+import java.time.Instant;
+
+public record SampleSourceSummaryDto(
+        long id,
+        long projectId,
+        String sourceType,
+        String name,
+        String locationDesc,
+        Instant createdAt
+) {
+}
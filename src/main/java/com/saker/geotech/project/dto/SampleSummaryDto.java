@@ -0,0 +1,18 @@
+package com.saker.geotech.project.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+public record SampleSummaryDto(
+        long id,
+        long sampleSourceId,
+        String sampleCode,
+        String sampleType,
+        String classification,
+        BigDecimal depthFromM,
+        BigDecimal depthToM,
+        LocalDate collectionDate,
+        Instant createdAt
+) {
+}
@@ -0,0 +1,15 @@
+package com.saker.geotech.project.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+public record TestRunSummaryDto(
+        long id,
+        long sampleId,
+        String testType,
+        String status,
+        long version,
+        LocalDate performedAt,
+        Instant createdAt
+) {
+}
@@ -0,0 +1,37 @@
+package com.saker.geotech.project.service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a page: (created_at, id) of that row, encoded as an opaque
+ * URL-safe string so clients cannot build or depend on it.
+ */
+record KeysetCursor(Instant createdAt, long id) {
+
+    String encode() {
+        String raw = createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value was not produced by {@link #encode()}
+     */
+    static KeysetCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.US_ASCII);
+            String[] parts = raw.split(":");
+            if (parts.length != 3) throw new IllegalArgumentException("Invalid cursor");
+            Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new KeysetCursor(createdAt, Long.parseLong(parts[2]));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+
+    Timestamp createdAtTimestamp() {
+        return Timestamp.from(createdAt);
+    }
+}
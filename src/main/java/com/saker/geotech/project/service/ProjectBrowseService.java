@@ -0,0 +1,157 @@
+package com.saker.geotech.project.service;
+
+import com.saker.geotech.project.dto.KeysetPage;
+import com.saker.geotech.project.dto.ProjectSummaryDto;
+import com.saker.geotech.project.dto.SampleSourceSummaryDto;
+import com.saker.geotech.project.dto.SampleSummaryDto;
+import com.saker.geotech.project.dto.TestRunSummaryDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Read path of the project -> source -> sample -> test run hierarchy.
+ *
+ * Lists are newest first and keyset paginated on (created_at, id): a page is a seek on the
+ * V5 composite indexes, never an OFFSET scan, so page 1000 costs the same as page 1.
+ * Rows are mapped straight to DTO records with JDBC (no entity graphs, no lazy loads).
+ */
+@Service
+public class ProjectBrowseService {
+
+    private static final KeysetQuery PROJECTS = new KeysetQuery("""
+            SELECT id, code, name, status, client_id, start_date, due_date, created_at
+            FROM projects
+            WHERE deleted_at IS NULL
+            """);
+
+    private static final KeysetQuery SOURCES = new KeysetQuery("""
+            SELECT id, project_id, source_type, name, location_desc, created_at
+            FROM sample_sources
+            WHERE project_id = ? AND deleted_at IS NULL
+            """);
+
+    private static final KeysetQuery SAMPLES = new KeysetQuery("""
+            SELECT id, sample_source_id, sample_code, sample_type, classification,
+                   depth_from_m, depth_to_m, collection_date, created_at
+            FROM samples
+            WHERE sample_source_id = ? AND deleted_at IS NULL
+            """);
+
+    private static final KeysetQuery TEST_RUNS = new KeysetQuery("""
+            SELECT id, sample_id, test_type, status, version, performed_at, created_at
+            FROM test_runs
+            WHERE sample_id = ? AND deleted_at IS NULL
+            """);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public ProjectBrowseService(
+            JdbcTemplate jdbcTemplate,
+            @Value("${browse.page.default-limit:50}") int defaultLimit,
+            @Value("${browse.page.max-limit:200}") int maxLimit
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public KeysetPage<ProjectSummaryDto> projects(String cursor, Integer limit) {
+        return page(PROJECTS, null, cursor, limit, (rs, rowNum) -> new ProjectSummaryDto(
+                rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                rs.getObject(5, Long.class), date(rs, 6), date(rs, 7), instant(rs, 8)
+        ), ProjectSummaryDto::createdAt, ProjectSummaryDto::id);
+    }
+
+    public KeysetPage<SampleSourceSummaryDto> sources(long projectId, String cursor, Integer limit) {
+        return page(SOURCES, projectId, cursor, limit, (rs, rowNum) -> new SampleSourceSummaryDto(
+                rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4), rs.getString(5), instant(rs, 6)
+        ), SampleSourceSummaryDto::createdAt, SampleSourceSummaryDto::id);
+    }
+
+    public KeysetPage<SampleSummaryDto> samples(long sourceId, String cursor, Integer limit) {
+        return page(SAMPLES, sourceId, cursor, limit, (rs, rowNum) -> new SampleSummaryDto(
+                rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4), rs.getString(5),
+                rs.getBigDecimal(6), rs.getBigDecimal(7), date(rs, 8), instant(rs, 9)
+        ), SampleSummaryDto::createdAt, SampleSummaryDto::id);
+    }
+
+    public KeysetPage<TestRunSummaryDto> testRuns(long sampleId, String cursor, Integer limit) {
+        return page(TEST_RUNS, sampleId, cursor, limit, (rs, rowNum) -> new TestRunSummaryDto(
+                rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4), rs.getLong(5), date(rs, 6), instant(rs, 7)
+        ), TestRunSummaryDto::createdAt, TestRunSummaryDto::id);
+    }
+
+    private <T> KeysetPage<T> page(
+            KeysetQuery query,
+            Long parentId,
+            String cursor,
+            Integer requestedLimit,
+            RowMapper<T> mapper,
+            Function<T, Instant> createdAt,
+            ToLongFunction<T> id
+    ) {
+        int limit = requestedLimit == null ? defaultLimit : Math.max(1, Math.min(requestedLimit, maxLimit));
+
+        List<Object> args = new ArrayList<>(5);
+        if (parentId != null) args.add(parentId);
+        String sql;
+        if (cursor == null || cursor.isBlank()) {
+            sql = query.firstPage();
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            Timestamp ts = after.createdAtTimestamp();
+            args.add(ts);
+            args.add(ts);
+            args.add(after.id());
+            sql = query.nextPage();
+        }
+        // One extra row tells whether a next page exists without a COUNT
+        args.add(limit + 1);
+
+        List<T> rows = jdbcTemplate.query(sql, mapper, args.toArray());
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        T last = items.get(limit - 1);
+        return new KeysetPage<>(List.copyOf(items), new KeysetCursor(createdAt.apply(last), id.applyAsLong(last)).encode());
+    }
+
+    private static Instant instant(ResultSet rs, int column) throws SQLException {
+        Timestamp value = rs.getTimestamp(column);
+        return value == null ? null : value.toInstant();
+    }
+
+    private static LocalDate date(ResultSet rs, int column) throws SQLException {
+        Date value = rs.getDate(column);
+        return value == null ? null : value.toLocalDate();
+    }
+
+    /**
+     * First-page and next-page SQL of one list, built once from its base SELECT ... WHERE.
+     */
+    private record KeysetQuery(String firstPage, String nextPage) {
+
+        private static final String ORDER = " ORDER BY created_at DESC, id DESC LIMIT ?";
+
+        KeysetQuery(String base) {
+            this(base.strip() + ORDER,
+                    base.strip() + " AND (created_at < ? OR (created_at = ? AND id < ?))" + ORDER);
+        }
+    }
+}
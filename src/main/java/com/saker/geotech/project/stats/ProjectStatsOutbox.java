@@ -0,0 +1,63 @@
+package com.saker.geotech.project.stats;
+
+import com.saker.geotech.granulometry.service.PsResultsChangedEvent;
+import com.saker.geotech.testrun.service.TestRunStatusChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Records "the figures of project X may have changed" in {@code project_stats_outbox}.
+ *
+ * Rows are written BEFORE_COMMIT, in the transaction of the change: a committed change always
+ * has its outbox row and a rolled back one never does, even if the instance dies before the
+ * updater runs. Imports are covered by the recompute that follows them ({@link PsResultsChangedEvent}).
+ *
+ * A nightly reconcile enqueues every project, for rows changed outside the application.
+ */
+@Component
+public class ProjectStatsOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectStatsOutbox.class);
+
+    private static final String INSERT_SQL = "INSERT INTO project_stats_outbox (project_id) VALUES (?)";
+
+    private static final String RECONCILE_SQL = """
+            INSERT INTO project_stats_outbox (project_id)
+            SELECT id FROM projects WHERE deleted_at IS NULL
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProjectStatsOutbox(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void enqueue(long projectId) {
+        jdbcTemplate.update(INSERT_SQL, projectId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTestRunStatusChanged(TestRunStatusChangedEvent event) {
+        enqueue(event.projectId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onPsResultsChanged(PsResultsChangedEvent event) {
+        enqueue(event.projectId());
+    }
+
+    @Scheduled(cron = "${project.stats.reconcile.cron:0 15 4 * * *}")
+    public void reconcile() {
+        try {
+            int projects = jdbcTemplate.update(RECONCILE_SQL);
+            log.info("Project stats reconcile: {} projects enqueued", projects);
+        } catch (RuntimeException ex) {
+            log.warn("Project stats reconcile failed: {}", ex.getMessage());
+        }
+    }
+}
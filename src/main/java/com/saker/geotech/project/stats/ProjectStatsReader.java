@@ -0,0 +1,111 @@
+package com.saker.geotech.project.stats;
+
+import com.saker.geotech.project.dto.ProjectStatsDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads summary rows back into {@link ProjectStatsDto}s, chunked IN queries of 500 projects.
+ * Scalars and counts are read in one read-only transaction, so a concurrent recompute is seen
+ * either entirely or not at all.
+ */
+@Component
+class ProjectStatsReader {
+
+    private static final String SELECT_STATS = """
+            SELECT project_id, version, samples, test_runs, ps_results,
+                   fines_percent_avg, cu_avg, cc_avg, refreshed_at
+            FROM project_stats
+            WHERE project_id IN (%s)
+            """;
+
+    private static final String SELECT_COUNTS = """
+            SELECT project_id, dimension, bucket, count
+            FROM project_stat_counts
+            WHERE project_id IN (%s)
+            ORDER BY project_id, dimension, bucket
+            """;
+
+    private static final String SELECT_ALL_IDS = "SELECT project_id FROM project_stats";
+
+    private static final String SELECT_CHANGED_IDS = """
+            SELECT project_id
+            FROM project_stats
+            WHERE refreshed_at >= ?
+            """;
+
+    private static final String DB_NOW = "SELECT CURRENT_TIMESTAMP(3)";
+
+    private static final int CHUNK = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ProjectStatsReader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    List<Long> allProjectIds() {
+        return jdbcTemplate.queryForList(SELECT_ALL_IDS, Long.class);
+    }
+
+    /**
+     * Database clock, which stamps the refreshed_at column {@link #changedSince} compares with.
+     */
+    Timestamp dbNow() {
+        return jdbcTemplate.queryForObject(DB_NOW, Timestamp.class);
+    }
+
+    /**
+     * @return ids of projects recomputed at or after {@code since}
+     */
+    List<Long> changedSince(Timestamp since) {
+        return jdbcTemplate.queryForList(SELECT_CHANGED_IDS, Long.class, since);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, ProjectStatsDto> load(List<Long> projectIds) {
+        Map<Long, ProjectStatsDto> loaded = new HashMap<>(projectIds.size() * 2);
+        for (int from = 0; from < projectIds.size(); from += CHUNK) {
+            loadChunk(projectIds.subList(from, Math.min(from + CHUNK, projectIds.size())), loaded);
+        }
+        return loaded;
+    }
+
+    private void loadChunk(List<Long> ids, Map<Long, ProjectStatsDto> loaded) {
+        Object[] args = ids.toArray();
+        String in = String.join(", ", Collections.nCopies(args.length, "?"));
+
+        Map<Long, Map<String, Long>> bySourceType = new HashMap<>();
+        Map<Long, Map<String, Long>> byStatus = new HashMap<>();
+        jdbcTemplate.query(SELECT_COUNTS.formatted(in), rs -> {
+            Map<Long, Map<String, Long>> target =
+                    ProjectStatsWriter.SOURCE_TYPE.equals(rs.getString(2)) ? bySourceType : byStatus;
+            target.computeIfAbsent(rs.getLong(1), id -> new LinkedHashMap<>()).put(rs.getString(3), rs.getLong(4));
+        }, args);
+
+        jdbcTemplate.query(SELECT_STATS.formatted(in), rs -> {
+            long projectId = rs.getLong(1);
+            loaded.put(projectId, new ProjectStatsDto(
+                    projectId,
+                    rs.getLong(2),
+                    rs.getLong(3),
+                    Collections.unmodifiableMap(bySourceType.getOrDefault(projectId, Map.of())),
+                    rs.getLong(4),
+                    Collections.unmodifiableMap(byStatus.getOrDefault(projectId, Map.of())),
+                    rs.getLong(5),
+                    rs.getObject(6, Double.class),
+                    rs.getObject(7, Double.class),
+                    rs.getObject(8, Double.class),
+                    rs.getTimestamp(9).toInstant()
+            ));
+        }, args);
+    }
+}
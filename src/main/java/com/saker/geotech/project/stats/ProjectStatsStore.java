@@ -0,0 +1,133 @@
+package com.saker.geotech.project.stats;
+
+import com.saker.geotech.project.dto.ProjectStatsDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of the materialized project aggregates; dashboards never run a GROUP BY.
+ *
+ * - filled from {@code project_stats} at startup, then refreshed every
+ *   {@code project.stats.refresh.ms} for rows recomputed since the last watermark (other instances)
+ * - updated directly by {@link ProjectStatsUpdater} after each local recompute
+ *
+ * The refresh watermark is the database clock at the start of the previous scan, and each scan
+ * starts {@code project.stats.overlap.ms} before it: refreshed_at is stamped by the recompute's
+ * UPSERT, before its transaction commits, so a project committed after a scan may carry a time
+ * that scan already passed.
+ *
+ * Every entry carries the DB version of its row, so an ETag built from it means the same figures
+ * on every instance. The all-projects list and its ETag are rebuilt once per change, not per request.
+ */
+@Component
+public class ProjectStatsStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectStatsStore.class);
+
+    private final ProjectStatsReader reader;
+    private final long overlapMs;
+    private final ConcurrentHashMap<Long, ProjectStatsDto> stats = new ConcurrentHashMap<>();
+
+    private volatile Overview overview = new Overview(List.of(), etag(List.of()));
+
+    // Guarded by this: written only by refresh
+    private Timestamp watermark;
+
+    public ProjectStatsStore(
+            ProjectStatsReader reader,
+            @Value("${project.stats.overlap.ms:30000}") long overlapMs
+    ) {
+        this.reader = reader;
+        this.overlapMs = overlapMs;
+    }
+
+    /**
+     * @return the project's figures, or zeros (version 0) if nothing was ever recorded for it
+     */
+    public ProjectStatsDto get(long projectId) {
+        ProjectStatsDto found = stats.get(projectId);
+        return found != null ? found : ProjectStatsDto.empty(projectId);
+    }
+
+    /**
+     * Every project with recorded figures, by project id, and the ETag of that list.
+     */
+    public Overview overview() {
+        return overview;
+    }
+
+    public static String etag(ProjectStatsDto dto) {
+        return "\"stats-" + dto.projectId() + "-" + dto.version() + "\"";
+    }
+
+    @Scheduled(
+            initialDelayString = "${project.stats.initial-delay.ms:0}",
+            fixedDelayString = "${project.stats.refresh.ms:5000}"
+    )
+    public synchronized void refresh() {
+        try {
+            // Database clock, like refreshed_at, read before the scan: the next scan starts from here
+            Timestamp scanStart = reader.dbNow();
+            if (watermark == null) {
+                apply(reader.load(reader.allProjectIds()));
+            } else {
+                // Rows stamped before the watermark may have committed since: reloading a known version is harmless
+                List<Long> changed = reader.changedSince(new Timestamp(watermark.getTime() - overlapMs));
+                if (!changed.isEmpty()) apply(reader.load(changed));
+            }
+            watermark = scanStart;
+        } catch (RuntimeException ex) {
+            // Keep serving the last known figures
+            log.warn("Project stats refresh failed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Keeps the higher version per project: loads may complete out of order.
+     */
+    void apply(Map<Long, ProjectStatsDto> loaded) {
+        if (loaded.isEmpty()) return;
+        loaded.forEach((projectId, dto) ->
+                stats.merge(projectId, dto, (current, candidate) -> candidate.version() > current.version() ? candidate : current));
+        rebuildOverview();
+    }
+
+    private synchronized void rebuildOverview() {
+        List<ProjectStatsDto> all = new ArrayList<>(stats.values());
+        all.sort(Comparator.comparingLong(ProjectStatsDto::projectId));
+        overview = new Overview(List.copyOf(all), etag(all));
+    }
+
+    /**
+     * Hash of every (project id, version) pair: changes whenever any project is recomputed or added.
+     */
+    private static String etag(List<ProjectStatsDto> all) {
+        long hash = 0x9E3779B97F4A7C15L;
+        for (ProjectStatsDto dto : all) {
+            hash = mix(hash ^ mix(dto.projectId() * 0xC2B2AE3D27D4EB4FL + dto.version()));
+        }
+        return "\"stats-" + all.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE1A85EC3L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    public record Overview(List<ProjectStatsDto> projects, String etag) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.saker.geotech.project.stats;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drains {@code project_stats_outbox}: every {@code project.stats.update.ms}, recomputes each
+ * listed project once (however many changes it had) and publishes the new figures to the
+ * {@link ProjectStatsStore}. Dashboards lag the data by about one period.
+ *
+ * Recomputing is idempotent, so a failed project simply stays in the outbox for the next run,
+ * and two instances draining the same rows only cost a duplicate recompute.
+ */
+@Component
+public class ProjectStatsUpdater {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectStatsUpdater.class);
+
+    private static final String PENDING_PROJECTS = """
+            SELECT DISTINCT project_id
+            FROM project_stats_outbox
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProjectStatsWriter writer;
+    private final ProjectStatsReader reader;
+    private final ProjectStatsStore store;
+    private final int maxProjects;
+
+    public ProjectStatsUpdater(
+            JdbcTemplate jdbcTemplate,
+            ProjectStatsWriter writer,
+            ProjectStatsReader reader,
+            ProjectStatsStore store,
+            @Value("${project.stats.update.max-projects:200}") int maxProjects
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writer = writer;
+        this.reader = reader;
+        this.store = store;
+        this.maxProjects = maxProjects;
+    }
+
+    @Scheduled(
+            initialDelayString = "${project.stats.update.ms:2000}",
+            fixedDelayString = "${project.stats.update.ms:2000}"
+    )
+    public void drain() {
+        try {
+            List<Long> pending = jdbcTemplate.queryForList(PENDING_PROJECTS, Long.class, maxProjects);
+            if (pending.isEmpty()) return;
+
+            long start = System.nanoTime();
+            List<Long> updated = new ArrayList<>();
+            for (Long projectId : pending) {
+                try {
+                    writer.recompute(projectId);
+                    updated.add(projectId);
+                } catch (RuntimeException ex) {
+                    log.warn("Project {} stats recompute failed, kept in outbox: {}", projectId, ex.getMessage());
+                }
+            }
+            if (!updated.isEmpty()) store.apply(reader.load(updated));
+            log.debug("Project stats: {} projects recomputed in {} ms", updated.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException ex) {
+            // Recomputed rows not applied here are picked up by ProjectStatsStore#refresh
+            log.warn("Project stats update failed: {}", ex.getMessage());
+        }
+    }
+}
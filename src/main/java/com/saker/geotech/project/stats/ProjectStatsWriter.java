@@ -0,0 +1,121 @@
+package com.saker.geotech.project.stats;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Recomputes the aggregates of one project and replaces its summary rows, in one transaction
+ * with the deletion of the outbox rows it covers.
+ *
+ * The GROUP BY queries are scoped to a single project through the project / source / sample
+ * foreign key indexes: their cost follows the size of the project, not of the lab history.
+ */
+@Component
+class ProjectStatsWriter {
+
+    static final String SOURCE_TYPE = "SOURCE_TYPE";
+    static final String TEST_RUN_STATUS = "TEST_RUN_STATUS";
+
+    private static final String SAMPLES_BY_SOURCE_TYPE = """
+            SELECT ss.source_type, COUNT(s.id)
+            FROM sample_sources ss
+            JOIN samples s ON s.sample_source_id = ss.id AND s.deleted_at IS NULL
+            WHERE ss.project_id = ? AND ss.deleted_at IS NULL
+            GROUP BY ss.source_type
+            """;
+
+    private static final String TEST_RUNS_BY_STATUS = """
+            SELECT tr.status, COUNT(tr.id)
+            FROM sample_sources ss
+            JOIN samples s ON s.sample_source_id = ss.id AND s.deleted_at IS NULL
+            JOIN test_runs tr ON tr.sample_id = s.id AND tr.deleted_at IS NULL
+            WHERE ss.project_id = ? AND ss.deleted_at IS NULL
+            GROUP BY tr.status
+            """;
+
+    private static final String PS_RESULT_AVERAGES = """
+            SELECT COUNT(r.id), AVG(r.fines_percent), AVG(r.cu), AVG(r.cc)
+            FROM sample_sources ss
+            JOIN samples s ON s.sample_source_id = ss.id AND s.deleted_at IS NULL
+            JOIN test_runs tr ON tr.sample_id = s.id AND tr.deleted_at IS NULL
+            JOIN ps_tests pt ON pt.test_run_id = tr.id AND pt.deleted_at IS NULL
+            JOIN ps_results r ON r.ps_test_id = pt.id
+            WHERE ss.project_id = ? AND ss.deleted_at IS NULL
+            """;
+
+    private static final String UPSERT_STATS = """
+            INSERT INTO project_stats
+                (project_id, version, samples, test_runs, ps_results, fines_percent_avg, cu_avg, cc_avg, refreshed_at)
+            VALUES (?, 1, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP(3))
+            ON DUPLICATE KEY UPDATE
+                version = version + 1,
+                samples = VALUES(samples),
+                test_runs = VALUES(test_runs),
+                ps_results = VALUES(ps_results),
+                fines_percent_avg = VALUES(fines_percent_avg),
+                cu_avg = VALUES(cu_avg),
+                cc_avg = VALUES(cc_avg),
+                refreshed_at = VALUES(refreshed_at)
+            """;
+
+    private static final String DELETE_COUNTS = "DELETE FROM project_stat_counts WHERE project_id = ?";
+
+    private static final String INSERT_COUNT = """
+            INSERT INTO project_stat_counts (project_id, dimension, bucket, count)
+            VALUES (?, ?, ?, ?)
+            """;
+
+    private static final String SELECT_OUTBOX_IDS = "SELECT id FROM project_stats_outbox WHERE project_id = ?";
+
+    private static final String DELETE_OUTBOX = "DELETE FROM project_stats_outbox WHERE id IN (%s)";
+
+    private static final int OUTBOX_CHUNK = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ProjectStatsWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Consumes exactly the outbox rows of the project visible when the recompute starts. They are
+     * read first, so the aggregates see every change they stand for; a row committed later is kept
+     * for the next run, even with a lower id (AUTO_INCREMENT order is not commit order).
+     */
+    @Transactional
+    public void recompute(long projectId) {
+        List<Long> outboxIds = jdbcTemplate.queryForList(SELECT_OUTBOX_IDS, Long.class, projectId);
+
+        List<Object[]> counts = new ArrayList<>();
+        long[] samples = {0};
+        jdbcTemplate.query(SAMPLES_BY_SOURCE_TYPE, rs -> {
+            counts.add(new Object[]{projectId, SOURCE_TYPE, rs.getString(1), rs.getLong(2)});
+            samples[0] += rs.getLong(2);
+        }, projectId);
+
+        long[] testRuns = {0};
+        jdbcTemplate.query(TEST_RUNS_BY_STATUS, rs -> {
+            counts.add(new Object[]{projectId, TEST_RUN_STATUS, rs.getString(1), rs.getLong(2)});
+            testRuns[0] += rs.getLong(2);
+        }, projectId);
+
+        Object[] averages = jdbcTemplate.queryForObject(PS_RESULT_AVERAGES, (rs, row) -> new Object[]{
+                rs.getLong(1), rs.getObject(2, Double.class), rs.getObject(3, Double.class), rs.getObject(4, Double.class)
+        }, projectId);
+
+        jdbcTemplate.update(UPSERT_STATS, projectId, samples[0], testRuns[0],
+                averages[0], averages[1], averages[2], averages[3]);
+        jdbcTemplate.update(DELETE_COUNTS, projectId);
+        if (!counts.isEmpty()) jdbcTemplate.batchUpdate(INSERT_COUNT, counts);
+        for (int from = 0; from < outboxIds.size(); from += OUTBOX_CHUNK) {
+            List<Long> chunk = outboxIds.subList(from, Math.min(from + OUTBOX_CHUNK, outboxIds.size()));
+            jdbcTemplate.update(DELETE_OUTBOX.formatted(String.join(", ", Collections.nCopies(chunk.size(), "?"))),
+                    chunk.toArray());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.saker.geotech.report;
+
+import java.util.Locale;
+
+public enum ReportFormat {
+
+    PDF("application/pdf", "pdf"),
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+    private final String contentType;
+    private final String extension;
+
+    ReportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * @throws IllegalArgumentException for anything but pdf / xlsx
+     */
+    public static ReportFormat parse(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
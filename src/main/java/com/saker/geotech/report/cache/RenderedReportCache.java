@@ -0,0 +1,158 @@
+package com.saker.geotech.report.cache;
+
+import com.saker.geotech.report.ReportFormat;
+import com.saker.geotech.report.render.TestRunReportRenderer;
+import com.saker.geotech.report.service.TestRunReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed on-disk cache of rendered reports of APPROVED test runs.
+ *
+ * The file name is the SHA-256 of (template version, format, every printed value), so an
+ * unchanged report always maps to the same file and any data change to a new one; nothing ever
+ * needs invalidating. Stale files are simply never hit again and are trimmed by age of last use
+ * once the directory exceeds {@code report.cache.max-bytes}.
+ *
+ * Files are rendered to a temp file and atomically moved into place, so readers never see a
+ * partial report.
+ */
+@Component
+public class RenderedReportCache {
+
+    private static final Logger log = LoggerFactory.getLogger(RenderedReportCache.class);
+
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private final Path dir;
+    private final long maxBytes;
+
+    public RenderedReportCache(
+            @Value("${report.cache.dir:cache/reports}") String dir,
+            @Value("${report.cache.max-bytes:1073741824}") long maxBytes
+    ) throws IOException {
+        this.dir = Path.of(dir).toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+        Files.createDirectories(this.dir);
+    }
+
+    @FunctionalInterface
+    public interface Renderer {
+        void render(OutputStream out) throws IOException;
+    }
+
+    public static String key(ReportFormat format, TestRunReport report) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), sha256))) {
+                out.writeInt(TestRunReportRenderer.TEMPLATE_VERSION);
+                out.writeUTF(format.name());
+                report.writeTo(out);
+            }
+            return HexFormat.of().formatHex(sha256.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * @return the cached file, rendering it first on a miss
+     */
+    public Path getOrRender(String key, ReportFormat format, Renderer renderer) throws IOException {
+        Path file = dir.resolve(key + "." + format.extension());
+        if (Files.isRegularFile(file)) {
+            // Last use drives trimming; a failure here only makes the entry look older
+            try {
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            } catch (IOException ignored) {
+            }
+            return file;
+        }
+
+        Path tmp = Files.createTempFile(dir, key, TMP_SUFFIX);
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                renderer.render(out);
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return file;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${report.cache.trim.ms:600000}",
+            fixedDelayString = "${report.cache.trim.ms:600000}"
+    )
+    public void trim() {
+        List<Entry> entries = new ArrayList<>();
+        long total = 0;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                // Temp files are reports still being rendered: neither counted nor deleted
+                if (file.getFileName().toString().endsWith(TMP_SUFFIX)) continue;
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                } catch (NoSuchFileException gone) {
+                    continue;
+                }
+                if (!attributes.isRegularFile()) continue;
+                entries.add(new Entry(file, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                total += attributes.size();
+            }
+        } catch (IOException ex) {
+            log.warn("Report cache trim failed: {}", ex.getMessage());
+            return;
+        }
+        if (total <= maxBytes) return;
+
+        entries.sort(Comparator.comparingLong(Entry::lastUsedMs));
+        int removed = 0;
+        for (Entry entry : entries) {
+            if (total <= maxBytes) break;
+            try {
+                Files.deleteIfExists(entry.file());
+                total -= entry.size();
+                removed++;
+            } catch (IOException ex) {
+                log.warn("Cannot delete cached report {}: {}", entry.file().getFileName(), ex.getMessage());
+            }
+        }
+        log.info("Report cache trimmed: {} files removed, {} bytes kept", removed, total);
+    }
+
+    private record Entry(Path file, long size, long lastUsedMs) {
+    }
+}
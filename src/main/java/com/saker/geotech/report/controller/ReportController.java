@@ -0,0 +1,135 @@
+package com.saker.geotech.report.controller;
+
+import com.saker.geotech.report.ReportFormat;
+import com.saker.geotech.report.service.ProjectReportHeader;
+import com.saker.geotech.report.service.ReportService;
+import com.saker.geotech.report.service.TestRunReport;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * PDF / Excel reports, written directly to the servlet output stream.
+ *
+ * Cached reports are handed to Tomcat's sendfile (the connector copies the file to the socket
+ * in the kernel, no bytes pass through the JVM heap); connectors without sendfile support get a
+ * FileChannel transfer instead.
+ */
+@RestController
+public class ReportController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ReportService reportService;
+
+    public ReportController(ReportService reportService) {
+        this.reportService = reportService;
+    }
+
+    @GetMapping("/projects/{projectId}/report")
+    public void projectReport(
+            @PathVariable long projectId,
+            @RequestParam(defaultValue = "pdf") String format,
+            HttpServletResponse response
+    ) throws IOException {
+        ReportFormat reportFormat = parse(format, response);
+        if (reportFormat == null) return;
+        ProjectReportHeader header = reportService.loadProject(projectId);
+        if (header == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        prepare(response, reportFormat, "project-" + (header.code() == null ? projectId : header.code()));
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        reportService.streamProject(header, reportFormat, response.getOutputStream());
+    }
+
+    @GetMapping("/test-runs/{testRunId}/report")
+    public void testRunReport(
+            @PathVariable long testRunId,
+            @RequestParam(defaultValue = "pdf") String format,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        ReportFormat reportFormat = parse(format, response);
+        if (reportFormat == null) return;
+        TestRunReport report = reportService.loadTestRun(testRunId);
+        if (report == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String filename = "test-run-" + testRunId;
+        if (!report.isApproved()) {
+            prepare(response, reportFormat, filename);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            reportService.renderTestRun(report, reportFormat, response.getOutputStream());
+            return;
+        }
+
+        ReportService.CachedReport cached = reportService.cachedTestRun(report, reportFormat);
+        String etag = "\"" + cached.key() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        prepare(response, reportFormat, filename);
+        sendFile(cached.file(), request, response);
+    }
+
+    private static void sendFile(Path file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long size = Files.size(file);
+        response.setContentLengthLong(size);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return;
+        }
+        OutputStream out = response.getOutputStream();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+        out.flush();
+    }
+
+    private static void prepare(HttpServletResponse response, ReportFormat format, String name) {
+        response.setContentType(format.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(name + "." + format.extension())
+                .build()
+                .toString());
+    }
+
+    private static ReportFormat parse(String format, HttpServletResponse response) throws IOException {
+        try {
+            return ReportFormat.parse(format);
+        } catch (IllegalArgumentException ex) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "format must be pdf or xlsx");
+            return null;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.saker.geotech.report.render;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import com.saker.geotech.report.service.ProjectReportHeader;
+import com.saker.geotech.report.service.ProjectReportRow;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * OpenPDF large-table mode: the table is marked incomplete and added to the document every
+ * {@link #FLUSH_ROWS} rows, which writes the finished pages to the stream and drops their rows.
+ */
+class PdfProjectReportWriter implements ProjectReportWriter {
+
+    static final int FLUSH_ROWS = 50;
+
+    private static final Font TITLE = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14);
+    private static final Font HEADER = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 7);
+    private static final Font CELL = FontFactory.getFont(FontFactory.HELVETICA, 7);
+
+    private final Document document = new Document(PageSize.A4.rotate(), 24, 24, 24, 24);
+    private final PdfWriter writer;
+    private PdfPTable table;
+    private int pending;
+
+    PdfProjectReportWriter(OutputStream out) {
+        this.writer = PdfWriter.getInstance(document, out);
+        this.writer.setCloseStream(false);
+    }
+
+    @Override
+    public void begin(ProjectReportHeader header) throws IOException {
+        try {
+            document.open();
+            document.add(new Paragraph("Project " + ReportNumbers.text(header.code()) + " – "
+                    + ReportNumbers.text(header.name()), TITLE));
+            document.add(new Paragraph(" "));
+        } catch (DocumentException ex) {
+            throw new IOException(ex);
+        }
+        table = new PdfPTable(COLUMNS.length);
+        table.setWidthPercentage(100);
+        table.setHeaderRows(1);
+        table.setComplete(false);
+        for (String column : COLUMNS) table.addCell(new Phrase(column, HEADER));
+    }
+
+    @Override
+    public void row(ProjectReportRow row) throws IOException {
+        for (String cell : ProjectReportWriter.cells(row)) table.addCell(new Phrase(cell, CELL));
+        if (++pending >= FLUSH_ROWS) {
+            add(table);
+            pending = 0;
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        table.setComplete(true);
+        add(table);
+        document.close();
+    }
+
+    @Override
+    public void close() {
+        if (document.isOpen()) document.close();
+    }
+
+    private void add(PdfPTable content) throws IOException {
+        try {
+            document.add(content);
+            writer.flush();
+        } catch (DocumentException ex) {
+            throw new IOException(ex);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.saker.geotech.report.render;
+
+import com.saker.geotech.report.ReportFormat;
+import com.saker.geotech.report.service.ProjectReportHeader;
+import com.saker.geotech.report.service.ProjectReportRow;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Incremental project report: rows are pushed one by one and written out as they come, so the
+ * document is never held in memory. {@link #close()} releases resources without finishing the
+ * document (used on errors).
+ */
+public interface ProjectReportWriter extends Closeable {
+
+    String[] COLUMNS = {"Test run", "Source", "Sample", "Depth from (m)", "Depth to (m)", "Test type", "Status",
+            "Performed", "Fines %", "D10 (mm)", "D30 (mm)", "D60 (mm)", "Cu", "Cc"};
+
+    void begin(ProjectReportHeader header) throws IOException;
+
+    void row(ProjectReportRow row) throws IOException;
+
+    /**
+     * Writes the remaining content and the document trailer to the output stream.
+     */
+    void finish() throws IOException;
+
+    static ProjectReportWriter create(ReportFormat format, OutputStream out) {
+        return switch (format) {
+            case PDF -> new PdfProjectReportWriter(out);
+            case XLSX -> new XlsxProjectReportWriter(out);
+        };
+    }
+
+    static String[] cells(ProjectReportRow row) {
+        return new String[]{
+                Long.toString(row.testRunId()),
+                ReportNumbers.text(row.sourceName()),
+                ReportNumbers.text(row.sampleCode()),
+                ReportNumbers.format(row.depthFromM(), 2),
+                ReportNumbers.format(row.depthToM(), 2),
+                ReportNumbers.text(row.testType()),
+                ReportNumbers.text(row.status()),
+                ReportNumbers.text(row.performedAt()),
+                ReportNumbers.format(row.finesPercent(), 1),
+                ReportNumbers.format(row.d10(), 3),
+                ReportNumbers.format(row.d30(), 3),
+                ReportNumbers.format(row.d60(), 3),
+                ReportNumbers.format(row.cu(), 2),
+                ReportNumbers.format(row.cc(), 2)
+        };
+    }
+}
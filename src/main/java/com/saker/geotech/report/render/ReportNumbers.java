@@ -0,0 +1,21 @@
+package com.saker.geotech.report.render;
+
+import java.util.Locale;
+
+final class ReportNumbers {
+
+    private ReportNumbers() {
+    }
+
+    /**
+     * Fixed decimals, empty for undefined (NaN) values.
+     */
+    static String format(double value, int decimals) {
+        if (Double.isNaN(value)) return "";
+        return String.format(Locale.ROOT, "%." + decimals + "f", value);
+    }
+
+    static String text(Object value) {
+        return value == null ? "" : value.toString();
+    }
+}
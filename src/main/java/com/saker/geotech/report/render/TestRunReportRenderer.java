@@ -0,0 +1,154 @@
+package com.saker.geotech.report.render;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import com.saker.geotech.report.ReportFormat;
+import com.saker.geotech.report.service.TestRunReport;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Single test run report (granulometry sheet): identification, masses, sieve table and results.
+ */
+public final class TestRunReportRenderer {
+
+    /**
+     * Part of the report cache key: bump whenever the layout changes so cached files are re-rendered.
+     */
+    public static final int TEMPLATE_VERSION = 1;
+
+    private static final Font TITLE = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14);
+    private static final Font SECTION = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
+    private static final Font LABEL = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 8);
+    private static final Font CELL = FontFactory.getFont(FontFactory.HELVETICA, 8);
+
+    private static final String[] READING_COLUMNS = {"Sieve", "Aperture (mm)", "Retained cum. (g)", "Passing cum. (%)"};
+
+    private TestRunReportRenderer() {
+    }
+
+    public static void render(TestRunReport report, ReportFormat format, OutputStream out) throws IOException {
+        switch (format) {
+            case PDF -> renderPdf(report, out);
+            case XLSX -> renderXlsx(report, out);
+        }
+    }
+
+    private static String[][] identification(TestRunReport r) {
+        return new String[][]{
+                {"Project", ReportNumbers.text(r.projectCode()) + " " + ReportNumbers.text(r.projectName())},
+                {"Source", ReportNumbers.text(r.sourceName())},
+                {"Sample", ReportNumbers.text(r.sampleCode())},
+                {"Depth (m)", ReportNumbers.format(r.depthFromM(), 2) + " – " + ReportNumbers.format(r.depthToM(), 2)},
+                {"Test", ReportNumbers.text(r.testType()) + " " + ReportNumbers.text(r.method())},
+                {"Standard", ReportNumbers.text(r.standard())},
+                {"Performed", ReportNumbers.text(r.performedAt())},
+                {"Status", ReportNumbers.text(r.status())},
+                {"Dry mass before washing (g)", ReportNumbers.format(r.dryMassBeforeWashG(), 2)},
+                {"Dry mass after washing (g)", ReportNumbers.format(r.dryMassAfterWashG(), 2)},
+                {"Washing loss (%)", ReportNumbers.format(r.washingLossPercent(), 2)}
+        };
+    }
+
+    private static String[][] results(TestRunReport r) {
+        return new String[][]{
+                {"Fines < 0.08 mm (%)", ReportNumbers.format(r.finesPercent(), 1)},
+                {"D10 (mm)", ReportNumbers.format(r.d10(), 3)},
+                {"D30 (mm)", ReportNumbers.format(r.d30(), 3)},
+                {"D60 (mm)", ReportNumbers.format(r.d60(), 3)},
+                {"Cu", ReportNumbers.format(r.cu(), 2)},
+                {"Cc", ReportNumbers.format(r.cc(), 2)}
+        };
+    }
+
+    private static String[] reading(TestRunReport r, int i) {
+        return new String[]{
+                r.pan()[i] ? "Pan" : ReportNumbers.text(r.sieveNames()[i]),
+                ReportNumbers.format(r.sieveMm()[i], 3),
+                ReportNumbers.format(r.retainedCumG()[i], 1),
+                ReportNumbers.format(r.percentPassing()[i], 1)
+        };
+    }
+
+    private static void renderPdf(TestRunReport r, OutputStream out) throws IOException {
+        Document document = new Document(PageSize.A4, 36, 36, 36, 36);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
+        try {
+            document.open();
+            document.add(new Paragraph("Particle size analysis – test run " + r.testRunId(), TITLE));
+            document.add(new Paragraph(" "));
+            document.add(pairs(identification(r)));
+
+            document.add(new Paragraph("Sieve analysis", SECTION));
+            PdfPTable readings = new PdfPTable(READING_COLUMNS.length);
+            readings.setWidthPercentage(100);
+            readings.setHeaderRows(1);
+            for (String column : READING_COLUMNS) readings.addCell(new Phrase(column, LABEL));
+            for (int i = 0; i < r.readingCount(); i++) {
+                for (String cell : reading(r, i)) readings.addCell(new Phrase(cell, CELL));
+            }
+            document.add(readings);
+
+            document.add(new Paragraph("Results", SECTION));
+            document.add(pairs(results(r)));
+        } catch (DocumentException ex) {
+            throw new IOException(ex);
+        } finally {
+            if (document.isOpen()) document.close();
+        }
+    }
+
+    private static PdfPTable pairs(String[][] rows) {
+        PdfPTable table = new PdfPTable(new float[]{2, 3});
+        table.setWidthPercentage(100);
+        table.setSpacingAfter(12);
+        for (String[] row : rows) {
+            table.addCell(new Phrase(row[0], LABEL));
+            table.addCell(new Phrase(row[1], CELL));
+        }
+        return table;
+    }
+
+    private static void renderXlsx(TestRunReport r, OutputStream out) throws IOException {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(XlsxProjectReportWriter.WINDOW)) {
+            Sheet sheet = workbook.createSheet("Test run " + r.testRunId());
+            int next = 0;
+            for (String[] pair : identification(r)) next = write(sheet, next, pair);
+            next++;
+            next = write(sheet, next, READING_COLUMNS);
+            for (int i = 0; i < r.readingCount(); i++) {
+                Row row = sheet.createRow(next++);
+                row.createCell(0).setCellValue(reading(r, i)[0]);
+                number(row, 1, r.sieveMm()[i]);
+                number(row, 2, r.retainedCumG()[i]);
+                number(row, 3, r.percentPassing()[i]);
+            }
+            next++;
+            for (String[] pair : results(r)) next = write(sheet, next, pair);
+            workbook.write(out);
+            out.flush();
+        }
+    }
+
+    private static int write(Sheet sheet, int rowIndex, String[] cells) {
+        Row row = sheet.createRow(rowIndex);
+        for (int c = 0; c < cells.length; c++) row.createCell(c).setCellValue(cells[c]);
+        return rowIndex + 1;
+    }
+
+    private static void number(Row row, int column, double value) {
+        if (!Double.isNaN(value)) row.createCell(column).setCellValue(value);
+    }
+}
@@ -0,0 +1,77 @@
+package com.saker.geotech.report.render;
+
+import com.saker.geotech.report.service.ProjectReportHeader;
+import com.saker.geotech.report.service.ProjectReportRow;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * SXSSF (streaming) workbook: only the last {@link #WINDOW} rows stay in memory, older rows are
+ * flushed to a compressed temp file and zipped into the output stream by {@link #finish()}.
+ */
+class XlsxProjectReportWriter implements ProjectReportWriter {
+
+    static final int WINDOW = 100;
+
+    private final OutputStream out;
+    private final SXSSFWorkbook workbook = new SXSSFWorkbook(WINDOW);
+    private SXSSFSheet sheet;
+    private int nextRow;
+
+    XlsxProjectReportWriter(OutputStream out) {
+        this.out = out;
+        this.workbook.setCompressTempFiles(true);
+    }
+
+    @Override
+    public void begin(ProjectReportHeader header) {
+        sheet = workbook.createSheet("Project " + (header.code() == null ? header.projectId() : header.code()));
+        Row title = sheet.createRow(nextRow++);
+        title.createCell(0).setCellValue(ReportNumbers.text(header.code()) + " " + ReportNumbers.text(header.name()));
+        nextRow++;
+        write(COLUMNS);
+    }
+
+    @Override
+    public void row(ProjectReportRow row) {
+        Row r = sheet.createRow(nextRow++);
+        r.createCell(0).setCellValue(row.testRunId());
+        r.createCell(1).setCellValue(ReportNumbers.text(row.sourceName()));
+        r.createCell(2).setCellValue(ReportNumbers.text(row.sampleCode()));
+        number(r, 3, row.depthFromM());
+        number(r, 4, row.depthToM());
+        r.createCell(5).setCellValue(ReportNumbers.text(row.testType()));
+        r.createCell(6).setCellValue(ReportNumbers.text(row.status()));
+        r.createCell(7).setCellValue(ReportNumbers.text(row.performedAt()));
+        number(r, 8, row.finesPercent());
+        number(r, 9, row.d10());
+        number(r, 10, row.d30());
+        number(r, 11, row.d60());
+        number(r, 12, row.cu());
+        number(r, 13, row.cc());
+    }
+
+    @Override
+    public void finish() throws IOException {
+        workbook.write(out);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        workbook.close(); // also deletes the temp files
+    }
+
+    private void write(String[] cells) {
+        Row r = sheet.createRow(nextRow++);
+        for (int c = 0; c < cells.length; c++) r.createCell(c).setCellValue(cells[c]);
+    }
+
+    private static void number(Row row, int column, double value) {
+        if (!Double.isNaN(value)) row.createCell(column).setCellValue(value);
+    }
+}
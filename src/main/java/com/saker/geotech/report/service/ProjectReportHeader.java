@@ -0,0 +1,9 @@
+package com.saker.geotech.report.service;
+
+public record ProjectReportHeader(
+        long projectId,
+        String code,
+        String name,
+        String status
+) {
+}
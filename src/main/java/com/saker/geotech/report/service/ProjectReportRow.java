@@ -0,0 +1,24 @@
+package com.saker.geotech.report.service;
+
+import java.time.LocalDate;
+
+/**
+ * One test run line of a project report. Missing numbers are NaN.
+ */
+public record ProjectReportRow(
+        long testRunId,
+        String sourceName,
+        String sampleCode,
+        double depthFromM,
+        double depthToM,
+        String testType,
+        String status,
+        LocalDate performedAt,
+        double finesPercent,
+        double d10,
+        double d30,
+        double d60,
+        double cu,
+        double cc
+) {
+}
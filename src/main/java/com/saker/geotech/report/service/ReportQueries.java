@@ -0,0 +1,168 @@
+package com.saker.geotech.report.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Read-only JDBC queries behind the reports. Project rows are fetched in keyset chunks
+ * ({@code tr.id > ?} ... LIMIT), so a report of any size never holds more than one chunk in memory
+ * nor a database connection for the duration of a slow download.
+ */
+@Component
+class ReportQueries {
+
+    private static final String SELECT_TEST_RUN = """
+            SELECT tr.id, tr.status, tr.test_type, tr.performed_at,
+                   p.code, p.name, ss.name, s.sample_code, s.depth_from_m, s.depth_to_m,
+                   pt.method, pt.standard,
+                   pt.dry_mass_before_wash_g, pt.dry_mass_after_wash_g, pt.washing_loss_percent,
+                   r.fines_percent, r.d10, r.d30, r.d60, r.cu, r.cc
+            FROM test_runs tr
+            JOIN samples s ON s.id = tr.sample_id
+            JOIN sample_sources ss ON ss.id = s.sample_source_id
+            JOIN projects p ON p.id = ss.project_id
+            LEFT JOIN ps_tests pt ON pt.test_run_id = tr.id AND pt.deleted_at IS NULL
+            LEFT JOIN ps_results r ON r.ps_test_id = pt.id
+            WHERE tr.id = ? AND tr.deleted_at IS NULL
+            """;
+
+    private static final String SELECT_READINGS = """
+            SELECT r.sieve_name, r.sieve_mm, r.is_pan, r.retained_mass_cum_g, r.percent_passing_cum
+            FROM ps_sieve_readings r
+            JOIN ps_tests pt ON pt.id = r.ps_test_id
+            WHERE pt.test_run_id = ? AND pt.deleted_at IS NULL
+            ORDER BY r.row_order
+            """;
+
+    private static final String SELECT_PROJECT = """
+            SELECT id, code, name, status FROM projects WHERE id = ? AND deleted_at IS NULL
+            """;
+
+    private static final String SELECT_PROJECT_ROWS = """
+            SELECT tr.id, ss.name, s.sample_code, s.depth_from_m, s.depth_to_m,
+                   tr.test_type, tr.status, tr.performed_at,
+                   r.fines_percent, r.d10, r.d30, r.d60, r.cu, r.cc
+            FROM test_runs tr
+            JOIN samples s ON s.id = tr.sample_id
+            JOIN sample_sources ss ON ss.id = s.sample_source_id
+            LEFT JOIN ps_tests pt ON pt.test_run_id = tr.id AND pt.deleted_at IS NULL
+            LEFT JOIN ps_results r ON r.ps_test_id = pt.id
+            WHERE ss.project_id = ? AND tr.id > ?
+              AND tr.deleted_at IS NULL AND s.deleted_at IS NULL AND ss.deleted_at IS NULL
+            ORDER BY tr.id
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ReportQueries(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return null if the test run does not exist
+     */
+    TestRunReport loadTestRun(long testRunId) {
+        Readings r = loadReadings(testRunId);
+        List<TestRunReport> found = jdbcTemplate.query(SELECT_TEST_RUN, (rs, rowNum) -> new TestRunReport(
+                rs.getLong(1), rs.getString(2), rs.getString(3), date(rs, 4),
+                rs.getString(5), rs.getString(6), rs.getString(7), rs.getString(8),
+                number(rs, 9), number(rs, 10),
+                rs.getString(11), rs.getString(12),
+                number(rs, 13), number(rs, 14), number(rs, 15),
+                r.names, r.sieveMm, r.retained, r.passing, r.pan,
+                number(rs, 16), number(rs, 17), number(rs, 18), number(rs, 19), number(rs, 20), number(rs, 21)
+        ), testRunId);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    ProjectReportHeader loadProject(long projectId) {
+        List<ProjectReportHeader> found = jdbcTemplate.query(SELECT_PROJECT, (rs, rowNum) ->
+                new ProjectReportHeader(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4)), projectId);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    /**
+     * Feeds every test run line of the project to {@code sink}, one chunk query at a time.
+     */
+    void forEachProjectRow(long projectId, int chunkSize, Consumer<ProjectReportRow> sink) {
+        long after = 0;
+        while (true) {
+            List<ProjectReportRow> chunk = jdbcTemplate.query(SELECT_PROJECT_ROWS, (rs, rowNum) -> new ProjectReportRow(
+                    rs.getLong(1), rs.getString(2), rs.getString(3), number(rs, 4), number(rs, 5),
+                    rs.getString(6), rs.getString(7), date(rs, 8),
+                    number(rs, 9), number(rs, 10), number(rs, 11), number(rs, 12), number(rs, 13), number(rs, 14)
+            ), projectId, after, chunkSize);
+            chunk.forEach(sink);
+            if (chunk.size() < chunkSize) return;
+            after = chunk.get(chunk.size() - 1).testRunId();
+        }
+    }
+
+    private Readings loadReadings(long testRunId) {
+        Readings readings = new Readings(24);
+        jdbcTemplate.query(SELECT_READINGS, rs -> {
+            readings.add(rs.getString(1), number(rs, 2), rs.getBoolean(3), number(rs, 4), number(rs, 5));
+        }, testRunId);
+        return readings.trim();
+    }
+
+    private static double number(ResultSet rs, int column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? Double.NaN : value;
+    }
+
+    private static LocalDate date(ResultSet rs, int column) throws SQLException {
+        Date value = rs.getDate(column);
+        return value == null ? null : value.toLocalDate();
+    }
+
+    private static final class Readings {
+
+        private int n;
+        private String[] names;
+        private double[] sieveMm;
+        private double[] retained;
+        private double[] passing;
+        private boolean[] pan;
+
+        Readings(int capacity) {
+            names = new String[capacity];
+            sieveMm = new double[capacity];
+            retained = new double[capacity];
+            passing = new double[capacity];
+            pan = new boolean[capacity];
+        }
+
+        void add(String name, double mm, boolean isPan, double retainedCum, double passingCum) {
+            if (n == sieveMm.length) resize(Math.max(8, n * 2));
+            names[n] = name;
+            sieveMm[n] = mm;
+            pan[n] = isPan;
+            retained[n] = retainedCum;
+            passing[n] = passingCum;
+            n++;
+        }
+
+        Readings trim() {
+            resize(n);
+            return this;
+        }
+
+        private void resize(int size) {
+            names = Arrays.copyOf(names, size);
+            sieveMm = Arrays.copyOf(sieveMm, size);
+            retained = Arrays.copyOf(retained, size);
+            passing = Arrays.copyOf(passing, size);
+            pan = Arrays.copyOf(pan, size);
+        }
+    }
+}
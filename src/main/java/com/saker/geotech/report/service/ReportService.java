@@ -0,0 +1,90 @@
+package com.saker.geotech.report.service;
+
+import com.saker.geotech.report.ReportFormat;
+import com.saker.geotech.report.cache.RenderedReportCache;
+import com.saker.geotech.report.render.ProjectReportWriter;
+import com.saker.geotech.report.render.TestRunReportRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Report generation. Everything is written straight to the caller's output stream:
+ *
+ * - project reports: rows are read in keyset chunks of {@code report.project.chunk-size} and
+ *   pushed to a streaming {@link ProjectReportWriter}; memory does not grow with the project
+ * - test run reports: APPROVED runs are rendered once into {@link RenderedReportCache} and served
+ *   from disk; other statuses change too often to be worth caching and are rendered on the fly
+ */
+@Service
+public class ReportService {
+
+    private final ReportQueries queries;
+    private final RenderedReportCache cache;
+    private final int projectChunkSize;
+
+    public ReportService(
+            ReportQueries queries,
+            RenderedReportCache cache,
+            @Value("${report.project.chunk-size:500}") int projectChunkSize
+    ) {
+        this.queries = queries;
+        this.cache = cache;
+        this.projectChunkSize = projectChunkSize;
+    }
+
+    /**
+     * @return null if the test run does not exist
+     */
+    public TestRunReport loadTestRun(long testRunId) {
+        return queries.loadTestRun(testRunId);
+    }
+
+    public void renderTestRun(TestRunReport report, ReportFormat format, OutputStream out) throws IOException {
+        TestRunReportRenderer.render(report, format, out);
+    }
+
+    /**
+     * Cached file of an APPROVED test run report, rendered on first use.
+     */
+    public CachedReport cachedTestRun(TestRunReport report, ReportFormat format) throws IOException {
+        if (!report.isApproved()) {
+            throw new IllegalArgumentException("Only APPROVED test runs are cached");
+        }
+        String key = RenderedReportCache.key(format, report);
+        Path file = cache.getOrRender(key, format, out -> TestRunReportRenderer.render(report, format, out));
+        return new CachedReport(key, file);
+    }
+
+    public ProjectReportHeader loadProject(long projectId) {
+        return queries.loadProject(projectId);
+    }
+
+    public void streamProject(ProjectReportHeader header, ReportFormat format, OutputStream out) throws IOException {
+        try (ProjectReportWriter writer = ProjectReportWriter.create(format, out)) {
+            writer.begin(header);
+            try {
+                queries.forEachProjectRow(header.projectId(), projectChunkSize, row -> {
+                    try {
+                        writer.row(row);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            writer.finish();
+        }
+    }
+
+    /**
+     * @param key content hash, also usable as a strong ETag
+     */
+    public record CachedReport(String key, Path file) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.saker.geotech.report.service;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Everything printed on a single test run report. Missing numbers are NaN, missing text null.
+ * Readings are parallel arrays in row order.
+ */
+public record TestRunReport(
+        long testRunId,
+        String status,
+        String testType,
+        LocalDate performedAt,
+        String projectCode,
+        String projectName,
+        String sourceName,
+        String sampleCode,
+        double depthFromM,
+        double depthToM,
+        String method,
+        String standard,
+        double dryMassBeforeWashG,
+        double dryMassAfterWashG,
+        double washingLossPercent,
+        String[] sieveNames,
+        double[] sieveMm,
+        double[] retainedCumG,
+        double[] percentPassing,
+        boolean[] pan,
+        double finesPercent,
+        double d10,
+        double d30,
+        double d60,
+        double cu,
+        double cc
+) {
+
+    public static final String APPROVED = "APPROVED";
+
+    public boolean isApproved() {
+        return APPROVED.equals(status);
+    }
+
+    public int readingCount() {
+        return sieveMm.length;
+    }
+
+    /**
+     * Canonical serialization of every printed value: the input of the report cache key.
+     * Any change to the data (or to this method) yields a different key.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeLong(testRunId);
+        writeString(out, status);
+        writeString(out, testType);
+        writeString(out, performedAt == null ? null : performedAt.toString());
+        writeString(out, projectCode);
+        writeString(out, projectName);
+        writeString(out, sourceName);
+        writeString(out, sampleCode);
+        out.writeDouble(depthFromM);
+        out.writeDouble(depthToM);
+        writeString(out, method);
+        writeString(out, standard);
+        out.writeDouble(dryMassBeforeWashG);
+        out.writeDouble(dryMassAfterWashG);
+        out.writeDouble(washingLossPercent);
+        out.writeInt(sieveMm.length);
+        for (int i = 0; i < sieveMm.length; i++) {
+            writeString(out, sieveNames[i]);
+            out.writeDouble(sieveMm[i]);
+            out.writeDouble(retainedCumG[i]);
+            out.writeDouble(percentPassing[i]);
+            out.writeBoolean(pan[i]);
+        }
+        out.writeDouble(finesPercent);
+        out.writeDouble(d10);
+        out.writeDouble(d30);
+        out.writeDouble(d60);
+        out.writeDouble(cu);
+        out.writeDouble(cc);
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+}
@@ -0,0 +1,33 @@
+package com.saker.geotech.repository;
+
+import com.saker.geotech.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface RefreshTokenDao extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
+
+    /**
+     * Compare-and-set rotation: succeeds (returns 1) for exactly one caller per token.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update RefreshToken t set t.rotatedAt = :now
+            where t.id = :id and t.rotatedAt is null and t.revoked = false
+            """)
+    int markRotated(@Param("id") Long id, @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update RefreshToken t set t.revoked = true where t.familyId = :familyId and t.revoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update RefreshToken t set t.revoked = true where t.userId = :userId and t.revoked = false")
+    int revokeAllForUser(@Param("userId") Long userId);
+}
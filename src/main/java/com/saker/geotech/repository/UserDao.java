@@ -0,0 +1,23 @@
+package com.saker.geotech.repository;
+
+import com.saker.geotech.entity.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface UserDao extends JpaRepository<User, Long> {
+
+    Optional<User> findByEmailAndDeletedAtIsNull(String email);
+
+    /**
+     * Replaces the hash of an unchanged password with a stronger one (BCrypt cost upgrade on login).
+     * A bulk update on purpose: it bypasses the entity listeners, so the security version is not
+     * bumped and the user's other sessions stay valid.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.passwordHash = :newHash WHERE u.email = :email AND u.passwordHash = :oldHash")
+    int upgradePasswordHash(@Param("email") String email, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+}
@@ -0,0 +1,63 @@
+package com.saker.geotech.search.controller;
+
+import com.saker.geotech.search.dto.SampleHitDto;
+import com.saker.geotech.search.dto.SampleSearchResultDto;
+import com.saker.geotech.search.dto.SearchRebuildDto;
+import com.saker.geotech.search.service.SampleSearchService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/search/samples")
+public class SampleSearchController {
+
+    private final SampleSearchService searchService;
+
+    public SampleSearchController(SampleSearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /**
+     * Full-text search with optional facet filters; the last word of {@code q} matches as a prefix.
+     */
+    @GetMapping
+    public SampleSearchResultDto search(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) String sourceType,
+            @RequestParam(required = false) String testStatus,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return searchService.search(q, projectId, sourceType, testStatus, limit);
+    }
+
+    @GetMapping("/suggest")
+    public List<SampleHitDto> suggest(
+            @RequestParam String q,
+            @RequestParam(required = false) Long projectId
+    ) {
+        return searchService.suggest(q, projectId);
+    }
+
+    /**
+     * Rebuilds the index of the instance serving the request from the database.
+     */
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public SearchRebuildDto rebuild() {
+        return searchService.rebuild();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> invalidRequest(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+}
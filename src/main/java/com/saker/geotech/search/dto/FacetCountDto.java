@@ -0,0 +1,7 @@
+package com.saker.geotech.search.dto;
+
+public record FacetCountDto(
+        String value,
+        long count
+) {
+}
@@ -0,0 +1,13 @@
+package com.saker.geotech.search.dto;
+
+public record SampleHitDto(
+        long sampleId,
+        long projectId,
+        String sampleCode,
+        String sourceName,
+        String sourceType,
+        String locationDesc,
+        String classification,
+        float score
+) {
+}
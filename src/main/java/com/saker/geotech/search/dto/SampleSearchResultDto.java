@@ -0,0 +1,15 @@
+package com.saker.geotech.search.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Best hits first. {@code facets} counts every matching sample (not only the returned hits)
+ * by facet: "project", "sourceType" and "testStatus".
+ */
+public record SampleSearchResultDto(
+        long total,
+        List<SampleHitDto> hits,
+        Map<String, List<FacetCountDto>> facets
+) {
+}
@@ -0,0 +1,29 @@
+package com.saker.geotech.search.index;
+
+import java.util.List;
+
+/**
+ * Indexed view of one sample, flattened with its source. {@code deleted} is true when the sample,
+ * its source or its project is soft-deleted: the document is then removed from the index.
+ *
+ * @param testStatuses distinct statuses of the sample's live test runs
+ */
+public record SampleDocument(
+        long sampleId,
+        long projectId,
+        String sampleCode,
+        String sourceName,
+        String sourceType,
+        String locationDesc,
+        String classification,
+        String description,
+        String notes,
+        List<String> testStatuses,
+        boolean deleted
+) {
+
+    public SampleDocument withTestStatuses(List<String> statuses) {
+        return new SampleDocument(sampleId, projectId, sampleCode, sourceName, sourceType, locationDesc,
+                classification, description, notes, statuses, deleted);
+    }
+}
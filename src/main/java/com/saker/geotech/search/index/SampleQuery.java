@@ -0,0 +1,14 @@
+package com.saker.geotech.search.index;
+
+/**
+ * Free text (the last word is matched as a prefix, for typeahead) plus optional facet filters.
+ * A null or blank text matches every sample of the filters.
+ */
+public record SampleQuery(
+        String text,
+        Long projectId,
+        String sourceType,
+        String testStatus,
+        int limit
+) {
+}
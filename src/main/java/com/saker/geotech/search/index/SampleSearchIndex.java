@@ -0,0 +1,415 @@
+package com.saker.geotech.search.index;
+
+import com.saker.geotech.search.dto.FacetCountDto;
+import com.saker.geotech.search.dto.SampleHitDto;
+import com.saker.geotech.search.dto.SampleSearchResultDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.facet.DrillDownQuery;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.Facets;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Embedded Lucene index of samples, on local disk ({@code search.index.dir}), one per instance.
+ *
+ * Searches run on a near-real-time {@link IndexSearcher} shared by all requests; writes go
+ * through the single {@link IndexWriter} and become visible on {@link #refresh()} (cheap) or
+ * {@link #commit(long)} (durable). Facet ordinals are resolved once per reopened searcher
+ * ({@link FacetedSearcher}), not per query, and only {@link #search} collects them: the
+ * per-keystroke {@link #suggest} collects the top hits alone.
+ *
+ * Matching: every word of the text must match one of the text fields, the last one as a prefix
+ * so results follow the user's typing; a sample code typed as is (e.g. "BH-12/3") also matches
+ * as a prefix of the whole code and ranks first. Text is lower-cased and accent-folded.
+ *
+ * The commit carries the indexer's watermark, so a restart resumes where the last commit stopped.
+ */
+@Component
+public class SampleSearchIndex {
+
+    public static final String FACET_PROJECT = "project";
+    public static final String FACET_SOURCE_TYPE = "sourceType";
+    public static final String FACET_TEST_STATUS = "testStatus";
+
+    private static final String ID = "id";
+    private static final String PROJECT_ID = "projectId";
+    private static final String CODE = "code";
+    private static final String CODE_KEYWORD = "codeKeyword";
+    private static final String SOURCE = "source";
+    private static final String LOCATION = "location";
+    private static final String CLASSIFICATION = "classification";
+    private static final String TEXT = "text";
+    private static final String SOURCE_TYPE = "sourceType";
+
+    private static final String WATERMARK = "watermark";
+
+    /**
+     * Text fields and their boosts: a hit on the code outranks one in a free-text description.
+     */
+    private static final Map<String, Float> TEXT_FIELDS = Map.of(
+            CODE, 4f,
+            SOURCE, 2f,
+            CLASSIFICATION, 2f,
+            LOCATION, 1f,
+            TEXT, 1f
+    );
+
+    private static final int MAX_QUERY_WORDS = 8;
+    private static final int FACET_VALUES = 20;
+
+    private final Directory directory;
+    private final Analyzer analyzer = new SampleAnalyzer();
+    private final FacetsConfig facetsConfig = new FacetsConfig();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final Timer queryTimer;
+    private final Timer suggestTimer;
+
+    public SampleSearchIndex(
+            @Value("${search.index.dir:cache/search/samples}") String indexDir,
+            MeterRegistry meterRegistry
+    ) {
+        facetsConfig.setMultiValued(FACET_TEST_STATUS, true);
+        try {
+            Path path = Path.of(indexDir);
+            Files.createDirectories(path);
+            this.directory = FSDirectory.open(path);
+            IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+            this.writer = new IndexWriter(directory, config);
+            this.searcherManager = new SearcherManager(writer, new FacetedSearcherFactory());
+        } catch (IOException ex) {
+            throw new IllegalStateException("Cannot open sample search index in " + indexDir + ": " + ex.getMessage(), ex);
+        }
+        this.queryTimer = Timer.builder("search.samples.query")
+                .publishPercentileHistogram().register(meterRegistry);
+        this.suggestTimer = Timer.builder("search.samples.suggest")
+                .publishPercentileHistogram().register(meterRegistry);
+    }
+
+    /**
+     * @return the watermark (epoch ms) stored with the last commit, 0 if the index was never built
+     */
+    public long watermark() {
+        Iterable<Map.Entry<String, String>> data = writer.getLiveCommitData();
+        if (data == null) return 0;
+        for (Map.Entry<String, String> entry : data) {
+            if (WATERMARK.equals(entry.getKey())) return Long.parseLong(entry.getValue());
+        }
+        return 0;
+    }
+
+    /**
+     * Adds or replaces the documents; deleted samples are removed. Not visible before {@link #refresh()}.
+     */
+    public void apply(List<SampleDocument> documents) {
+        try {
+            for (SampleDocument sample : documents) {
+                Term id = new Term(ID, Long.toString(sample.sampleId()));
+                if (sample.deleted()) {
+                    writer.deleteDocuments(id);
+                } else {
+                    writer.updateDocument(id, facetsConfig.build(toDocument(sample)));
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Empties the index, for a rebuild. Searches keep seeing the old content until the next refresh.
+     */
+    public void deleteAll() {
+        try {
+            writer.deleteAll();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Makes applied changes visible to searches, without the cost of a durable commit.
+     */
+    public void refresh() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Durably commits pending changes with the watermark and opens a new searcher on them.
+     */
+    public void commit(long watermark) {
+        try {
+            writer.setLiveCommitData(Map.of(WATERMARK, Long.toString(watermark)).entrySet());
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public SampleSearchResultDto search(SampleQuery query) {
+        return withSearcher(queryTimer, searcher -> search(searcher, query));
+    }
+
+    /**
+     * Top hits only: no facet collection or counting, and the total hit count is not computed.
+     */
+    public List<SampleHitDto> suggest(SampleQuery query) {
+        return withSearcher(suggestTimer, searcher -> {
+            if (searcher.facetState == null) return List.of();
+            return hits(searcher, searcher.search(filtered(query), query.limit()));
+        });
+    }
+
+    private <T> T withSearcher(Timer timer, SearcherCall<T> call) {
+        long start = System.nanoTime();
+        try {
+            FacetedSearcher searcher = (FacetedSearcher) searcherManager.acquire();
+            try {
+                return call.apply(searcher);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private SampleSearchResultDto search(FacetedSearcher searcher, SampleQuery query) throws IOException {
+        if (searcher.facetState == null) return new SampleSearchResultDto(0, List.of(), Map.of());
+
+        FacetsCollector collector = new FacetsCollector();
+        TopDocs top = FacetsCollector.search(searcher, filtered(query), query.limit(), collector);
+        List<SampleHitDto> hits = hits(searcher, top);
+
+        Facets facets = new SortedSetDocValuesFacetCounts(searcher.facetState, collector);
+        Map<String, List<FacetCountDto>> counts = new LinkedHashMap<>();
+        for (String dim : List.of(FACET_PROJECT, FACET_SOURCE_TYPE, FACET_TEST_STATUS)) {
+            counts.put(dim, facetCounts(facets, dim));
+        }
+        return new SampleSearchResultDto(top.totalHits.value, hits, counts);
+    }
+
+    private DrillDownQuery filtered(SampleQuery query) {
+        DrillDownQuery drillDown = new DrillDownQuery(facetsConfig, textQuery(query.text()));
+        if (query.projectId() != null) drillDown.add(FACET_PROJECT, Long.toString(query.projectId()));
+        if (query.sourceType() != null) drillDown.add(FACET_SOURCE_TYPE, query.sourceType());
+        if (query.testStatus() != null) drillDown.add(FACET_TEST_STATUS, query.testStatus());
+        return drillDown;
+    }
+
+    private static List<SampleHitDto> hits(IndexSearcher searcher, TopDocs top) throws IOException {
+        StoredFields stored = searcher.storedFields();
+        List<SampleHitDto> hits = new ArrayList<>(top.scoreDocs.length);
+        for (ScoreDoc hit : top.scoreDocs) {
+            Document doc = stored.document(hit.doc);
+            hits.add(new SampleHitDto(
+                    Long.parseLong(doc.get(ID)),
+                    doc.getField(PROJECT_ID).numericValue().longValue(),
+                    doc.get(CODE),
+                    doc.get(SOURCE),
+                    doc.get(SOURCE_TYPE),
+                    doc.get(LOCATION),
+                    doc.get(CLASSIFICATION),
+                    hit.score
+            ));
+        }
+        return hits;
+    }
+
+    private static List<FacetCountDto> facetCounts(Facets facets, String dim) throws IOException {
+        FacetResult result;
+        try {
+            result = facets.getTopChildren(FACET_VALUES, dim);
+        } catch (IllegalArgumentException ex) {
+            // Dimension never indexed yet, e.g. no sample has a test run
+            return List.of();
+        }
+        if (result == null) return List.of();
+        List<FacetCountDto> values = new ArrayList<>(result.labelValues.length);
+        for (LabelAndValue value : result.labelValues) {
+            values.add(new FacetCountDto(value.label, value.value.longValue()));
+        }
+        return values;
+    }
+
+    private Query textQuery(String text) {
+        if (text == null || text.isBlank()) return new MatchAllDocsQuery();
+
+        Query codePrefix = new BoostQuery(new PrefixQuery(new Term(CODE_KEYWORD, keyword(text))), 8f);
+        List<String> words = analyze(text);
+        if (words.isEmpty()) return codePrefix;
+
+        BooleanQuery.Builder allWords = new BooleanQuery.Builder();
+        for (int w = 0; w < words.size(); w++) {
+            boolean last = w == words.size() - 1;
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            for (Map.Entry<String, Float> field : TEXT_FIELDS.entrySet()) {
+                Term term = new Term(field.getKey(), words.get(w));
+                Query match = last ? new PrefixQuery(term) : new TermQuery(term);
+                anyField.add(new BoostQuery(match, field.getValue()), BooleanClause.Occur.SHOULD);
+            }
+            allWords.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+        return new BooleanQuery.Builder()
+                .add(allWords.build(), BooleanClause.Occur.SHOULD)
+                .add(codePrefix, BooleanClause.Occur.SHOULD)
+                .build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> words = new ArrayList<>();
+        try (TokenStream tokens = analyzer.tokenStream(TEXT, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken() && words.size() < MAX_QUERY_WORDS) {
+                words.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return words;
+    }
+
+    private static Document toDocument(SampleDocument sample) {
+        Document doc = new Document();
+        doc.add(new StringField(ID, Long.toString(sample.sampleId()), Field.Store.YES));
+        doc.add(new StoredField(PROJECT_ID, sample.projectId()));
+        addText(doc, CODE, sample.sampleCode(), Field.Store.YES);
+        if (sample.sampleCode() != null) {
+            doc.add(new StringField(CODE_KEYWORD, keyword(sample.sampleCode()), Field.Store.NO));
+        }
+        addText(doc, SOURCE, sample.sourceName(), Field.Store.YES);
+        addText(doc, LOCATION, sample.locationDesc(), Field.Store.YES);
+        addText(doc, CLASSIFICATION, sample.classification(), Field.Store.YES);
+        addText(doc, TEXT, sample.description(), Field.Store.NO);
+        addText(doc, TEXT, sample.notes(), Field.Store.NO);
+        doc.add(new StoredField(SOURCE_TYPE, sample.sourceType()));
+
+        doc.add(new SortedSetDocValuesFacetField(FACET_PROJECT, Long.toString(sample.projectId())));
+        doc.add(new SortedSetDocValuesFacetField(FACET_SOURCE_TYPE, sample.sourceType()));
+        for (String status : sample.testStatuses()) {
+            doc.add(new SortedSetDocValuesFacetField(FACET_TEST_STATUS, status));
+        }
+        return doc;
+    }
+
+    private static void addText(Document doc, String field, String value, Field.Store store) {
+        if (value != null && !value.isBlank()) doc.add(new TextField(field, value, store));
+    }
+
+    private static String keyword(String code) {
+        return code.strip().toLowerCase(Locale.ROOT);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    @FunctionalInterface
+    private interface SearcherCall<T> {
+        T apply(FacetedSearcher searcher) throws IOException;
+    }
+
+    /**
+     * Searcher carrying the facet ordinal map of its reader, built when the searcher is opened.
+     * Null while the index is empty (no facet field to read yet).
+     */
+    private static final class FacetedSearcher extends IndexSearcher {
+
+        final SortedSetDocValuesReaderState facetState;
+
+        FacetedSearcher(IndexReader reader, FacetsConfig config) throws IOException {
+            super(reader);
+            this.facetState = reader.numDocs() == 0 ? null : new DefaultSortedSetDocValuesReaderState(reader, config);
+        }
+    }
+
+    private final class FacetedSearcherFactory extends SearcherFactory {
+
+        @Override
+        public IndexSearcher newSearcher(IndexReader reader, IndexReader previousReader) throws IOException {
+            return new FacetedSearcher(reader, facetsConfig);
+        }
+    }
+
+    /**
+     * Standard word splitting, lower case, accents folded ("Grès argileux" -> "gres", "argileux").
+     */
+    private static final class SampleAnalyzer extends Analyzer {
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            StandardTokenizer source = new StandardTokenizer();
+            TokenStream filtered = new ASCIIFoldingFilter(new LowerCaseFilter(source));
+            return new TokenStreamComponents(source, filtered);
+        }
+
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.saker.geotech.search.service;
+
+import com.saker.geotech.search.index.SampleDocument;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads samples as {@link SampleDocument}s: by id for incremental updates, in id order for rebuilds.
+ */
+@Component
+class SampleDocumentLoader {
+
+    private static final int IN_CHUNK = 500;
+
+    private static final String SELECT_DOCUMENT = """
+            SELECT s.id, ss.project_id, s.sample_code, ss.name, ss.source_type, ss.location_desc,
+                   s.classification, s.description, ss.notes,
+                   s.deleted_at IS NOT NULL OR ss.deleted_at IS NOT NULL OR p.deleted_at IS NOT NULL
+            FROM samples s
+            JOIN sample_sources ss ON ss.id = s.sample_source_id
+            JOIN projects p ON p.id = ss.project_id
+            """;
+
+    private static final String BY_IDS = SELECT_DOCUMENT + " WHERE s.id IN (%s)";
+
+    private static final String BATCH_AFTER_ID = SELECT_DOCUMENT + """
+             WHERE s.id > ? AND s.deleted_at IS NULL AND ss.deleted_at IS NULL AND p.deleted_at IS NULL
+            ORDER BY s.id
+            LIMIT ?
+            """;
+
+    private static final String SELECT_STATUSES = """
+            SELECT DISTINCT sample_id, status
+            FROM test_runs
+            WHERE sample_id IN (%s) AND deleted_at IS NULL
+            """;
+
+    /**
+     * Samples whose own row, source, project or test runs changed; each branch is a range read
+     * on an (updated_at, id) index.
+     */
+    private static final String CHANGED_SINCE = """
+            SELECT s.id FROM samples s WHERE s.updated_at >= ?
+            UNION
+            SELECT s.id FROM sample_sources ss JOIN samples s ON s.sample_source_id = ss.id
+            WHERE ss.updated_at >= ?
+            UNION
+            SELECT tr.sample_id FROM test_runs tr WHERE tr.updated_at >= ?
+            UNION
+            SELECT s.id FROM projects p
+            JOIN sample_sources ss ON ss.project_id = p.id
+            JOIN samples s ON s.sample_source_id = ss.id
+            WHERE p.updated_at >= ?
+            """;
+
+    private static final String DB_NOW = "SELECT CURRENT_TIMESTAMP";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    SampleDocumentLoader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Database clock, which stamps the updated_at columns {@link #changedSince} compares with.
+     */
+    Timestamp dbNow() {
+        return jdbcTemplate.queryForObject(DB_NOW, Timestamp.class);
+    }
+
+    List<Long> changedSince(Timestamp since) {
+        return jdbcTemplate.queryForList(CHANGED_SINCE, Long.class, since, since, since, since);
+    }
+
+    /**
+     * Ids no longer found (hard-deleted) come back as deleted documents.
+     */
+    List<SampleDocument> load(List<Long> sampleIds) {
+        List<SampleDocument> documents = new ArrayList<>(sampleIds.size());
+        for (int from = 0; from < sampleIds.size(); from += IN_CHUNK) {
+            List<Long> chunk = sampleIds.subList(from, Math.min(from + IN_CHUNK, sampleIds.size()));
+            Set<Long> missing = new LinkedHashSet<>(chunk);
+            Map<Long, List<String>> statuses = statuses(chunk);
+            jdbcTemplate.query(BY_IDS.formatted(placeholders(chunk.size())), rs -> {
+                SampleDocument document = toDocument(rs, statuses);
+                missing.remove(document.sampleId());
+                documents.add(document);
+            }, chunk.toArray());
+            for (long id : missing) {
+                documents.add(new SampleDocument(id, 0, null, null, null, null, null, null, null, List.of(), true));
+            }
+        }
+        return documents;
+    }
+
+    /**
+     * Next batch of live samples after {@code afterId}, in id order; empty when done.
+     */
+    List<SampleDocument> batchAfter(long afterId, int limit) {
+        List<SampleDocument> rows = jdbcTemplate.query(BATCH_AFTER_ID,
+                (rs, row) -> toDocument(rs, Map.of()), afterId, limit);
+        if (rows.isEmpty()) return rows;
+
+        List<Long> ids = rows.stream().map(SampleDocument::sampleId).toList();
+        Map<Long, List<String>> statuses = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+            statuses.putAll(statuses(ids.subList(from, Math.min(from + IN_CHUNK, ids.size()))));
+        }
+        List<SampleDocument> documents = new ArrayList<>(rows.size());
+        for (SampleDocument row : rows) {
+            documents.add(row.withTestStatuses(statuses.getOrDefault(row.sampleId(), List.of())));
+        }
+        return documents;
+    }
+
+    private Map<Long, List<String>> statuses(List<Long> sampleIds) {
+        Map<Long, List<String>> statuses = new HashMap<>();
+        jdbcTemplate.query(SELECT_STATUSES.formatted(placeholders(sampleIds.size())), rs -> {
+            statuses.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(rs.getString(2));
+        }, sampleIds.toArray());
+        return statuses;
+    }
+
+    private static SampleDocument toDocument(ResultSet rs, Map<Long, List<String>> statuses) throws SQLException {
+        long id = rs.getLong(1);
+        return new SampleDocument(
+                id,
+                rs.getLong(2),
+                rs.getString(3),
+                rs.getString(4),
+                rs.getString(5),
+                rs.getString(6),
+                rs.getString(7),
+                rs.getString(8),
+                rs.getString(9),
+                statuses.getOrDefault(id, List.of()),
+                rs.getBoolean(10)
+        );
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
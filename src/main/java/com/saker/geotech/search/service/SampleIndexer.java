@@ -0,0 +1,123 @@
+package com.saker.geotech.search.service;
+
+import com.saker.geotech.search.dto.SearchRebuildDto;
+import com.saker.geotech.search.index.SampleDocument;
+import com.saker.geotech.search.index.SampleSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Keeps the {@link SampleSearchIndex} of this instance in line with the database.
+ *
+ * - update (every {@code search.index.update.ms}): re-indexes the samples whose row, source,
+ *   project or test runs changed since the watermark, read on the updated_at indexes. The scan
+ *   starts {@code search.index.overlap.ms} before the watermark so rows committed late are not
+ *   missed; re-indexing a sample twice is harmless. Searches see changes right after the update,
+ *   the watermark is committed to disk every {@code search.index.commit.ms}.
+ * - rebuild: empties the index and streams every live sample in id keyset batches. Runs on its
+ *   own when the index has never been built, or on demand after a schema change.
+ *
+ * Polling the database rather than listening to application events also catches rows written
+ * by other instances, each of which maintains its own local index.
+ */
+@Component
+public class SampleIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(SampleIndexer.class);
+
+    private final SampleSearchIndex index;
+    private final SampleDocumentLoader loader;
+    private final int batchSize;
+    private final long overlapMs;
+    private final long commitMs;
+
+    // Guarded by this
+    private long watermark;
+    private long lastCommitMs;
+    private boolean rebuildNeeded;
+
+    public SampleIndexer(
+            SampleSearchIndex index,
+            SampleDocumentLoader loader,
+            @Value("${search.rebuild.batch-size:1000}") int batchSize,
+            @Value("${search.index.overlap.ms:5000}") long overlapMs,
+            @Value("${search.index.commit.ms:60000}") long commitMs
+    ) {
+        this.index = index;
+        this.loader = loader;
+        this.batchSize = batchSize;
+        this.overlapMs = overlapMs;
+        this.commitMs = commitMs;
+        this.watermark = index.watermark();
+        this.rebuildNeeded = watermark == 0;
+    }
+
+    @Scheduled(
+            initialDelayString = "${search.index.update.ms:2000}",
+            fixedDelayString = "${search.index.update.ms:2000}"
+    )
+    public void scheduledUpdate() {
+        try {
+            update();
+        } catch (RuntimeException ex) {
+            // Next run re-scans from the same watermark
+            log.warn("Sample search index update failed: {}", ex.getMessage());
+        }
+    }
+
+    synchronized void update() {
+        if (rebuildNeeded) {
+            rebuild();
+            return;
+        }
+        // The watermark is compared with updated_at, so it is read from the database clock, not ours
+        long scanStartMs = loader.dbNow().getTime();
+        List<Long> changed = loader.changedSince(new Timestamp(watermark - overlapMs));
+        if (!changed.isEmpty()) {
+            index.apply(loader.load(changed));
+            index.refresh();
+        }
+        watermark = scanStartMs;
+        long now = System.currentTimeMillis();
+        if (now - lastCommitMs >= commitMs) {
+            index.commit(watermark);
+            lastCommitMs = now;
+        }
+    }
+
+    /**
+     * Searches keep answering from the previous content until the rebuilt index is committed.
+     */
+    synchronized SearchRebuildDto rebuild() {
+        long started = System.currentTimeMillis();
+        long scanStartMs = loader.dbNow().getTime();
+        // Until the commit below, a failure leaves uncommitted deletes in the writer: rebuild again
+        rebuildNeeded = true;
+        index.deleteAll();
+
+        long indexed = 0;
+        long afterId = 0;
+        List<SampleDocument> batch;
+        while (!(batch = loader.batchAfter(afterId, batchSize)).isEmpty()) {
+            index.apply(batch);
+            indexed += batch.size();
+            afterId = batch.get(batch.size() - 1).sampleId();
+        }
+
+        // Rows changed while streaming have updated_at >= scanStartMs: the next update picks them up
+        index.commit(scanStartMs);
+        watermark = scanStartMs;
+        lastCommitMs = System.currentTimeMillis();
+        rebuildNeeded = false;
+
+        long durationMs = lastCommitMs - started;
+        log.info("Sample search index rebuilt: {} samples in {} ms", indexed, durationMs);
+        return new SearchRebuildDto(indexed, durationMs);
+    }
+}
@@ -0,0 +1,71 @@
+package com.saker.geotech.search.service;
+
+import com.saker.geotech.search.dto.SampleHitDto;
+import com.saker.geotech.search.dto.SampleSearchResultDto;
+import com.saker.geotech.search.dto.SearchRebuildDto;
+import com.saker.geotech.search.index.SampleQuery;
+import com.saker.geotech.search.index.SampleSearchIndex;
+import com.saker.geotech.testrun.TestRunStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Sample lookup by code, source, location, classification and free text, with facet counts by
+ * project, source type and test status. Answered from the local {@link SampleSearchIndex},
+ * which trails the database by about {@code search.index.update.ms}.
+ */
+@Service
+public class SampleSearchService {
+
+    private final SampleSearchIndex index;
+    private final SampleIndexer indexer;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final int suggestLimit;
+
+    public SampleSearchService(
+            SampleSearchIndex index,
+            SampleIndexer indexer,
+            @Value("${search.page.default-limit:20}") int defaultLimit,
+            @Value("${search.page.max-limit:100}") int maxLimit,
+            @Value("${search.suggest.limit:8}") int suggestLimit
+    ) {
+        this.index = index;
+        this.indexer = indexer;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.suggestLimit = suggestLimit;
+    }
+
+    /**
+     * @throws IllegalArgumentException on an unknown test status
+     */
+    public SampleSearchResultDto search(String text, Long projectId, String sourceType, String testStatus, Integer limit) {
+        int pageSize = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+        return index.search(new SampleQuery(text, projectId, upperCase(sourceType), status(testStatus), pageSize));
+    }
+
+    /**
+     * Typeahead: best matches of a partially typed text. Runs on every keystroke, so it skips the
+     * facet counting of {@link #search}.
+     */
+    public List<SampleHitDto> suggest(String text, Long projectId) {
+        if (text == null || text.isBlank()) return List.of();
+        return index.suggest(new SampleQuery(text, projectId, null, null, suggestLimit));
+    }
+
+    public SearchRebuildDto rebuild() {
+        return indexer.rebuild();
+    }
+
+    private static String status(String testStatus) {
+        return testStatus == null || testStatus.isBlank() ? null : TestRunStatus.valueOf(upperCase(testStatus)).name();
+    }
+
+    private static String upperCase(String value) {
+        return value == null || value.isBlank() ? null : value.strip().toUpperCase(Locale.ROOT);
+    }
+}
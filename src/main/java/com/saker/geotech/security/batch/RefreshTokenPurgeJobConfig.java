@@ -0,0 +1,102 @@
+package com.saker.geotech.security.batch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+
+/**
+ * Spring Batch job that purges expired and revoked rows from {@code refresh_tokens}, then
+ * denylist entries of {@code revoked_access_tokens} whose token has expired anyway.
+ *
+ * Each tasklet deletes at most {@code security.refresh-token.purge.chunk-size} rows per call; every
+ * call is its own transaction, so a large backlog is removed in short chunks that never hold
+ * long locks on the table or its indexes. Rotated-but-unexpired rows are kept: they are what
+ * reuse detection looks up.
+ */
+@Configuration
+public class RefreshTokenPurgeJobConfig {
+
+    public static final String JOB_NAME = "refreshTokenPurgeJob";
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenPurgeJobConfig.class);
+
+    private static final String DELETE_CHUNK_SQL = """
+            DELETE FROM refresh_tokens
+            WHERE expires_at < ? OR revoked = TRUE
+            LIMIT ?
+            """;
+
+    private static final String DELETE_REVOKED_ACCESS_CHUNK_SQL = """
+            DELETE FROM revoked_access_tokens
+            WHERE expires_at < ?
+            LIMIT ?
+            """;
+
+    @Bean
+    public Job refreshTokenPurgeJob(
+            JobRepository jobRepository,
+            Step refreshTokenPurgeStep,
+            Step revokedAccessTokenPurgeStep
+    ) {
+        return new JobBuilder(JOB_NAME, jobRepository)
+                .start(refreshTokenPurgeStep)
+                .next(revokedAccessTokenPurgeStep)
+                .build();
+    }
+
+    @Bean
+    public Step refreshTokenPurgeStep(
+            JobRepository jobRepository,
+            PlatformTransactionManager transactionManager,
+            JdbcTemplate jdbcTemplate,
+            @Value("${security.refresh-token.purge.chunk-size:1000}") int chunkSize
+    ) {
+        return new StepBuilder("refreshTokenPurgeStep", jobRepository)
+                .tasklet((contribution, chunkContext) -> {
+                    Timestamp now = new Timestamp(System.currentTimeMillis());
+                    int deleted = jdbcTemplate.update(DELETE_CHUNK_SQL, now, chunkSize);
+                    contribution.incrementWriteCount(deleted);
+                    if (deleted < chunkSize) {
+                        log.info("Refresh token purge finished, {} rows deleted",
+                                contribution.getStepExecution().getWriteCount() + deleted);
+                        return RepeatStatus.FINISHED;
+                    }
+                    return RepeatStatus.CONTINUABLE;
+                }, transactionManager)
+                .build();
+    }
+
+    @Bean
+    public Step revokedAccessTokenPurgeStep(
+            JobRepository jobRepository,
+            PlatformTransactionManager transactionManager,
+            JdbcTemplate jdbcTemplate,
+            @Value("${security.refresh-token.purge.chunk-size:1000}") int chunkSize
+    ) {
+        return new StepBuilder("revokedAccessTokenPurgeStep", jobRepository)
+                .tasklet((contribution, chunkContext) -> {
+                    Timestamp now = new Timestamp(System.currentTimeMillis());
+                    int deleted = jdbcTemplate.update(DELETE_REVOKED_ACCESS_CHUNK_SQL, now, chunkSize);
+                    contribution.incrementWriteCount(deleted);
+                    if (deleted < chunkSize) {
+                        log.info("Revoked access token purge finished, {} rows deleted",
+                                contribution.getStepExecution().getWriteCount() + deleted);
+                        return RepeatStatus.FINISHED;
+                    }
+                    return RepeatStatus.CONTINUABLE;
+                }, transactionManager)
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.saker.geotech.security.batch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Launches {@link RefreshTokenPurgeJobConfig#JOB_NAME} on a cron schedule (nightly by default).
+ */
+@Component
+public class RefreshTokenPurgeScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenPurgeScheduler.class);
+
+    private final JobLauncher jobLauncher;
+    private final Job refreshTokenPurgeJob;
+
+    public RefreshTokenPurgeScheduler(
+            JobLauncher jobLauncher,
+            @Qualifier("refreshTokenPurgeJob") Job refreshTokenPurgeJob
+    ) {
+        this.jobLauncher = jobLauncher;
+        this.refreshTokenPurgeJob = refreshTokenPurgeJob;
+    }
+
+    @Scheduled(cron = "${security.refresh-token.purge.cron:0 30 3 * * *}")
+    public void purge() {
+        try {
+            jobLauncher.run(refreshTokenPurgeJob, new JobParametersBuilder()
+                    .addLong("startedAt", System.currentTimeMillis())
+                    .toJobParameters());
+        } catch (Exception ex) {
+            log.warn("Refresh token purge job could not be started: {}", ex.getMessage());
+        }
+    }
+}
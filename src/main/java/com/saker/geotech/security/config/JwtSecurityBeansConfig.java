@@ -2,6 +2,7 @@
 package com.saker.geotech.security.config;
 
 import com.saker.geotech.security.service.CustomUserDetailsService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,9 +15,13 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Configuration
 public class JwtSecurityBeansConfig {
 
+    /**
+     * BCrypt cost from {@code security.password.bcrypt-strength} (4..31, +1 doubles the work).
+     * Raising it upgrades existing hashes on each user's next successful login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
@@ -27,6 +32,7 @@ public class JwtSecurityBeansConfig {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
         provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsPasswordService(userDetailsService);
         return provider;
     }
 
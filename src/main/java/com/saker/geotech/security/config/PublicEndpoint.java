@@ -0,0 +1,32 @@
+package com.saker.geotech.security.config;
+
+/**
+ * One entry of {@link PublicEndpointRegistry}.
+ *
+ * @param path    servlet path, starting with '/', without trailing '/'
+ * @param subtree true to also match every path below it ({@code path + "/**"})
+ */
+public record PublicEndpoint(String path, boolean subtree) {
+
+    public PublicEndpoint {
+        if (path == null || !path.startsWith("/") || (path.length() > 1 && path.endsWith("/"))) {
+            throw new IllegalArgumentException("Public endpoint path must start with '/' and not end with '/': " + path);
+        }
+    }
+
+    public static PublicEndpoint exact(String path) {
+        return new PublicEndpoint(path, false);
+    }
+
+    public static PublicEndpoint subtree(String path) {
+        return new PublicEndpoint(path, true);
+    }
+
+    /**
+     * Pattern understood by {@code authorizeHttpRequests().requestMatchers(String...)}.
+     * A subtree pattern {@code /x/**} matches {@code /x} itself as well.
+     */
+    public String toPattern() {
+        return subtree ? path + "/**" : path;
+    }
+}
@@ -0,0 +1,69 @@
+package com.saker.geotech.security.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Single source of truth for endpoints that do not require authentication.
+ *
+ * Read by {@link SecurityConfig} (permitAll patterns) and by
+ * {@link com.saker.geotech.security.filter.JwtAuthenticationFilter} (skip token processing),
+ * so the two can no longer drift apart. The list is compiled at startup into a
+ * {@link PublicPathMatcher} trie.
+ */
+@Component
+public class PublicEndpointRegistry {
+
+    private static final List<PublicEndpoint> ENDPOINTS = List.of(
+            PublicEndpoint.subtree("/health"),
+            PublicEndpoint.exact("/.well-known/jwks.json"),
+            PublicEndpoint.exact("/user/signup"),
+            PublicEndpoint.exact("/user/login"),
+            PublicEndpoint.exact("/user/refresh"),
+            PublicEndpoint.exact("/user/logout"),
+            PublicEndpoint.subtree("/v3/api-docs"),
+            PublicEndpoint.subtree("/swagger-ui"),
+            PublicEndpoint.exact("/swagger-ui.html"),
+            PublicEndpoint.subtree("/swagger-resources"),
+            PublicEndpoint.subtree("/webjars")
+    );
+
+    private final List<PublicEndpoint> endpoints;
+    private final PublicPathMatcher matcher;
+    private final String[] patterns;
+
+    public PublicEndpointRegistry() {
+        this(ENDPOINTS);
+    }
+
+    PublicEndpointRegistry(List<PublicEndpoint> endpoints) {
+        this.endpoints = List.copyOf(endpoints);
+        this.matcher = PublicPathMatcher.compile(this.endpoints);
+        this.patterns = this.endpoints.stream().map(PublicEndpoint::toPattern).toArray(String[]::new);
+    }
+
+    public List<PublicEndpoint> endpoints() {
+        return endpoints;
+    }
+
+    /**
+     * @return the registry as Spring request-matcher patterns (a fresh copy on each call)
+     */
+    public String[] patterns() {
+        return patterns.clone();
+    }
+
+    /**
+     * Allocation-free check used on every request. CORS preflight requests are always public.
+     */
+    public boolean isPublic(HttpServletRequest request) {
+        if ("OPTIONS".equalsIgnoreCase(request.getMethod())) return true;
+        return matcher.matches(request.getServletPath());
+    }
+
+    public boolean isPublicPath(String servletPath) {
+        return matcher.matches(servletPath);
+    }
+}
@@ -0,0 +1,104 @@
+package com.saker.geotech.security.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Character trie compiled once from the {@link PublicEndpoint} list.
+ *
+ * Matching walks the path a character at a time over flat arrays: no streams, no substrings,
+ * no iterator objects, so a lookup allocates nothing.
+ *
+ * Semantics match the Spring patterns produced by {@link PublicEndpoint#toPattern()}:
+ * an exact entry matches only its own path, a subtree entry matches its path and anything below
+ * the next '/' (so {@code /webjars} matches {@code /webjars/x.js} but not {@code /webjarsX}).
+ */
+final class PublicPathMatcher {
+
+    private static final byte EXACT = 1;
+    private static final byte SUBTREE = 2;
+
+    // Per node: sorted child labels and the index of the matching child node
+    private final char[][] labels;
+    private final int[][] children;
+    private final byte[] flags;
+
+    private PublicPathMatcher(char[][] labels, int[][] children, byte[] flags) {
+        this.labels = labels;
+        this.children = children;
+        this.flags = flags;
+    }
+
+    static PublicPathMatcher compile(Collection<PublicEndpoint> endpoints) {
+        BuildNode root = new BuildNode();
+        for (PublicEndpoint endpoint : endpoints) {
+            BuildNode node = root;
+            String path = endpoint.path();
+            for (int i = 0; i < path.length(); i++) {
+                node = node.next.computeIfAbsent(path.charAt(i), c -> new BuildNode());
+            }
+            node.flags |= endpoint.subtree() ? SUBTREE : EXACT;
+        }
+
+        // Flatten breadth-first into arrays
+        List<BuildNode> order = new ArrayList<>();
+        order.add(root);
+        for (int i = 0; i < order.size(); i++) {
+            BuildNode node = order.get(i);
+            node.index = i;
+            order.addAll(node.next.values());
+        }
+
+        int size = order.size();
+        char[][] labels = new char[size][];
+        int[][] children = new int[size][];
+        byte[] flags = new byte[size];
+        for (BuildNode node : order) {
+            int n = node.next.size();
+            char[] nodeLabels = new char[n];
+            int[] nodeChildren = new int[n];
+            int k = 0;
+            for (var entry : node.next.entrySet()) {
+                nodeLabels[k] = entry.getKey();
+                nodeChildren[k] = entry.getValue().index;
+                k++;
+            }
+            labels[node.index] = nodeLabels;
+            children[node.index] = nodeChildren;
+            flags[node.index] = node.flags;
+        }
+        return new PublicPathMatcher(labels, children, flags);
+    }
+
+    boolean matches(String path) {
+        if (path == null) return false;
+        int node = 0;
+        int length = path.length();
+        for (int i = 0; i < length; i++) {
+            char c = path.charAt(i);
+            if (c == '/' && (flags[node] & SUBTREE) != 0) return true;
+            node = child(node, c);
+            if (node < 0) return false;
+        }
+        return flags[node] != 0;
+    }
+
+    private int child(int node, char c) {
+        char[] nodeLabels = labels[node];
+        // Labels are sorted; fan-out is tiny, so a linear scan beats binary search here
+        for (int i = 0; i < nodeLabels.length; i++) {
+            char label = nodeLabels[i];
+            if (label == c) return children[node][i];
+            if (label > c) return -1;
+        }
+        return -1;
+    }
+
+    private static final class BuildNode {
+        final TreeMap<Character, BuildNode> next = new TreeMap<>();
+        byte flags;
+        int index;
+    }
+}
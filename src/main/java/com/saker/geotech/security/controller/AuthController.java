@@ -0,0 +1,88 @@
+package com.saker.geotech.security.controller;
+
+import com.saker.geotech.security.dto.LoginRequestDto;
+import com.saker.geotech.security.dto.RefreshTokenRequestDto;
+import com.saker.geotech.security.dto.TokenResponseDto;
+import com.saker.geotech.security.exception.JwtAuthenticationException;
+import com.saker.geotech.security.exception.LoginThrottledException;
+import com.saker.geotech.security.exception.RefreshTokenReuseException;
+import com.saker.geotech.security.exception.TokenExpiredException;
+import com.saker.geotech.security.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/user")
+public class AuthController {
+
+    private final AuthService authService;
+
+    public AuthController(AuthService authService) {
+        this.authService = authService;
+    }
+
+    /**
+     * Completes asynchronously: password hashing runs on its own bounded pool.
+     */
+    @PostMapping("/login")
+    public CompletableFuture<TokenResponseDto> login(@RequestBody LoginRequestDto request, HttpServletRequest http) {
+        return authService.login(request, http.getRemoteAddr());
+    }
+
+    @PostMapping("/refresh")
+    public TokenResponseDto refresh(@RequestBody RefreshTokenRequestDto request, HttpServletRequest http) {
+        return authService.refresh(request.refreshToken(), http.getRemoteAddr());
+    }
+
+    /**
+     * /user/logout is public (an expired access token must not prevent logout); the access token,
+     * if sent as a bearer header, is revoked as well.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody RefreshTokenRequestDto request, HttpServletRequest http) {
+        String authHeader = http.getHeader(HttpHeaders.AUTHORIZATION);
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        authService.logout(request.refreshToken(), accessToken, http.getRemoteAddr());
+        return ResponseEntity.noContent().build();
+    }
+
+    // Same plain-text error codes as JwtAuthenticationFilter ("TOKEN_EXPIRED")
+
+    @ExceptionHandler(TokenExpiredException.class)
+    public ResponseEntity<String> tokenExpired() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("TOKEN_EXPIRED");
+    }
+
+    @ExceptionHandler(RefreshTokenReuseException.class)
+    public ResponseEntity<String> tokenReused() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("TOKEN_REUSED");
+    }
+
+    @ExceptionHandler(JwtAuthenticationException.class)
+    public ResponseEntity<String> tokenInvalid() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("TOKEN_INVALID");
+    }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<String> loginThrottled(LoginThrottledException ex) {
+        HttpStatus status = "LOGIN_BUSY".equals(ex.getCode()) ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.TOO_MANY_REQUESTS;
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(ex.getCode());
+    }
+
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<String> badCredentials() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("INVALID_CREDENTIALS");
+    }
+}
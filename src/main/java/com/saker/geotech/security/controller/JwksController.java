@@ -0,0 +1,32 @@
+package com.saker.geotech.security.controller;
+
+import com.saker.geotech.security.util.AccessKeyRing;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the access-token verification keys so other services can verify tokens locally.
+ * The document is pre-serialized by {@link AccessKeyRing} on every key reload.
+ */
+@RestController
+public class JwksController {
+
+    private final AccessKeyRing accessKeyRing;
+
+    public JwksController(AccessKeyRing accessKeyRing) {
+        this.accessKeyRing = accessKeyRing;
+    }
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(accessKeyRing.jwks());
+    }
+}
@@ -0,0 +1,6 @@
+package com.saker.geotech.security.dto;
+
+public record LoginRequestDto(
+        String email,
+        String password
+) {}
@@ -0,0 +1,28 @@
+package com.saker.geotech.security.exception;
+
+/**
+ * A login attempt was refused before checking the password: rate limit reached for the account or
+ * client address, or the password hashing pool is saturated.
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    private final String code;
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String code, long retryAfterSeconds) {
+        super(code);
+        this.code = code;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Plain-text error code returned to the client (TOO_MANY_ATTEMPTS, LOGIN_BUSY)
+     */
+    public String getCode() {
+        return code;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
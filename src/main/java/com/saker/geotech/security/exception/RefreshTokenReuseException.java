@@ -0,0 +1,22 @@
+package com.saker.geotech.security.exception;
+
+/**
+ * A refresh token that was already rotated (or lost a concurrent rotation) was presented again.
+ * The whole token family has been revoked when this is thrown.
+ */
+public class RefreshTokenReuseException extends JwtAuthenticationException {
+
+    private final Long userId;
+
+    public RefreshTokenReuseException(String message, Long userId) {
+        super(message);
+        this.userId = userId;
+    }
+
+    /**
+     * Owner of the revoked token family.
+     */
+    public Long getUserId() {
+        return userId;
+    }
+}
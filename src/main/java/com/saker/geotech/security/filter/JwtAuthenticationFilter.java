@@ -1,48 +1,86 @@
 package com.saker.geotech.security.filter;
 
+import com.saker.geotech.audit.AuditEvent;
+import com.saker.geotech.audit.AuditEventType;
+import com.saker.geotech.audit.AuditLog;
+import com.saker.geotech.security.config.PublicEndpointRegistry;
+import com.saker.geotech.security.exception.JwtAuthenticationException;
 import com.saker.geotech.security.exception.TokenExpiredException;
-import com.saker.geotech.security.service.CustomUserDetailsService;
+import com.saker.geotech.security.service.PrincipalCache;
 import com.saker.geotech.security.token.AccessTokenService;
 import com.saker.geotech.security.token.TokenValidator;
+import com.saker.geotech.security.token.VerifiedAccessToken;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
-
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authenticates bearer-token requests.
+ *
+ * Metrics: {@code security.auth} timer (token verification + principal resolution, not the rest of
+ * the chain) tagged {@code outcome} = valid / rejected (sound token, user not acceptable) / invalid /
+ * expired / error, and {@code mode} = claims / principal; {@code security.auth.anonymous} counts
+ * requests without a token.
+ *
+ * Rejected and invalid tokens are recorded in the {@link AuditLog} (expired ones are routine
+ * and only counted).
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private static final List<String> PUBLIC_PREFIXES = List.of(
-            "/health",
-            "/user/signup",
-            "/user/login",
-            "/user/refresh",
-            "/user/logout",
-            "/v3/api-docs",
-            "/swagger-ui",
-            "/swagger-resources",
-            "/webjars"
-    );
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    /**
+     * Server-sent event streams (GET .../events) also accept {@code ?access_token=}: EventSource
+     * cannot send an Authorization header. Nowhere else, so tokens stay out of ordinary URLs and logs.
+     */
+    private static final String EVENT_STREAM_SUFFIX = "/events";
+    private static final String ACCESS_TOKEN_PARAM = "access_token";
 
     private final AccessTokenService accessTokenService;
     private final TokenValidator tokenValidator;
-    private final CustomUserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final PublicEndpointRegistry publicEndpoints;
+    private final boolean claimsOnly;
+    private final AuthMetrics metrics;
+    private final AuditLog auditLog;
 
     public JwtAuthenticationFilter(
             AccessTokenService accessTokenService,
             TokenValidator tokenValidator,
-            CustomUserDetailsService userDetailsService
+            PrincipalCache principalCache,
+            PublicEndpointRegistry publicEndpoints,
+            AuditLog auditLog,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.access.claims-only:false}") boolean claimsOnly
     ) {
         this.accessTokenService = accessTokenService;
         this.tokenValidator = tokenValidator;
-        this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.publicEndpoints = publicEndpoints;
+        this.claimsOnly = claimsOnly;
+        this.auditLog = auditLog;
+        this.metrics = new AuthMetrics(meterRegistry, claimsOnly);
     }
 
     @Override
@@ -52,50 +90,120 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             FilterChain filterChain
     ) throws ServletException, IOException {
 
-        if (isPublic(request)) {
+        if (publicEndpoints.isPublic(request)) {
             filterChain.doFilter(request, response);
             return;
         }
 
         String token = extractBearerToken(request);
         if (token == null) {
+            metrics.anonymous();
             filterChain.doFilter(request, response);
             return;
         }
 
+        long start = System.nanoTime();
+        AuthOutcome outcome;
+        VerifiedAccessToken verified = null;
         try {
-            String username = accessTokenService.extractUsername(token);
+            // Parsed (or fetched from the verified-token cache) exactly once per request
+            verified = accessTokenService.verify(token);
+            outcome = SecurityContextHolder.getContext().getAuthentication() != null ? AuthOutcome.VALID : AuthOutcome.REJECTED;
 
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                var userDetails = userDetailsService.loadUserByUsername(username);
+            if (verified.subject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                var auth = authenticate(verified);
 
-                if (tokenValidator.isValidAccessTokenForUser(token, userDetails)) {
-                    var auth = accessTokenService.buildAuthentication(userDetails);
+                if (auth != null) {
                     auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(auth);
+                    outcome = AuthOutcome.VALID;
                 }
             }
-
-            filterChain.doFilter(request, response);
-
         } catch (TokenExpiredException ex) {
+            metrics.record(AuthOutcome.EXPIRED, start);
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.getWriter().write("TOKEN_EXPIRED");
-        } catch (Exception ex) {
-            // You can log if you want. Keep behavior: continue unauthenticated.
-            filterChain.doFilter(request, response);
+            return;
+        } catch (JwtAuthenticationException | JwtException | AuthenticationException | IllegalArgumentException ex) {
+            // Bad signature, malformed token, unknown user...: continue unauthenticated (401 from the entry point)
+            log.debug("Bearer token refused: {}", ex.toString());
+            outcome = AuthOutcome.INVALID;
+            auditLog.record(AuditEvent.security(AuditEventType.ACCESS_TOKEN_REJECTED,
+                    verified == null ? null : verified.userId(), request.getRemoteAddr(), ex.getClass().getSimpleName()));
+        } catch (RuntimeException ex) {
+            // Infrastructure failure (e.g. user lookup): surfaced, not hidden as an anonymous request
+            metrics.record(AuthOutcome.ERROR, start);
+            throw ex;
+        }
+        metrics.record(outcome, start);
+        if (outcome == AuthOutcome.REJECTED) {
+            auditLog.record(AuditEvent.security(AuditEventType.ACCESS_TOKEN_REJECTED,
+                    verified.userId(), request.getRemoteAddr(), "user not acceptable"));
         }
+
+        // Outside the try: exceptions of the rest of the chain are not authentication failures
+        filterChain.doFilter(request, response);
     }
 
-    private boolean isPublic(HttpServletRequest request) {
-        if ("OPTIONS".equalsIgnoreCase(request.getMethod())) return true;
-        String path = request.getServletPath();
-        return PUBLIC_PREFIXES.stream().anyMatch(path::startsWith);
+    /**
+     * Claims-only mode trusts the uid/role/sv claims and never loads the user;
+     * otherwise (or for tokens minted without those claims) the principal comes from {@link PrincipalCache}.
+     *
+     * @return the authentication, or null if the token is not acceptable
+     */
+    private UsernamePasswordAuthenticationToken authenticate(VerifiedAccessToken verified) {
+        if (claimsOnly && tokenValidator.canAuthenticateFromClaims(verified)) {
+            return tokenValidator.isValidClaimsOnlyAccessToken(verified)
+                    ? accessTokenService.buildAuthentication(verified)
+                    : null;
+        }
+
+        var userDetails = principalCache.loadUserByUsername(verified.subject());
+        return tokenValidator.isValidAccessTokenForUser(verified, userDetails)
+                ? accessTokenService.buildAuthentication(userDetails)
+                : null;
+    }
+
+    enum AuthOutcome {
+        VALID, REJECTED, INVALID, EXPIRED, ERROR
+    }
+
+    /**
+     * One pre-registered timer per outcome: no meter lookup on the request path.
+     */
+    private static final class AuthMetrics {
+
+        private final Map<AuthOutcome, Timer> timers = new EnumMap<>(AuthOutcome.class);
+        private final Counter anonymous;
+
+        AuthMetrics(MeterRegistry registry, boolean claimsOnly) {
+            for (AuthOutcome outcome : AuthOutcome.values()) {
+                timers.put(outcome, Timer.builder("security.auth")
+                        .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                        .tag("mode", claimsOnly ? "claims" : "principal")
+                        .publishPercentileHistogram()
+                        .register(registry));
+            }
+            this.anonymous = Counter.builder("security.auth.anonymous").register(registry);
+        }
+
+        void record(AuthOutcome outcome, long startNanos) {
+            timers.get(outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        void anonymous() {
+            anonymous.increment();
+        }
     }
 
     private String extractBearerToken(HttpServletRequest request) {
         String authHeader = request.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) return null;
+        if (authHeader == null) return isEventStream(request) ? request.getParameter(ACCESS_TOKEN_PARAM) : null;
+        if (!authHeader.startsWith("Bearer ")) return null;
         return authHeader.substring(7);
     }
+
+    private static boolean isEventStream(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) && request.getRequestURI().endsWith(EVENT_STREAM_SUFFIX);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,208 @@
+package com.saker.geotech.security.revocation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Denylist of revoked access token ids ({@code jti}), checked on every authenticated request.
+ *
+ * Lookups never touch the database: a {@link TokenIdBloomFilter} answers the common "not revoked"
+ * case in a few nanoseconds, and only a Bloom hit (a revoked id, or a rare false positive) is
+ * confirmed against the exact in-memory set.
+ *
+ * - revoke: INSERT into {@code revoked_access_tokens}, then add to the live snapshot, so the
+ *   revoking instance refuses the token immediately
+ * - refresh (every {@code security.access-denylist.refresh.ms}): picks up ids revoked by other
+ *   instances since the last watermark, re-reading {@code security.access-denylist.overlap.ms}
+ *   before it. revoked_at is stamped by the database clock, so instance clock skew cannot hide a
+ *   row; the overlap covers rows stamped before they commit
+ * - rebuild (every {@code security.access-denylist.rebuild.ms}, or when the filter is saturated):
+ *   reloads the unexpired ids into a right-sized filter and drops expired ones
+ *
+ * Entries only matter until the token's own {@code exp}; expired rows are deleted by the
+ * refresh token purge job.
+ */
+@Component
+public class AccessTokenDenylist {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessTokenDenylist.class);
+
+    private static final String INSERT_SQL = """
+            INSERT IGNORE INTO revoked_access_tokens (jti, user_id, expires_at, reason, revoked_at)
+            VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)
+            """;
+
+    private static final String DB_NOW_SQL = "SELECT CURRENT_TIMESTAMP";
+
+    private static final String FULL_SCAN_SQL = """
+            SELECT jti, expires_at, revoked_at
+            FROM revoked_access_tokens
+            WHERE expires_at > ?
+            """;
+
+    private static final String INCREMENTAL_SCAN_SQL = """
+            SELECT jti, expires_at, revoked_at
+            FROM revoked_access_tokens
+            WHERE revoked_at >= ? AND expires_at > ?
+            """;
+
+    private static final int MIN_CAPACITY = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final double falsePositiveRate;
+    private final long overlapMs;
+    private final Counter falsePositives;
+    private final MeterRegistry meterRegistry;
+
+    private volatile Snapshot snapshot;
+
+    // Guarded by this: written only by refresh / rebuild
+    private Timestamp watermark;
+
+    public AccessTokenDenylist(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${security.access-denylist.false-positive-rate:0.001}") double falsePositiveRate,
+            @Value("${security.access-denylist.overlap.ms:30000}") long overlapMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.falsePositiveRate = falsePositiveRate;
+        this.overlapMs = overlapMs;
+        this.snapshot = new Snapshot(new TokenIdBloomFilter(MIN_CAPACITY, falsePositiveRate), new ConcurrentHashMap<>());
+        this.falsePositives = Counter.builder("security.token.denylist.false-positive").register(meterRegistry);
+        Gauge.builder("security.token.denylist.size", this, denylist -> denylist.snapshot.revoked().size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return true if the token id was revoked; null ids (tokens minted before jti) are never revoked
+     */
+    public boolean isRevoked(String jti, long nowMs) {
+        if (jti == null) return false;
+        Snapshot current = snapshot;
+        if (!current.filter().mightContain(jti)) return false;
+
+        Long expiresAtMs = current.revoked().get(jti);
+        if (expiresAtMs == null) {
+            falsePositives.increment();
+            return false;
+        }
+        return expiresAtMs > nowMs;
+    }
+
+    /**
+     * Persists the revocation and applies it locally right away. Expired tokens need no entry.
+     *
+     * @param reason short tag recorded with the row and on {@code security.token.revoked}, e.g. "logout"
+     */
+    public void revoke(String jti, Long userId, long expiresAtMs, String reason) {
+        long now = System.currentTimeMillis();
+        if (jti == null || expiresAtMs <= now) return;
+
+        jdbcTemplate.update(INSERT_SQL, jti, userId, new Timestamp(expiresAtMs), reason);
+        Snapshot target;
+        do {
+            // Re-applied if a rebuild swapped the snapshot meanwhile
+            target = snapshot;
+            add(target, jti, expiresAtMs);
+        } while (target != snapshot);
+        meterRegistry.counter("security.token.revoked", "reason", reason).increment();
+    }
+
+    @Scheduled(
+            initialDelayString = "${security.access-denylist.initial-delay.ms:0}",
+            fixedDelayString = "${security.access-denylist.refresh.ms:5000}"
+    )
+    public synchronized void refresh() {
+        try {
+            Snapshot current = snapshot;
+            if (watermark == null || current.filter().isSaturated(current.revoked().size())) {
+                rebuild();
+                return;
+            }
+            long now = System.currentTimeMillis();
+            // Rows stamped before the watermark may have committed since: ids already known are re-added harmlessly
+            Timestamp since = new Timestamp(watermark.getTime() - overlapMs);
+            jdbcTemplate.query(INCREMENTAL_SCAN_SQL, rs -> {
+                add(snapshot, rs.getString(1), rs.getTimestamp(2).getTime());
+                advanceWatermark(rs.getTimestamp(3));
+            }, since, new Timestamp(now));
+        } catch (RuntimeException ex) {
+            // Keep serving the last known list; local revocations are still applied immediately
+            log.warn("Access token denylist refresh failed: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${security.access-denylist.rebuild.ms:600000}",
+            fixedDelayString = "${security.access-denylist.rebuild.ms:600000}"
+    )
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            log.warn("Access token denylist rebuild failed: {}", ex.getMessage());
+        }
+    }
+
+    private synchronized void rebuild() {
+        long now = System.currentTimeMillis();
+        // Database clock, like revoked_at: the next refresh starts from here at the latest
+        Timestamp[] latest = {jdbcTemplate.queryForObject(DB_NOW_SQL, Timestamp.class)};
+        ConcurrentHashMap<String, Long> loaded = new ConcurrentHashMap<>();
+        jdbcTemplate.query(FULL_SCAN_SQL, rs -> {
+            loaded.put(rs.getString(1), rs.getTimestamp(2).getTime());
+            Timestamp revokedAt = rs.getTimestamp(3);
+            if (revokedAt != null && revokedAt.after(latest[0])) latest[0] = revokedAt;
+        }, new Timestamp(now));
+        advanceWatermark(latest[0]);
+
+        // Local revocations racing with the scan are carried over from the old snapshot
+        Snapshot old = snapshot;
+        old.revoked().forEach((jti, exp) -> {
+            if (exp > now) loaded.putIfAbsent(jti, exp);
+        });
+
+        int capacity = Math.max(MIN_CAPACITY, loaded.size() * 2);
+        TokenIdBloomFilter filter = new TokenIdBloomFilter(capacity, falsePositiveRate);
+        loaded.keySet().forEach(filter::put);
+        Snapshot rebuilt = new Snapshot(filter, loaded);
+        snapshot = rebuilt;
+
+        // Revocations added to the old snapshot after the carry-over above
+        old.revoked().forEach((jti, exp) -> {
+            if (exp > now && !rebuilt.revoked().containsKey(jti)) add(rebuilt, jti, exp);
+        });
+    }
+
+    private void advanceWatermark(Timestamp revokedAt) {
+        if (revokedAt != null && (watermark == null || revokedAt.after(watermark))) {
+            watermark = revokedAt;
+        }
+    }
+
+    /**
+     * Exact set first, then the filter: a reader that sees the Bloom bits always finds the entry.
+     */
+    private static void add(Snapshot target, String jti, long expiresAtMs) {
+        target.revoked().put(jti, expiresAtMs);
+        target.filter().put(jti);
+    }
+
+    /**
+     * jti -> token expiry (epoch ms), with the filter built over the same ids.
+     */
+    private record Snapshot(TokenIdBloomFilter filter, ConcurrentHashMap<String, Long> revoked) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.saker.geotech.security.revocation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over token ids ({@code jti}), safe for concurrent {@link #put} and
+ * {@link #mightContain} without locks.
+ *
+ * Bits live in an {@link AtomicLongArray}; setting a bit is a CAS on its word, reading is a plain
+ * volatile load. The k probe positions come from two 64-bit hashes of the id (Kirsch-Mitzenmacher
+ * double hashing), so a lookup hashes the string once and allocates nothing.
+ *
+ * Sized for an expected number of ids and a target false-positive rate; past that capacity the
+ * rate degrades and the owner is expected to rebuild a larger filter (see {@link #isSaturated(int)}).
+ */
+final class TokenIdBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final int capacity;
+
+    TokenIdBloomFilter(int expectedIds, double falsePositiveRate) {
+        if (expectedIds <= 0) throw new IllegalArgumentException("expectedIds must be > 0");
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be in (0, 1)");
+        }
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expectedIds * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int wordCount = (int) Math.max(1, (bits + 63) >>> 6);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedIds * ln2));
+        this.capacity = expectedIds;
+    }
+
+    void put(String id) {
+        long h1 = hash(id);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            while (((current = words.get(word)) & mask) == 0) {
+                if (words.compareAndSet(word, current, current | mask)) break;
+            }
+        }
+    }
+
+    /**
+     * @return false if the id was definitely never added; true if it may have been
+     */
+    boolean mightContain(String id) {
+        long h1 = hash(id);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    int hashCount() {
+        return hashCount;
+    }
+
+    long bitCount() {
+        return bitCount;
+    }
+
+    /**
+     * @return true if holding {@code ids} entries exceeds the sizing capacity
+     */
+    boolean isSaturated(int ids) {
+        return ids > capacity;
+    }
+
+    /**
+     * FNV-1a over the UTF-16 chars, finalized with the MurmurHash3 64-bit mixer.
+     */
+    private static long hash(String id) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            h ^= id.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE1A85EC3L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
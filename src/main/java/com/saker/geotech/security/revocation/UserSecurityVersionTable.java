@@ -0,0 +1,124 @@
+package com.saker.geotech.security.revocation;
+
+import com.saker.geotech.entity.UserSecurityChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory "minimum accepted security_version per user" table used by claims-only authentication.
+ *
+ * A token minted with {@code sv = n} is accepted only while the user's current minimum is {@code <= n}.
+ * Disabled or soft-deleted users get {@link Long#MAX_VALUE}, i.e. every outstanding token is refused.
+ *
+ * The table is refreshed in the background by scanning {@code users.updated_at} since the last
+ * watermark, and updated as soon as local {@link UserSecurityChangedEvent}s commit, so the request
+ * path never reads the database. Users that never changed are absent and accept any version.
+ *
+ * The watermark is the database clock at the start of the previous scan, and each scan starts
+ * {@code security.version-table.overlap.ms} before it: updated_at is stamped when the statement
+ * runs, so a row committed after a scan may carry a time that scan already passed.
+ */
+@Component
+public class UserSecurityVersionTable {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSecurityVersionTable.class);
+
+    private static final String FULL_SCAN_SQL = """
+            SELECT id, security_version, enabled, deleted_at
+            FROM users
+            WHERE security_version > 0 OR enabled = FALSE OR deleted_at IS NOT NULL
+            """;
+
+    private static final String INCREMENTAL_SCAN_SQL = """
+            SELECT id, security_version, enabled, deleted_at
+            FROM users
+            WHERE updated_at >= ?
+            """;
+
+    private static final String DB_NOW_SQL = "SELECT CURRENT_TIMESTAMP";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final long overlapMs;
+    private final ConcurrentHashMap<Long, Long> minAcceptedVersion = new ConcurrentHashMap<>();
+
+    // Written only by the refresh task
+    private volatile boolean loaded;
+    private Timestamp watermark;
+
+    public UserSecurityVersionTable(
+            JdbcTemplate jdbcTemplate,
+            @Value("${jwt.access.claims-only:false}") boolean enabled,
+            @Value("${security.version-table.overlap.ms:30000}") long overlapMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.overlapMs = overlapMs;
+    }
+
+    /**
+     * @return false until the first refresh succeeded; callers must fall back to a user lookup
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public boolean accepts(long userId, long tokenSecurityVersion) {
+        Long min = minAcceptedVersion.get(userId);
+        return min == null || tokenSecurityVersion >= min;
+    }
+
+    @Scheduled(
+            initialDelayString = "${security.version-table.initial-delay.ms:0}",
+            fixedDelayString = "${security.version-table.refresh.ms:30000}"
+    )
+    public void refresh() {
+        if (!enabled) return;
+        try {
+            // Database clock, like updated_at, read before the scan: the next scan starts from here
+            Timestamp scanStart = jdbcTemplate.queryForObject(DB_NOW_SQL, Timestamp.class);
+            if (watermark == null) {
+                jdbcTemplate.query(FULL_SCAN_SQL, rs -> {
+                    apply(rs.getLong(1), rs.getLong(2), rs.getBoolean(3), rs.getTimestamp(4) != null);
+                });
+            } else {
+                // Rows stamped before the watermark may have committed since: re-applying known rows is harmless
+                jdbcTemplate.query(INCREMENTAL_SCAN_SQL, rs -> {
+                    apply(rs.getLong(1), rs.getLong(2), rs.getBoolean(3), rs.getTimestamp(4) != null);
+                }, new Timestamp(watermark.getTime() - overlapMs));
+            }
+            watermark = scanStart;
+            loaded = true;
+        } catch (RuntimeException ex) {
+            // Keep serving the last known table; claims-only auth stays correct for already-known revocations
+            log.warn("Security version table refresh failed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Only once committed: a rolled-back change must not leave the user's valid tokens refused
+     * until the next full scan. Between commit and this call the old tokens are still accepted.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        if (event.userId() == null) return;
+        put(event.userId(), event.active() ? event.securityVersion() : Long.MAX_VALUE);
+    }
+
+    private void apply(long userId, long securityVersion, boolean userEnabled, boolean deleted) {
+        put(userId, userEnabled && !deleted ? securityVersion : Long.MAX_VALUE);
+    }
+
+    private void put(long userId, long version) {
+        minAcceptedVersion.put(userId, version);
+    }
+}
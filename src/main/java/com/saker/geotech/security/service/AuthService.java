@@ -0,0 +1,154 @@
+package com.saker.geotech.security.service;
+
+import com.saker.geotech.audit.AuditEvent;
+import com.saker.geotech.audit.AuditEventType;
+import com.saker.geotech.audit.AuditLog;
+import com.saker.geotech.security.dto.LoginRequestDto;
+import com.saker.geotech.security.dto.TokenResponseDto;
+import com.saker.geotech.security.exception.JwtAuthenticationException;
+import com.saker.geotech.security.exception.LoginThrottledException;
+import com.saker.geotech.security.exception.RefreshTokenReuseException;
+import com.saker.geotech.security.revocation.AccessTokenDenylist;
+import com.saker.geotech.security.token.AccessTokenService;
+import com.saker.geotech.security.token.RefreshTokenStore;
+import com.saker.geotech.security.token.TokenPairGenerator;
+import com.saker.geotech.security.token.VerifiedAccessToken;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login / refresh / logout use cases behind {@code /user/*}.
+ *
+ * Logins are timed end to end (rate limit, queue wait, hashing, token issue) as
+ * {@code security.login{outcome=success|bad_credentials|throttled|error}}.
+ * Outcomes of logins, refreshes and logouts go to the {@link AuditLog}.
+ */
+@Service
+public class AuthService {
+
+    private final AuthenticationManager authenticationManager;
+    private final TokenPairGenerator tokenPairGenerator;
+    private final RefreshTokenStore refreshTokenStore;
+    private final LoginRateLimiter rateLimiter;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final AccessTokenService accessTokenService;
+    private final AccessTokenDenylist accessTokenDenylist;
+    private final AuditLog auditLog;
+    private final Map<String, Timer> loginTimers = new HashMap<>();
+
+    public AuthService(
+            AuthenticationManager authenticationManager,
+            TokenPairGenerator tokenPairGenerator,
+            RefreshTokenStore refreshTokenStore,
+            LoginRateLimiter rateLimiter,
+            PasswordHashingExecutor hashingExecutor,
+            AccessTokenService accessTokenService,
+            AccessTokenDenylist accessTokenDenylist,
+            AuditLog auditLog,
+            MeterRegistry meterRegistry
+    ) {
+        this.authenticationManager = authenticationManager;
+        this.tokenPairGenerator = tokenPairGenerator;
+        this.refreshTokenStore = refreshTokenStore;
+        this.rateLimiter = rateLimiter;
+        this.hashingExecutor = hashingExecutor;
+        this.accessTokenService = accessTokenService;
+        this.accessTokenDenylist = accessTokenDenylist;
+        this.auditLog = auditLog;
+        for (String outcome : new String[]{"success", "bad_credentials", "throttled", "error"}) {
+            loginTimers.put(outcome, Timer.builder("security.login")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Rate limits on the calling thread, then authenticates (BCrypt) and issues the token pair on
+     * the {@link PasswordHashingExecutor}; the request thread is released meanwhile.
+     *
+     * @throws com.saker.geotech.security.exception.LoginThrottledException if refused before hashing
+     */
+    public CompletableFuture<TokenResponseDto> login(LoginRequestDto request, String clientAddress) {
+        long start = System.nanoTime();
+        try {
+            rateLimiter.acquire(request.email(), clientAddress);
+            return hashingExecutor.submit(() -> {
+                Authentication authentication = authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(request.email(), request.password())
+                );
+                SecurityUser user = (SecurityUser) authentication.getPrincipal();
+                TokenResponseDto tokens = tokenPairGenerator.generate(user);
+                auditLog.record(AuditEvent.security(AuditEventType.LOGIN_SUCCEEDED, user.getId(), clientAddress, null));
+                return tokens;
+            }).whenComplete((tokens, ex) -> recordLogin(start, ex, request.email(), clientAddress));
+        } catch (LoginThrottledException ex) {
+            recordLogin(start, ex, request.email(), clientAddress);
+            throw ex;
+        }
+    }
+
+    private void recordLogin(long startNanos, Throwable failure, String email, String clientAddress) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        String outcome;
+        if (cause == null) outcome = "success";
+        else if (cause instanceof LoginThrottledException) outcome = "throttled";
+        else if (cause instanceof AuthenticationException) outcome = "bad_credentials";
+        else outcome = "error";
+        loginTimers.get(outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+
+        if (cause instanceof LoginThrottledException throttled) {
+            auditLog.record(AuditEvent.security(AuditEventType.LOGIN_THROTTLED, null, clientAddress,
+                    throttled.getCode() + " " + email));
+        } else if (cause instanceof AuthenticationException) {
+            auditLog.record(AuditEvent.security(AuditEventType.LOGIN_FAILED, null, clientAddress, email));
+        }
+    }
+
+    public TokenResponseDto refresh(String refreshToken, String clientAddress) {
+        try {
+            return tokenPairGenerator.rotate(refreshToken);
+        } catch (RefreshTokenReuseException ex) {
+            auditLog.record(AuditEvent.security(AuditEventType.REFRESH_TOKEN_REUSED, ex.getUserId(), clientAddress,
+                    ex.getMessage()));
+            throw ex;
+        } catch (JwtAuthenticationException ex) {
+            auditLog.record(AuditEvent.security(AuditEventType.REFRESH_FAILED, null, clientAddress, ex.getMessage()));
+            throw ex;
+        }
+    }
+
+    /**
+     * Revokes the refresh token family and, if presented, the current access token, which is
+     * refused from the next request on instead of staying usable until its expiry.
+     * An invalid or already expired access token needs no revocation and is ignored.
+     */
+    public void logout(String refreshToken, String accessToken, String clientAddress) {
+        refreshTokenStore.revoke(refreshToken);
+        VerifiedAccessToken verified = null;
+        if (accessToken != null) {
+            try {
+                verified = accessTokenService.verify(accessToken);
+            } catch (JwtAuthenticationException | JwtException | IllegalArgumentException ex) {
+                // Nothing to revoke
+            }
+        }
+        if (verified != null) {
+            accessTokenDenylist.revoke(verified.tokenId(), verified.userId(), verified.expiresAtMs(), "logout");
+        }
+        auditLog.record(AuditEvent.security(AuditEventType.LOGOUT, verified == null ? null : verified.userId(),
+                clientAddress, null));
+    }
+}
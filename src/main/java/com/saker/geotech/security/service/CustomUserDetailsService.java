@@ -1,4 +1,70 @@
 package com.saker.geotech.security.service;
 
-public class CustomUserDetailsService {
+import com.saker.geotech.repository.UserDao;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads users by email for login ({@code DaoAuthenticationProvider}) and, through
+ * {@link PrincipalCache}, for bearer-token requests.
+ *
+ * Lookups are timed as {@code security.user.lookup{outcome=found|not_found}}.
+ *
+ * Also the provider's {@link UserDetailsPasswordService}: after a successful login with a hash
+ * weaker than {@code security.password.bcrypt-strength}, the password is rehashed and stored.
+ */
+@Service
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    private final UserDao userDao;
+    private final Counter rehashed;
+    private final Timer foundTimer;
+    private final Timer notFoundTimer;
+
+    public CustomUserDetailsService(UserDao userDao, MeterRegistry meterRegistry) {
+        this.userDao = userDao;
+        this.foundTimer = lookupTimer(meterRegistry, "found");
+        this.notFoundTimer = lookupTimer(meterRegistry, "not_found");
+        this.rehashed = Counter.builder("security.login.rehash")
+                .description("Password hashes upgraded to the configured BCrypt cost")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SecurityUser loadUserByUsername(String email) throws UsernameNotFoundException {
+        long start = System.nanoTime();
+        SecurityUser user = userDao.findByEmailAndDeletedAtIsNull(email).map(SecurityUser::from).orElse(null);
+        (user != null ? foundTimer : notFoundTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (user == null) throw new UsernameNotFoundException("User not found: " + email);
+        return user;
+    }
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        SecurityUser current = (SecurityUser) user;
+        // Compare-and-set on the old hash: a concurrent password change wins over the upgrade
+        if (userDao.upgradePasswordHash(current.getUsername(), current.getPassword(), newPassword) == 0) {
+            return user;
+        }
+        rehashed.increment();
+        return current.withPassword(newPassword);
+    }
+
+    private static Timer lookupTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("security.user.lookup")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 }
@@ -0,0 +1,97 @@
+package com.saker.geotech.security.service;
+
+import com.saker.geotech.security.exception.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Login attempt limiter, per account (email) and per client address.
+ *
+ * Each key is a token bucket in GCRA form: a single AtomicLong holding the theoretical arrival
+ * time, updated by compare-and-set. No lock, no refill thread, one long per active key.
+ * - {@code rate-per-minute}: sustained attempts
+ * - {@code burst}: attempts allowed at once on an idle key
+ *
+ * Checked on the request thread, before any password hashing is queued. Idle keys are dropped by
+ * {@link #purge()}.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final Bucket accounts;
+    private final Bucket addresses;
+
+    public LoginRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${security.login.rate.account.per-minute:10}") int accountPerMinute,
+            @Value("${security.login.rate.account.burst:5}") int accountBurst,
+            @Value("${security.login.rate.ip.per-minute:60}") int ipPerMinute,
+            @Value("${security.login.rate.ip.burst:20}") int ipBurst
+    ) {
+        this.accounts = new Bucket(accountPerMinute, accountBurst,
+                Counter.builder("security.login.throttled").tag("reason", "account").register(meterRegistry));
+        this.addresses = new Bucket(ipPerMinute, ipBurst,
+                Counter.builder("security.login.throttled").tag("reason", "ip").register(meterRegistry));
+    }
+
+    /**
+     * @throws LoginThrottledException if either the address or the account is over its rate
+     */
+    public void acquire(String email, String clientAddress) {
+        long now = System.nanoTime();
+        if (clientAddress != null) addresses.acquire(clientAddress, now);
+        if (email != null) accounts.acquire(email.trim().toLowerCase(Locale.ROOT), now);
+    }
+
+    @Scheduled(fixedDelayString = "${security.login.rate.purge.ms:60000}")
+    public void purge() {
+        long now = System.nanoTime();
+        accounts.purge(now);
+        addresses.purge(now);
+    }
+
+    private static final class Bucket {
+
+        private final ConcurrentHashMap<String, AtomicLong> arrivals = new ConcurrentHashMap<>();
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final Counter throttled;
+
+        Bucket(int perMinute, int burst, Counter throttled) {
+            this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute);
+            this.toleranceNanos = intervalNanos * Math.max(0, burst - 1);
+            this.throttled = throttled;
+        }
+
+        void acquire(String key, long now) {
+            AtomicLong arrival = arrivals.computeIfAbsent(key, k -> new AtomicLong(now));
+            while (true) {
+                long tat = arrival.get();
+                long start = Math.max(tat, now);
+                if (start - now > toleranceNanos) {
+                    throttled.increment();
+                    long waitNanos = start - now - toleranceNanos;
+                    throw new LoginThrottledException("TOO_MANY_ATTEMPTS",
+                            Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1));
+                }
+                if (arrival.compareAndSet(tat, start + intervalNanos)) return;
+            }
+        }
+
+        /**
+         * A key whose theoretical arrival time has passed is back to a full bucket: forgetting it
+         * changes nothing.
+         */
+        void purge(long now) {
+            arrivals.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+        }
+    }
+}
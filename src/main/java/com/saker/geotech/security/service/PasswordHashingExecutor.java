@@ -0,0 +1,90 @@
+package com.saker.geotech.security.service;
+
+import com.saker.geotech.security.exception.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool for BCrypt work (login authentication, rehash), separate from request threads.
+ *
+ * - {@code security.login.hash.threads} caps the CPU spent hashing (default: half the cores),
+ *   so a login storm cannot starve requests of already authenticated users
+ * - {@code security.login.hash.queue} bounds waiting logins; beyond it logins fail fast with
+ *   LOGIN_BUSY instead of piling up
+ *
+ * Metrics: {@code security.login.hash.queue} / {@code .active} gauges, {@code security.login.hash.wait}
+ * (time queued) and {@code security.login.hash} (time hashing) timers.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Timer waitTimer;
+    private final Timer hashTimer;
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${security.login.hash.threads:0}") int threads,
+            @Value("${security.login.hash.queue:64}") int queueCapacity
+    ) {
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread thread = new Thread(r, "password-hash-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("security.login.hash.queue", executor, e -> e.getQueue().size())
+                .description("Logins waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("security.login.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("security.login.hash.wait").publishPercentileHistogram().register(meterRegistry);
+        this.hashTimer = Timer.builder("security.login.hash").publishPercentileHistogram().register(meterRegistry);
+        this.rejected = Counter.builder("security.login.throttled").tag("reason", "busy").register(meterRegistry);
+    }
+
+    /**
+     * Runs the task on the hashing pool.
+     *
+     * @throws LoginThrottledException (LOGIN_BUSY) if the queue is full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long startedAt = System.nanoTime();
+                waitTimer.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.get();
+                } finally {
+                    hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            }, executor);
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new LoginThrottledException("LOGIN_BUSY", 1);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,73 @@
+package com.saker.geotech.security.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.saker.geotech.entity.UserSecurityChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Local principal cache in front of {@link CustomUserDetailsService} for bearer-token requests.
+ *
+ * - TTL ({@code security.principal-cache.ttl.ms}) and size bound ({@code security.principal-cache.max-size})
+ * - single-flight: concurrent misses for the same email share one database load
+ * - evicted on {@link UserSecurityChangedEvent} (role, enabled, deleted_at, password)
+ * - hit / miss / load-time metrics published as {@code cache.*{cache=principals}} in Actuator
+ *
+ * Login still goes straight to {@link CustomUserDetailsService} so credentials are always checked
+ * against the current row.
+ */
+@Component
+public class PrincipalCache {
+
+    private final CustomUserDetailsService delegate;
+    private final Cache<String, SecurityUser> cache;
+
+    public PrincipalCache(
+            CustomUserDetailsService delegate,
+            MeterRegistry meterRegistry,
+            @Value("${security.principal-cache.ttl.ms:60000}") long ttlMs,
+            @Value("${security.principal-cache.max-size:10000}") long maxSize
+    ) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principals");
+    }
+
+    public SecurityUser loadUserByUsername(String email) throws UsernameNotFoundException {
+        // Cache.get runs the loader at most once per key; other callers wait for its result.
+        // UsernameNotFoundException propagates and nothing is cached.
+        return cache.get(email, key -> delegate.loadUserByUsername(key).withoutCredentials());
+    }
+
+    public void invalidate(String email) {
+        cache.invalidate(email);
+    }
+
+    /**
+     * Evict as soon as the change is flushed...
+     */
+    @EventListener
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        cache.invalidateAll(event.emails());
+    }
+
+    /**
+     * ...and again once it is committed, so a load racing the transaction cannot re-cache the old row.
+     */
+    @TransactionalEventListener
+    public void afterUserSecurityChangeCommitted(UserSecurityChangedEvent event) {
+        cache.invalidateAll(event.emails());
+    }
+}
@@ -0,0 +1,95 @@
+package com.saker.geotech.security.service;
+
+import com.saker.geotech.entity.User;
+import com.saker.geotech.entity.UserRole;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated principal backed by a {@code users} row.
+ *
+ * Immutable so one instance can be shared by every request in {@link PrincipalCache}.
+ */
+public final class SecurityUser implements UserDetails {
+
+    private final Long id;
+    private final String email;
+    private final String passwordHash;
+    private final UserRole role;
+    private final boolean enabled;
+    private final long securityVersion;
+    private final List<GrantedAuthority> authorities;
+
+    public SecurityUser(
+            Long id, String email, String passwordHash, UserRole role, boolean enabled, long securityVersion
+    ) {
+        this.id = id;
+        this.email = email;
+        this.passwordHash = passwordHash;
+        this.role = role;
+        this.enabled = enabled;
+        this.securityVersion = securityVersion;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    public static SecurityUser from(User user) {
+        return new SecurityUser(
+                user.getId(),
+                user.getEmail(),
+                user.getPasswordHash(),
+                user.getRole(),
+                user.isEnabled() && !user.isDeleted(),
+                user.getSecurityVersion()
+        );
+    }
+
+    /**
+     * Copy without the password hash, for principals kept in memory after login.
+     */
+    public SecurityUser withoutCredentials() {
+        return new SecurityUser(id, email, null, role, enabled, securityVersion);
+    }
+
+    /**
+     * Copy with a rehashed password (same password, stronger hash): the security version is unchanged.
+     */
+    public SecurityUser withPassword(String newPasswordHash) {
+        return new SecurityUser(id, email, newPasswordHash, role, enabled, securityVersion);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    public long getSecurityVersion() {
+        return securityVersion;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return passwordHash;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -1,41 +1,138 @@
 package com.saker.geotech.security.token;
 
+import com.saker.geotech.entity.UserRole;
+import com.saker.geotech.security.service.SecurityUser;
+import com.saker.geotech.security.util.AccessKeyRing;
 import com.saker.geotech.security.util.JwtClaimsExtractor;
 import com.saker.geotech.security.util.JwtSignatureKeys;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Mints and verifies access tokens.
+ *
+ * Every token carries a random {@code jti} so it can be revoked individually before its expiry
+ * (see {@link com.saker.geotech.security.revocation.AccessTokenDenylist}).
+ *
+ * Metrics: {@code security.token.mint{type=access}} and {@code security.token.verify{type=access}}
+ * (signature check + claim decoding, recorded on verified-token cache misses only).
+ */
 @Service
 public class AccessTokenService {
 
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_SECURITY_VERSION = "sv";
+
     private final JwtSignatureKeys keys;
+    private final AccessKeyRing keyRing;
     private final JwtClaimsExtractor extractor;
+    private final VerifiedAccessTokenCache verifiedCache;
     private final long accessTtlMs;
+    private final Timer mintTimer;
+    private final Timer verifyTimer;
 
     public AccessTokenService(
             JwtSignatureKeys keys,
+            AccessKeyRing keyRing,
             JwtClaimsExtractor extractor,
+            VerifiedAccessTokenCache verifiedCache,
+            MeterRegistry meterRegistry,
             @Value("${jwt.access.exp.ms:900000}") long accessTtlMs
     ) {
         this.keys = keys;
+        this.keyRing = keyRing;
         this.extractor = extractor;
+        this.verifiedCache = verifiedCache;
         this.accessTtlMs = accessTtlMs;
+        this.mintTimer = Timer.builder("security.token.mint").tag("type", "access")
+                .publishPercentileHistogram().register(meterRegistry);
+        this.verifyTimer = Timer.builder("security.token.verify").tag("type", "access")
+                .publishPercentileHistogram().register(meterRegistry);
     }
 
     public String generate(String username) {
-        return Jwts.builder()
-                .setSubject(username)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(Instant.now().toEpochMilli() + accessTtlMs))
-                .signWith(keys.accessKey(), SignatureAlgorithm.HS256)
-                .compact();
+        long start = System.nanoTime();
+        try {
+            return sign(Jwts.builder())
+                    .setId(UUID.randomUUID().toString())
+                    .setSubject(username)
+                    .setIssuedAt(new Date())
+                    .setExpiration(new Date(Instant.now().toEpochMilli() + accessTtlMs))
+                    .compact();
+        } finally {
+            mintTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Mints an access token that also embeds the user id, role and security-version stamp,
+     * so requests can be authenticated from the claims alone (jwt.access.claims-only=true).
+     */
+    public String generate(SecurityUser user) {
+        long start = System.nanoTime();
+        try {
+            return sign(Jwts.builder())
+                    .setId(UUID.randomUUID().toString())
+                    .setSubject(user.getUsername())
+                    .claim(CLAIM_USER_ID, user.getId())
+                    .claim(CLAIM_ROLE, user.getRole().name())
+                    .claim(CLAIM_SECURITY_VERSION, user.getSecurityVersion())
+                    .setIssuedAt(new Date())
+                    .setExpiration(new Date(Instant.now().toEpochMilli() + accessTtlMs))
+                    .compact();
+        } finally {
+            mintTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * ES256 with the ring's current kid when asymmetric keys are configured, HS256 otherwise.
+     */
+    private JwtBuilder sign(JwtBuilder builder) {
+        if (keyRing.isAsymmetric()) {
+            AccessKeyRing.SigningKey signingKey = keyRing.signingKey();
+            return builder
+                    .setHeaderParam("kid", signingKey.kid())
+                    .signWith(signingKey.key(), SignatureAlgorithm.ES256);
+        }
+        return builder.signWith(keys.accessKey(), SignatureAlgorithm.HS256);
+    }
+
+    /**
+     * Verifies the token once and returns its claims as a {@link VerifiedAccessToken}.
+     * Tokens seen before are served from {@link VerifiedAccessTokenCache} without any
+     * signature check or JSON decoding.
+     *
+     * @throws com.saker.geotech.security.exception.TokenExpiredException if the token is expired
+     */
+    public VerifiedAccessToken verify(String token) {
+        ByteBuffer digest = VerifiedAccessTokenCache.digest(token);
+        VerifiedAccessToken cached = verifiedCache.get(digest);
+        if (cached != null) return cached;
+
+        long start = System.nanoTime();
+        VerifiedAccessToken verified;
+        try {
+            verified = VerifiedAccessToken.from(extractor.accessClaims(token));
+        } finally {
+            verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        verifiedCache.put(digest, verified);
+        return verified;
     }
 
     public String extractUsername(String token) {
@@ -51,4 +148,20 @@ public class AccessTokenService {
                 userDetails, null, userDetails.getAuthorities()
         );
     }
+
+    /**
+     * Builds the authentication straight from the token claims, without loading the user.
+     * Only valid for tokens where {@link VerifiedAccessToken#hasEmbeddedPrincipal()} is true.
+     */
+    public UsernamePasswordAuthenticationToken buildAuthentication(VerifiedAccessToken token) {
+        SecurityUser principal = new SecurityUser(
+                token.userId(),
+                token.subject(),
+                null,
+                UserRole.valueOf(token.role()),
+                true,
+                token.securityVersion()
+        );
+        return buildAuthentication(principal);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.saker.geotech.security.token;
+
+import java.time.Instant;
+
+/**
+ * A freshly minted refresh JWT together with its expiry, as needed by {@link RefreshTokenStore}.
+ */
+public record IssuedRefreshToken(String token, Instant expiresAt) {
+}
@@ -4,11 +4,15 @@ import com.saker.geotech.security.util.JwtClaimsExtractor;
 import com.saker.geotech.security.util.JwtSignatureKeys;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class RefreshTokenService {
@@ -16,24 +20,41 @@ public class RefreshTokenService {
     private final JwtSignatureKeys keys;
     private final JwtClaimsExtractor extractor;
     private final long refreshTtlMs;
+    private final Timer mintTimer;
 
     public RefreshTokenService(
             JwtSignatureKeys keys,
             JwtClaimsExtractor extractor,
+            MeterRegistry meterRegistry,
             @Value("${jwt.refresh.exp.ms:1209600000}") long refreshTtlMs
     ) {
         this.keys = keys;
         this.extractor = extractor;
         this.refreshTtlMs = refreshTtlMs;
+        this.mintTimer = Timer.builder("security.token.mint").tag("type", "refresh")
+                .publishPercentileHistogram().register(meterRegistry);
     }
 
     public String generate(String username) {
-        return Jwts.builder()
+        return issue(username).token();
+    }
+
+    /**
+     * Mints a refresh JWT. The random jti keeps tokens unique (and their stored hashes distinct)
+     * even when two are issued for the same user within the same second.
+     */
+    public IssuedRefreshToken issue(String username) {
+        long start = System.nanoTime();
+        Instant expiresAt = Instant.ofEpochMilli(Instant.now().toEpochMilli() + refreshTtlMs);
+        String token = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(Instant.now().toEpochMilli() + refreshTtlMs))
+                .setExpiration(Date.from(expiresAt))
                 .signWith(keys.refreshKey(), SignatureAlgorithm.HS256)
                 .compact();
+        mintTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new IssuedRefreshToken(token, expiresAt);
     }
 
     public String extractUsername(String token) {
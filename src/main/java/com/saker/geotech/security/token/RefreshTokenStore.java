@@ -0,0 +1,113 @@
+package com.saker.geotech.security.token;
+
+import com.saker.geotech.entity.RefreshToken;
+import com.saker.geotech.repository.RefreshTokenDao;
+import com.saker.geotech.security.exception.JwtAuthenticationException;
+import com.saker.geotech.security.exception.RefreshTokenReuseException;
+import com.saker.geotech.security.exception.TokenExpiredException;
+import com.saker.geotech.security.service.SecurityUser;
+import com.saker.geotech.security.util.TokenDigests;
+import io.jsonwebtoken.JwtException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository-backed refresh token store.
+ *
+ * - issue: mints a refresh JWT and saves its SHA-256 digest in a token family
+ * - consume: verifies a presented token and rotates it exactly once (compare-and-set UPDATE)
+ * - presenting an already rotated token revokes the whole family (stolen-token detection)
+ * - revoke: logout, revokes the family of the presented token
+ *
+ * Expired and revoked rows are purged by the refresh token purge batch job.
+ */
+@Service
+public class RefreshTokenStore {
+
+    private final RefreshTokenDao refreshTokenDao;
+    private final RefreshTokenService refreshTokenService;
+
+    public RefreshTokenStore(RefreshTokenDao refreshTokenDao, RefreshTokenService refreshTokenService) {
+        this.refreshTokenDao = refreshTokenDao;
+        this.refreshTokenService = refreshTokenService;
+    }
+
+    /**
+     * Starts a new token family (login).
+     */
+    @Transactional
+    public String issue(SecurityUser user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String issue(SecurityUser user, String familyId) {
+        IssuedRefreshToken issued = refreshTokenService.issue(user.getUsername());
+        refreshTokenDao.save(new RefreshToken(
+                user.getId(), TokenDigests.sha256(issued.token()), familyId, issued.expiresAt()));
+        return issued.token();
+    }
+
+    /**
+     * Verifies the presented refresh token and marks it rotated. Must run in the caller's
+     * transaction together with issuing its successor.
+     *
+     * @return the consumed row (its family id is reused for the successor)
+     * @throws RefreshTokenReuseException if the token was already rotated; the family is revoked
+     */
+    @Transactional(propagation = Propagation.MANDATORY, noRollbackFor = RefreshTokenReuseException.class)
+    public RefreshToken consume(String rawToken) {
+        verifySignature(rawToken);
+
+        RefreshToken stored = refreshTokenDao.findByTokenHash(TokenDigests.sha256(rawToken))
+                .orElseThrow(() -> new JwtAuthenticationException("Unknown refresh token"));
+
+        if (stored.isRevoked()) {
+            throw new JwtAuthenticationException("Refresh token revoked");
+        }
+
+        Instant now = Instant.now();
+        if (stored.getExpiresAt().isBefore(now)) {
+            throw new TokenExpiredException("Refresh token expired");
+        }
+
+        // Either already rotated, or a concurrent request won the compare-and-set: both mean reuse
+        if (stored.isRotated() || refreshTokenDao.markRotated(stored.getId(), now) == 0) {
+            refreshTokenDao.revokeFamily(stored.getFamilyId());
+            throw new RefreshTokenReuseException("Refresh token reuse detected, session revoked", stored.getUserId());
+        }
+        return stored;
+    }
+
+    /**
+     * Logout: revokes every token of the presented token's family. Unknown tokens are ignored.
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        Optional<RefreshToken> stored = refreshTokenDao.findByTokenHash(TokenDigests.sha256(rawToken));
+        stored.ifPresent(token -> refreshTokenDao.revokeFamily(token.getFamilyId()));
+    }
+
+    @Transactional
+    public void revokeFamily(String familyId) {
+        refreshTokenDao.revokeFamily(familyId);
+    }
+
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        refreshTokenDao.revokeAllForUser(userId);
+    }
+
+    private void verifySignature(String rawToken) {
+        try {
+            refreshTokenService.extractUsername(rawToken);
+        } catch (JwtException | IllegalArgumentException ex) {
+            throw new JwtAuthenticationException("Invalid refresh token", ex);
+        }
+    }
+}
@@ -1,25 +1,73 @@
 package com.saker.geotech.security.token;
 
+import com.saker.geotech.audit.AuditEvent;
+import com.saker.geotech.audit.AuditEventType;
+import com.saker.geotech.audit.AuditLog;
+import com.saker.geotech.entity.RefreshToken;
 import com.saker.geotech.security.dto.TokenResponseDto;
+import com.saker.geotech.security.exception.JwtAuthenticationException;
+import com.saker.geotech.security.exception.RefreshTokenReuseException;
+import com.saker.geotech.security.service.CustomUserDetailsService;
+import com.saker.geotech.security.service.SecurityUser;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 @Component
 public class TokenPairGenerator {
 
     private final AccessTokenService accessTokenService;
     private final RefreshTokenService refreshTokenService;
+    private final RefreshTokenStore refreshTokenStore;
+    private final CustomUserDetailsService userDetailsService;
+    private final AuditLog auditLog;
 
     public TokenPairGenerator(
             AccessTokenService accessTokenService,
-            RefreshTokenService refreshTokenService
+            RefreshTokenService refreshTokenService,
+            RefreshTokenStore refreshTokenStore,
+            CustomUserDetailsService userDetailsService,
+            AuditLog auditLog
     ) {
         this.accessTokenService = accessTokenService;
         this.refreshTokenService = refreshTokenService;
+        this.refreshTokenStore = refreshTokenStore;
+        this.userDetailsService = userDetailsService;
+        this.auditLog = auditLog;
     }
 
-    public TokenResponseDto generate(String username) {
-        String access = accessTokenService.generate(username);
-        String refresh = refreshTokenService.generate(username);
+    /**
+     * Login: new access token plus the first refresh token of a new family.
+     */
+    @Transactional
+    public TokenResponseDto generate(SecurityUser user) {
+        String access = accessTokenService.generate(user);
+        String refresh = refreshTokenStore.issue(user);
         return new TokenResponseDto(access, refresh, "Bearer");
     }
-}
\ No newline at end of file
+
+    /**
+     * /user/refresh: atomically consumes the presented refresh token and issues its successor
+     * in the same family. The user is reloaded so role/enabled changes apply immediately.
+     */
+    @Transactional(noRollbackFor = RefreshTokenReuseException.class)
+    public TokenResponseDto rotate(String refreshToken) {
+        RefreshToken consumed = refreshTokenStore.consume(refreshToken);
+
+        SecurityUser user;
+        try {
+            user = userDetailsService.loadUserByUsername(refreshTokenService.extractUsername(refreshToken));
+        } catch (UsernameNotFoundException ex) {
+            throw new JwtAuthenticationException("Refresh token user no longer exists", ex);
+        }
+        if (!user.isEnabled() || !user.getId().equals(consumed.getUserId())) {
+            throw new JwtAuthenticationException("Refresh token user is not active");
+        }
+
+        String access = accessTokenService.generate(user);
+        String refresh = refreshTokenStore.issue(user, consumed.getFamilyId());
+        auditLog.recordAfterCommit(AuditEvent.security(AuditEventType.TOKEN_REFRESHED, user.getId(),
+                AuditLog.currentRemoteAddress(), null));
+        return new TokenResponseDto(access, refresh, "Bearer");
+    }
+}
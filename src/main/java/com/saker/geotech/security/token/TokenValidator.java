@@ -1,5 +1,8 @@
 package com.saker.geotech.security.token;
 
+import com.saker.geotech.security.revocation.AccessTokenDenylist;
+import com.saker.geotech.security.revocation.UserSecurityVersionTable;
+import com.saker.geotech.security.service.SecurityUser;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
@@ -8,20 +11,63 @@ public class TokenValidator {
 
     private final AccessTokenService accessTokenService;
     private final RefreshTokenService refreshTokenService;
+    private final UserSecurityVersionTable securityVersions;
+    private final AccessTokenDenylist denylist;
 
     public TokenValidator(
             AccessTokenService accessTokenService,
-            RefreshTokenService refreshTokenService
+            RefreshTokenService refreshTokenService,
+            UserSecurityVersionTable securityVersions,
+            AccessTokenDenylist denylist
     ) {
         this.accessTokenService = accessTokenService;
         this.refreshTokenService = refreshTokenService;
+        this.securityVersions = securityVersions;
+        this.denylist = denylist;
     }
 
     public boolean isValidAccessTokenForUser(String token, UserDetails user) {
-        String username = accessTokenService.extractUsername(token);
+        return isValidAccessTokenForUser(accessTokenService.verify(token), user);
+    }
+
+    /**
+     * Principal check: the loaded user must match, be enabled and not have changed its security
+     * version (password, role) since the token was minted; the token id must not be revoked.
+     */
+    public boolean isValidAccessTokenForUser(VerifiedAccessToken token, UserDetails user) {
+        String username = token.subject();
+        long now = System.currentTimeMillis();
         return username != null
                 && username.equals(user.getUsername())
-                && !accessTokenService.isExpired(token);
+                && user.isEnabled()
+                && !token.isExpired(now)
+                && isCurrentSecurityVersion(token, user)
+                && !denylist.isRevoked(token.tokenId(), now);
+    }
+
+    private static boolean isCurrentSecurityVersion(VerifiedAccessToken token, UserDetails user) {
+        return token.securityVersion() == null
+                || !(user instanceof SecurityUser securityUser)
+                || token.securityVersion() >= securityUser.getSecurityVersion();
+    }
+
+    /**
+     * @return true if the token carries uid/role/sv and the version table has been loaded at least once
+     */
+    public boolean canAuthenticateFromClaims(VerifiedAccessToken token) {
+        return token.hasEmbeddedPrincipal() && securityVersions.isLoaded();
+    }
+
+    /**
+     * Claims-only check: expiry, the in-memory minimum security version and the token denylist.
+     * No user lookup and no database access.
+     */
+    public boolean isValidClaimsOnlyAccessToken(VerifiedAccessToken token) {
+        long now = System.currentTimeMillis();
+        return token.hasEmbeddedPrincipal()
+                && !token.isExpired(now)
+                && securityVersions.accepts(token.userId(), token.securityVersion())
+                && !denylist.isRevoked(token.tokenId(), now);
     }
 
     public boolean isValidRefreshToken(String token) {
@@ -0,0 +1,49 @@
+package com.saker.geotech.security.token;
+
+import com.saker.geotech.security.service.SecurityUser;
+import io.jsonwebtoken.Claims;
+
+/**
+ * An access token whose signature and claims have already been checked.
+ *
+ * Produced once per request by {@link AccessTokenService#verify(String)} and handed down the
+ * authentication chain so nothing downstream has to parse the raw JWT again.
+ * Instances are immutable and safe to share across requests through {@link VerifiedAccessTokenCache}.
+ *
+ * userId / role / securityVersion are only present on tokens minted from a {@link SecurityUser}
+ * (see {@link AccessTokenService#generate(SecurityUser)}). tokenId ({@code jti}) is null on tokens
+ * minted before revocation support; those can only be revoked through the security version.
+ */
+public record VerifiedAccessToken(
+        String tokenId,
+        String subject,
+        long issuedAtMs,
+        long expiresAtMs,
+        Long userId,
+        String role,
+        Long securityVersion
+) {
+
+    static VerifiedAccessToken from(Claims claims) {
+        return new VerifiedAccessToken(
+                claims.getId(),
+                claims.getSubject(),
+                claims.getIssuedAt() == null ? 0L : claims.getIssuedAt().getTime(),
+                claims.getExpiration() == null ? 0L : claims.getExpiration().getTime(),
+                claims.get(AccessTokenService.CLAIM_USER_ID, Long.class),
+                claims.get(AccessTokenService.CLAIM_ROLE, String.class),
+                claims.get(AccessTokenService.CLAIM_SECURITY_VERSION, Long.class)
+        );
+    }
+
+    /**
+     * @return true if the token carries everything needed to authenticate without a user lookup
+     */
+    public boolean hasEmbeddedPrincipal() {
+        return userId != null && role != null && securityVersion != null;
+    }
+
+    public boolean isExpired(long nowMs) {
+        return expiresAtMs <= nowMs;
+    }
+}
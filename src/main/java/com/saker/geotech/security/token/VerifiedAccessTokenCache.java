@@ -0,0 +1,82 @@
+package com.saker.geotech.security.token;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.saker.geotech.security.util.AccessKeyRing;
+import com.saker.geotech.security.util.TokenDigests;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of access tokens that already passed signature verification.
+ *
+ * Keys are the SHA-256 digest of the raw token (the token itself is never retained),
+ * values are the {@link VerifiedAccessToken} built from its claims.
+ * Each entry is evicted at the token's own {@code exp}, so a cached hit can never outlive the JWT.
+ *
+ * A browser session sends the same bearer token on every call; with this cache only the
+ * first call pays for HMAC + JSON decoding.
+ */
+@Component
+public class VerifiedAccessTokenCache {
+
+    private final Cache<ByteBuffer, VerifiedAccessToken> cache;
+
+    public VerifiedAccessTokenCache(
+            @Value("${jwt.access.cache.max-size:10000}") long maxSize
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExpireAtTokenExp())
+                .build();
+    }
+
+    public VerifiedAccessToken get(ByteBuffer digest) {
+        return cache.getIfPresent(digest);
+    }
+
+    public void put(ByteBuffer digest, VerifiedAccessToken token) {
+        if (token.isExpired(System.currentTimeMillis())) return;
+        cache.put(digest, token);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * A verification key was removed from the key ring: cached tokens may have been signed with it.
+     */
+    @EventListener
+    public void onAccessKeysRetired(AccessKeyRing.AccessKeysRetiredEvent event) {
+        cache.invalidateAll();
+    }
+
+    public static ByteBuffer digest(String token) {
+        return ByteBuffer.wrap(TokenDigests.sha256(token));
+    }
+
+    private static final class ExpireAtTokenExp implements Expiry<ByteBuffer, VerifiedAccessToken> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedAccessToken value, long currentTime) {
+            long remainingMs = value.expiresAtMs() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, remainingMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedAccessToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedAccessToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
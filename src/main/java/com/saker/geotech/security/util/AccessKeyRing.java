@@ -0,0 +1,254 @@
+package com.saker.geotech.security.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Asymmetric (ES256) access-token keys loaded from a local key directory, with rotation.
+ *
+ * Enabled with {@code jwt.access.algorithm=ES256}; with the default HS256 the ring stays empty and
+ * access tokens keep using {@link JwtSignatureKeys#accessKey()}.
+ *
+ * Directory layout ({@code jwt.access.keys.dir}), one pair per key id:
+ * <pre>
+ *   2026-10.pub.pem   X.509 SubjectPublicKeyInfo (P-256)      -> verification key, published in the JWKS
+ *   2026-10.key.pem   PKCS#8 private key (optional)           -> signing candidate
+ * </pre>
+ * Generate a pair with:
+ * <pre>
+ *   openssl ecparam -name prime256v1 -genkey -noout | openssl pkcs8 -topk8 -nocrypt -out 2026-10.key.pem
+ *   openssl ec -in 2026-10.key.pem -pubout -out 2026-10.pub.pem
+ * </pre>
+ * The greatest kid (lexicographic) that has a private key signs new tokens; every public key
+ * verifies. Rotation = drop in a new pair, keep the old .pub.pem until its tokens expired, then
+ * delete it. The directory is re-read every {@code jwt.access.keys.reload.ms}; no restart needed.
+ *
+ * Each reload builds an immutable {@link KeySet}: kid lookup is a single HashMap get and the
+ * JWKS document is pre-serialized once.
+ */
+@Component
+public class AccessKeyRing {
+
+    public static final String ES256 = "ES256";
+
+    private static final Logger log = LoggerFactory.getLogger(AccessKeyRing.class);
+
+    private static final String PUBLIC_SUFFIX = ".pub.pem";
+    private static final String PRIVATE_SUFFIX = ".key.pem";
+    private static final byte[] EMPTY_JWKS = "{\"keys\":[]}".getBytes(StandardCharsets.UTF_8);
+
+    private final boolean asymmetric;
+    private final Path keyDir;
+    private final ApplicationEventPublisher events;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile KeySet keySet = new KeySet(null, null, Map.of(), EMPTY_JWKS, Map.of());
+
+    public AccessKeyRing(
+            @Value("${jwt.access.algorithm:HS256}") String algorithm,
+            @Value("${jwt.access.keys.dir:keys/access}") String keyDir,
+            ApplicationEventPublisher events
+    ) {
+        this.asymmetric = ES256.equalsIgnoreCase(algorithm);
+        this.keyDir = Path.of(keyDir);
+        this.events = events;
+        if (asymmetric) {
+            KeySet loaded = load();
+            if (loaded.signingKey() == null) {
+                throw new IllegalStateException("jwt.access.algorithm=ES256 but no key pair found in " + this.keyDir);
+            }
+            this.keySet = loaded;
+        }
+    }
+
+    public boolean isAsymmetric() {
+        return asymmetric;
+    }
+
+    public String signingKid() {
+        return keySet.signingKid();
+    }
+
+    /**
+     * Current kid and private key, read from one snapshot so a concurrent rotation cannot mix them.
+     */
+    public SigningKey signingKey() {
+        KeySet current = keySet;
+        return new SigningKey(current.signingKid(), current.signingKey());
+    }
+
+    /**
+     * @return the verification key for the kid, or null if unknown
+     */
+    public PublicKey verificationKey(String kid) {
+        return kid == null ? null : keySet.verificationKeys().get(kid);
+    }
+
+    /**
+     * Pre-serialized JWKS document. The array is shared; callers must not modify it.
+     */
+    public byte[] jwks() {
+        return keySet.jwks();
+    }
+
+    @Scheduled(
+            initialDelayString = "${jwt.access.keys.reload.ms:60000}",
+            fixedDelayString = "${jwt.access.keys.reload.ms:60000}"
+    )
+    public void reload() {
+        if (!asymmetric) return;
+        try {
+            KeySet current = keySet;
+            Map<String, Long> fingerprint = fingerprint();
+            if (fingerprint.equals(current.fingerprint())) return;
+
+            KeySet loaded = load();
+            if (loaded.signingKey() == null) {
+                log.warn("Access key directory {} has no usable key pair; keeping kid {}", keyDir, current.signingKid());
+                return;
+            }
+            this.keySet = loaded;
+            log.info("Access keys reloaded: signing kid {}, verification kids {}",
+                    loaded.signingKid(), loaded.verificationKeys().keySet());
+
+            if (!loaded.verificationKeys().keySet().containsAll(current.verificationKeys().keySet())) {
+                // A verification key was retired: tokens it signed must not be served from caches any more
+                events.publishEvent(new AccessKeysRetiredEvent(loaded.signingKid()));
+            }
+        } catch (RuntimeException | IOException ex) {
+            log.warn("Access key reload failed, keeping current keys: {}", ex.getMessage());
+        }
+    }
+
+    private KeySet load() {
+        try {
+            TreeMap<String, PublicKey> publicKeys = new TreeMap<>();
+            Map<String, PrivateKey> privateKeys = new HashMap<>();
+            KeyFactory ec = KeyFactory.getInstance("EC");
+
+            for (Path file : listKeyFiles()) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(PUBLIC_SUFFIX)) {
+                    String kid = name.substring(0, name.length() - PUBLIC_SUFFIX.length());
+                    publicKeys.put(kid, ec.generatePublic(new X509EncodedKeySpec(readPem(file))));
+                } else if (name.endsWith(PRIVATE_SUFFIX)) {
+                    String kid = name.substring(0, name.length() - PRIVATE_SUFFIX.length());
+                    privateKeys.put(kid, ec.generatePrivate(new PKCS8EncodedKeySpec(readPem(file))));
+                }
+            }
+
+            String signingKid = null;
+            for (String kid : publicKeys.descendingKeySet()) {
+                if (privateKeys.containsKey(kid)) {
+                    signingKid = kid;
+                    break;
+                }
+            }
+
+            return new KeySet(
+                    signingKid,
+                    signingKid == null ? null : privateKeys.get(signingKid),
+                    Map.copyOf(publicKeys),
+                    buildJwks(publicKeys),
+                    fingerprint()
+            );
+        } catch (IOException | GeneralSecurityException ex) {
+            throw new IllegalStateException("Cannot load access keys from " + keyDir + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    private List<Path> listKeyFiles() throws IOException {
+        if (!Files.isDirectory(keyDir)) return List.of();
+        try (Stream<Path> files = Files.list(keyDir)) {
+            return files.filter(Files::isRegularFile).sorted().toList();
+        }
+    }
+
+    private Map<String, Long> fingerprint() throws IOException {
+        Map<String, Long> fingerprint = new HashMap<>();
+        for (Path file : listKeyFiles()) {
+            fingerprint.put(file.getFileName().toString(), Files.getLastModifiedTime(file).toMillis());
+        }
+        return fingerprint;
+    }
+
+    private static byte[] readPem(Path file) throws IOException {
+        String base64 = Files.readString(file, StandardCharsets.US_ASCII)
+                .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+                .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+
+    private byte[] buildJwks(Map<String, PublicKey> publicKeys) throws IOException {
+        List<Map<String, String>> keys = new ArrayList<>();
+        Base64.Encoder b64url = Base64.getUrlEncoder().withoutPadding();
+        for (Map.Entry<String, PublicKey> entry : publicKeys.entrySet()) {
+            ECPublicKey key = (ECPublicKey) entry.getValue();
+            Map<String, String> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("alg", ES256);
+            jwk.put("use", "sig");
+            jwk.put("kid", entry.getKey());
+            jwk.put("x", b64url.encodeToString(coordinate(key.getW().getAffineX())));
+            jwk.put("y", b64url.encodeToString(coordinate(key.getW().getAffineY())));
+            keys.add(jwk);
+        }
+        return objectMapper.writeValueAsBytes(Map.of("keys", keys));
+    }
+
+    /**
+     * Unsigned, left-padded 32-byte big-endian encoding required by RFC 7518 for P-256.
+     */
+    private static byte[] coordinate(BigInteger value) {
+        byte[] raw = value.toByteArray();
+        byte[] out = new byte[32];
+        int copy = Math.min(raw.length, 32);
+        System.arraycopy(raw, raw.length - copy, out, 32 - copy, copy);
+        return out;
+    }
+
+    private record KeySet(
+            String signingKid,
+            PrivateKey signingKey,
+            Map<String, PublicKey> verificationKeys,
+            byte[] jwks,
+            Map<String, Long> fingerprint
+    ) {
+    }
+
+    public record SigningKey(String kid, PrivateKey key) {
+    }
+
+    /**
+     * Published after a reload removed at least one verification key.
+     */
+    public record AccessKeysRetiredEvent(String signingKid) {
+    }
+}
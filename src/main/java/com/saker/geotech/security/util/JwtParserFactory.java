@@ -1,20 +1,36 @@
 package com.saker.geotech.security.util;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
 import org.springframework.stereotype.Component;
 
+import java.security.Key;
+import java.security.PublicKey;
+
 @Component
 public class JwtParserFactory {
 
     private final JwtParser accessParser;
     private final JwtParser refreshParser;
 
-    public JwtParserFactory(JwtSignatureKeys keys) {
-        this.accessParser = Jwts.parserBuilder()
-                .setSigningKey(keys.accessKey())
-                .setAllowedClockSkewSeconds(60)
-                .build();
+    public JwtParserFactory(JwtSignatureKeys keys, AccessKeyRing accessKeyRing) {
+        if (accessKeyRing.isAsymmetric()) {
+            // One parser for all kids: the resolver does an O(1) lookup in the current key set,
+            // so rotations take effect without rebuilding the parser
+            this.accessParser = Jwts.parserBuilder()
+                    .setSigningKeyResolver(new KidResolver(accessKeyRing))
+                    .setAllowedClockSkewSeconds(60)
+                    .build();
+        } else {
+            this.accessParser = Jwts.parserBuilder()
+                    .setSigningKey(keys.accessKey())
+                    .setAllowedClockSkewSeconds(60)
+                    .build();
+        }
 
         this.refreshParser = Jwts.parserBuilder()
                 .setSigningKey(keys.refreshKey())
@@ -29,4 +45,24 @@ public class JwtParserFactory {
     public JwtParser refreshParser() {
         return refreshParser;
     }
-}
\ No newline at end of file
+
+    private static final class KidResolver extends SigningKeyResolverAdapter {
+
+        private final AccessKeyRing keyRing;
+
+        KidResolver(AccessKeyRing keyRing) {
+            this.keyRing = keyRing;
+        }
+
+        // jjwt 0.11 declares this method with a raw JwsHeader, so a JwsHeader<?> would not override it
+        @Override
+        @SuppressWarnings("rawtypes")
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            PublicKey key = keyRing.verificationKey(header.getKeyId());
+            if (key == null) {
+                throw new SignatureException("Unknown access token kid: " + header.getKeyId());
+            }
+            return key;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.saker.geotech.security.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 digests of raw tokens, used wherever a token must be looked up without being stored.
+ */
+public final class TokenDigests {
+
+    private TokenDigests() {
+    }
+
+    public static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException ex) {
+            // SHA-256 is mandatory on every Java platform
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
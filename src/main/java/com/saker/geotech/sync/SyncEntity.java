@@ -0,0 +1,27 @@
+package com.saker.geotech.sync;
+
+/**
+ * Entity types of the change feed, in the order they are emitted: a parent's changes always
+ * precede its children's, so a client can apply a batch front to back without FK violations.
+ */
+public enum SyncEntity {
+    PROJECT("project"),
+    SAMPLE_SOURCE("sampleSource"),
+    SAMPLE("sample"),
+    TEST_RUN("testRun"),
+    /**
+     * Carries its sieve readings, which have no timestamps of their own.
+     */
+    PS_TEST("psTest"),
+    PS_RESULT("psResult");
+
+    private final String wireName;
+
+    SyncEntity(String wireName) {
+        this.wireName = wireName;
+    }
+
+    public String wireName() {
+        return wireName;
+    }
+}
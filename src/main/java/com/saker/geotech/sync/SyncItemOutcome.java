@@ -0,0 +1,34 @@
+package com.saker.geotech.sync;
+
+/**
+ * What the server did with one uploaded item.
+ */
+public enum SyncItemOutcome {
+    /**
+     * Saved now.
+     */
+    APPLIED,
+    /**
+     * Already saved under the same idempotency key (a retry); nothing written, current results returned.
+     */
+    DUPLICATE,
+    /**
+     * The idempotency key was already used for another test or by another user, or the test run
+     * is approved and its readings can no longer be changed.
+     */
+    CONFLICT,
+    /**
+     * The test does not exist, was deleted, or is not part of the project.
+     */
+    NOT_FOUND,
+    /**
+     * Missing or malformed key, an empty sieve table, or values the database refuses
+     * (out of range, name too long).
+     */
+    INVALID,
+    /**
+     * Not saved because of a server-side error (database unavailable, deadlock); nothing was
+     * written, the same item can be sent again.
+     */
+    FAILED
+}
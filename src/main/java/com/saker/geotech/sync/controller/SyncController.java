@@ -0,0 +1,64 @@
+package com.saker.geotech.sync.controller;
+
+import com.saker.geotech.security.service.SecurityUser;
+import com.saker.geotech.sync.dto.SyncBatchDto;
+import com.saker.geotech.sync.dto.SyncReadingsUploadDto;
+import com.saker.geotech.sync.dto.SyncUploadResultDto;
+import com.saker.geotech.sync.service.SyncChangeFeed;
+import com.saker.geotech.sync.service.SyncUploadService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Offline client synchronization: pull changes since a cursor, push sieve tables entered offline.
+ * Responses are gzip-compressed by the server when the client accepts it (server.compression).
+ */
+@RestController
+@RequestMapping("/sync/projects/{projectId}")
+public class SyncController {
+
+    private final SyncChangeFeed changeFeed;
+    private final SyncUploadService uploadService;
+
+    public SyncController(SyncChangeFeed changeFeed, SyncUploadService uploadService) {
+        this.changeFeed = changeFeed;
+        this.uploadService = uploadService;
+    }
+
+    /**
+     * Next batch of changes after {@code cursor}; omit it for a full first sync.
+     */
+    @GetMapping("/changes")
+    public SyncBatchDto changes(
+            @PathVariable long projectId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return changeFeed.changes(projectId, cursor, limit);
+    }
+
+    /**
+     * Applies each item at most once per idempotency key; see the per-item outcome.
+     */
+    @PostMapping("/readings")
+    public SyncUploadResultDto uploadReadings(
+            @PathVariable long projectId,
+            @RequestBody SyncReadingsUploadDto upload,
+            @AuthenticationPrincipal SecurityUser user
+    ) {
+        return uploadService.uploadReadings(projectId, user.getId(), upload);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> invalidRequest(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+}
@@ -0,0 +1,14 @@
+package com.saker.geotech.sync.dto;
+
+import java.util.List;
+
+/**
+ * An ordered batch of changes. Store {@code cursor} once the batch is applied and send it back
+ * for the next one; keep asking while {@code hasMore} is true.
+ */
+public record SyncBatchDto(
+        List<SyncChangeDto> changes,
+        String cursor,
+        boolean hasMore
+) {
+}
@@ -0,0 +1,21 @@
+package com.saker.geotech.sync.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * One changed row. {@code op} is UPSERT (insert or update: replace the local copy with
+ * {@code data}) or DELETE (soft-deleted: drop it and its children; {@code data} is null).
+ *
+ * The same change may be delivered again in later batches: apply it only if {@code updatedAt} is
+ * not older than the local copy's.
+ */
+public record SyncChangeDto(
+        String entity,
+        long id,
+        Long parentId,
+        String op,
+        Instant updatedAt,
+        Map<String, Object> data
+) {
+}
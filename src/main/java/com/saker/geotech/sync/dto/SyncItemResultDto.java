@@ -0,0 +1,17 @@
+package com.saker.geotech.sync.dto;
+
+import com.saker.geotech.granulometry.dto.PsResultDto;
+import com.saker.geotech.sync.SyncItemOutcome;
+
+/**
+ * @param result computed results for APPLIED and DUPLICATE, null otherwise
+ * @param message reason for CONFLICT, NOT_FOUND, INVALID and FAILED
+ */
+public record SyncItemResultDto(
+        String idempotencyKey,
+        long psTestId,
+        SyncItemOutcome outcome,
+        PsResultDto result,
+        String message
+) {
+}
@@ -0,0 +1,16 @@
+package com.saker.geotech.sync.dto;
+
+import com.saker.geotech.granulometry.dto.SieveReadingDto;
+
+import java.util.List;
+
+/**
+ * One sieve table entered offline. {@code idempotencyKey} is a UUID generated by the client
+ * when the table was entered and reused on every retry.
+ */
+public record SyncReadingsItemDto(
+        String idempotencyKey,
+        long psTestId,
+        List<SieveReadingDto> readings
+) {
+}
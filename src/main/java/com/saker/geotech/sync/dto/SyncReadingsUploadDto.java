@@ -0,0 +1,8 @@
+package com.saker.geotech.sync.dto;
+
+import java.util.List;
+
+public record SyncReadingsUploadDto(
+        List<SyncReadingsItemDto> items
+) {
+}
@@ -0,0 +1,11 @@
+package com.saker.geotech.sync.dto;
+
+import java.util.List;
+
+/**
+ * One result per uploaded item, in upload order.
+ */
+public record SyncUploadResultDto(
+        List<SyncItemResultDto> items
+) {
+}
@@ -0,0 +1,265 @@
+package com.saker.geotech.sync.service;
+
+import com.saker.geotech.sync.SyncEntity;
+import com.saker.geotech.sync.dto.SyncBatchDto;
+import com.saker.geotech.sync.dto.SyncChangeDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delta change feed of one project's hierarchy for offline clients.
+ *
+ * Each entity type is read with a keyset scan on its (updated_at, id) index from the position held
+ * in the client's {@link SyncCursor}, parents before children (see {@link SyncEntity}); a type is
+ * only read once the previous one is exhausted, so a batch never holds a child before its parent.
+ *
+ * Rows are read up to the start of the database's current second (updated_at has second
+ * precision). updated_at is stamped when a statement runs, not when its transaction commits, so
+ * a long transaction (a project recompute, an import) can commit rows stamped behind a cursor
+ * that already passed them. Once a sweep has read every type up to the horizon, the cursor is
+ * therefore moved back by {@code sync.overlap.ms} and the next sweep re-reads that window: a
+ * cursor never skips a row committed within the overlap, and clients receive some rows more than
+ * once (see {@link SyncChangeDto}).
+ */
+@Service
+public class SyncChangeFeed {
+
+    private static final String UPSERT = "UPSERT";
+    private static final String DELETE = "DELETE";
+
+    private static final Map<SyncEntity, FeedQuery> QUERIES = new EnumMap<>(Map.of(
+            SyncEntity.PROJECT, FeedQuery.of("p", """
+                    SELECT p.id, NULL, p.deleted_at, p.updated_at,
+                           p.code, p.name, p.status, p.client_id, p.start_date, p.due_date
+                    FROM projects p
+                    WHERE p.id = ?
+                    """),
+            SyncEntity.SAMPLE_SOURCE, FeedQuery.of("ss", """
+                    SELECT ss.id, ss.project_id, ss.deleted_at, ss.updated_at,
+                           ss.source_type, ss.name, ss.location_desc, ss.notes
+                    FROM sample_sources ss
+                    WHERE ss.project_id = ?
+                    """),
+            SyncEntity.SAMPLE, FeedQuery.of("s", """
+                    SELECT s.id, s.sample_source_id, s.deleted_at, s.updated_at,
+                           s.sample_code, s.sample_type, s.classification, s.depth_from_m, s.depth_to_m,
+                           s.collection_date, s.received_date, s.description
+                    FROM samples s
+                    JOIN sample_sources ss ON ss.id = s.sample_source_id
+                    WHERE ss.project_id = ?
+                    """),
+            SyncEntity.TEST_RUN, FeedQuery.of("tr", """
+                    SELECT tr.id, tr.sample_id, tr.deleted_at, tr.updated_at,
+                           tr.test_type, tr.status, tr.version, tr.performed_at, tr.technician_id, tr.approved_by
+                    FROM test_runs tr
+                    JOIN samples s ON s.id = tr.sample_id
+                    JOIN sample_sources ss ON ss.id = s.sample_source_id
+                    WHERE ss.project_id = ?
+                    """),
+            SyncEntity.PS_TEST, FeedQuery.of("pt", """
+                    SELECT pt.id, pt.test_run_id, pt.deleted_at, pt.updated_at,
+                           pt.method, pt.standard, pt.sampling_date, pt.specimen_ref,
+                           pt.initial_wet_mass_before_wash_g, pt.natural_moisture_percent,
+                           pt.dry_mass_before_wash_g, pt.dry_mass_after_wash_g, pt.washing_loss_percent, pt.notes
+                    FROM ps_tests pt
+                    JOIN test_runs tr ON tr.id = pt.test_run_id
+                    JOIN samples s ON s.id = tr.sample_id
+                    JOIN sample_sources ss ON ss.id = s.sample_source_id
+                    WHERE ss.project_id = ?
+                    """),
+            SyncEntity.PS_RESULT, FeedQuery.of("r", """
+                    SELECT r.id, r.ps_test_id, NULL, r.updated_at,
+                           r.total_mass_g, r.fines_percent, r.d10, r.d30, r.d60, r.cu, r.cc
+                    FROM ps_results r
+                    JOIN ps_tests pt ON pt.id = r.ps_test_id
+                    JOIN test_runs tr ON tr.id = pt.test_run_id
+                    JOIN samples s ON s.id = tr.sample_id
+                    JOIN sample_sources ss ON ss.id = s.sample_source_id
+                    WHERE ss.project_id = ?
+                    """)
+    ));
+
+    private static final String DB_NOW_SQL = "SELECT CURRENT_TIMESTAMP";
+
+    private static final String SELECT_READINGS = """
+            SELECT ps_test_id, sieve_name, sieve_mm, is_pan, retained_mass_cum_g
+            FROM ps_sieve_readings
+            WHERE ps_test_id IN (%s)
+            ORDER BY ps_test_id, row_order
+            """;
+
+    /**
+     * First payload column of every feed query: id, parent id, deleted_at and updated_at come first.
+     */
+    private static final int FIRST_DATA_COLUMN = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long overlapSeconds;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public SyncChangeFeed(
+            JdbcTemplate jdbcTemplate,
+            @Value("${sync.overlap.ms:600000}") long overlapMs,
+            @Value("${sync.page.default-limit:500}") int defaultLimit,
+            @Value("${sync.page.max-limit:2000}") int maxLimit
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.overlapSeconds = Math.max(1, overlapMs / 1000);
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * @param cursor null for a first (full) sync
+     * @throws IllegalArgumentException on a malformed cursor
+     */
+    @Transactional(readOnly = true)
+    public SyncBatchDto changes(long projectId, String cursor, Integer limit) {
+        SyncCursor position = SyncCursor.decode(cursor);
+        int pageSize = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+
+        // Database clock, like updated_at; whole seconds only: rows stamped in the current second are not complete yet
+        long horizonSeconds = jdbcTemplate.queryForObject(DB_NOW_SQL, Timestamp.class).getTime() / 1000;
+        Timestamp horizon = new Timestamp(horizonSeconds * 1000);
+
+        List<SyncChangeDto> changes = new ArrayList<>();
+        boolean hasMore = false;
+        for (SyncEntity entity : SyncEntity.values()) {
+            int remaining = pageSize - changes.size();
+            if (remaining == 0) {
+                hasMore = true;
+                break;
+            }
+            List<SyncChangeDto> page = read(entity, projectId, position, horizon, remaining);
+            if (!page.isEmpty()) {
+                SyncChangeDto last = page.get(page.size() - 1);
+                position = position.advance(entity, last.updatedAt().getEpochSecond(), last.id());
+                changes.addAll(page);
+            }
+            if (page.size() == remaining) {
+                // This type may have more rows: children must wait for the next batch
+                hasMore = true;
+                break;
+            }
+        }
+        if (!hasMore) {
+            // Sweep complete: the next one re-reads the overlap, where rows stamped earlier may still commit
+            for (SyncEntity entity : SyncEntity.values()) {
+                position = position.advance(entity, horizonSeconds - overlapSeconds, 0);
+            }
+        }
+        return new SyncBatchDto(changes, position.encode(), hasMore);
+    }
+
+    private List<SyncChangeDto> read(SyncEntity entity, long projectId, SyncCursor position, Timestamp horizon, int limit) {
+        FeedQuery query = QUERIES.get(entity);
+        List<SyncChangeDto> page;
+        if (position.isStart(entity)) {
+            page = jdbcTemplate.query(query.firstPage(), (rs, row) -> toChange(entity, rs),
+                    projectId, horizon, limit);
+        } else {
+            Timestamp after = new Timestamp(position.seconds(entity) * 1000);
+            page = jdbcTemplate.query(query.nextPage(), (rs, row) -> toChange(entity, rs),
+                    projectId, horizon, after, after, position.id(entity), limit);
+        }
+        if (entity == SyncEntity.PS_TEST) attachReadings(page);
+        return page;
+    }
+
+    private static SyncChangeDto toChange(SyncEntity entity, ResultSet rs) throws SQLException {
+        long id = rs.getLong(1);
+        long parent = rs.getLong(2);
+        Long parentId = rs.wasNull() ? null : parent;
+        boolean deleted = rs.getTimestamp(3) != null;
+        Timestamp updatedAt = rs.getTimestamp(4);
+
+        Map<String, Object> data = null;
+        if (!deleted) {
+            data = new LinkedHashMap<>();
+            ResultSetMetaData meta = rs.getMetaData();
+            for (int c = FIRST_DATA_COLUMN; c <= meta.getColumnCount(); c++) {
+                data.put(camelCase(meta.getColumnLabel(c)), value(rs.getObject(c)));
+            }
+        }
+        return new SyncChangeDto(entity.wireName(), id, parentId, deleted ? DELETE : UPSERT,
+                updatedAt.toInstant(), data);
+    }
+
+    /**
+     * Adds the sieve table of every upserted ps_test of the page, one IN query for the page.
+     */
+    private void attachReadings(List<SyncChangeDto> page) {
+        List<Object> ids = new ArrayList<>();
+        for (SyncChangeDto change : page) {
+            if (change.data() != null) ids.add(change.id());
+        }
+        if (ids.isEmpty()) return;
+
+        Map<Long, List<Map<String, Object>>> readings = new HashMap<>();
+        String in = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        jdbcTemplate.query(SELECT_READINGS.formatted(in), rs -> {
+            Map<String, Object> reading = new LinkedHashMap<>();
+            reading.put("sieveName", rs.getString(2));
+            reading.put("sieveMm", rs.getObject(3));
+            reading.put("pan", rs.getBoolean(4));
+            reading.put("retainedMassCumG", rs.getObject(5));
+            readings.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(reading);
+        }, ids.toArray());
+
+        for (SyncChangeDto change : page) {
+            if (change.data() != null) change.data().put("readings", readings.getOrDefault(change.id(), List.of()));
+        }
+    }
+
+    private static Object value(Object raw) {
+        if (raw instanceof Date date) return date.toLocalDate();
+        if (raw instanceof Timestamp timestamp) return timestamp.toInstant();
+        return raw;
+    }
+
+    private static String camelCase(String column) {
+        StringBuilder out = new StringBuilder(column.length());
+        boolean upper = false;
+        for (char ch : column.toLowerCase().toCharArray()) {
+            if (ch == '_') {
+                upper = true;
+            } else {
+                out.append(upper ? Character.toUpperCase(ch) : ch);
+                upper = false;
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * First-page and next-page SQL of one entity type, built once from its base SELECT ... WHERE.
+     */
+    private record FeedQuery(String firstPage, String nextPage) {
+
+        static FeedQuery of(String alias, String base) {
+            return new FeedQuery(
+                    base.strip() + " AND " + alias + ".updated_at < ?"
+                            + " ORDER BY " + alias + ".updated_at, " + alias + ".id LIMIT ?",
+                    base.strip() + " AND " + alias + ".updated_at < ?"
+                            + " AND (" + alias + ".updated_at > ? OR (" + alias + ".updated_at = ? AND " + alias + ".id > ?))"
+                            + " ORDER BY " + alias + ".updated_at, " + alias + ".id LIMIT ?"
+            );
+        }
+    }
+}
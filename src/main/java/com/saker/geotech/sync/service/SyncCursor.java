@@ -0,0 +1,98 @@
+package com.saker.geotech.sync.service;
+
+import com.saker.geotech.sync.SyncEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Client-held position in the change feed: for every {@link SyncEntity}, the (updated_at, id) of
+ * the last row delivered, or (0, 0) if none yet. Encoded as an opaque URL-safe string.
+ *
+ * updated_at is in epoch seconds, the column's precision.
+ */
+final class SyncCursor {
+
+    private static final String VERSION = "v1";
+    private static final int TYPES = SyncEntity.values().length;
+
+    private final long[] seconds;
+    private final long[] ids;
+
+    private SyncCursor(long[] seconds, long[] ids) {
+        this.seconds = seconds;
+        this.ids = ids;
+    }
+
+    static SyncCursor start() {
+        return new SyncCursor(new long[TYPES], new long[TYPES]);
+    }
+
+    boolean isStart(SyncEntity entity) {
+        return seconds[entity.ordinal()] == 0 && ids[entity.ordinal()] == 0;
+    }
+
+    long seconds(SyncEntity entity) {
+        return seconds[entity.ordinal()];
+    }
+
+    long id(SyncEntity entity) {
+        return ids[entity.ordinal()];
+    }
+
+    SyncCursor advance(SyncEntity entity, long updatedAtSeconds, long id) {
+        long[] s = seconds.clone();
+        long[] i = ids.clone();
+        s[entity.ordinal()] = updatedAtSeconds;
+        i[entity.ordinal()] = id;
+        return new SyncCursor(s, i);
+    }
+
+    String encode() {
+        StringBuilder raw = new StringBuilder(VERSION);
+        for (int t = 0; t < TYPES; t++) {
+            raw.append(':').append(seconds[t]).append('.').append(ids[t]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @param value null or blank for a first sync
+     * @throws IllegalArgumentException if the value was not produced by {@link #encode()}
+     */
+    static SyncCursor decode(String value) {
+        if (value == null || value.isBlank()) return start();
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.US_ASCII);
+            String[] parts = raw.split(":");
+            if (parts.length != TYPES + 1 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            long[] seconds = new long[TYPES];
+            long[] ids = new long[TYPES];
+            for (int t = 0; t < TYPES; t++) {
+                String[] position = parts[t + 1].split("\\.");
+                if (position.length != 2) throw new IllegalArgumentException("Invalid cursor");
+                seconds[t] = Long.parseLong(position[0]);
+                ids[t] = Long.parseLong(position[1]);
+                if (seconds[t] < 0 || ids[t] < 0) throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new SyncCursor(seconds, ids);
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof SyncCursor cursor
+                && Arrays.equals(seconds, cursor.seconds)
+                && Arrays.equals(ids, cursor.ids);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(seconds) + Arrays.hashCode(ids);
+    }
+}
@@ -0,0 +1,119 @@
+package com.saker.geotech.sync.service;
+
+import com.saker.geotech.granulometry.dto.PsResultDto;
+import com.saker.geotech.granulometry.service.GranulometryService;
+import com.saker.geotech.sync.SyncItemOutcome;
+import com.saker.geotech.sync.dto.SyncItemResultDto;
+import com.saker.geotech.sync.dto.SyncReadingsItemDto;
+import com.saker.geotech.testrun.TestRunStatus;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies one uploaded sieve table in its own transaction, exactly once per idempotency key.
+ *
+ * The key row is inserted in the same transaction as the readings: if saving fails the key is
+ * rolled back and the client can retry; once committed, a retry finds the key and is answered
+ * from the stored results, even if the run was approved since. Two concurrent uploads of one key
+ * serialize on its primary key: the second INSERT fails once the first commits, and that upload
+ * is answered from the committed key.
+ */
+@Component
+class SyncReadingsApplier {
+
+    private static final String SELECT_TEST_IN_PROJECT = """
+            SELECT tr.status
+            FROM ps_tests pt
+            JOIN test_runs tr ON tr.id = pt.test_run_id
+            JOIN samples s ON s.id = tr.sample_id
+            JOIN sample_sources ss ON ss.id = s.sample_source_id
+            WHERE pt.id = ? AND ss.project_id = ? AND pt.deleted_at IS NULL AND tr.deleted_at IS NULL
+            """;
+
+    private static final String INSERT_KEY = """
+            INSERT INTO sync_idempotency_keys (idempotency_key, user_id, ps_test_id)
+            VALUES (?, ?, ?)
+            """;
+
+    private static final String SELECT_KEY = """
+            SELECT user_id, ps_test_id FROM sync_idempotency_keys WHERE idempotency_key = ?
+            """;
+
+    // Locking read: sees the row committed by a concurrent upload, which this transaction's snapshot does not
+    private static final String SELECT_KEY_COMMITTED = SELECT_KEY.strip() + " FOR SHARE";
+
+    private static final String SELECT_RESULT = """
+            SELECT total_mass_g, fines_percent, d10, d30, d60, cu, cc
+            FROM ps_results
+            WHERE ps_test_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GranulometryService granulometryService;
+
+    SyncReadingsApplier(JdbcTemplate jdbcTemplate, GranulometryService granulometryService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.granulometryService = granulometryService;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public SyncItemResultDto apply(long projectId, long userId, SyncReadingsItemDto item) {
+        String key = item.idempotencyKey();
+        long psTestId = item.psTestId();
+
+        // A retry is answered from what was stored, whatever happened to the run since
+        List<Map<String, Object>> existing = jdbcTemplate.queryForList(SELECT_KEY, key);
+        if (!existing.isEmpty()) return duplicate(item, userId, existing.get(0));
+
+        List<String> status = jdbcTemplate.queryForList(SELECT_TEST_IN_PROJECT, String.class, psTestId, projectId);
+        if (status.isEmpty()) {
+            return failed(item, SyncItemOutcome.NOT_FOUND, "Test " + psTestId + " not found in project " + projectId);
+        }
+        if (TestRunStatus.APPROVED.name().equals(status.get(0))) {
+            return failed(item, SyncItemOutcome.CONFLICT, "Test run is approved; its readings cannot be changed");
+        }
+
+        try {
+            jdbcTemplate.update(INSERT_KEY, key, userId, psTestId);
+        } catch (DuplicateKeyException ex) {
+            // A concurrent upload of the same key committed first
+            return duplicate(item, userId, jdbcTemplate.queryForMap(SELECT_KEY_COMMITTED, key));
+        }
+
+        PsResultDto result = granulometryService.saveReadings(psTestId, item.readings());
+        return new SyncItemResultDto(key, psTestId, SyncItemOutcome.APPLIED, result, null);
+    }
+
+    private SyncItemResultDto duplicate(SyncReadingsItemDto item, long userId, Map<String, Object> keyRow) {
+        long keyUser = ((Number) keyRow.get("user_id")).longValue();
+        long keyTest = ((Number) keyRow.get("ps_test_id")).longValue();
+        if (keyUser != userId || keyTest != item.psTestId()) {
+            return failed(item, SyncItemOutcome.CONFLICT, "Idempotency key already used for another upload");
+        }
+        return new SyncItemResultDto(item.idempotencyKey(), keyTest, SyncItemOutcome.DUPLICATE, storedResult(keyTest), null);
+    }
+
+    static SyncItemResultDto failed(SyncReadingsItemDto item, SyncItemOutcome outcome, String message) {
+        return new SyncItemResultDto(item.idempotencyKey(), item.psTestId(), outcome, null, message);
+    }
+
+    private PsResultDto storedResult(long psTestId) {
+        List<PsResultDto> rows = jdbcTemplate.query(SELECT_RESULT, (rs, row) -> new PsResultDto(
+                psTestId,
+                rs.getObject(1, Double.class),
+                rs.getObject(2, Double.class),
+                rs.getObject(3, Double.class),
+                rs.getObject(4, Double.class),
+                rs.getObject(5, Double.class),
+                rs.getObject(6, Double.class),
+                rs.getObject(7, Double.class)
+        ), psTestId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+}
@@ -0,0 +1,139 @@
+package com.saker.geotech.sync.service;
+
+import com.saker.geotech.sync.SyncItemOutcome;
+import com.saker.geotech.sync.dto.SyncItemResultDto;
+import com.saker.geotech.sync.dto.SyncReadingsItemDto;
+import com.saker.geotech.sync.dto.SyncReadingsUploadDto;
+import com.saker.geotech.sync.dto.SyncUploadResultDto;
+import com.saker.geotech.testrun.TestRunLockedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batched upload of sieve tables entered offline.
+ *
+ * Items are applied one by one, each in its own transaction ({@link SyncReadingsApplier}): a bad
+ * item (including one the database refuses: value out of range, name too long) is reported in its
+ * result and does not roll back the others, and a client that lost the
+ * response simply re-sends the whole batch; items already applied come back as DUPLICATE.
+ */
+@Service
+public class SyncUploadService {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncUploadService.class);
+
+    private static final String PURGE_KEYS = """
+            DELETE FROM sync_idempotency_keys WHERE created_at < ? LIMIT 5000
+            """;
+
+    private final SyncReadingsApplier applier;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxItems;
+    private final long keyRetentionMs;
+
+    public SyncUploadService(
+            SyncReadingsApplier applier,
+            JdbcTemplate jdbcTemplate,
+            @Value("${sync.upload.max-items:100}") int maxItems,
+            @Value("${sync.upload.key-retention.days:30}") long keyRetentionDays
+    ) {
+        this.applier = applier;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxItems = maxItems;
+        this.keyRetentionMs = TimeUnit.DAYS.toMillis(keyRetentionDays);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the batch is empty or larger than {@code sync.upload.max-items}
+     */
+    public SyncUploadResultDto uploadReadings(long projectId, long userId, SyncReadingsUploadDto upload) {
+        List<SyncReadingsItemDto> items = upload == null ? null : upload.items();
+        if (items == null || items.isEmpty()) throw new IllegalArgumentException("No items to upload");
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException("At most " + maxItems + " items per upload, got " + items.size());
+        }
+
+        List<SyncItemResultDto> results = new ArrayList<>(items.size());
+        for (SyncReadingsItemDto item : items) {
+            String invalid = validate(item);
+            results.add(invalid != null
+                    ? SyncReadingsApplier.failed(item, SyncItemOutcome.INVALID, invalid)
+                    : apply(projectId, userId, item));
+        }
+        return new SyncUploadResultDto(results);
+    }
+
+    /**
+     * The item's transaction is already rolled back when its exception gets here (key included),
+     * so the client can fix the item and send it again; the other items are unaffected.
+     */
+    private SyncItemResultDto apply(long projectId, long userId, SyncReadingsItemDto item) {
+        try {
+            return applier.apply(projectId, userId, item);
+        } catch (TestRunLockedException ex) {
+            // The run was approved between the applier's check and the save
+            return SyncReadingsApplier.failed(item, SyncItemOutcome.CONFLICT, ex.getMessage());
+        } catch (DataIntegrityViolationException | IllegalArgumentException ex) {
+            log.info("Sync upload item {} for test {} rejected: {}", item.idempotencyKey(), item.psTestId(), ex.getMessage());
+            return SyncReadingsApplier.failed(item, SyncItemOutcome.INVALID, "Sieve table rejected by the database: "
+                    + rootMessage(ex));
+        } catch (DataAccessException ex) {
+            log.warn("Sync upload item {} for test {} failed: {}", item.idempotencyKey(), item.psTestId(), ex.getMessage());
+            return SyncReadingsApplier.failed(item, SyncItemOutcome.FAILED, "Not saved, retry later");
+        }
+    }
+
+    private static String rootMessage(Throwable ex) {
+        Throwable root = ex;
+        while (root.getCause() != null && root.getCause() != root) root = root.getCause();
+        return root.getMessage();
+    }
+
+    /**
+     * Keys only have to outlive the client's retries; old ones are deleted in small batches.
+     */
+    @Scheduled(
+            initialDelayString = "${sync.upload.key-purge.ms:3600000}",
+            fixedDelayString = "${sync.upload.key-purge.ms:3600000}"
+    )
+    public void purgeKeys() {
+        try {
+            Timestamp cutoff = new Timestamp(System.currentTimeMillis() - keyRetentionMs);
+            int deleted;
+            int total = 0;
+            do {
+                deleted = jdbcTemplate.update(PURGE_KEYS, cutoff);
+                total += deleted;
+            } while (deleted > 0);
+            if (total > 0) log.info("Purged {} sync idempotency keys", total);
+        } catch (RuntimeException ex) {
+            log.warn("Sync idempotency key purge failed: {}", ex.getMessage());
+        }
+    }
+
+    private static String validate(SyncReadingsItemDto item) {
+        if (item.idempotencyKey() == null) return "Missing idempotency key";
+        try {
+            // Canonical form only: the key column is CHAR(36)
+            if (!UUID.fromString(item.idempotencyKey()).toString().equalsIgnoreCase(item.idempotencyKey())) {
+                return "Idempotency key must be a UUID";
+            }
+        } catch (IllegalArgumentException ex) {
+            return "Idempotency key must be a UUID";
+        }
+        if (item.readings() == null || item.readings().isEmpty()) return "Empty sieve table";
+        return null;
+    }
+}
@@ -0,0 +1,56 @@
+package com.saker.geotech.testrun;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Transition table of the test run workflow.
+ *
+ * <pre>
+ *   DRAFT --SUBMIT--> SUBMITTED --APPROVE--> APPROVED
+ *                         |
+ *                         +------REJECT--> REJECTED --REOPEN--> DRAFT
+ * </pre>
+ * APPROVE and REJECT are review actions (MANAGER / ADMIN). APPROVED is final.
+ *
+ * The table is immutable, so checking a transition needs no lock; the database compare-and-set on
+ * {@code test_runs.version} decides between concurrent writers.
+ */
+public enum TestRunAction {
+    SUBMIT(TestRunStatus.SUBMITTED, false, EnumSet.of(TestRunStatus.DRAFT)),
+    APPROVE(TestRunStatus.APPROVED, true, EnumSet.of(TestRunStatus.SUBMITTED)),
+    REJECT(TestRunStatus.REJECTED, true, EnumSet.of(TestRunStatus.SUBMITTED)),
+    REOPEN(TestRunStatus.DRAFT, false, EnumSet.of(TestRunStatus.REJECTED));
+
+    private final TestRunStatus target;
+    private final boolean review;
+    private final Set<TestRunStatus> from;
+
+    TestRunAction(TestRunStatus target, boolean review, EnumSet<TestRunStatus> from) {
+        this.target = target;
+        this.review = review;
+        this.from = from;
+    }
+
+    public TestRunStatus target() {
+        return target;
+    }
+
+    /**
+     * @return true if only reviewers (MANAGER / ADMIN) may apply this action
+     */
+    public boolean isReview() {
+        return review;
+    }
+
+    public boolean allowedFrom(TestRunStatus status) {
+        return from.contains(status);
+    }
+
+    /**
+     * Source statuses, in declaration order (used to bind the {@code status IN (...)} guard).
+     */
+    public TestRunStatus[] sources() {
+        return from.toArray(new TestRunStatus[0]);
+    }
+}
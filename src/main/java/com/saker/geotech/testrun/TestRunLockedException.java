@@ -0,0 +1,12 @@
+package com.saker.geotech.testrun;
+
+/**
+ * A change was refused because the test run is {@link TestRunStatus#APPROVED}: it must be sent
+ * back before its tests can be edited.
+ */
+public class TestRunLockedException extends RuntimeException {
+
+    public TestRunLockedException(String message) {
+        super(message);
+    }
+}
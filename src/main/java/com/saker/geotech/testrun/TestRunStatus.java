@@ -0,0 +1,11 @@
+package com.saker.geotech.testrun;
+
+/**
+ * Values of {@code test_runs.status}.
+ */
+public enum TestRunStatus {
+    DRAFT,
+    SUBMITTED,
+    APPROVED,
+    REJECTED
+}
@@ -0,0 +1,64 @@
+package com.saker.geotech.testrun.controller;
+
+import com.saker.geotech.security.service.SecurityUser;
+import com.saker.geotech.testrun.TestRunAction;
+import com.saker.geotech.testrun.dto.BulkApproveRequestDto;
+import com.saker.geotech.testrun.dto.BulkTransitionResultDto;
+import com.saker.geotech.testrun.dto.TransitionRequestDto;
+import com.saker.geotech.testrun.dto.TransitionResultDto;
+import com.saker.geotech.testrun.service.TestRunWorkflowService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Test run workflow. Clients send the {@code version} they read (browse lists include it);
+ * a run modified in between answers 409 with its current status and version.
+ */
+@RestController
+public class TestRunWorkflowController {
+
+    private final TestRunWorkflowService workflowService;
+
+    public TestRunWorkflowController(TestRunWorkflowService workflowService) {
+        this.workflowService = workflowService;
+    }
+
+    @PostMapping("/test-runs/{testRunId}/transitions")
+    public ResponseEntity<TransitionResultDto> transition(
+            @PathVariable long testRunId,
+            @RequestBody TransitionRequestDto request,
+            @AuthenticationPrincipal SecurityUser user
+    ) {
+        TransitionResultDto result = workflowService.transition(testRunId, request.action(), request.version(), user);
+        HttpStatus status = switch (result.outcome()) {
+            case APPLIED -> HttpStatus.OK;
+            case NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case VERSION_CONFLICT, ILLEGAL_STATE -> HttpStatus.CONFLICT;
+        };
+        return ResponseEntity.status(status).body(result);
+    }
+
+    /**
+     * Approves many runs in one request. Always 200: conflicts are reported per item.
+     */
+    @PostMapping("/test-runs/bulk-approve")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public BulkTransitionResultDto bulkApprove(
+            @RequestBody BulkApproveRequestDto request,
+            @AuthenticationPrincipal SecurityUser user
+    ) {
+        return workflowService.transitionAll(TestRunAction.APPROVE, request.items(), user);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> invalidRequest(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+}
@@ -0,0 +1,6 @@
+package com.saker.geotech.testrun.dto;
+
+import java.util.List;
+
+public record BulkApproveRequestDto(List<VersionedIdDto> items) {
+}
@@ -0,0 +1,9 @@
+package com.saker.geotech.testrun.dto;
+
+import java.util.List;
+
+/**
+ * @param results one entry per requested item, in request order
+ */
+public record BulkTransitionResultDto(int applied, int rejected, List<TransitionResultDto> results) {
+}
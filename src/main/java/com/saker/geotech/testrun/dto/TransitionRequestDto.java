@@ -0,0 +1,9 @@
+package com.saker.geotech.testrun.dto;
+
+import com.saker.geotech.testrun.TestRunAction;
+
+/**
+ * @param version the version the client read; the transition is refused if the run changed since
+ */
+public record TransitionRequestDto(TestRunAction action, Long version) {
+}
@@ -0,0 +1,23 @@
+package com.saker.geotech.testrun.dto;
+
+import com.saker.geotech.testrun.TestRunStatus;
+
+/**
+ * Outcome of one transition. {@code status} and {@code version} are the run's current values
+ * (after the update when APPLIED), null when NOT_FOUND.
+ */
+public record TransitionResultDto(long id, Outcome outcome, TestRunStatus status, Long version) {
+
+    public enum Outcome {
+        APPLIED,
+        NOT_FOUND,
+        /**
+         * The run changed since the client read it: re-read and retry
+         */
+        VERSION_CONFLICT,
+        /**
+         * The current status does not allow the action
+         */
+        ILLEGAL_STATE
+    }
+}
@@ -0,0 +1,4 @@
+package com.saker.geotech.testrun.dto;
+
+public record VersionedIdDto(Long id, Long version) {
+}
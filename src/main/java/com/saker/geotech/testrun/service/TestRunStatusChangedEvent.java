@@ -0,0 +1,10 @@
+package com.saker.geotech.testrun.service;
+
+import com.saker.geotech.testrun.TestRunStatus;
+
+/**
+ * Published after test runs of one project moved to {@code status}.
+ * The array is owned by the event; listeners must not modify it.
+ */
+public record TestRunStatusChangedEvent(long projectId, long[] testRunIds, TestRunStatus status) {
+}
@@ -0,0 +1,188 @@
+package com.saker.geotech.testrun.service;
+
+import com.saker.geotech.audit.AuditEvent;
+import com.saker.geotech.audit.AuditEventType;
+import com.saker.geotech.audit.AuditLog;
+import com.saker.geotech.entity.UserRole;
+import com.saker.geotech.security.service.SecurityUser;
+import com.saker.geotech.testrun.TestRunAction;
+import com.saker.geotech.testrun.TestRunStatus;
+import com.saker.geotech.testrun.dto.BulkTransitionResultDto;
+import com.saker.geotech.testrun.dto.TransitionResultDto;
+import com.saker.geotech.testrun.dto.TransitionResultDto.Outcome;
+import com.saker.geotech.testrun.dto.VersionedIdDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Status transitions of test runs ({@link TestRunAction}), with optimistic concurrency.
+ *
+ * - each transition is one compare-and-set UPDATE on (id, version, allowed source statuses); no
+ *   SELECT ... FOR UPDATE, no lock held while the client looks at the run
+ * - bulk transitions send the UPDATEs as JDBC batches of {@code workflow.bulk.batch-size}, then read
+ *   the current state of all requested runs once to report each row: applied, not found, stale
+ *   version or illegal state. Applied rows are kept even if others conflict.
+ *
+ * A {@link TestRunStatusChangedEvent} is published per project for the applied runs, and each
+ * applied run is recorded in the {@link AuditLog} once the transaction commits.
+ */
+@Service
+public class TestRunWorkflowService {
+
+    private static final String UPDATE_STATUS = """
+            UPDATE test_runs
+            SET status = ?, approved_by = ?, version = version + 1
+            WHERE id = ? AND version = ? AND deleted_at IS NULL AND status IN (%s)
+            """;
+
+    private static final String SELECT_STATES = """
+            SELECT tr.id, tr.status, tr.version, ss.project_id
+            FROM test_runs tr
+            JOIN samples s ON s.id = tr.sample_id
+            JOIN sample_sources ss ON ss.id = s.sample_source_id
+            WHERE tr.deleted_at IS NULL AND tr.id IN (%s)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher events;
+    private final AuditLog auditLog;
+    private final int batchSize;
+    private final int maxItems;
+    private final Map<TestRunAction, String> updateSql = new EnumMap<>(TestRunAction.class);
+
+    public TestRunWorkflowService(
+            JdbcTemplate jdbcTemplate,
+            ApplicationEventPublisher events,
+            AuditLog auditLog,
+            @Value("${workflow.bulk.batch-size:200}") int batchSize,
+            @Value("${workflow.bulk.max-items:1000}") int maxItems
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.events = events;
+        this.auditLog = auditLog;
+        this.batchSize = batchSize;
+        this.maxItems = maxItems;
+        for (TestRunAction action : TestRunAction.values()) {
+            updateSql.put(action, UPDATE_STATUS.formatted(placeholders(action.sources().length)));
+        }
+    }
+
+    @Transactional
+    public TransitionResultDto transition(long testRunId, TestRunAction action, Long version, SecurityUser user) {
+        return transitionAll(action, List.of(new VersionedIdDto(testRunId, version)), user).results().get(0);
+    }
+
+    /**
+     * Applies one action to many runs (e.g. a manager approving a project's runs at month end).
+     *
+     * @throws IllegalArgumentException on an empty, oversized or malformed item list
+     * @throws AccessDeniedException    if a review action is requested by a technician
+     */
+    @Transactional
+    public BulkTransitionResultDto transitionAll(TestRunAction action, List<VersionedIdDto> items, SecurityUser user) {
+        if (action == null) throw new IllegalArgumentException("action is required");
+        if (action.isReview() && user.getRole() == UserRole.TECHNICIAN) {
+            throw new AccessDeniedException(action + " requires the MANAGER or ADMIN role");
+        }
+        validate(items);
+
+        Long reviewer = action == TestRunAction.APPROVE ? user.getId() : null;
+        TestRunStatus[] sources = action.sources();
+        int[][] counts = jdbcTemplate.batchUpdate(updateSql.get(action), items, batchSize, (ps, item) -> {
+            int p = 1;
+            ps.setString(p++, action.target().name());
+            if (reviewer == null) ps.setNull(p++, Types.BIGINT);
+            else ps.setLong(p++, reviewer);
+            ps.setLong(p++, item.id());
+            ps.setLong(p++, item.version());
+            for (TestRunStatus source : sources) ps.setString(p++, source.name());
+        });
+
+        Map<Long, RunState> states = loadStates(items);
+        List<TransitionResultDto> results = new ArrayList<>(items.size());
+        Map<Long, List<Long>> appliedByProject = new HashMap<>();
+        List<AuditEvent> audit = new ArrayList<>();
+        int applied = 0;
+        for (int i = 0; i < items.size(); i++) {
+            VersionedIdDto item = items.get(i);
+            RunState state = states.get(item.id());
+            Outcome outcome = outcome(counts[i / batchSize][i % batchSize], item, state, action);
+            if (outcome == Outcome.APPLIED) {
+                applied++;
+                appliedByProject.computeIfAbsent(state.projectId(), k -> new ArrayList<>()).add(item.id());
+                audit.add(AuditEvent.entity(AuditEventType.TEST_RUN_STATUS_CHANGED, user.getId(), state.projectId(),
+                        item.id(), action + " -> " + state.status() + " v" + state.version()));
+            }
+            results.add(state == null
+                    ? new TransitionResultDto(item.id(), outcome, null, null)
+                    : new TransitionResultDto(item.id(), outcome, state.status(), state.version()));
+        }
+
+        appliedByProject.forEach((projectId, ids) -> events.publishEvent(new TestRunStatusChangedEvent(
+                projectId, ids.stream().mapToLong(Long::longValue).toArray(), action.target())));
+        auditLog.recordAfterCommit(audit);
+        return new BulkTransitionResultDto(applied, items.size() - applied, results);
+    }
+
+    private static Outcome outcome(int updateCount, VersionedIdDto item, RunState state, TestRunAction action) {
+        if (state == null) return Outcome.NOT_FOUND;
+        // Rewritten batches may report SUCCESS_NO_INFO: the post-update state tells what happened
+        boolean applied = updateCount > 0 || (updateCount == Statement.SUCCESS_NO_INFO
+                && state.status() == action.target() && state.version() == item.version() + 1);
+        if (applied) return Outcome.APPLIED;
+        return state.version() != item.version() ? Outcome.VERSION_CONFLICT : Outcome.ILLEGAL_STATE;
+    }
+
+    private void validate(List<VersionedIdDto> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("No test runs given");
+        }
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException("At most " + maxItems + " test runs per request");
+        }
+        Set<Long> seen = new HashSet<>(items.size() * 2);
+        for (VersionedIdDto item : items) {
+            if (item == null || item.id() == null || item.version() == null) {
+                throw new IllegalArgumentException("Each item needs an id and the version it was read at");
+            }
+            if (!seen.add(item.id())) {
+                throw new IllegalArgumentException("Test run " + item.id() + " is listed twice");
+            }
+        }
+    }
+
+    private Map<Long, RunState> loadStates(List<VersionedIdDto> items) {
+        Map<Long, RunState> states = new HashMap<>(items.size() * 2);
+        for (int from = 0; from < items.size(); from += batchSize) {
+            List<VersionedIdDto> chunk = items.subList(from, Math.min(from + batchSize, items.size()));
+            Object[] ids = chunk.stream().map(VersionedIdDto::id).toArray();
+            jdbcTemplate.query(SELECT_STATES.formatted(placeholders(ids.length)), rs -> {
+                states.put(rs.getLong(1), new RunState(
+                        TestRunStatus.valueOf(rs.getString(2)), rs.getLong(3), rs.getLong(4)));
+            }, ids);
+        }
+        return states;
+    }
+
+    private static String placeholders(int n) {
+        return String.join(", ", Collections.nCopies(n, "?"));
+    }
+
+    private record RunState(TestRunStatus status, long version, long projectId) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.saker.geotech.testtype;
+
+/**
+ * Pure computation of one test. Called concurrently from the shared recompute pool:
+ * implementations must be stateless or thread-safe.
+ */
+@FunctionalInterface
+public interface TestCalculator<I, R> {
+
+    R compute(I input);
+}
@@ -0,0 +1,27 @@
+package com.saker.geotech.testtype;
+
+/**
+ * Reads the inputs of a test type from its own tables and writes results back.
+ * Both run inside the caller's transaction.
+ */
+public interface TestPersistenceMapper<I, R> {
+
+    /**
+     * Every live test of this type in the project, in a stable order.
+     */
+    TestBatch<I> loadProject(long projectId);
+
+    /**
+     * Writes the results of the computed tests and publishes this type's change events.
+     *
+     * @param results aligned with {@code batch.inputs()}, null for skipped tests
+     */
+    void write(TestBatch<I> batch, R[] results);
+
+    /**
+     * @param inputs   aligned with the results
+     * @param readings number of raw rows loaded (sieve readings, weighings, ...), for reporting
+     */
+    record TestBatch<I>(long projectId, I[] inputs, int readings) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.saker.geotech.testtype;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the {@code test_runs.test_type} value a {@link TestTypeModule} implementation handles.
+ * Read from the class, so the registry knows every type without instantiating any module.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface TestType {
+
+    /**
+     * The {@code test_runs.test_type} value, e.g. {@code PARTICLE_SIZE_GNT}
+     */
+    String value();
+
+    String displayName() default "";
+}
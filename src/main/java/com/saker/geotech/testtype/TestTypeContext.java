@@ -0,0 +1,14 @@
+package com.saker.geotech.testtype;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * What a module may use from the application. Modules are not Spring beans: they look up the
+ * beans they need here, once, during {@link TestTypeModule#initialize}.
+ */
+public interface TestTypeContext {
+
+    <T> T bean(Class<T> type);
+
+    ApplicationEventPublisher events();
+}
@@ -0,0 +1,31 @@
+package com.saker.geotech.testtype;
+
+/**
+ * SPI of one laboratory test type (granulometry, water content, Atterberg, Proctor, CBR, ...).
+ *
+ * Implementations:
+ * - are annotated with {@link TestType} and have a public no-arg constructor
+ * - are listed in {@code META-INF/services/com.saker.geotech.testtype.TestTypeModule}; that file is
+ *   the startup index, there is no classpath scan
+ * - are instantiated on first use only, then {@link #initialize} is called once before any
+ *   other method; heavy components (parsers, lookup tables, ...) belong there or later, never in
+ *   the constructor or static initializers
+ *
+ * @param <I> computation input of one test, loaded by {@link #persistence()}
+ * @param <R> computed result of one test
+ */
+public interface TestTypeModule<I, R> {
+
+    void initialize(TestTypeContext context);
+
+    TestCalculator<I, R> calculator();
+
+    TestValidator<I> validator();
+
+    TestPersistenceMapper<I, R> persistence();
+
+    /**
+     * Creates the result array for {@link TestCalculator} outputs (generic arrays cannot be created).
+     */
+    R[] newResultArray(int size);
+}
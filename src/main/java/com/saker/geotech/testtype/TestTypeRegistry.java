@@ -0,0 +1,112 @@
+package com.saker.geotech.testtype;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Registered {@link TestTypeModule}s, keyed by {@code test_runs.test_type}.
+ *
+ * Startup reads the {@code META-INF/services} index and the {@link TestType} annotation of each
+ * listed class: classes are loaded but not initialized nor instantiated. A module is created and
+ * initialized the first time {@link #module} asks for it, so unused types cost nothing.
+ */
+@Component
+public class TestTypeRegistry {
+
+    private final Map<String, LazyModule> modules;
+    private final TestTypeContext context;
+
+    @Autowired
+    public TestTypeRegistry(ApplicationContext applicationContext) {
+        this(new TestTypeContext() {
+            @Override
+            public <T> T bean(Class<T> type) {
+                return applicationContext.getBean(type);
+            }
+
+            @Override
+            public ApplicationEventPublisher events() {
+                return applicationContext;
+            }
+        }, TestTypeRegistry.class.getClassLoader());
+    }
+
+    @SuppressWarnings("rawtypes")
+    TestTypeRegistry(TestTypeContext context, ClassLoader classLoader) {
+        this.context = context;
+        Map<String, LazyModule> found = new LinkedHashMap<>();
+        for (ServiceLoader.Provider<TestTypeModule> provider : ServiceLoader.load(TestTypeModule.class, classLoader)
+                .stream().toList()) {
+            TestType annotation = provider.type().getAnnotation(TestType.class);
+            if (annotation == null) {
+                throw new IllegalStateException(provider.type().getName() + " is not annotated with @TestType");
+            }
+            LazyModule previous = found.put(annotation.value(), new LazyModule(annotation, provider));
+            if (previous != null) {
+                throw new IllegalStateException("Test type " + annotation.value() + " is registered by both "
+                        + previous.provider.type().getName() + " and " + provider.type().getName());
+            }
+        }
+        this.modules = Collections.unmodifiableMap(found);
+    }
+
+    /**
+     * @return the registered types in index order, without initializing any module
+     */
+    public Map<String, LazyModule> modules() {
+        return modules;
+    }
+
+    /**
+     * @return the initialized module, or null if no module handles this type
+     */
+    public TestTypeModule<?, ?> module(String testType) {
+        LazyModule lazy = modules.get(testType);
+        return lazy == null ? null : lazy.get(context);
+    }
+
+    @SuppressWarnings("rawtypes")
+    public static final class LazyModule {
+
+        private final TestType annotation;
+        private final ServiceLoader.Provider<TestTypeModule> provider;
+        private volatile TestTypeModule<?, ?> module;
+
+        LazyModule(TestType annotation, ServiceLoader.Provider<TestTypeModule> provider) {
+            this.annotation = annotation;
+            this.provider = provider;
+        }
+
+        public String testType() {
+            return annotation.value();
+        }
+
+        public String displayName() {
+            return annotation.displayName().isEmpty() ? annotation.value() : annotation.displayName();
+        }
+
+        public boolean isInitialized() {
+            return module != null;
+        }
+
+        private TestTypeModule<?, ?> get(TestTypeContext context) {
+            TestTypeModule<?, ?> current = module;
+            if (current != null) return current;
+            synchronized (this) {
+                if (module == null) {
+                    TestTypeModule<?, ?> created = provider.get();
+                    created.initialize(context);
+                    module = created;
+                }
+                return module;
+            }
+        }
+    }
+}
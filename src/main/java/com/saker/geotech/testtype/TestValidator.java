@@ -0,0 +1,13 @@
+package com.saker.geotech.testtype;
+
+/**
+ * Checks an input before computation. Invalid tests are skipped and reported, not computed.
+ */
+@FunctionalInterface
+public interface TestValidator<I> {
+
+    /**
+     * @return null if the input can be computed, otherwise the reason it cannot
+     */
+    String validate(I input);
+}
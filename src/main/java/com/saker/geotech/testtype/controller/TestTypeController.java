@@ -0,0 +1,41 @@
+package com.saker.geotech.testtype.controller;
+
+import com.saker.geotech.testtype.TestTypeRegistry;
+import com.saker.geotech.testtype.dto.ProjectRecomputeDto;
+import com.saker.geotech.testtype.dto.TestTypeDto;
+import com.saker.geotech.testtype.service.TestTypeRecomputeService;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+public class TestTypeController {
+
+    private final TestTypeRegistry registry;
+    private final TestTypeRecomputeService recomputeService;
+
+    public TestTypeController(TestTypeRegistry registry, TestTypeRecomputeService recomputeService) {
+        this.registry = registry;
+        this.recomputeService = recomputeService;
+    }
+
+    @GetMapping("/test-types")
+    public List<TestTypeDto> testTypes() {
+        return registry.modules().values().stream()
+                .map(m -> new TestTypeDto(m.testType(), m.displayName(), m.isInitialized()))
+                .toList();
+    }
+
+    /**
+     * Recomputes every test type of the project through its module: managers and admins only.
+     */
+    @PostMapping("/projects/{projectId}/recompute")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ProjectRecomputeDto recomputeProject(@PathVariable long projectId) {
+        return recomputeService.recomputeProject(projectId);
+    }
+}
@@ -0,0 +1,6 @@
+package com.saker.geotech.testtype.dto;
+
+import java.util.List;
+
+public record ProjectRecomputeDto(long projectId, List<TypeRecomputeDto> types, long elapsedMs) {
+}
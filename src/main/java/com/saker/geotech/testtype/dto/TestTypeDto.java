@@ -0,0 +1,7 @@
+package com.saker.geotech.testtype.dto;
+
+/**
+ * @param initialized false until the module was first used
+ */
+public record TestTypeDto(String testType, String displayName, boolean initialized) {
+}
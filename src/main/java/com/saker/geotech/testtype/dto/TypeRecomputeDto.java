@@ -0,0 +1,24 @@
+package com.saker.geotech.testtype.dto;
+
+import java.util.List;
+
+/**
+ * Recompute outcome of one test type in a project.
+ *
+ * @param supported false if no module handles the type (nothing was computed)
+ * @param problems  first validation failures, at most {@code testtype.recompute.max-problems}
+ */
+public record TypeRecomputeDto(
+        String testType,
+        boolean supported,
+        int tests,
+        int computed,
+        int skipped,
+        int readings,
+        List<String> problems
+) {
+
+    public static TypeRecomputeDto unsupported(String testType) {
+        return new TypeRecomputeDto(testType, false, 0, 0, 0, 0, List.of());
+    }
+}
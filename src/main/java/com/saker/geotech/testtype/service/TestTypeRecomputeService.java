@@ -0,0 +1,164 @@
+package com.saker.geotech.testtype.service;
+
+import com.saker.geotech.audit.AuditEvent;
+import com.saker.geotech.audit.AuditEventType;
+import com.saker.geotech.audit.AuditLog;
+import com.saker.geotech.testtype.TestCalculator;
+import com.saker.geotech.testtype.TestPersistenceMapper.TestBatch;
+import com.saker.geotech.testtype.TestTypeModule;
+import com.saker.geotech.testtype.TestTypeRegistry;
+import com.saker.geotech.testtype.TestValidator;
+import com.saker.geotech.testtype.dto.ProjectRecomputeDto;
+import com.saker.geotech.testtype.dto.TypeRecomputeDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Shared recompute path of every test type: for each type present in the project,
+ * load ({@link com.saker.geotech.testtype.TestPersistenceMapper}) -> validate + compute on the
+ * shared {@code computePool} -> write, all in one transaction. Type-specific endpoints (e.g. the
+ * granulometry recompute) go through {@link #recomputeType} so every path gives the same results,
+ * and one TEST_RESULTS_RECOMPUTED audit event per type is recorded after commit.
+ *
+ * Only the modules of the types found in the project are initialized.
+ */
+@Service
+public class TestTypeRecomputeService {
+
+    private static final Logger log = LoggerFactory.getLogger(TestTypeRecomputeService.class);
+
+    private static final String SELECT_PROJECT_TYPES = """
+            SELECT DISTINCT tr.test_type
+            FROM test_runs tr
+            JOIN samples s ON s.id = tr.sample_id
+            JOIN sample_sources ss ON ss.id = s.sample_source_id
+            WHERE ss.project_id = ? AND tr.deleted_at IS NULL
+            ORDER BY tr.test_type
+            """;
+
+    private final TestTypeRegistry registry;
+    private final JdbcTemplate jdbcTemplate;
+    private final ForkJoinPool pool;
+    private final int threshold;
+    private final int maxProblems;
+    private final AuditLog auditLog;
+
+    public TestTypeRecomputeService(
+            TestTypeRegistry registry,
+            JdbcTemplate jdbcTemplate,
+            @Qualifier("computePool") ForkJoinPool pool,
+            @Value("${testtype.recompute.parallel-threshold:64}") int threshold,
+            @Value("${testtype.recompute.max-problems:20}") int maxProblems,
+            AuditLog auditLog
+    ) {
+        this.registry = registry;
+        this.jdbcTemplate = jdbcTemplate;
+        this.pool = pool;
+        this.threshold = Math.max(1, threshold);
+        this.maxProblems = maxProblems;
+        this.auditLog = auditLog;
+    }
+
+    @Transactional
+    public ProjectRecomputeDto recomputeProject(long projectId) {
+        long start = System.nanoTime();
+        List<TypeRecomputeDto> types = new ArrayList<>();
+        for (String testType : jdbcTemplate.queryForList(SELECT_PROJECT_TYPES, String.class, projectId)) {
+            TestTypeModule<?, ?> module = registry.module(testType);
+            types.add(module == null ? TypeRecomputeDto.unsupported(testType) : recompute(testType, module, projectId));
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Project {} recomputed in {} ms: {}", projectId, elapsedMs, types);
+        return new ProjectRecomputeDto(projectId, types, elapsedMs);
+    }
+
+    /**
+     * Recomputes one test type of the project, whether or not its runs carry that type.
+     *
+     * @throws IllegalArgumentException if no module handles the type
+     */
+    @Transactional
+    public TypeRecomputeDto recomputeType(long projectId, String testType) {
+        TestTypeModule<?, ?> module = registry.module(testType);
+        if (module == null) throw new IllegalArgumentException("No module for test type " + testType);
+        return recompute(testType, module, projectId);
+    }
+
+    private <I, R> TypeRecomputeDto recompute(String testType, TestTypeModule<I, R> module, long projectId) {
+        TestBatch<I> batch = module.persistence().loadProject(projectId);
+        I[] inputs = batch.inputs();
+        R[] results = module.newResultArray(inputs.length);
+        String[] problems = new String[inputs.length];
+
+        ComputeTask<I, R> task = new ComputeTask<>(module.validator(), module.calculator(),
+                inputs, results, problems, 0, inputs.length, threshold);
+        if (inputs.length <= threshold) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+        module.persistence().write(batch, results);
+
+        List<String> reported = new ArrayList<>();
+        int skipped = 0;
+        for (String problem : problems) {
+            if (problem == null) continue;
+            skipped++;
+            if (reported.size() < maxProblems) reported.add(problem);
+        }
+        auditLog.recordAfterCommit(AuditEvent.entity(AuditEventType.TEST_RESULTS_RECOMPUTED, AuditLog.currentUserId(),
+                projectId, projectId, testType + ": " + (inputs.length - skipped) + " tests, " + skipped + " skipped"));
+        return new TypeRecomputeDto(testType, true, inputs.length, inputs.length - skipped, skipped,
+                batch.readings(), reported);
+    }
+
+    private static final class ComputeTask<I, R> extends RecursiveAction {
+
+        private final TestValidator<I> validator;
+        private final TestCalculator<I, R> calculator;
+        private final I[] inputs;
+        private final R[] results;
+        private final String[] problems;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        ComputeTask(TestValidator<I> validator, TestCalculator<I, R> calculator, I[] inputs, R[] results,
+                    String[] problems, int from, int to, int threshold) {
+            this.validator = validator;
+            this.calculator = calculator;
+            this.inputs = inputs;
+            this.results = results;
+            this.problems = problems;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                for (int i = from; i < to; i++) {
+                    problems[i] = validator.validate(inputs[i]);
+                    if (problems[i] == null) results[i] = calculator.compute(inputs[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(
+                    new ComputeTask<>(validator, calculator, inputs, results, problems, from, mid, threshold),
+                    new ComputeTask<>(validator, calculator, inputs, results, problems, mid, to, threshold)
+            );
+        }
+    }
+}
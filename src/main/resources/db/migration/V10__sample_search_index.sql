@@ -0,0 +1,11 @@
+-- ====================================================
+-- V10__sample_search_index.sql
+-- Incremental updates of the embedded sample search index (SampleIndexer).
+--
+-- Every few seconds the indexer collects the samples touched since its watermark:
+--   samples.updated_at, sample_sources.updated_at, test_runs.updated_at, projects.updated_at >= ?
+-- V9 indexed samples, test_runs and projects on (updated_at, id); sample_sources only had
+-- (project_id, updated_at, id), which a project-less range cannot use.
+-- ====================================================
+
+CREATE INDEX idx_ss_updated ON sample_sources (updated_at, id);
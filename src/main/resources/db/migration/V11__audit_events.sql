@@ -0,0 +1,37 @@
+-- ====================================================
+-- V11__audit_events.sql
+-- Append-only audit trail (AuditLog -> AuditWriter), one RANGE partition per month.
+--
+-- Rows are only ever INSERTed, in batches; there is no UPDATE or DELETE path in the application.
+-- Grant the application user INSERT and SELECT only on this table where the deployment allows it.
+-- Monthly partitions keep inserts on the newest partition and let retention drop whole months
+-- (ALTER TABLE ... DROP PARTITION) instead of deleting rows. AuditPartitionMaintainer splits
+-- pmax to keep audit.partitions.months-ahead months ready.
+--
+-- The partitioning column must be part of every unique key, hence PRIMARY KEY (id, occurred_at).
+-- Partitioned InnoDB tables cannot have foreign keys: user_id / project_id / entity_id are plain
+-- ids and stay valid after the rows they point to are gone.
+-- ====================================================
+
+CREATE TABLE audit_events (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    occurred_at DATETIME(3) NOT NULL,
+    category ENUM('SECURITY','ENTITY') NOT NULL,
+    event_type VARCHAR(40) NOT NULL,
+    user_id BIGINT NULL,
+    project_id BIGINT NULL,
+    entity_type VARCHAR(40) NULL,
+    entity_id BIGINT NULL,
+    remote_addr VARCHAR(45) NULL,
+    detail VARCHAR(255) NULL,
+    PRIMARY KEY (id, occurred_at),
+    INDEX idx_audit_entity (entity_type, entity_id, occurred_at),
+    INDEX idx_audit_user (user_id, occurred_at),
+    INDEX idx_audit_project (project_id, occurred_at)
+)
+PARTITION BY RANGE COLUMNS (occurred_at) (
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
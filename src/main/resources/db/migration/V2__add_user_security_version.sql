@@ -0,0 +1,12 @@
+-- ====================================================
+-- V2__add_user_security_version.sql
+-- Security-version stamp embedded in access tokens (claims-only authentication).
+-- Bumped by the application whenever role, enabled, deleted_at or password_hash change;
+-- tokens carrying an older stamp are rejected.
+-- ====================================================
+
+ALTER TABLE users
+    ADD COLUMN security_version BIGINT NOT NULL DEFAULT 0 AFTER enabled;
+
+-- Incremental refresh of the in-memory version table scans by updated_at
+CREATE INDEX idx_users_updated_at ON users (updated_at);
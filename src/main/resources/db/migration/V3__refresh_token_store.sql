@@ -0,0 +1,22 @@
+-- ====================================================
+-- V3__refresh_token_store.sql
+-- Persisted refresh tokens with rotation and reuse detection.
+--
+-- The raw JWT is no longer stored: token_hash is its SHA-256 digest (fixed 32 bytes),
+-- which replaces the 512-char UNIQUE index on `token`.
+-- All tokens minted from one login share a family_id; presenting an already rotated
+-- token revokes the whole family.
+-- ====================================================
+
+-- Rows written before this migration cannot be matched to a hash (the store never wrote any)
+DELETE FROM refresh_tokens;
+
+ALTER TABLE refresh_tokens
+    DROP COLUMN token,
+    ADD COLUMN token_hash BINARY(32) NOT NULL AFTER user_id,
+    ADD COLUMN family_id CHAR(36) CHARACTER SET ascii NOT NULL AFTER token_hash,
+    ADD COLUMN rotated_at TIMESTAMP NULL AFTER revoked,
+    ADD UNIQUE KEY uq_refresh_token_hash (token_hash),
+    ADD INDEX idx_refresh_family (family_id),
+    ADD INDEX idx_refresh_user (user_id),
+    ADD INDEX idx_refresh_expires (expires_at);
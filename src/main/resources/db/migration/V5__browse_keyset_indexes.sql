@@ -0,0 +1,20 @@
+-- ====================================================
+-- V5__browse_keyset_indexes.sql
+-- Supporting indexes for the keyset-paginated browse endpoints
+-- (projects -> sample_sources -> samples -> test_runs).
+--
+-- Each list filters on its parent id and deleted_at IS NULL, then seeks on (created_at, id):
+--   WHERE parent_id = ? AND deleted_at IS NULL
+--     AND (created_at < ? OR (created_at = ? AND id < ?))
+--   ORDER BY created_at DESC, id DESC LIMIT ?
+-- With these indexes every page is a single index range read, whatever its depth.
+-- The single-column FK indexes become redundant (same leading column) and are dropped by MySQL.
+-- ====================================================
+
+CREATE INDEX idx_projects_live_created ON projects (deleted_at, created_at, id);
+
+CREATE INDEX idx_ss_project_live_created ON sample_sources (project_id, deleted_at, created_at, id);
+
+CREATE INDEX idx_samples_source_live_created ON samples (sample_source_id, deleted_at, created_at, id);
+
+CREATE INDEX idx_tr_sample_live_created ON test_runs (sample_id, deleted_at, created_at, id);
@@ -0,0 +1,12 @@
+-- ====================================================
+-- V6__test_run_workflow_version.sql
+-- Optimistic concurrency for test run status transitions (TestRunWorkflowService).
+--
+-- Every transition is a compare-and-set, no row lock is held between read and write:
+--   UPDATE test_runs SET status = ?, approved_by = ?, version = version + 1
+--   WHERE id = ? AND version = ? AND status IN (...) AND deleted_at IS NULL
+-- 0 rows updated = the run changed since the client read it (or does not allow the transition).
+-- ====================================================
+
+ALTER TABLE test_runs
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0 AFTER status;
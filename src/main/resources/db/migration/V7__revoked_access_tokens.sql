@@ -0,0 +1,19 @@
+-- ====================================================
+-- V7__revoked_access_tokens.sql
+-- Denylist of access tokens revoked before their expiry (logout), keyed by the jti claim.
+--
+-- The table is never read on the request path: AccessTokenDenylist keeps the unexpired ids in
+-- memory (Bloom filter + exact set) and polls new rows by revoked_at.
+-- Rows are useless once expires_at has passed and are purged by the refresh token purge job.
+-- ====================================================
+
+CREATE TABLE revoked_access_tokens (
+    jti CHAR(36) CHARACTER SET ascii NOT NULL,
+    user_id BIGINT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    reason VARCHAR(32) NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (jti),
+    INDEX idx_revoked_access_revoked_at (revoked_at),
+    INDEX idx_revoked_access_expires (expires_at)
+);
@@ -0,0 +1,46 @@
+-- ====================================================
+-- V8__project_stats.sql
+-- Materialized dashboard aggregates per project (ProjectStatsStore).
+--
+-- project_stats_outbox: one row per change that may affect a project's figures, inserted in
+--   the transaction of the change itself (test run transitions, results writes). The updater
+--   drains it and recomputes only the projects listed, then deletes the rows it covered.
+-- project_stats:        scalar figures; version is bumped on every recompute and is the ETag.
+-- project_stat_counts:  grouped counts (samples by source type, test runs by status).
+-- ====================================================
+
+CREATE TABLE project_stats_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    project_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_pso_project (project_id, id)
+);
+
+CREATE TABLE project_stats (
+    project_id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0,
+    samples BIGINT NOT NULL DEFAULT 0,
+    test_runs BIGINT NOT NULL DEFAULT 0,
+    ps_results BIGINT NOT NULL DEFAULT 0,
+    fines_percent_avg DOUBLE NULL,
+    cu_avg DOUBLE NULL,
+    cc_avg DOUBLE NULL,
+    refreshed_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    CONSTRAINT fk_pstats_project FOREIGN KEY (project_id)
+        REFERENCES projects(id),
+    INDEX idx_pstats_refreshed (refreshed_at)
+);
+
+CREATE TABLE project_stat_counts (
+    project_id BIGINT NOT NULL,
+    dimension VARCHAR(20) CHARACTER SET ascii NOT NULL,
+    bucket VARCHAR(32) NOT NULL,
+    count BIGINT NOT NULL,
+    PRIMARY KEY (project_id, dimension, bucket),
+    CONSTRAINT fk_pstatc_project FOREIGN KEY (project_id)
+        REFERENCES projects(id)
+);
+
+-- Existing history: every project is computed once by the first updater run
+INSERT INTO project_stats_outbox (project_id)
+SELECT id FROM projects WHERE deleted_at IS NULL;
@@ -0,0 +1,53 @@
+-- ====================================================
+-- V9__sync_change_feed.sql
+-- Delta change feed for offline clients (SyncChangeFeed) and idempotent uploads.
+--
+-- updated_at was NULL until a row's first update, so "changed since" needed
+-- COALESCE(updated_at, created_at), which no index can serve. It is now set on insert too:
+-- existing NULLs are backfilled with created_at and the column becomes NOT NULL with a default.
+-- Every synced table then gets an (updated_at, id) index and each feed page is one range read:
+--   WHERE updated_at < :horizon AND (updated_at > ? OR (updated_at = ? AND id > ?))
+--   ORDER BY updated_at, id LIMIT ?
+-- Soft deletes set deleted_at, which bumps updated_at: they travel through the same scan.
+-- ====================================================
+
+UPDATE projects SET updated_at = created_at WHERE updated_at IS NULL;
+ALTER TABLE projects
+    MODIFY updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    ADD INDEX idx_projects_updated (updated_at, id);
+
+UPDATE sample_sources SET updated_at = created_at WHERE updated_at IS NULL;
+ALTER TABLE sample_sources
+    MODIFY updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    ADD INDEX idx_ss_project_updated (project_id, updated_at, id);
+
+UPDATE samples SET updated_at = created_at WHERE updated_at IS NULL;
+ALTER TABLE samples
+    MODIFY updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    ADD INDEX idx_samples_updated (updated_at, id);
+
+UPDATE test_runs SET updated_at = created_at WHERE updated_at IS NULL;
+ALTER TABLE test_runs
+    MODIFY updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    ADD INDEX idx_tr_updated (updated_at, id);
+
+-- Saving the sieve table touches ps_tests.updated_at: readings are synced inside their test
+UPDATE ps_tests SET updated_at = created_at WHERE updated_at IS NULL;
+ALTER TABLE ps_tests
+    MODIFY updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    ADD INDEX idx_pst_updated (updated_at, id);
+
+UPDATE ps_results SET updated_at = created_at WHERE updated_at IS NULL;
+ALTER TABLE ps_results
+    MODIFY updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    ADD INDEX idx_psres_updated (updated_at, id);
+
+-- One row per applied upload item; a retried item with the same key is not applied twice
+CREATE TABLE sync_idempotency_keys (
+    idempotency_key CHAR(36) CHARACTER SET ascii NOT NULL,
+    user_id BIGINT NOT NULL,
+    ps_test_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (idempotency_key),
+    INDEX idx_sync_keys_created (created_at)
+);
@@ -0,0 +1,80 @@
+package com.saker.geotech.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditRingBufferTests {
+
+	@Test
+	void drainsInOrderAndRefusesWhenFull() {
+		AuditRingBuffer buffer = new AuditRingBuffer(4);
+		for (long i = 0; i < 4; i++) assertTrue(buffer.offer(event(i)));
+		assertFalse(buffer.offer(event(4)));
+		assertEquals(4, buffer.size());
+
+		List<AuditEvent> out = new ArrayList<>();
+		assertEquals(3, buffer.drainTo(out, 3));
+		assertEquals(List.of(0L, 1L, 2L), out.stream().map(AuditEvent::entityId).toList());
+
+		// Drained slots are reused on the next lap
+		assertTrue(buffer.offer(event(5)));
+		out.clear();
+		assertEquals(2, buffer.drainTo(out, 10));
+		assertEquals(List.of(3L, 5L), out.stream().map(AuditEvent::entityId).toList());
+		assertEquals(0, buffer.size());
+	}
+
+	@Test
+	void concurrentProducersLoseNothingAccepted() throws InterruptedException {
+		AuditRingBuffer buffer = new AuditRingBuffer(1024);
+		int producers = 4;
+		int perProducer = 20_000;
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		for (int p = 0; p < producers; p++) {
+			long base = (long) p * perProducer;
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException ex) {
+					return;
+				}
+				for (long i = 0; i < perProducer; i++) {
+					while (!buffer.offer(event(base + i))) Thread.onSpinWait();
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+
+		start.countDown();
+		Set<Long> seen = new HashSet<>();
+		List<AuditEvent> out = new ArrayList<>();
+		while (seen.size() < producers * perProducer) {
+			out.clear();
+			buffer.drainTo(out, 256);
+			for (AuditEvent event : out) assertTrue(seen.add(event.entityId()));
+		}
+		for (Thread thread : threads) thread.join();
+		assertEquals(0, buffer.size());
+	}
+
+	@Test
+	void rejectsCapacityThatIsNotAPowerOfTwo() {
+		assertThrows(IllegalArgumentException.class, () -> new AuditRingBuffer(1000));
+	}
+
+	private static AuditEvent event(long entityId) {
+		return AuditEvent.entity(AuditEventType.TEST_RUN_STATUS_CHANGED, 1L, 1L, entityId, null);
+	}
+}
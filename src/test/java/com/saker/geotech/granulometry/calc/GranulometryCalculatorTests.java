@@ -0,0 +1,69 @@
+package com.saker.geotech.granulometry.calc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GranulometryCalculatorTests {
+
+	private static final double EPS = 1e-9;
+
+	// 10 / 5 / 2 / 1 / 0.5 / 0.2 / 0.08 mm + pan, 1000 g dry mass, 50 g lost by washing
+	private static final double[] SIEVES = {10, 5, 2, 1, 0.5, 0.2, 0.08, Double.NaN};
+	private static final double[] RETAINED = {0, 100, 300, 500, 700, 850, 900, 950};
+	private static final boolean[] PAN = {false, false, false, false, false, false, false, true};
+
+	@Test
+	void computesPassingFinesAndDiameters() {
+		GranulometryResult result = GranulometryCalculator.compute(new GranulometryInput(1L, SIEVES, RETAINED, PAN, 1000));
+
+		assertEquals(1000, result.totalMassG(), EPS);
+		assertEquals(90, result.percentPassing()[1], EPS);
+		assertEquals(10, result.percentRetained()[1], EPS);
+		assertTrue(Double.isNaN(result.percentPassing()[7]));
+		assertEquals(10, result.finesPercent(), EPS);
+
+		assertEquals(0.08, result.d10(), EPS);
+		assertEquals(0.5, result.d30(), EPS);
+		// 60 % lies halfway between 1 mm (50 %) and 2 mm (70 %) in log scale
+		assertEquals(Math.sqrt(2), result.d60(), EPS);
+		assertEquals(Math.sqrt(2) / 0.08, result.cu(), EPS);
+		assertEquals(0.25 / (0.08 * Math.sqrt(2)), result.cc(), EPS);
+	}
+
+	@Test
+	void sieveOrderDoesNotMatter() {
+		double[] sieves = {0.08, 1, 10, 0.2, 2, 0.5, 5};
+		double[] retained = {900, 500, 0, 850, 300, 700, 100};
+		GranulometryResult result = GranulometryCalculator.compute(
+				new GranulometryInput(1L, sieves, retained, new boolean[7], 1000));
+
+		assertEquals(Math.sqrt(2), result.d60(), EPS);
+		assertEquals(10, result.finesPercent(), EPS);
+	}
+
+	@Test
+	void fallsBackToPanMassWithoutDryMass() {
+		GranulometryResult result = GranulometryCalculator.compute(
+				new GranulometryInput(1L, SIEVES, RETAINED, PAN, Double.NaN));
+
+		assertEquals(950, result.totalMassG(), EPS);
+		assertEquals(100 - 100 * 900 / 950.0, result.finesPercent(), EPS);
+	}
+
+	@Test
+	void undefinedDiametersPropagateToCoefficients() {
+		// Finest sieve still passes 40 %: D10 and D30 are not reached
+		double[] sieves = {2, 1, 0.08};
+		double[] retained = {100, 300, 600};
+		GranulometryResult result = GranulometryCalculator.compute(
+				new GranulometryInput(1L, sieves, retained, new boolean[3], 1000));
+
+		assertTrue(Double.isNaN(result.d10()));
+		assertTrue(Double.isNaN(result.d30()));
+		assertTrue(Double.isNaN(result.cu()));
+		assertTrue(Double.isNaN(result.cc()));
+		assertEquals(40, result.finesPercent(), EPS);
+	}
+}
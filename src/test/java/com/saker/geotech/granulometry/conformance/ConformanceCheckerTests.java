@@ -0,0 +1,82 @@
+package com.saker.geotech.granulometry.conformance;
+
+import com.saker.geotech.granulometry.curve.PsCurve;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConformanceCheckerTests {
+
+	private static final double EPS = 1e-9;
+	private static final double NaN = Double.NaN;
+	private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+	// Stored coarse to fine, as the GNT sheets list them
+	private static final double[] SIEVES = {10, 2, 1, 0.08};
+	private static final double[] PASSING = {100, 70, 50, 10};
+
+	@Test
+	void interpolatesInLogApertureAndChecksBounds() {
+		// sqrt(2) mm is halfway between 1 and 2 mm in log scale -> 60 %
+		PsCurve curve = curve(1L, new double[]{Math.sqrt(2), 2, 10}, new double[]{55, 75, 95}, new double[]{65, NaN, NaN});
+		ConformanceReport report = new ConformanceChecker(POOL, 256).check(SpecBandSet.of(List.of(curve)));
+
+		assertEquals(TestVerdict.FAIL, report.verdict(0));
+		assertEquals(60, report.passingAt(0), EPS);
+		assertEquals(SieveVerdict.PASS, report.sieveVerdict(0));
+		assertEquals(SieveVerdict.BELOW_MIN, report.sieveVerdict(1));
+		// Open maximum
+		assertEquals(SieveVerdict.PASS, report.sieveVerdict(2));
+	}
+
+	@Test
+	void boundsAreInclusiveAndUncoveredAperturesMakeTheTestIncomplete() {
+		PsCurve inside = curve(1L, new double[]{1, 10}, new double[]{50, 100}, new double[]{50, 100});
+		PsCurve beyond = curve(2L, new double[]{1, 20}, new double[]{40, 90}, new double[]{60, 100});
+		ConformanceReport report = new ConformanceChecker(POOL, 256).check(SpecBandSet.of(List.of(inside, beyond)));
+
+		assertEquals(TestVerdict.PASS, report.verdict(0));
+		assertEquals(TestVerdict.INCOMPLETE, report.verdict(1));
+		assertEquals(SieveVerdict.NOT_COVERED, report.sieveVerdict(report.bandFrom(1) + 1));
+		assertTrue(Double.isNaN(report.passingAt(report.bandFrom(1) + 1)));
+	}
+
+	@Test
+	void reportsMissingBandOrCurve() {
+		PsCurve noBand = curve(1L, new double[0], new double[0], new double[0]);
+		PsCurve noCurve = new PsCurve(2L, NaN, NaN, NaN, NaN, NaN, NaN, NaN, new double[0], new double[0],
+				new double[]{1}, new double[]{10}, new double[]{90});
+		ConformanceReport report = new ConformanceChecker(POOL, 256).check(SpecBandSet.of(List.of(noBand, noCurve)));
+
+		assertEquals(TestVerdict.NO_BAND, report.verdict(0));
+		assertEquals(TestVerdict.NO_CURVE, report.verdict(1));
+	}
+
+	@Test
+	void parallelSplitMatchesSequentialCheck() {
+		List<PsCurve> curves = new ArrayList<>();
+		for (int i = 0; i < 2_000; i++) {
+			double min = 40 + i % 20;
+			curves.add(curve(i, new double[]{0.08, 1, 2}, new double[]{0, min, 60}, new double[]{20, 80, 90}));
+		}
+		SpecBandSet set = SpecBandSet.of(curves);
+		ConformanceReport sequential = new ConformanceChecker(POOL, Integer.MAX_VALUE).check(set);
+		ConformanceReport parallel = new ConformanceChecker(POOL, 16).check(set);
+
+		for (int t = 0; t < set.size(); t++) {
+			assertEquals(sequential.verdict(t), parallel.verdict(t));
+		}
+		// min > 50 % at 1 mm fails for 9 of every 20 curves
+		assertEquals(900, parallel.count(TestVerdict.FAIL));
+		assertEquals(1_100, parallel.count(TestVerdict.PASS));
+	}
+
+	private static PsCurve curve(long id, double[] bandMm, double[] min, double[] max) {
+		return new PsCurve(id, 1000, 10, 0.08, NaN, NaN, NaN, NaN, SIEVES, PASSING, bandMm, min, max);
+	}
+}
@@ -0,0 +1,88 @@
+package com.saker.geotech.granulometry.curve;
+
+import com.saker.geotech.granulometry.service.PsResultsChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PsCurveCacheTests {
+
+	@Test
+	void loadsOnceThenServesFromCache() {
+		FakeLoader loader = new FakeLoader();
+		loader.rows.put(1L, curve(1L, 12.5));
+		PsCurveCache cache = cache(loader);
+
+		assertEquals(12.5, cache.get(1L).finesPercent());
+		assertEquals(12.5, cache.get(1L).finesPercent());
+		assertEquals(List.of(List.of(1L)), loader.calls);
+	}
+
+	@Test
+	void changedResultsAreReloaded() {
+		FakeLoader loader = new FakeLoader();
+		loader.rows.put(1L, curve(1L, 12.5));
+		loader.rows.put(2L, curve(2L, 30.0));
+		PsCurveCache cache = cache(loader);
+		cache.getAll(List.of(1L, 2L));
+
+		loader.rows.put(1L, curve(1L, 14.0));
+		cache.onPsResultsChanged(new PsResultsChangedEvent(7L, new long[]{1L}));
+
+		assertEquals(14.0, cache.get(1L).finesPercent());
+		assertEquals(30.0, cache.get(2L).finesPercent());
+		assertEquals(List.of(List.of(1L, 2L), List.of(1L)), loader.calls);
+	}
+
+	@Test
+	void missesOfABatchAreLoadedTogetherInRequestOrder() {
+		FakeLoader loader = new FakeLoader();
+		for (long id = 1; id <= 3; id++) loader.rows.put(id, curve(id, id));
+		PsCurveCache cache = cache(loader);
+		cache.get(2L);
+
+		List<PsCurve> curves = cache.getAll(List.of(3L, 2L, 9L, 1L));
+
+		assertEquals(List.of(3L, 2L, 1L), curves.stream().map(PsCurve::psTestId).toList());
+		assertEquals(2, loader.calls.size());
+		assertEquals(List.of(1L, 3L, 9L), loader.calls.get(1).stream().sorted().toList());
+		assertNull(cache.get(9L)); // no curve: not cached, asked again
+	}
+
+	private static PsCurveCache cache(FakeLoader loader) {
+		return new PsCurveCache(loader, new SimpleMeterRegistry(), 1 << 20, 600_000);
+	}
+
+	private static PsCurve curve(long psTestId, double finesPercent) {
+		double[] none = new double[0];
+		return new PsCurve(psTestId, 1000, finesPercent, 0.1, 0.5, 2, 20, 1.25,
+				new double[]{2, 0.08}, new double[]{70, finesPercent}, none, none, none);
+	}
+
+	private static final class FakeLoader extends PsCurveLoader {
+
+		final Map<Long, PsCurve> rows = new HashMap<>();
+		final List<List<Long>> calls = new ArrayList<>();
+
+		FakeLoader() {
+			super(null);
+		}
+
+		@Override
+		Map<Long, PsCurve> loadAll(List<Long> psTestIds) {
+			calls.add(List.copyOf(psTestIds));
+			Map<Long, PsCurve> found = new HashMap<>();
+			for (Long id : psTestIds) {
+				if (rows.containsKey(id)) found.put(id, rows.get(id));
+			}
+			return found;
+		}
+	}
+}
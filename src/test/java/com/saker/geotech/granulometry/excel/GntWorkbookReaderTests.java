@@ -0,0 +1,119 @@
+package com.saker.geotech.granulometry.excel;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GntWorkbookReaderTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void parsesHeaderAndSieveTable() throws Exception {
+		writeWorkbook(dir.resolve("SC1.xlsx"), "ECH-01", "ECH-02");
+
+		GntWorkbookReader reader = new GntWorkbookReader(dir);
+		reader.open(new ExecutionContext());
+		GntSheet first = reader.read();
+
+		assertEquals("SC1", first.sourceName());
+		assertEquals("ECH-01", first.sampleCode());
+		assertEquals(1000.0, first.dryMassBeforeWashG());
+		assertEquals(5.0, first.washingLossPercent(), 1e-9);
+		assertEquals(3, first.readingCount());
+		assertEquals(0.08, first.sieveMm()[1]);
+		assertTrue(Double.isNaN(first.sieveMm()[2]));
+		assertArrayEquals(new boolean[]{false, false, true}, first.pan());
+		assertArrayEquals(new double[]{100, 900, 950}, first.retainedCumG());
+
+		assertEquals("ECH-02", reader.read().sampleCode());
+		assertNull(reader.read()); // the chart sheet has no sieve table
+		reader.close();
+	}
+
+	@Test
+	void restartSkipsCommittedSheets() throws Exception {
+		writeWorkbook(dir.resolve("SC1.xlsx"), "ECH-01", "ECH-02");
+
+		GntWorkbookReader reader = new GntWorkbookReader(dir);
+		ExecutionContext context = new ExecutionContext();
+		reader.open(context);
+		reader.read();
+		reader.update(context);
+		reader.close();
+
+		GntWorkbookReader restarted = new GntWorkbookReader(dir);
+		restarted.open(context);
+		assertEquals("ECH-02", restarted.read().sampleCode());
+		restarted.close();
+	}
+
+	@Test
+	void unreadableWorkbooksAreSkipped() throws Exception {
+		Files.writeString(dir.resolve("A_broken.xlsx"), "not a workbook");
+		writeWorkbook(dir.resolve("SC1.xlsx"), "ECH-01"); // read after the broken one: files go in name order
+
+		GntWorkbookReader reader = new GntWorkbookReader(dir);
+		ExecutionContext context = new ExecutionContext();
+		reader.open(context);
+		assertEquals("ECH-01", reader.read().sampleCode());
+		reader.update(context);
+		assertEquals(1L, context.getLong(GntWorkbookReader.SKIPPED_SHEETS));
+		reader.close();
+	}
+
+	private static void writeWorkbook(Path file, String... samples) throws Exception {
+		try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+			for (String sample : samples) {
+				Sheet sheet = workbook.createSheet(sample);
+				label(sheet, 0, "Provenance", "SC1");
+				label(sheet, 1, "Échantillon", sample);
+				number(sheet, 2, "Poids sec avant lavage (g)", 1000);
+				number(sheet, 3, "Poids sec après lavage (g)", 950);
+
+				Row header = sheet.createRow(5);
+				header.createCell(0).setCellValue("Tamis (mm)");
+				header.createCell(1).setCellValue("Refus cumulés (g)");
+				header.createCell(2).setCellValue("% Refus cumulés");
+				reading(sheet, 6, 2.0, 100);
+				reading(sheet, 7, 0.08, 900);
+				Row pan = sheet.createRow(8);
+				pan.createCell(0).setCellValue("Fond");
+				pan.createCell(1).setCellValue(950);
+			}
+			workbook.createSheet("Courbe");
+			workbook.write(out);
+		}
+	}
+
+	private static void label(Sheet sheet, int row, String label, String value) {
+		Row r = sheet.createRow(row);
+		r.createCell(0).setCellValue(label);
+		r.createCell(1).setCellValue(value);
+	}
+
+	private static void number(Sheet sheet, int row, String label, double value) {
+		Row r = sheet.createRow(row);
+		r.createCell(0).setCellValue(label);
+		r.createCell(1).setCellValue(value);
+	}
+
+	private static void reading(Sheet sheet, int row, double mm, double retained) {
+		Row r = sheet.createRow(row);
+		r.createCell(0).setCellValue(mm);
+		r.createCell(1).setCellValue(retained);
+	}
+}
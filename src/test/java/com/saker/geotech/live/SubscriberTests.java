@@ -0,0 +1,103 @@
+package com.saker.geotech.live;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubscriberTests {
+
+	@Test
+	void coalescesEventsOfTheSameEntity() {
+		RecordingEmitter emitter = new RecordingEmitter();
+		Subscriber subscriber = new Subscriber(1L, emitter, 8);
+
+		assertTrue(subscriber.offer(new LiveEvent("test-run-status", 7L, "SUBMITTED")));
+		assertFalse(subscriber.offer(new LiveEvent("test-run-status", 7L, "APPROVED")), "drain already scheduled");
+		assertTrue(subscriber.drain());
+
+		assertEquals(List.of("event:test-run-status"), emitter.names());
+		assertTrue(emitter.frames.get(0).contains("APPROVED"));
+	}
+
+	@Test
+	void overflowDropsOldestAndAsksForResync() {
+		RecordingEmitter emitter = new RecordingEmitter();
+		Subscriber subscriber = new Subscriber(1L, emitter, 2);
+
+		for (long id = 1; id <= 3; id++) {
+			subscriber.offer(new LiveEvent("ps-results", id, id));
+		}
+		assertTrue(subscriber.drain());
+
+		assertEquals(List.of("event:resync", "event:ps-results", "event:ps-results"), emitter.names());
+		assertTrue(emitter.frames.get(1).contains("data:2"));
+	}
+
+	@Test
+	void brokenStreamIsClosed() {
+		SseEmitter emitter = new SseEmitter();
+		emitter.complete();
+		Subscriber subscriber = new Subscriber(1L, emitter, 2);
+
+		subscriber.offer(new LiveEvent("ps-results", 1L, 1L));
+		assertFalse(subscriber.drain());
+		assertFalse(subscriber.offer(new LiveEvent("ps-results", 2L, 2L)));
+	}
+
+	@Test
+	void stalledSendIsInterruptedByAbort() throws Exception {
+		CountDownLatch sending = new CountDownLatch(1);
+		SseEmitter emitter = new SseEmitter() {
+			@Override
+			public void send(SseEventBuilder builder) throws IOException {
+				sending.countDown();
+				try {
+					new CountDownLatch(1).await(); // a client that never reads
+				} catch (InterruptedException ex) {
+					throw new IOException("interrupted", ex);
+				}
+			}
+		};
+		Subscriber subscriber = new Subscriber(1L, emitter, 2);
+		subscriber.offer(new LiveEvent("ps-results", 1L, 1L));
+		CompletableFuture<Boolean> drained = CompletableFuture.supplyAsync(subscriber::drain);
+
+		assertTrue(sending.await(5, TimeUnit.SECONDS));
+		assertFalse(subscriber.stalled(System.nanoTime(), TimeUnit.MINUTES.toNanos(1)));
+		assertTrue(subscriber.stalled(System.nanoTime() + 1, 0));
+		subscriber.abort();
+
+		assertFalse(drained.get(5, TimeUnit.SECONDS));
+		assertFalse(subscriber.stalled(System.nanoTime() + 1, 0));
+		assertFalse(subscriber.offer(new LiveEvent("ps-results", 2L, 2L)));
+	}
+
+	private static final class RecordingEmitter extends SseEmitter {
+
+		final List<String> frames = new ArrayList<>();
+
+		@Override
+		public void send(SseEventBuilder builder) {
+			StringBuilder frame = new StringBuilder();
+			for (DataWithMediaType part : builder.build()) {
+				frame.append(part.getData());
+			}
+			frames.add(frame.toString());
+		}
+
+		List<String> names() {
+			return frames.stream().map(frame -> frame.lines().findFirst().orElse("")).toList();
+		}
+	}
+}
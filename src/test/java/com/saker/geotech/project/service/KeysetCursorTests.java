@@ -0,0 +1,23 @@
+package com.saker.geotech.project.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTests {
+
+	@Test
+	void roundTripsCreatedAtAndId() {
+		KeysetCursor cursor = new KeysetCursor(Instant.parse("2025-03-14T09:26:53.589Z"), 4242L);
+		assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+	}
+
+	@Test
+	void rejectsTamperedValues() {
+		assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not-a-cursor"));
+		assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("%%%"));
+	}
+}
@@ -0,0 +1,102 @@
+package com.saker.geotech.project.stats;
+
+import com.saker.geotech.project.dto.ProjectStatsDto;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProjectStatsStoreTests {
+
+	@Test
+	void recomputeCommittedAfterAScanThatPassedItsStampIsPickedUp() {
+		StatsReader reader = new StatsReader();
+		reader.now = 10_000;
+		reader.commit(1L, 1L, 5_000);
+		ProjectStatsStore store = new ProjectStatsStore(reader, 30_000);
+		store.refresh();
+
+		// Stamped at 12000 by the UPSERT, committed only after the scan at 15000
+		reader.now = 15_000;
+		store.refresh();
+		reader.commit(1L, 2L, 12_000);
+		reader.now = 20_000;
+		store.refresh();
+
+		assertEquals(2L, store.get(1L).version());
+	}
+
+	@Test
+	void reloadingTheOverlapKeepsTheHigherVersion() {
+		StatsReader reader = new StatsReader();
+		reader.now = 10_000;
+		reader.commit(1L, 3L, 9_000);
+		ProjectStatsStore store = new ProjectStatsStore(reader, 30_000);
+		store.refresh();
+
+		// A load racing a later recompute returns an older row
+		reader.rows.put(1L, new Row(stats(1L, 2L), 9_000));
+		reader.now = 11_000;
+		store.refresh();
+
+		assertEquals(3L, store.get(1L).version());
+		assertEquals(List.of(1L), reader.changedScans.get(0));
+	}
+
+	private static ProjectStatsDto stats(long projectId, long version) {
+		return new ProjectStatsDto(projectId, version, 0L, Map.of(), 0L, Map.of(), 0L, null, null, null, null);
+	}
+
+	private record Row(ProjectStatsDto stats, long refreshedAt) {
+	}
+
+	/**
+	 * Committed project_stats rows, with the refreshed_at each one was stamped with.
+	 */
+	private static final class StatsReader extends ProjectStatsReader {
+
+		final Map<Long, Row> rows = new HashMap<>();
+		final List<List<Long>> changedScans = new ArrayList<>();
+		long now;
+
+		StatsReader() {
+			super(null);
+		}
+
+		void commit(long projectId, long version, long refreshedAt) {
+			rows.put(projectId, new Row(stats(projectId, version), refreshedAt));
+		}
+
+		@Override
+		Timestamp dbNow() {
+			return new Timestamp(now);
+		}
+
+		@Override
+		List<Long> allProjectIds() {
+			return new ArrayList<>(rows.keySet());
+		}
+
+		@Override
+		List<Long> changedSince(Timestamp since) {
+			List<Long> ids = new ArrayList<>();
+			rows.forEach((id, row) -> {
+				if (row.refreshedAt() >= since.getTime()) ids.add(id);
+			});
+			changedScans.add(ids);
+			return ids;
+		}
+
+		@Override
+		public Map<Long, ProjectStatsDto> load(List<Long> projectIds) {
+			Map<Long, ProjectStatsDto> loaded = new HashMap<>();
+			for (Long id : projectIds) loaded.put(id, rows.get(id).stats());
+			return loaded;
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package com.saker.geotech.project.stats;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProjectStatsUpdaterTests {
+
+	@Test
+	void drainRecomputesEachPendingProjectOnceAndConsumesItsRows() {
+		OutboxJdbc jdbc = new OutboxJdbc();
+		jdbc.outbox.put(1L, 10L);
+		jdbc.outbox.put(2L, 20L);
+		jdbc.outbox.put(3L, 10L);
+
+		updater(jdbc).drain();
+
+		assertEquals(List.of(10L, 20L), jdbc.recomputed);
+		assertTrue(jdbc.outbox.isEmpty());
+	}
+
+	@Test
+	void rowCommittedDuringRecomputeIsKeptEvenWithALowerId() {
+		OutboxJdbc jdbc = new OutboxJdbc();
+		jdbc.outbox.put(1L, 10L);
+		jdbc.outbox.put(3L, 10L);
+		// Id 2 was allocated before id 3 but its transaction commits while project 10 is recomputed
+		jdbc.lateRows.put(2L, 10L);
+
+		updater(jdbc).drain();
+
+		assertEquals(Map.of(2L, 10L), jdbc.outbox);
+	}
+
+	@Test
+	void failedProjectStaysInOutbox() {
+		OutboxJdbc jdbc = new OutboxJdbc();
+		jdbc.outbox.put(1L, 10L);
+		jdbc.outbox.put(2L, 20L);
+		jdbc.failing = 20L;
+
+		updater(jdbc).drain();
+
+		assertEquals(Map.of(2L, 20L), jdbc.outbox);
+	}
+
+	private static ProjectStatsUpdater updater(OutboxJdbc jdbc) {
+		ProjectStatsReader reader = new ProjectStatsReader(jdbc);
+		return new ProjectStatsUpdater(jdbc, new ProjectStatsWriter(jdbc), reader, new ProjectStatsStore(reader, 30_000), 200);
+	}
+
+	/**
+	 * Just enough of the outbox table for the drain; aggregate and stats queries return no rows.
+	 */
+	private static final class OutboxJdbc extends JdbcTemplate {
+
+		final TreeMap<Long, Long> outbox = new TreeMap<>();
+		final TreeMap<Long, Long> lateRows = new TreeMap<>();
+		final List<Long> recomputed = new ArrayList<>();
+		Long failing;
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+			if (sql.contains("DISTINCT project_id")) {
+				return (List<T>) outbox.values().stream().distinct().limit((Integer) args[0]).toList();
+			}
+			long projectId = (Long) args[0];
+			if (failing != null && failing == projectId) throw new IllegalStateException("boom");
+			recomputed.add(projectId);
+			return (List<T>) outbox.entrySet().stream()
+					.filter(row -> row.getValue() == projectId).map(Map.Entry::getKey).toList();
+		}
+
+		@Override
+		public void query(String sql, RowCallbackHandler rch, Object... args) {
+			outbox.putAll(lateRows);
+			lateRows.clear();
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T queryForObject(String sql, RowMapper<T> rowMapper, Object... args) {
+			return (T) new Object[]{0L, null, null, null};
+		}
+
+		@Override
+		public int update(String sql, Object... args) {
+			if (!sql.startsWith("DELETE FROM project_stats_outbox")) return 1;
+			int deleted = 0;
+			for (Object id : args) {
+				if (outbox.remove((Long) id) != null) deleted++;
+			}
+			return deleted;
+		}
+
+		@Override
+		public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+			return new int[batchArgs.size()];
+		}
+	}
+}
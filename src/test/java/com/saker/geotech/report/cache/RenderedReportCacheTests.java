@@ -0,0 +1,79 @@
+package com.saker.geotech.report.cache;
+
+import com.saker.geotech.report.ReportFormat;
+import com.saker.geotech.report.service.TestRunReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RenderedReportCacheTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void keyChangesWithFormatAndAnyPrintedValue() {
+		String key = RenderedReportCache.key(ReportFormat.PDF, report(12.5));
+
+		assertEquals(key, RenderedReportCache.key(ReportFormat.PDF, report(12.5)));
+		assertNotEquals(key, RenderedReportCache.key(ReportFormat.XLSX, report(12.5)));
+		assertNotEquals(key, RenderedReportCache.key(ReportFormat.PDF, report(12.6)));
+	}
+
+	@Test
+	void rendersOnceThenServesTheFile() throws IOException {
+		RenderedReportCache cache = new RenderedReportCache(dir.toString(), 1 << 20);
+		AtomicInteger renders = new AtomicInteger();
+		RenderedReportCache.Renderer renderer = out -> {
+			renders.incrementAndGet();
+			out.write(new byte[]{1, 2, 3});
+		};
+
+		Path first = cache.getOrRender("abc", ReportFormat.PDF, renderer);
+		Path second = cache.getOrRender("abc", ReportFormat.PDF, renderer);
+
+		assertEquals(first, second);
+		assertEquals(1, renders.get());
+		assertEquals(3, Files.size(first));
+	}
+
+	@Test
+	void trimDropsLeastRecentlyUsedAndLeavesTempFilesAlone() throws IOException {
+		RenderedReportCache cache = new RenderedReportCache(dir.toString(), 250);
+		Path oldest = file("a.pdf", 100, 1_000);
+		Path middle = file("b.pdf", 100, 2_000);
+		Path newest = file("c.pdf", 100, 3_000);
+		Path rendering = file("d123.tmp", 1_000, 0);
+
+		cache.trim();
+
+		assertFalse(Files.exists(oldest));
+		assertTrue(Files.exists(middle));
+		assertTrue(Files.exists(newest));
+		assertTrue(Files.exists(rendering));
+	}
+
+	private Path file(String name, int size, long lastUsedMs) throws IOException {
+		Path file = Files.write(dir.resolve(name), new byte[size]);
+		Files.setLastModifiedTime(file, FileTime.fromMillis(lastUsedMs));
+		return file;
+	}
+
+	private static TestRunReport report(double finesPercent) {
+		return new TestRunReport(7L, TestRunReport.APPROVED, "GNT", LocalDate.of(2024, 3, 1),
+				"P-01", "Project", "Borehole 1", "S-1", 1.0, 1.5, "Washed", "NF P94-056",
+				1000, 900, 10, new String[]{"2 mm", "Pan"}, new double[]{2, 0}, new double[]{100, 900},
+				new double[]{90, 0}, new boolean[]{false, true}, finesPercent, 0.1, 0.5, 2, 20, 1.25);
+	}
+}
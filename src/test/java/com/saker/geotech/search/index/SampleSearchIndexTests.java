@@ -0,0 +1,93 @@
+package com.saker.geotech.search.index;
+
+import com.saker.geotech.search.dto.FacetCountDto;
+import com.saker.geotech.search.dto.SampleHitDto;
+import com.saker.geotech.search.dto.SampleSearchResultDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SampleSearchIndexTests {
+
+	@TempDir
+	Path dir;
+
+	private SampleSearchIndex index;
+
+	@BeforeEach
+	void open() {
+		index = new SampleSearchIndex(dir.toString(), new SimpleMeterRegistry());
+		index.apply(List.of(
+				sample(1, 10, "BH-12/3", "Forage BH-12", "BOREHOLE", "Grès argileux", List.of("APPROVED")),
+				sample(2, 10, "BH-12/4", "Forage BH-12", "BOREHOLE", "Argile sableuse", List.of("DRAFT", "SUBMITTED")),
+				sample(3, 20, "ST-01", "Stock nord", "STOCKPILE", "Gravier roulé", List.of())
+		));
+		index.commit(1_000L);
+	}
+
+	@AfterEach
+	void close() throws IOException {
+		index.close();
+	}
+
+	@Test
+	void matchesLastWordAsPrefixWithFoldedAccents() {
+		SampleSearchResultDto result = index.search(new SampleQuery("gres argil", null, null, null, 10));
+		assertEquals(1, result.total());
+		assertEquals(1L, result.hits().get(0).sampleId());
+	}
+
+	@Test
+	void sampleCodeTypedAsIsMatchesAsPrefix() {
+		SampleSearchResultDto result = index.search(new SampleQuery("BH-12/", null, null, null, 10));
+		assertEquals(2, result.total());
+		assertTrue(result.hits().stream().allMatch(hit -> hit.sampleCode().startsWith("BH-12/")));
+	}
+
+	@Test
+	void filtersAndCountsFacets() {
+		SampleSearchResultDto result = index.search(new SampleQuery(null, 10L, null, null, 10));
+		assertEquals(2, result.total());
+		assertEquals(List.of(new FacetCountDto("BOREHOLE", 2)), result.facets().get(SampleSearchIndex.FACET_SOURCE_TYPE));
+
+		SampleSearchResultDto submitted = index.search(new SampleQuery(null, null, null, "SUBMITTED", 10));
+		assertEquals(1, submitted.total());
+		assertEquals(2L, submitted.hits().get(0).sampleId());
+	}
+
+	@Test
+	void suggestReturnsTheSameTopHitsWithoutFacets() {
+		SampleQuery query = new SampleQuery("bh-12", 10L, null, null, 1);
+		List<SampleHitDto> suggested = index.suggest(query);
+
+		assertEquals(1, suggested.size());
+		assertEquals(index.search(query).hits(), suggested);
+		assertEquals(List.of(), index.suggest(new SampleQuery("bh-12", 20L, null, null, 5)));
+	}
+
+	@Test
+	void deletedSamplesLeaveTheIndexAndWatermarkSurvivesReopen() throws IOException {
+		index.apply(List.of(new SampleDocument(3, 0, null, null, null, null, null, null, null, List.of(), true)));
+		index.commit(2_000L);
+		index.close();
+
+		index = new SampleSearchIndex(dir.toString(), new SimpleMeterRegistry());
+		assertEquals(2_000L, index.watermark());
+		assertEquals(0, index.search(new SampleQuery("stock", null, null, null, 10)).total());
+	}
+
+	private static SampleDocument sample(long id, long projectId, String code, String source, String sourceType,
+										 String classification, List<String> statuses) {
+		return new SampleDocument(id, projectId, code, source, sourceType, null, classification,
+				null, null, statuses, false);
+	}
+}
@@ -0,0 +1,45 @@
+package com.saker.geotech.security.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PublicEndpointRegistryTests {
+
+	private final PublicEndpointRegistry registry = new PublicEndpointRegistry(List.of(
+			PublicEndpoint.exact("/user/login"),
+			PublicEndpoint.subtree("/swagger-ui"),
+			PublicEndpoint.exact("/swagger-ui.html")
+	));
+
+	@Test
+	void exactEntriesMatchOnlyThemselves() {
+		assertTrue(registry.isPublicPath("/user/login"));
+		assertFalse(registry.isPublicPath("/user/login/extra"));
+		assertFalse(registry.isPublicPath("/user/log"));
+		assertFalse(registry.isPublicPath("/user/loginX"));
+	}
+
+	@Test
+	void subtreeEntriesMatchRootAndChildrenOnSegmentBoundary() {
+		assertTrue(registry.isPublicPath("/swagger-ui"));
+		assertTrue(registry.isPublicPath("/swagger-ui/index.html"));
+		assertTrue(registry.isPublicPath("/swagger-ui.html"));
+		assertFalse(registry.isPublicPath("/swagger-uiX"));
+		assertFalse(registry.isPublicPath("/projects"));
+		assertFalse(registry.isPublicPath(""));
+	}
+
+	@Test
+	void patternsMirrorEntries() {
+		assertArrayEquals(
+				new String[]{"/user/login", "/swagger-ui/**", "/swagger-ui.html"},
+				registry.patterns()
+		);
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.saker.geotech.security.revocation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenIdBloomFilterTests {
+
+	@Test
+	void neverForgetsAnAddedId() {
+		TokenIdBloomFilter filter = new TokenIdBloomFilter(5_000, 0.001);
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 5_000; i++) {
+			String id = UUID.randomUUID().toString();
+			ids.add(id);
+			filter.put(id);
+		}
+		for (String id : ids) {
+			assertTrue(filter.mightContain(id));
+		}
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTargetAtCapacity() {
+		TokenIdBloomFilter filter = new TokenIdBloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put(UUID.randomUUID().toString());
+		}
+		int falsePositives = 0;
+		int probes = 100_000;
+		for (int i = 0; i < probes; i++) {
+			if (filter.mightContain(UUID.randomUUID().toString())) falsePositives++;
+		}
+		// Target 1 %; allow generous slack for randomness
+		assertTrue(falsePositives < probes * 0.02, "false positives: " + falsePositives);
+	}
+
+	@Test
+	void emptyFilterContainsNothing() {
+		TokenIdBloomFilter filter = new TokenIdBloomFilter(1024, 0.001);
+		assertFalse(filter.mightContain(UUID.randomUUID().toString()));
+		assertFalse(filter.isSaturated(1024));
+		assertTrue(filter.isSaturated(1025));
+	}
+
+	@Test
+	void rejectsInvalidSizing() {
+		assertThrows(IllegalArgumentException.class, () -> new TokenIdBloomFilter(0, 0.01));
+		assertThrows(IllegalArgumentException.class, () -> new TokenIdBloomFilter(100, 1.0));
+	}
+}
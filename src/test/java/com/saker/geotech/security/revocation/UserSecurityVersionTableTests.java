@@ -0,0 +1,168 @@
+package com.saker.geotech.security.revocation;
+
+import com.saker.geotech.entity.UserSecurityChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserSecurityVersionTableTests {
+
+	private AnnotationConfigApplicationContext context;
+	private UserSecurityVersionTable table;
+	private TransactionTemplate tx;
+
+	@BeforeEach
+	void start() {
+		context = new AnnotationConfigApplicationContext(TestConfig.class);
+		table = context.getBean(UserSecurityVersionTable.class);
+		tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+	}
+
+	@AfterEach
+	void stop() {
+		context.close();
+	}
+
+	@Test
+	void committedVersionBumpRefusesOlderTokens() {
+		tx.executeWithoutResult(status -> {
+			context.publishEvent(new UserSecurityChangedEvent(7L, Set.of("a@b.c"), 3, true));
+			assertTrue(table.accepts(7L, 2), "not applied before commit");
+		});
+
+		assertFalse(table.accepts(7L, 2));
+		assertTrue(table.accepts(7L, 3));
+		assertTrue(table.accepts(8L, 0)); // unknown users accept any version
+	}
+
+	@Test
+	void committedDeactivationRefusesEveryToken() {
+		tx.executeWithoutResult(status ->
+				context.publishEvent(new UserSecurityChangedEvent(7L, Set.of("a@b.c"), 3, false)));
+
+		assertFalse(table.accepts(7L, 3));
+		assertFalse(table.accepts(7L, Long.MAX_VALUE - 1));
+	}
+
+	@Test
+	void rolledBackChangeKeepsTokensValid() {
+		tx.executeWithoutResult(status -> {
+			context.publishEvent(new UserSecurityChangedEvent(7L, Set.of("a@b.c"), 3, false));
+			status.setRollbackOnly();
+		});
+
+		assertTrue(table.accepts(7L, 0));
+	}
+
+	@Test
+	void rowCommittedAfterAScanThatPassedItsStampIsPickedUp() {
+		UsersJdbc jdbc = new UsersJdbc();
+		UserSecurityVersionTable polled = new UserSecurityVersionTable(jdbc, true, 30_000);
+		jdbc.nowMs = 100_000;
+		polled.refresh();
+
+		// Stamped at 98 s by a transaction that commits at 101 s, after the scan at 100 s
+		jdbc.rows.add(new UserRow(7L, 3, true, 98_000, 101_000));
+		jdbc.nowMs = 130_000;
+		polled.refresh();
+
+		assertFalse(polled.accepts(7L, 2));
+		assertTrue(polled.accepts(7L, 3));
+	}
+
+	@Test
+	void fullScanStartsTheWatermarkFromTheDatabaseClock() {
+		UsersJdbc jdbc = new UsersJdbc();
+		UserSecurityVersionTable polled = new UserSecurityVersionTable(jdbc, true, 30_000);
+		jdbc.nowMs = 100_000;
+		jdbc.rows.add(new UserRow(7L, 1, false, 90_000, 90_000));
+		polled.refresh();
+		assertTrue(polled.isLoaded());
+		assertFalse(polled.accepts(7L, 5));
+
+		jdbc.nowMs = 200_000;
+		polled.refresh();
+		assertEquals(List.of(70_000L), jdbc.incrementalSince);
+	}
+
+	private record UserRow(long id, long securityVersion, boolean enabled, long updatedAtMs, long committedAtMs) {
+	}
+
+	/**
+	 * users rows with a commit time: scans only see rows committed at the current database time.
+	 */
+	private static final class UsersJdbc extends JdbcTemplate {
+
+		final List<UserRow> rows = new ArrayList<>();
+		final List<Long> incrementalSince = new ArrayList<>();
+		long nowMs;
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T queryForObject(String sql, Class<T> requiredType) {
+			return (T) new Timestamp(nowMs);
+		}
+
+		@Override
+		public void query(String sql, RowCallbackHandler rch) {
+			scan(rch, Long.MIN_VALUE);
+		}
+
+		@Override
+		public void query(String sql, RowCallbackHandler rch, Object... args) {
+			long since = ((Timestamp) args[0]).getTime();
+			incrementalSince.add(since);
+			scan(rch, since);
+		}
+
+		private void scan(RowCallbackHandler rch, long sinceMs) {
+			for (UserRow row : rows) {
+				if (row.committedAtMs() > nowMs || row.updatedAtMs() < sinceMs) continue;
+				Object[] columns = {row.id(), row.securityVersion(), row.enabled(), null};
+				ResultSet rs = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+						new Class<?>[]{ResultSet.class}, (proxy, method, a) -> columns[(Integer) a[0] - 1]);
+				try {
+					rch.processRow(rs);
+				} catch (SQLException ex) {
+					throw new IllegalStateException(ex);
+				}
+			}
+		}
+	}
+
+	@Configuration
+	@EnableTransactionManagement
+	static class TestConfig {
+
+		@Bean
+		PlatformTransactionManager transactionManager() {
+			return new ResourcelessTransactionManager();
+		}
+
+		@Bean
+		UserSecurityVersionTable userSecurityVersionTable() {
+			return new UserSecurityVersionTable(new JdbcTemplate(), true, 30_000);
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package com.saker.geotech.security.service;
+
+import com.saker.geotech.security.exception.LoginThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginRateLimiterTests {
+
+	@Test
+	void allowsBurstThenThrottlesAccount() {
+		LoginRateLimiter limiter = new LoginRateLimiter(new SimpleMeterRegistry(), 1, 3, 1000, 1000);
+
+		for (int i = 0; i < 3; i++) {
+			assertDoesNotThrow(() -> limiter.acquire("Tech@Lab.fr", "10.0.0." + 1));
+		}
+		LoginThrottledException ex = assertThrows(LoginThrottledException.class,
+				() -> limiter.acquire("tech@lab.fr", "10.0.0.2"));
+		assertEquals("TOO_MANY_ATTEMPTS", ex.getCode());
+		assertTrue(ex.getRetryAfterSeconds() > 0 && ex.getRetryAfterSeconds() <= 60);
+
+		assertDoesNotThrow(() -> limiter.acquire("other@lab.fr", "10.0.0.2"));
+	}
+
+	@Test
+	void throttlesAddressAcrossAccounts() {
+		LoginRateLimiter limiter = new LoginRateLimiter(new SimpleMeterRegistry(), 1000, 1000, 1, 2);
+
+		limiter.acquire("a@lab.fr", "10.0.0.9");
+		limiter.acquire("b@lab.fr", "10.0.0.9");
+		assertThrows(LoginThrottledException.class, () -> limiter.acquire("c@lab.fr", "10.0.0.9"));
+	}
+}
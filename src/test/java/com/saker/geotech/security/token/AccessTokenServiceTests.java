@@ -0,0 +1,120 @@
+package com.saker.geotech.security.token;
+
+import com.saker.geotech.entity.UserRole;
+import com.saker.geotech.security.service.SecurityUser;
+import com.saker.geotech.security.util.AccessKeyRing;
+import com.saker.geotech.security.util.JwtClaimsExtractor;
+import com.saker.geotech.security.util.JwtParserFactory;
+import com.saker.geotech.security.util.JwtSignatureKeys;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AccessTokenServiceTests {
+
+	private static final SecurityUser ALICE =
+			new SecurityUser(1L, "alice@example.com", "x", UserRole.TECHNICIAN, true, 4);
+
+	private final JwtSignatureKeys keys = new JwtSignatureKeys(
+			"test-access-secret-of-at-least-32-bytes", "test-refresh-secret-of-at-least-32-bytes");
+	private final AccessKeyRing ring = new AccessKeyRing("HS256", "unused", event -> { });
+	private final CountingExtractor extractor = new CountingExtractor(new JwtParserFactory(keys, ring));
+	private final VerifiedAccessTokenCache cache = new VerifiedAccessTokenCache(100);
+	private final AccessTokenService service = new AccessTokenService(
+			keys, ring, extractor, cache, new SimpleMeterRegistry(), 900_000);
+
+	@Test
+	void cacheHitReturnsTheSameClaimsWithoutParsing() {
+		String token = service.generate(ALICE);
+
+		VerifiedAccessToken first = service.verify(token);
+		VerifiedAccessToken second = service.verify(token);
+
+		assertSame(first, second);
+		assertEquals(1, extractor.parsed);
+		assertEquals(1L, second.userId());
+		assertEquals(4L, second.securityVersion());
+	}
+
+	@Test
+	void entryExpiresAtTheTokenExp() throws InterruptedException {
+		ByteBuffer digest = VerifiedAccessTokenCache.digest("token");
+		long now = System.currentTimeMillis();
+		cache.put(digest, new VerifiedAccessToken("jti", "alice@example.com", now, now + 200, 1L, "TECHNICIAN", 4L));
+		assertEquals("jti", cache.get(digest).tokenId());
+
+		Thread.sleep(300);
+
+		assertNull(cache.get(digest));
+	}
+
+	@Test
+	void expiredTokenIsNotCached() {
+		ByteBuffer digest = VerifiedAccessTokenCache.digest("token");
+		long now = System.currentTimeMillis();
+		cache.put(digest, new VerifiedAccessToken("jti", "alice@example.com", now - 2000, now - 1000, 1L, "TECHNICIAN", 4L));
+
+		assertNull(cache.get(digest));
+	}
+
+	@Test
+	void tamperedTokenMissesTheCacheAndFailsVerification() {
+		String token = service.generate(ALICE);
+		service.verify(token);
+
+		int signature = token.lastIndexOf('.') + 1;
+		char replaced = token.charAt(signature) == 'A' ? 'B' : 'A';
+		String tampered = token.substring(0, signature) + replaced + token.substring(signature + 1);
+
+		assertThrows(SignatureException.class, () -> service.verify(tampered));
+		assertEquals(2, extractor.parsed);
+	}
+
+	@Test
+	void differentTokenMissesTheCache() {
+		VerifiedAccessToken first = service.verify(service.generate(ALICE));
+		VerifiedAccessToken second = service.verify(service.generate(ALICE));
+
+		assertEquals(2, extractor.parsed);
+		assertNotEquals(first.tokenId(), second.tokenId());
+	}
+
+	@Test
+	void retiredKeysInvalidateTheCache() {
+		String token = service.generate(ALICE);
+		VerifiedAccessToken first = service.verify(token);
+
+		cache.onAccessKeysRetired(new AccessKeyRing.AccessKeysRetiredEvent("2026-10"));
+		VerifiedAccessToken second = service.verify(token);
+
+		assertEquals(2, extractor.parsed);
+		assertEquals(first, second);
+	}
+
+	/**
+	 * Counts signature checks: a cache hit must not reach the parser.
+	 */
+	private static final class CountingExtractor extends JwtClaimsExtractor {
+
+		int parsed;
+
+		CountingExtractor(JwtParserFactory parsers) {
+			super(parsers);
+		}
+
+		@Override
+		public Claims accessClaims(String token) {
+			parsed++;
+			return super.accessClaims(token);
+		}
+	}
+}
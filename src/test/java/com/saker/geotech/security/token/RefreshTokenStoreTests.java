@@ -0,0 +1,143 @@
+package com.saker.geotech.security.token;
+
+import com.saker.geotech.entity.RefreshToken;
+import com.saker.geotech.entity.UserRole;
+import com.saker.geotech.repository.RefreshTokenDao;
+import com.saker.geotech.security.exception.JwtAuthenticationException;
+import com.saker.geotech.security.exception.RefreshTokenReuseException;
+import com.saker.geotech.security.exception.TokenExpiredException;
+import com.saker.geotech.security.service.SecurityUser;
+import com.saker.geotech.security.util.AccessKeyRing;
+import com.saker.geotech.security.util.JwtClaimsExtractor;
+import com.saker.geotech.security.util.JwtParserFactory;
+import com.saker.geotech.security.util.JwtSignatureKeys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RefreshTokenStoreTests {
+
+	private static final SecurityUser ALICE =
+			new SecurityUser(1L, "alice@example.com", "x", UserRole.TECHNICIAN, true, 0);
+
+	private final InMemoryTokens tokens = new InMemoryTokens();
+
+	@Test
+	void rotationKeepsTheFamilyAndConsumesEachTokenOnce() {
+		RefreshTokenStore store = store(1_209_600_000L);
+		String first = store.issue(ALICE);
+
+		RefreshToken consumed = store.consume(first);
+		String second = store.issue(ALICE, consumed.getFamilyId());
+		RefreshToken next = store.consume(second);
+
+		assertEquals(consumed.getFamilyId(), next.getFamilyId());
+		assertEquals(ALICE.getId(), next.getUserId());
+		assertTrue(tokens.rows.stream().allMatch(RefreshToken::isRotated));
+		assertFalse(tokens.rows.stream().anyMatch(RefreshToken::isRevoked));
+	}
+
+	@Test
+	void reusingARotatedTokenRevokesTheWholeFamily() {
+		RefreshTokenStore store = store(1_209_600_000L);
+		String stolen = store.issue(ALICE);
+		String successor = store.issue(ALICE, store.consume(stolen).getFamilyId());
+		String otherSession = store.issue(ALICE);
+
+		RefreshTokenReuseException reuse = assertThrows(RefreshTokenReuseException.class, () -> store.consume(stolen));
+		assertEquals(ALICE.getId(), reuse.getUserId());
+
+		JwtAuthenticationException revoked = assertThrows(JwtAuthenticationException.class,
+				() -> store.consume(successor));
+		assertEquals("Refresh token revoked", revoked.getMessage());
+		store.consume(otherSession); // other families are untouched
+	}
+
+	@Test
+	void expiredTokenIsRejectedWithoutRotatingIt() {
+		// Expired a second ago: still inside the parser's clock skew, so the stored expiry decides
+		RefreshTokenStore store = store(-1_000L);
+		String expired = store.issue(ALICE);
+
+		assertThrows(TokenExpiredException.class, () -> store.consume(expired));
+		assertFalse(tokens.rows.get(0).isRotated());
+		assertFalse(tokens.rows.get(0).isRevoked());
+	}
+
+	@Test
+	void tokenPastTheClockSkewIsRejectedByTheParser() {
+		RefreshTokenStore store = store(-120_000L);
+		String expired = store.issue(ALICE);
+
+		assertThrows(TokenExpiredException.class, () -> store.consume(expired));
+		assertFalse(tokens.rows.get(0).isRotated());
+	}
+
+	private RefreshTokenStore store(long refreshTtlMs) {
+		JwtSignatureKeys keys = new JwtSignatureKeys(
+				"test-access-secret-of-at-least-32-bytes", "test-refresh-secret-of-at-least-32-bytes");
+		AccessKeyRing ring = new AccessKeyRing("HS256", "unused", event -> { });
+		JwtClaimsExtractor extractor = new JwtClaimsExtractor(new JwtParserFactory(keys, ring));
+		RefreshTokenService service = new RefreshTokenService(keys, extractor, new SimpleMeterRegistry(), refreshTtlMs);
+		return new RefreshTokenStore(tokens.dao(), service);
+	}
+
+	/**
+	 * The handful of RefreshTokenDao queries the store uses, over a list of rows.
+	 */
+	private static final class InMemoryTokens {
+
+		final List<RefreshToken> rows = new ArrayList<>();
+
+		RefreshTokenDao dao() {
+			return (RefreshTokenDao) Proxy.newProxyInstance(RefreshTokenDao.class.getClassLoader(),
+					new Class<?>[]{RefreshTokenDao.class}, (proxy, method, args) -> switch (method.getName()) {
+						case "save" -> save((RefreshToken) args[0]);
+						case "findByTokenHash" -> findByTokenHash((byte[]) args[0]);
+						case "markRotated" -> markRotated((Long) args[0], (Instant) args[1]);
+						case "revokeFamily" -> revokeFamily((String) args[0]);
+						default -> throw new UnsupportedOperationException(method.getName());
+					});
+		}
+
+		private RefreshToken save(RefreshToken token) {
+			ReflectionTestUtils.setField(token, "id", (long) rows.size() + 1);
+			rows.add(token);
+			return token;
+		}
+
+		private Optional<RefreshToken> findByTokenHash(byte[] hash) {
+			return rows.stream().filter(t -> Arrays.equals(t.getTokenHash(), hash)).findFirst();
+		}
+
+		private int markRotated(Long id, Instant now) {
+			RefreshToken token = rows.get((int) (id - 1));
+			if (token.isRotated() || token.isRevoked()) return 0;
+			ReflectionTestUtils.setField(token, "rotatedAt", now);
+			return 1;
+		}
+
+		private int revokeFamily(String familyId) {
+			int revoked = 0;
+			for (RefreshToken token : rows) {
+				if (token.getFamilyId().equals(familyId) && !token.isRevoked()) {
+					ReflectionTestUtils.setField(token, "revoked", true);
+					revoked++;
+				}
+			}
+			return revoked;
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package com.saker.geotech.security.util;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtParserFactoryTests {
+
+	@TempDir
+	Path keyDir;
+
+	private KeyPair previous;
+	private KeyPair current;
+	private JwtParser parser;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		previous = writePair("2026-09");
+		current = writePair("2026-10");
+		AccessKeyRing ring = new AccessKeyRing(AccessKeyRing.ES256, keyDir.toString(), event -> { });
+		JwtSignatureKeys hmac = new JwtSignatureKeys(
+				"test-access-secret-of-at-least-32-bytes", "test-refresh-secret-of-at-least-32-bytes");
+		parser = new JwtParserFactory(hmac, ring).accessParser();
+	}
+
+	@Test
+	void everyPublishedKidVerifies() {
+		assertEquals("alice", subject(token("2026-10", current.getPrivate())));
+		assertEquals("alice", subject(token("2026-09", previous.getPrivate())));
+	}
+
+	@Test
+	void unknownOrMissingKidIsRejected() {
+		assertThrows(SignatureException.class, () -> subject(token("2026-08", current.getPrivate())));
+		assertThrows(SignatureException.class, () -> subject(token(null, current.getPrivate())));
+	}
+
+	@Test
+	void kidMustMatchTheSigningKey() {
+		assertThrows(SignatureException.class, () -> subject(token("2026-10", previous.getPrivate())));
+	}
+
+	private String subject(String token) {
+		return parser.parseClaimsJws(token).getBody().getSubject();
+	}
+
+	private static String token(String kid, PrivateKey key) {
+		var builder = Jwts.builder().setSubject("alice");
+		if (kid != null) builder.setHeaderParam("kid", kid);
+		return builder.signWith(key, SignatureAlgorithm.ES256).compact();
+	}
+
+	private KeyPair writePair(String kid) throws GeneralSecurityException, IOException {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+		generator.initialize(new ECGenParameterSpec("secp256r1"));
+		KeyPair pair = generator.generateKeyPair();
+		Files.writeString(keyDir.resolve(kid + ".pub.pem"), pem("PUBLIC KEY", pair.getPublic().getEncoded()));
+		Files.writeString(keyDir.resolve(kid + ".key.pem"), pem("PRIVATE KEY", pair.getPrivate().getEncoded()));
+		return pair;
+	}
+
+	private static String pem(String type, byte[] der) {
+		return "-----BEGIN " + type + "-----\n"
+				+ Base64.getMimeEncoder(64, new byte[]{'\n'}).encodeToString(der)
+				+ "\n-----END " + type + "-----\n";
+	}
+}
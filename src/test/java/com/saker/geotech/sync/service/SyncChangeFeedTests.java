@@ -0,0 +1,115 @@
+package com.saker.geotech.sync.service;
+
+import com.saker.geotech.sync.dto.SyncBatchDto;
+import com.saker.geotech.sync.dto.SyncChangeDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyncChangeFeedTests {
+
+	@Test
+	void rowCommittedBehindTheCursorIsDeliveredByTheNextSweep() {
+		SourcesJdbc jdbc = new SourcesJdbc();
+		SyncChangeFeed feed = new SyncChangeFeed(jdbc, 30_000, 500, 2000);
+		jdbc.rows.add(new SourceRow(1L, 90, 90));
+		jdbc.nowSeconds = 100;
+		SyncBatchDto first = feed.changes(10L, null, null);
+		assertEquals(List.of(1L), ids(first));
+		assertFalse(first.hasMore());
+
+		// Stamped at 85 s by a transaction that commits at 101 s, after the batch above
+		jdbc.rows.add(new SourceRow(2L, 85, 101));
+		jdbc.nowSeconds = 110;
+		SyncBatchDto second = feed.changes(10L, first.cursor(), null);
+
+		assertEquals(List.of(2L, 1L), ids(second), "late row, then the overlap re-read");
+	}
+
+	@Test
+	void pagesOnlyMoveForwardUntilTheSweepEnds() {
+		SourcesJdbc jdbc = new SourcesJdbc();
+		SyncChangeFeed feed = new SyncChangeFeed(jdbc, 30_000, 500, 2000);
+		for (long id = 1; id <= 3; id++) jdbc.rows.add(new SourceRow(id, 90, 90));
+		jdbc.nowSeconds = 100;
+
+		SyncBatchDto page1 = feed.changes(10L, null, 2);
+		assertTrue(page1.hasMore());
+		SyncBatchDto page2 = feed.changes(10L, page1.cursor(), 2);
+
+		assertEquals(List.of(1L, 2L), ids(page1));
+		assertEquals(List.of(3L), ids(page2));
+		assertFalse(page2.hasMore());
+	}
+
+	private static List<Long> ids(SyncBatchDto batch) {
+		return batch.changes().stream().map(SyncChangeDto::id).toList();
+	}
+
+	private record SourceRow(long id, long updatedAtSeconds, long committedAtSeconds) {
+	}
+
+	/**
+	 * sample_sources rows of project 10 with a commit time; every other type is empty.
+	 */
+	private static final class SourcesJdbc extends JdbcTemplate {
+
+		final List<SourceRow> rows = new ArrayList<>();
+		long nowSeconds;
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T queryForObject(String sql, Class<T> requiredType) {
+			return (T) new Timestamp(nowSeconds * 1000 + 400);
+		}
+
+		@Override
+		public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+			if (!sql.contains("FROM sample_sources ss\n")) return List.of();
+			long horizon = ((Timestamp) args[1]).getTime() / 1000;
+			boolean first = args.length == 3;
+			long after = first ? -1 : ((Timestamp) args[2]).getTime() / 1000;
+			long afterId = first ? 0 : (Long) args[4];
+			int limit = (Integer) args[args.length - 1];
+
+			List<T> page = new ArrayList<>();
+			List<SourceRow> visible = rows.stream()
+					.filter(r -> r.committedAtSeconds() <= nowSeconds && r.updatedAtSeconds() < horizon)
+					.filter(r -> r.updatedAtSeconds() > after || (r.updatedAtSeconds() == after && r.id() > afterId))
+					.sorted(Comparator.comparingLong(SourceRow::updatedAtSeconds).thenComparingLong(SourceRow::id))
+					.limit(limit)
+					.toList();
+			try {
+				for (SourceRow row : visible) page.add(rowMapper.mapRow(resultSet(row), page.size()));
+			} catch (SQLException ex) {
+				throw new IllegalStateException(ex);
+			}
+			return page;
+		}
+
+		private static ResultSet resultSet(SourceRow row) {
+			ResultSetMetaData meta = (ResultSetMetaData) Proxy.newProxyInstance(ResultSetMetaData.class.getClassLoader(),
+					new Class<?>[]{ResultSetMetaData.class}, (proxy, method, args) -> 4);
+			Object[] columns = {row.id(), 10L, null, new Timestamp(row.updatedAtSeconds() * 1000)};
+			return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+					new Class<?>[]{ResultSet.class}, (proxy, method, args) -> switch (method.getName()) {
+						case "wasNull" -> false;
+						case "getMetaData" -> meta;
+						default -> columns[(Integer) args[0] - 1];
+					});
+		}
+	}
+}
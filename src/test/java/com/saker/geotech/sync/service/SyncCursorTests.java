@@ -0,0 +1,43 @@
+package com.saker.geotech.sync.service;
+
+import com.saker.geotech.sync.SyncEntity;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyncCursorTests {
+
+	@Test
+	void roundTripsEveryEntityPosition() {
+		SyncCursor cursor = SyncCursor.start()
+				.advance(SyncEntity.PROJECT, 1_741_944_413L, 7L)
+				.advance(SyncEntity.PS_TEST, 1_741_944_500L, 4242L);
+
+		SyncCursor decoded = SyncCursor.decode(cursor.encode());
+		assertEquals(cursor, decoded);
+		assertEquals(4242L, decoded.id(SyncEntity.PS_TEST));
+		assertFalse(decoded.isStart(SyncEntity.PROJECT));
+		assertTrue(decoded.isStart(SyncEntity.SAMPLE));
+	}
+
+	@Test
+	void missingCursorStartsFromScratch() {
+		assertEquals(SyncCursor.start(), SyncCursor.decode(null));
+		assertEquals(SyncCursor.start(), SyncCursor.decode(" "));
+	}
+
+	@Test
+	void rejectsTamperedValues() {
+		assertThrows(IllegalArgumentException.class, () -> SyncCursor.decode("not-a-cursor"));
+		assertThrows(IllegalArgumentException.class, () -> SyncCursor.decode("%%%"));
+		String negative = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString("v1:-1.0:0.0:0.0:0.0:0.0:0.0".getBytes(StandardCharsets.US_ASCII));
+		assertThrows(IllegalArgumentException.class, () -> SyncCursor.decode(negative));
+	}
+}
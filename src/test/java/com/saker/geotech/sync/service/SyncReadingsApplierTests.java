@@ -0,0 +1,127 @@
+package com.saker.geotech.sync.service;
+
+import com.saker.geotech.granulometry.dto.PsResultDto;
+import com.saker.geotech.sync.SyncItemOutcome;
+import com.saker.geotech.sync.dto.SyncItemResultDto;
+import com.saker.geotech.sync.dto.SyncReadingsItemDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SyncReadingsApplierTests {
+
+	private static final PsResultDto STORED = new PsResultDto(7L, 1200.0, 12.5, 0.08, 0.4, 2.1, 26.3, 0.95);
+
+	@Test
+	void retryAfterApprovalIsAnsweredFromTheStoredResults() {
+		KeysJdbc jdbc = new KeysJdbc("APPROVED");
+		jdbc.committed.put("k1", new long[]{3L, 7L});
+
+		SyncItemResultDto result = applier(jdbc).apply(10L, 3L, item("k1", 7L));
+
+		assertEquals(SyncItemOutcome.DUPLICATE, result.outcome());
+		assertSame(STORED, result.result());
+	}
+
+	@Test
+	void newUploadToAnApprovedRunIsAConflict() {
+		KeysJdbc jdbc = new KeysJdbc("APPROVED");
+
+		SyncItemResultDto result = applier(jdbc).apply(10L, 3L, item("k1", 7L));
+
+		assertEquals(SyncItemOutcome.CONFLICT, result.outcome());
+		assertEquals(Map.of(), jdbc.committed);
+	}
+
+	@Test
+	void keyCommittedByAConcurrentUploadIsADuplicate() {
+		KeysJdbc jdbc = new KeysJdbc("IN_PROGRESS");
+		// Not in this transaction's snapshot, but its INSERT hits the committed row
+		jdbc.concurrent.put("k1", new long[]{3L, 7L});
+
+		SyncItemResultDto result = applier(jdbc).apply(10L, 3L, item("k1", 7L));
+
+		assertEquals(SyncItemOutcome.DUPLICATE, result.outcome());
+		assertSame(STORED, result.result());
+	}
+
+	@Test
+	void keyReusedForAnotherTestIsAConflict() {
+		KeysJdbc jdbc = new KeysJdbc("IN_PROGRESS");
+		jdbc.committed.put("k1", new long[]{3L, 8L});
+
+		SyncItemResultDto result = applier(jdbc).apply(10L, 3L, item("k1", 7L));
+
+		assertEquals(SyncItemOutcome.CONFLICT, result.outcome());
+	}
+
+	private static SyncReadingsApplier applier(KeysJdbc jdbc) {
+		// Every case above is answered before the readings would be saved
+		return new SyncReadingsApplier(jdbc, null);
+	}
+
+	private static SyncReadingsItemDto item(String key, long psTestId) {
+		return new SyncReadingsItemDto(key, psTestId, List.of());
+	}
+
+	/**
+	 * sync_idempotency_keys rows (user id, test id) by key, and the status of the uploaded test's run.
+	 */
+	private static final class KeysJdbc extends JdbcTemplate {
+
+		final Map<String, long[]> committed = new HashMap<>();
+		final Map<String, long[]> concurrent = new HashMap<>();
+		final String status;
+
+		KeysJdbc(String status) {
+			this.status = status;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+			return (List<T>) List.of(status);
+		}
+
+		@Override
+		public List<Map<String, Object>> queryForList(String sql, Object... args) {
+			long[] row = committed.get((String) args[0]);
+			return row == null ? List.of() : List.of(keyRow(row));
+		}
+
+		@Override
+		public Map<String, Object> queryForMap(String sql, Object... args) {
+			// Only the locking read sees the concurrent commit
+			String key = (String) args[0];
+			return keyRow(sql.contains("FOR SHARE") && concurrent.containsKey(key) ? concurrent.get(key) : committed.get(key));
+		}
+
+		@Override
+		public int update(String sql, Object... args) {
+			String key = (String) args[0];
+			if (committed.containsKey(key) || concurrent.containsKey(key)) {
+				throw new DuplicateKeyException("Duplicate entry '" + key + "' for key 'PRIMARY'");
+			}
+			committed.put(key, new long[]{(Long) args[1], (Long) args[2]});
+			return 1;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+			return (List<T>) List.of(STORED);
+		}
+
+		private static Map<String, Object> keyRow(long[] row) {
+			return Map.of("user_id", row[0], "ps_test_id", row[1]);
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package com.saker.geotech.testrun;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestRunActionTests {
+
+	@Test
+	void approvedIsFinal() {
+		for (TestRunAction action : TestRunAction.values()) {
+			assertFalse(action.allowedFrom(TestRunStatus.APPROVED), action.name());
+		}
+	}
+
+	@Test
+	void onlySubmittedRunsAreReviewed() {
+		for (TestRunStatus status : TestRunStatus.values()) {
+			assertEquals(status == TestRunStatus.SUBMITTED, TestRunAction.APPROVE.allowedFrom(status));
+			assertEquals(status == TestRunStatus.SUBMITTED, TestRunAction.REJECT.allowedFrom(status));
+		}
+		assertTrue(TestRunAction.APPROVE.isReview());
+		assertTrue(TestRunAction.REJECT.isReview());
+		assertFalse(TestRunAction.SUBMIT.isReview());
+	}
+
+	@Test
+	void rejectedRunsGoBackToDraft() {
+		assertArrayEquals(new TestRunStatus[]{TestRunStatus.REJECTED}, TestRunAction.REOPEN.sources());
+		assertEquals(TestRunStatus.DRAFT, TestRunAction.REOPEN.target());
+	}
+}
@@ -0,0 +1,46 @@
+package com.saker.geotech.testtype;
+
+import com.saker.geotech.granulometry.service.GntTestTypeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestTypeRegistryTests {
+
+	private static final TestTypeContext NO_BEANS = new TestTypeContext() {
+		@Override
+		public <T> T bean(Class<T> type) {
+			return null;
+		}
+
+		@Override
+		public ApplicationEventPublisher events() {
+			return event -> {
+			};
+		}
+	};
+
+	@Test
+	void discoversModulesWithoutInstantiatingThem() {
+		TestTypeRegistry registry = new TestTypeRegistry(NO_BEANS, getClass().getClassLoader());
+
+		TestTypeRegistry.LazyModule gnt = registry.modules().get(GntTestTypeModule.TEST_TYPE);
+		assertFalse(gnt.isInitialized());
+
+		TestTypeModule<?, ?> module = registry.module(GntTestTypeModule.TEST_TYPE);
+		assertInstanceOf(GntTestTypeModule.class, module);
+		assertTrue(gnt.isInitialized());
+		assertSame(module, registry.module(GntTestTypeModule.TEST_TYPE));
+	}
+
+	@Test
+	void unknownTypeHasNoModule() {
+		TestTypeRegistry registry = new TestTypeRegistry(NO_BEANS, getClass().getClassLoader());
+		assertNull(registry.module("WATER_CONTENT"));
+	}
+}